@@ -0,0 +1,63 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.application.admission;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration of the admission of the generations.
+ *
+ * @param maxConcurrent    the maximum number of generations running at the same time.
+ * @param maxPerPrincipal  the maximum number of generations of a single principal running at the same time, 0
+ *                         disables the quota.
+ * @param maxQueued        the maximum number of generations waiting for a slot, the next ones are rejected at once.
+ * @param queueTimeout     the maximum time a generation waits for a slot.
+ * @param minFreeHeapBytes the heap which must be available to admit a generation, 0 disables the check.
+ * @param minFreeDiskBytes the space which must be available in {@code diskPath} to admit a generation, 0 disables
+ *                         the check.
+ * @param diskPath         the directory where the generations write their working directories.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public record AdmissionConfiguration( int maxConcurrent,
+                                      int maxPerPrincipal,
+                                      int maxQueued,
+                                      Duration queueTimeout,
+                                      long minFreeHeapBytes,
+                                      long minFreeDiskBytes,
+                                      Path diskPath ) {
+
+  public AdmissionConfiguration {
+    if ( maxConcurrent < 1 ) {
+      throw new IllegalArgumentException( "At least one generation must be admitted at the same time" );
+    }
+    if ( maxPerPrincipal < 0 ) {
+      throw new IllegalArgumentException( "The quota of a principal cannot be negative" );
+    }
+    if ( maxQueued < 0 ) {
+      throw new IllegalArgumentException( "The number of queued generations cannot be negative" );
+    }
+  }
+}
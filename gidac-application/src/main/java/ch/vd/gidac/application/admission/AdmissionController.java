@@ -0,0 +1,400 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.application.admission;
+
+import ch.vd.gidac.application.generatepdf.GeneratePdfRequest;
+import ch.vd.gidac.application.generatepdf.Priority;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Controller admitting the generations on the host.
+ *
+ * <p>A generation is admitted when a slot is available. It waits for a slot in a bounded queue, for a bounded time.
+ * Before waiting, the controller checks the free heap and the free space of the working directories: when the host
+ * lacks resources, the generation is rejected at once instead of slowing down every running one.</p>
+ *
+ * <p>When a slot is released, it is granted to the waiting generation with the highest {@link Priority}. Between
+ * generations of the same priority, the slot goes to the principal with the fewest generations running (fair share),
+ * then to the oldest generation. A principal never runs more generations than its quota, so a single batch cannot
+ * take all the slots.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class AdmissionController {
+
+  private static final Logger log = LogManager.getLogger( AdmissionController.class );
+
+  private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds( 5 );
+
+  private final AdmissionConfiguration configuration;
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final Condition granted = lock.newCondition();
+
+  /**
+   * The waiting generations, in arrival order.
+   */
+  private final List<Ticket> queue = new ArrayList<>();
+
+  /**
+   * The number of generations running per principal.
+   */
+  private final Map<String, Integer> running = new HashMap<>();
+
+  private final Comparator<Ticket> order = Comparator
+      .comparing( Ticket::priority )
+      .thenComparingInt( ticket -> running.getOrDefault( ticket.principal(), 0 ) )
+      .thenComparingLong( Ticket::sequence );
+
+  private int active;
+
+  private long sequence;
+
+  private final AtomicLong rejected = new AtomicLong();
+
+  private final AtomicLong completed = new AtomicLong();
+
+  private final AtomicLong totalDurationNanos = new AtomicLong();
+
+  private final LongSupplier freeHeap;
+
+  private final LongSupplier freeDisk;
+
+  public AdmissionController( final AdmissionConfiguration configuration ) {
+    this( configuration, AdmissionController::freeHeap, () -> freeDisk( configuration ) );
+  }
+
+  /**
+   * Create a new controller.
+   *
+   * @param configuration the configuration of the admission.
+   * @param freeHeap      the supplier of the heap available, in bytes.
+   * @param freeDisk      the supplier of the space available for the working directories, in bytes.
+   */
+  public AdmissionController( final AdmissionConfiguration configuration,
+                              final LongSupplier freeHeap,
+                              final LongSupplier freeDisk ) {
+    this.configuration = configuration;
+    this.freeHeap = freeHeap;
+    this.freeDisk = freeDisk;
+  }
+
+  /**
+   * Admit an interactive generation of an anonymous principal, waiting for a slot if necessary.
+   *
+   * @return the permit of the generation, it must be closed once the generation is done.
+   *
+   * @throws AdmissionRejectedException thrown if the generation is not admitted.
+   */
+  public Permit admit() {
+    return admit( GeneratePdfRequest.ANONYMOUS, Priority.INTERACTIVE );
+  }
+
+  /**
+   * Admit a generation, waiting for a slot if necessary.
+   *
+   * @param principal the principal which requested the generation.
+   * @param priority  the priority of the generation.
+   *
+   * @return the permit of the generation, it must be closed once the generation is done.
+   *
+   * @throws AdmissionRejectedException thrown if the generation is not admitted.
+   */
+  public Permit admit( final String principal, final Priority priority ) {
+    checkResources();
+    lock.lock();
+    try {
+      final var ticket = new Ticket( principal, priority, sequence++ );
+      final var queueFull = queue.size() >= configuration.maxQueued();
+      queue.add( ticket );
+      dispatch();
+      if ( ticket.isGranted() ) {
+        return new Permit( principal, System.nanoTime() );
+      }
+      if ( queueFull ) {
+        // the generation is only admitted if a slot is free right now.
+        queue.remove( ticket );
+        throw reject( "Too many generations are waiting", AdmissionRejectedException.Reason.QUEUE_FULL );
+      }
+      await( ticket );
+      return new Permit( principal, System.nanoTime() );
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Wait until the ticket is granted, the lock must be held.
+   *
+   * @param ticket the ticket of the generation.
+   */
+  private void await( final Ticket ticket ) {
+    var remaining = configuration.queueTimeout().toNanos();
+    try {
+      while ( !ticket.isGranted() ) {
+        if ( remaining <= 0 ) {
+          queue.remove( ticket );
+          throw reject( "No generation slot became available in " + configuration.queueTimeout(),
+              AdmissionRejectedException.Reason.TIMEOUT );
+        }
+        remaining = granted.awaitNanos( remaining );
+      }
+    } catch ( final InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      if ( ticket.isGranted() ) {
+        // the slot has been granted meanwhile, it is given back.
+        release( ticket.principal() );
+      } else {
+        queue.remove( ticket );
+      }
+      throw reject( "The wait for a generation slot has been interrupted",
+          AdmissionRejectedException.Reason.TIMEOUT );
+    }
+  }
+
+  /**
+   * Grant the free slots to the waiting generations, the lock must be held.
+   */
+  private void dispatch() {
+    var changed = false;
+    while ( active < configuration.maxConcurrent() ) {
+      final var next = queue.stream()
+          .filter( this::withinQuota )
+          .min( order );
+      if ( next.isEmpty() ) {
+        break;
+      }
+      final var ticket = next.get();
+      queue.remove( ticket );
+      ticket.grant();
+      active++;
+      running.merge( ticket.principal(), 1, Integer::sum );
+      changed = true;
+    }
+    if ( changed ) {
+      granted.signalAll();
+    }
+  }
+
+  private boolean withinQuota( final Ticket ticket ) {
+    return configuration.maxPerPrincipal() == 0
+        || running.getOrDefault( ticket.principal(), 0 ) < configuration.maxPerPrincipal();
+  }
+
+  private void release( final String principal ) {
+    lock.lock();
+    try {
+      active--;
+      running.computeIfPresent( principal, ( key, count ) -> count > 1 ? count - 1 : null );
+      dispatch();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void checkResources() {
+    if ( configuration.minFreeHeapBytes() > 0 && freeHeap.getAsLong() < configuration.minFreeHeapBytes() ) {
+      throw reject( "The heap available is too low", AdmissionRejectedException.Reason.LOW_MEMORY );
+    }
+    if ( configuration.minFreeDiskBytes() > 0 && freeDisk.getAsLong() < configuration.minFreeDiskBytes() ) {
+      throw reject( "The space available for the working directories is too low",
+          AdmissionRejectedException.Reason.LOW_DISK );
+    }
+  }
+
+  private AdmissionRejectedException reject( final String message, final AdmissionRejectedException.Reason reason ) {
+    rejected.incrementAndGet();
+    log.warn( "Generation rejected ({}): {}", reason, message );
+    return new AdmissionRejectedException( message, reason, retryAfter() );
+  }
+
+  /**
+   * Estimate the delay before a slot becomes available, based on the mean duration of the generations.
+   *
+   * @return the estimated delay, at least one second.
+   */
+  public Duration retryAfter() {
+    final var done = completed.get();
+    if ( done == 0 ) {
+      return DEFAULT_RETRY_AFTER;
+    }
+    final var meanNanos = totalDurationNanos.get() / done;
+    final var pending = getWaiting() + getActive();
+    final var waitNanos = meanNanos * pending / configuration.maxConcurrent();
+    return Duration.ofSeconds( Math.max( 1, TimeUnit.NANOSECONDS.toSeconds( waitNanos ) + 1 ) );
+  }
+
+  /**
+   * Get the number of generations running.
+   *
+   * @return the number of slots in use.
+   */
+  public int getActive() {
+    lock.lock();
+    try {
+      return active;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Get the number of generations of a principal running.
+   *
+   * @param principal the principal.
+   *
+   * @return the number of slots in use by the principal.
+   */
+  public int getActive( final String principal ) {
+    lock.lock();
+    try {
+      return running.getOrDefault( principal, 0 );
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Get the number of generations waiting for a slot.
+   *
+   * @return the number of waiting generations.
+   */
+  public int getWaiting() {
+    lock.lock();
+    try {
+      return queue.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Get the number of generations rejected since the start.
+   *
+   * @return the number of rejections.
+   */
+  public long getRejected() {
+    return rejected.get();
+  }
+
+  private static long freeHeap() {
+    final var runtime = Runtime.getRuntime();
+    return runtime.maxMemory() - ( runtime.totalMemory() - runtime.freeMemory() );
+  }
+
+  private static long freeDisk( final AdmissionConfiguration configuration ) {
+    if ( null == configuration.diskPath() ) {
+      return Long.MAX_VALUE;
+    }
+    try {
+      return Files.getFileStore( configuration.diskPath() ).getUsableSpace();
+    } catch ( final IOException e ) {
+      log.debug( "The space available in {} cannot be read", configuration.diskPath(), e );
+      return Long.MAX_VALUE;
+    }
+  }
+
+  /**
+   * A generation waiting for a slot.
+   */
+  private static final class Ticket {
+
+    private final String principal;
+
+    private final Priority priority;
+
+    private final long sequence;
+
+    private boolean granted;
+
+    private Ticket( final String principal, final Priority priority, final long sequence ) {
+      this.principal = principal;
+      this.priority = priority;
+      this.sequence = sequence;
+    }
+
+    String principal() {
+      return principal;
+    }
+
+    Priority priority() {
+      return priority;
+    }
+
+    long sequence() {
+      return sequence;
+    }
+
+    boolean isGranted() {
+      return granted;
+    }
+
+    void grant() {
+      granted = true;
+    }
+  }
+
+  /**
+   * Slot granted to a generation, it is released once closed.
+   */
+  public final class Permit implements AutoCloseable {
+
+    private final String principal;
+
+    private final long admittedAt;
+
+    private final AtomicBoolean released = new AtomicBoolean( false );
+
+    private Permit( final String principal, final long admittedAt ) {
+      this.principal = principal;
+      this.admittedAt = admittedAt;
+    }
+
+    @Override
+    public void close() {
+      if ( released.compareAndSet( false, true ) ) {
+        totalDurationNanos.addAndGet( System.nanoTime() - admittedAt );
+        completed.incrementAndGet();
+        release( principal );
+      }
+    }
+  }
+}
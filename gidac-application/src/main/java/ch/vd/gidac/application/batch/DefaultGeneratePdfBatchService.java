@@ -0,0 +1,222 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.application.batch;
+
+import ch.vd.gidac.application.generatepdf.DefaultGeneratePdfRequestHandler;
+import ch.vd.gidac.application.generatepdf.GeneratePdfRequest;
+import ch.vd.gidac.application.generatepdf.GeneratePdfRequestHandler;
+import ch.vd.gidac.application.generatepdf.GeneratePdfResponse;
+import ch.vd.gidac.domain.core.concurrent.ContextPropagatingThreadPoolExecutor;
+import ch.vd.gidac.domain.core.concurrent.ThreadFactories;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Default batch service: the requests of all the batches are run by a fixed number of workers.
+ *
+ * <p>The workers only bound the requests of the batches handled at the same time, the generations themselves are
+ * still admitted by the handler like the single requests.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class DefaultGeneratePdfBatchService implements GeneratePdfBatchService, AutoCloseable {
+
+  private static final Logger log = LogManager.getLogger( DefaultGeneratePdfBatchService.class );
+
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+  private final GeneratePdfRequestHandler requestHandler;
+
+  private final ThreadPoolExecutor executor;
+
+  private final int maxSize;
+
+  /**
+   * Create a new service.
+   *
+   * @param requestHandler the handler which generates the pdfs.
+   * @param workers        the number of requests run at the same time.
+   * @param maxSize        the maximum number of requests of a batch.
+   */
+  public DefaultGeneratePdfBatchService( final GeneratePdfRequestHandler requestHandler,
+                                         final int workers,
+                                         final int maxSize ) {
+    this( requestHandler, workers, maxSize, ThreadFactories.platform( "gidac-batch-" ) );
+  }
+
+  /**
+   * Create a new service whose workers are created by the given factory.
+   *
+   * @param requestHandler the handler which generates the pdfs.
+   * @param workers        the number of requests run at the same time.
+   * @param maxSize        the maximum number of requests of a batch.
+   * @param threadFactory  the factory of the workers.
+   */
+  public DefaultGeneratePdfBatchService( final GeneratePdfRequestHandler requestHandler,
+                                         final int workers,
+                                         final int maxSize,
+                                         final ThreadFactory threadFactory ) {
+    if ( workers < 1 || maxSize < 1 ) {
+      throw new IllegalArgumentException( "The number of workers and the size of the batches must be positive" );
+    }
+    this.requestHandler = requestHandler;
+    this.maxSize = maxSize;
+    executor = new ContextPropagatingThreadPoolExecutor( workers, workers, 0L, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(),
+        threadFactory );
+  }
+
+  @Override
+  public void process( final List<GeneratePdfRequest> requests, final BatchResultConsumer consumer )
+      throws IOException {
+    if ( requests.size() > maxSize ) {
+      throw new IllegalArgumentException( "A batch cannot contain more than " + maxSize + " requests" );
+    }
+    final var aborted = new AtomicBoolean();
+    final var completion = new ExecutorCompletionService<Result>( executor );
+    for ( var i = 0; i < requests.size(); i++ ) {
+      final var index = i;
+      final var request = requests.get( i );
+      completion.submit( () -> new Result( index, run( request, aborted ) ) );
+    }
+    IOException failure = null;
+    var pending = requests.size();
+    try {
+      while ( pending > 0 ) {
+        final var result = take( completion );
+        pending--;
+        if ( null != failure ) {
+          result.response().close();
+          continue;
+        }
+        try {
+          consumer.accept( result.index(), result.response() );
+        } catch ( final IOException | RuntimeException e ) {
+          log.debug( "Batch aborted after {} responses", requests.size() - pending - 1, e );
+          aborted.set( true );
+          failure = e instanceof IOException io ? io : new IOException( e );
+        }
+      }
+    } finally {
+      if ( pending > 0 ) {
+        aborted.set( true );
+        drain( completion, pending );
+      }
+    }
+    if ( null != failure ) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Wait for the requests of an interrupted batch and close their responses, so that their working directories and
+   * archives are released. The requests which did not start yet only release their archive.
+   */
+  private void drain( final ExecutorCompletionService<Result> completion, final int pending ) {
+    var interrupted = Thread.interrupted();
+    var remaining = pending;
+    while ( remaining > 0 ) {
+      try {
+        final var future = completion.poll( 1, TimeUnit.SECONDS );
+        if ( null == future ) {
+          if ( executor.isTerminated() ) {
+            log.warn( "{} requests of the batch have been dropped by the shutdown", remaining );
+            break;
+          }
+          continue;
+        }
+        remaining--;
+        future.get().response().close();
+      } catch ( final InterruptedException e ) {
+        interrupted = true;
+      } catch ( final ExecutionException e ) {
+        // the tasks catch everything, this should not happen
+        log.warn( "A request of the batch has failed", e.getCause() );
+      }
+    }
+    if ( interrupted ) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private GeneratePdfResponse run( final GeneratePdfRequest request, final AtomicBoolean aborted ) {
+    if ( aborted.get() ) {
+      DefaultGeneratePdfRequestHandler.releaseArchive( request );
+      return new GeneratePdfResponse( request, null, new CancellationException( "The batch has been aborted" ) );
+    }
+    try {
+      return requestHandler.handleRequest( request );
+    } catch ( final RuntimeException e ) {
+      return new GeneratePdfResponse( request, null, e );
+    }
+  }
+
+  private static Result take( final ExecutorCompletionService<Result> completion ) throws IOException {
+    try {
+      return completion.take().get();
+    } catch ( final InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new IOException( "Interrupted while waiting for the batch", e );
+    } catch ( final ExecutionException e ) {
+      // the tasks catch everything, this should not happen
+      throw new IllegalStateException( e.getCause() );
+    }
+  }
+
+  @Override
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Stop the workers, the batches in progress are completed first.
+   */
+  @Override
+  public void close() {
+    executor.shutdown();
+    try {
+      if ( !executor.awaitTermination( SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS ) ) {
+        executor.shutdownNow();
+      }
+    } catch ( final InterruptedException e ) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private record Result( int index, GeneratePdfResponse response ) {
+  }
+}
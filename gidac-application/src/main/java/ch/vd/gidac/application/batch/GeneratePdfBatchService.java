@@ -0,0 +1,77 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.application.batch;
+
+import ch.vd.gidac.application.generatepdf.GeneratePdfRequest;
+import ch.vd.gidac.application.generatepdf.GeneratePdfResponse;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Run a batch of pdf generation requests through the same handler.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public interface GeneratePdfBatchService {
+
+  /**
+   * Process the requests of a batch and hand the responses over in the order they are done.
+   *
+   * <p>The consumer is always called from the calling thread, one response at a time, it owns the response and must
+   * close it. If the consumer fails, the requests not started yet are skipped (their archive is released) and the
+   * responses still to come are closed.</p>
+   *
+   * @param requests the requests of the batch.
+   * @param consumer the consumer of the responses.
+   *
+   * @throws IOException thrown if the consumer fails.
+   */
+  void process( List<GeneratePdfRequest> requests, BatchResultConsumer consumer ) throws IOException;
+
+  /**
+   * Get the maximum number of requests of a batch.
+   *
+   * @return the maximum size of a batch.
+   */
+  int getMaxSize();
+
+  /**
+   * Consumer of the responses of a batch.
+   */
+  @FunctionalInterface
+  interface BatchResultConsumer {
+
+    /**
+     * Consume the response of a request.
+     *
+     * @param index    the position of the request in the batch.
+     * @param response the response of the request.
+     *
+     * @throws IOException thrown if the response cannot be consumed.
+     */
+    void accept( int index, GeneratePdfResponse response ) throws IOException;
+  }
+}
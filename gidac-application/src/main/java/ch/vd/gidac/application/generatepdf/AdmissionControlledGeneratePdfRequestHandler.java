@@ -0,0 +1,69 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.application.generatepdf;
+
+import ch.vd.gidac.application.admission.AdmissionController;
+import ch.vd.gidac.application.admission.AdmissionRejectedException;
+
+/**
+ * Request handler admitting the requests before handing them over to another handler.
+ *
+ * <p>The request is handled once the {@link AdmissionController} grants it a slot, according to its principal and
+ * its priority. The slot is released when the decorated handler returns. A request which is not admitted is rejected
+ * with an {@link AdmissionRejectedException}, its archive is released.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class AdmissionControlledGeneratePdfRequestHandler implements GeneratePdfRequestHandler {
+
+  private final GeneratePdfRequestHandler delegate;
+
+  private final AdmissionController admissionController;
+
+  /**
+   * Create a new handler.
+   *
+   * @param delegate            the handler generating the binaries once admitted.
+   * @param admissionController the controller of the admission.
+   */
+  public AdmissionControlledGeneratePdfRequestHandler( final GeneratePdfRequestHandler delegate,
+                                                       final AdmissionController admissionController ) {
+    this.delegate = delegate;
+    this.admissionController = admissionController;
+  }
+
+  @Override
+  public GeneratePdfResponse handleRequest( final GeneratePdfRequest request ) {
+    final AdmissionController.Permit permit;
+    try {
+      permit = admissionController.admit( request.principal(), request.priority() );
+    } catch ( final AdmissionRejectedException e ) {
+      DefaultGeneratePdfRequestHandler.releaseArchive( request );
+      throw e;
+    }
+    try ( permit ) {
+      return delegate.handleRequest( request );
+    }
+  }
+}
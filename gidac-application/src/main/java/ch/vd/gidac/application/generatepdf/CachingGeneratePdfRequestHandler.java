@@ -0,0 +1,114 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.application.generatepdf;
+
+import ch.vd.gidac.domain.core.cache.BinaryCache;
+import ch.vd.gidac.domain.core.cache.ContentDigest;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Request handler serving the binaries of already processed archives from a cache.
+ *
+ * <p>The key of the cache is the digest of the archive and of the fingerprint of the generator. On a hit, the binary
+ * is returned without creating any working directory nor running the generation, it is leased from the cache until
+ * the response is closed. On a miss, the request is handled
+ * by the decorated handler and its binary is stored in the cache.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class CachingGeneratePdfRequestHandler implements GeneratePdfRequestHandler {
+
+  private static final Logger log = LogManager.getLogger( CachingGeneratePdfRequestHandler.class );
+
+  private final GeneratePdfRequestHandler delegate;
+
+  private final BinaryCache cache;
+
+  private final String fingerprint;
+
+  /**
+   * Create a new handler.
+   *
+   * @param delegate    the handler generating the binaries on a miss.
+   * @param cache       the cache of the binaries.
+   * @param fingerprint the fingerprint of the generator used by the delegate.
+   */
+  public CachingGeneratePdfRequestHandler( final GeneratePdfRequestHandler delegate,
+                                           final BinaryCache cache,
+                                           final String fingerprint ) {
+    this.delegate = delegate;
+    this.cache = cache;
+    this.fingerprint = fingerprint;
+  }
+
+  @Override
+  public GeneratePdfResponse handleRequest( final GeneratePdfRequest request ) {
+    final var key = key( request );
+    if ( key.isEmpty() ) {
+      return delegate.handleRequest( request );
+    }
+    final var cached = cache.get( key.get() );
+    if ( cached.isPresent() ) {
+      log.debug( "Serving request {} from the cache ({})", request.requestId(), key.get() );
+      DefaultGeneratePdfRequestHandler.releaseArchive( request );
+      final var binary = cached.get();
+      return new GeneratePdfResponse( request, binary, null, () -> cache.release( binary ) );
+    }
+    final var response = delegate.handleRequest( request );
+    if ( null == response.e() && null != response.binary() ) {
+      try {
+        cache.put( key.get(), response.binary() );
+      } catch ( final IOException e ) {
+        log.warn( "The binary of request {} cannot be cached", request.requestId(), e );
+      }
+    }
+    return response;
+  }
+
+  /**
+   * Compute the key of a request, it must be done before the delegate consumes the archive.
+   *
+   * @param request the request.
+   *
+   * @return the key, empty if the archive cannot be read.
+   */
+  private Optional<ContentDigest> key( final GeneratePdfRequest request ) {
+    if ( null == request.archive() ) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of( ContentDigest.builder()
+          .update( fingerprint )
+          .update( request.archive() )
+          .build() );
+    } catch ( final IOException | RuntimeException e ) {
+      log.warn( "The digest of request {} cannot be computed, the cache is bypassed", request.requestId(), e );
+      return Optional.empty();
+    }
+  }
+}
@@ -25,7 +25,15 @@ package ch.vd.gidac.application.generatepdf;
 import ch.vd.gidac.domain.core.PdfGenerationRecipe;
 import ch.vd.gidac.domain.core.RequestId;
 import ch.vd.gidac.domain.core.SimplePdfGenerationRecipeFactory;
+import ch.vd.gidac.domain.core.bake.BakeStrategy;
+import ch.vd.gidac.domain.core.compress.ZipManager;
+import ch.vd.gidac.domain.core.fs.WorkingDirectoryProvider;
+import ch.vd.gidac.domain.core.observe.RecipeObserver;
 import ch.vd.gidac.domain.core.pdf.PdfGenerator;
+import ch.vd.gidac.domain.manifest.ManifestUnmarshaller;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Default request handler to generate the pdf.
@@ -38,46 +46,120 @@ public class DefaultGeneratePdfRequestHandler implements GeneratePdfRequestHandl
 
   private final PdfGenerator pdfGenerator;
 
+  private final BakeStrategy bakeStrategy;
+
+  private final boolean streaming;
+
+  private final ManifestUnmarshaller manifestUnmarshaller;
+
+  private final ZipManager zipManager;
+
+  private final WorkingDirectoryProvider workingDirectoryProvider;
+
+  private final RecipeObserver observer;
+
   public DefaultGeneratePdfRequestHandler( final PdfGenerator pdfGenerator ) {
-    this.pdfGenerator = pdfGenerator;
+    this( builder().pdfGenerator( pdfGenerator ) );
+  }
+
+  /**
+   * Create a new handler, see {@link #builder()}.
+   *
+   * @param builder the builder holding the parts of the handler.
+   */
+  DefaultGeneratePdfRequestHandler( final GeneratePdfRequestHandlerBuilder builder ) {
+    this.pdfGenerator = builder.pdfGenerator;
+    this.bakeStrategy = builder.bakeStrategy;
+    this.streaming = builder.streaming;
+    this.manifestUnmarshaller = builder.manifestUnmarshaller();
+    this.zipManager = builder.zipManager;
+    this.workingDirectoryProvider = builder.workingDirectoryProvider;
+    this.observer = builder.observer;
+  }
+
+  /**
+   * Start the building of a handler.
+   *
+   * @return the builder of the handlers running the recipes.
+   */
+  public static GeneratePdfRequestHandlerBuilder builder() {
+    return new GeneratePdfRequestHandlerBuilder();
   }
 
   @Override
   public GeneratePdfResponse handleRequest( final GeneratePdfRequest request ) {
     PdfGenerationRecipe recipe = null;
+    var deferCleanUp = false;
     try {
       final var factory = new SimplePdfGenerationRecipeFactory();
       factory.requestId( RequestId.fromString( request.requestId() ) )
-          .archive( request.archive() );
+          .archive( request.archive() )
+          .zipManager( zipManager )
+          .workingDirectoryProvider( workingDirectoryProvider )
+          .observer( observer );
       if ( !factory.canCreate() ) {
         return new GeneratePdfResponse( request, null,
             new IllegalStateException( "The recipe cannot be created" ) );
       }
-      recipe = factory
-          .create()
-          .setUp()
-          .extract();
+      // the recipe is kept before its set up, so that a failed set up or extraction is cleaned up as well.
+      recipe = factory.create();
+      recipe.setUp().extract();
       if ( !recipe.canProcess() ) {
         return new GeneratePdfResponse( request, null,
             new IllegalStateException( "The recipe cannot be baked" ) );
       }
       final var binary = recipe
-          .prepare()
-          .bake( pdfGenerator )
-          .pack()
+          .prepare( manifestUnmarshaller )
+          .bake( pdfGenerator, bakeStrategy )
+          .pack( streaming )
           .tearDown()
           .getBinary();
+      if ( binary.isStoredOnDisk() ) {
+        // the binary lives in the working directory, it is cleaned up once the response has been sent.
+        deferCleanUp = true;
+        return new GeneratePdfResponse( request, binary, null, cleanUpOnce( recipe ) );
+      }
       return new GeneratePdfResponse( request, binary, null );
     } catch ( final Exception e ) {
       return new GeneratePdfResponse( request, null, e );
     } finally {
-      if ( null != recipe ) {
-        try {
-          recipe.cleanUp();
-        } catch ( final Exception ignore ) {
-          // ignoring error here since this is due to underlying implementation without any value for the client.
-        }
+      releaseArchive( request );
+      if ( null != recipe && !deferCleanUp ) {
+        cleanUp( recipe );
       }
     }
   }
+
+  static Runnable cleanUpOnce( final PdfGenerationRecipe recipe ) {
+    final var done = new AtomicBoolean( false );
+    return () -> {
+      if ( done.compareAndSet( false, true ) ) {
+        cleanUp( recipe );
+      }
+    };
+  }
+
+  static void cleanUp( final PdfGenerationRecipe recipe ) {
+    try {
+      recipe.cleanUp();
+    } catch ( final Exception ignore ) {
+      // ignoring error here since this is due to underlying implementation without any value for the client.
+    }
+  }
+
+  /**
+   * Delete the file of the archive if it has not been consumed by the recipe (invalid request, failure, ...).
+   *
+   * @param request the request holding the archive.
+   */
+  public static void releaseArchive( final GeneratePdfRequest request ) {
+    if ( null == request.archive() ) {
+      return;
+    }
+    try {
+      request.archive().release();
+    } catch ( final IOException ignore ) {
+      // ignoring error here since the file lives in a temporary directory.
+    }
+  }
 }
@@ -29,9 +29,29 @@ import ch.vd.gidac.domain.core.Archive;
  *
  * @param requestId the unique id of the request to handle.
  * @param archive   the archive to process to generate the pdf.
+ * @param principal the name of the authenticated client which sent the request.
+ * @param priority  the priority of the request.
  *
  * @version 0.0.1
  * @since 0.0.1
  */
-public record GeneratePdfRequest(String requestId, Archive archive) {
+public record GeneratePdfRequest(String requestId, Archive archive, String principal, Priority priority) {
+
+  /**
+   * Name of the principal of the requests sent by an unknown client.
+   */
+  public static final String ANONYMOUS = "anonymous";
+
+  public GeneratePdfRequest {
+    if ( null == principal ) {
+      principal = ANONYMOUS;
+    }
+    if ( null == priority ) {
+      priority = Priority.INTERACTIVE;
+    }
+  }
+
+  public GeneratePdfRequest( final String requestId, final Archive archive ) {
+    this( requestId, archive, ANONYMOUS, Priority.INTERACTIVE );
+  }
 }
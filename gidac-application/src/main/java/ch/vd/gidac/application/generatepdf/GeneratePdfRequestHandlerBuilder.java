@@ -0,0 +1,185 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.application.generatepdf;
+
+import ch.vd.gidac.domain.core.bake.BakeStrategy;
+import ch.vd.gidac.domain.core.bake.SequentialBakeStrategy;
+import ch.vd.gidac.domain.core.compress.DefaultZipManager;
+import ch.vd.gidac.domain.core.compress.ZipManager;
+import ch.vd.gidac.domain.core.fs.TemporaryWorkingDirectoryProvider;
+import ch.vd.gidac.domain.core.fs.WorkingDirectoryProvider;
+import ch.vd.gidac.domain.core.observe.RecipeObserver;
+import ch.vd.gidac.domain.core.pdf.PdfGenerator;
+import ch.vd.gidac.domain.manifest.ManifestUnmarshaller;
+
+/**
+ * Builder of the request handlers running the recipes, the {@link DefaultGeneratePdfRequestHandler} and the
+ * {@link PipelinedGeneratePdfRequestHandler}.
+ *
+ * <p>Only the pdf generator is required, the other parts default to a sequential bake, in-memory binaries, the
+ * default zip manager and a temporary working directory per recipe, without observer.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class GeneratePdfRequestHandlerBuilder {
+
+  PdfGenerator pdfGenerator;
+
+  BakeStrategy bakeStrategy = new SequentialBakeStrategy();
+
+  boolean streaming = false;
+
+  ManifestUnmarshaller manifestUnmarshaller;
+
+  ZipManager zipManager = new DefaultZipManager();
+
+  WorkingDirectoryProvider workingDirectoryProvider = new TemporaryWorkingDirectoryProvider();
+
+  RecipeObserver observer = RecipeObserver.NONE;
+
+  /**
+   * Set the generator to use to bake each ditamap.
+   *
+   * @param pdfGenerator the generator.
+   *
+   * @return the builder.
+   */
+  public GeneratePdfRequestHandlerBuilder pdfGenerator( final PdfGenerator pdfGenerator ) {
+    this.pdfGenerator = pdfGenerator;
+    return this;
+  }
+
+  /**
+   * Set the strategy to use to schedule the ditamaps of a recipe.
+   *
+   * @param bakeStrategy the strategy.
+   *
+   * @return the builder.
+   */
+  public GeneratePdfRequestHandlerBuilder bakeStrategy( final BakeStrategy bakeStrategy ) {
+    this.bakeStrategy = bakeStrategy;
+    return this;
+  }
+
+  /**
+   * Answer with file-backed binaries, the responses must then be closed once sent.
+   *
+   * @param streaming {@code true} to answer with file-backed binaries.
+   *
+   * @return the builder.
+   */
+  public GeneratePdfRequestHandlerBuilder streaming( final boolean streaming ) {
+    this.streaming = streaming;
+    return this;
+  }
+
+  /**
+   * Set the unmarshaller shared by the recipes to read their manifest.
+   *
+   * @param manifestUnmarshaller the unmarshaller.
+   *
+   * @return the builder.
+   */
+  public GeneratePdfRequestHandlerBuilder manifestUnmarshaller( final ManifestUnmarshaller manifestUnmarshaller ) {
+    this.manifestUnmarshaller = manifestUnmarshaller;
+    return this;
+  }
+
+  /**
+   * Set the zip manager shared by the recipes to extract the archives and pack the outputs.
+   *
+   * @param zipManager the zip manager.
+   *
+   * @return the builder.
+   */
+  public GeneratePdfRequestHandlerBuilder zipManager( final ZipManager zipManager ) {
+    this.zipManager = zipManager;
+    return this;
+  }
+
+  /**
+   * Set the provider of the working directories of the recipes.
+   *
+   * @param workingDirectoryProvider the provider.
+   *
+   * @return the builder.
+   */
+  public GeneratePdfRequestHandlerBuilder workingDirectoryProvider(
+      final WorkingDirectoryProvider workingDirectoryProvider ) {
+    this.workingDirectoryProvider = workingDirectoryProvider;
+    return this;
+  }
+
+  /**
+   * Set the observer of the stages of the recipes.
+   *
+   * @param observer the observer.
+   *
+   * @return the builder.
+   */
+  public GeneratePdfRequestHandlerBuilder observer( final RecipeObserver observer ) {
+    this.observer = observer;
+    return this;
+  }
+
+  /**
+   * Create a handler running each recipe on the thread of its request.
+   *
+   * @return the handler.
+   *
+   * @throws IllegalStateException thrown if the pdf generator is not defined.
+   */
+  public DefaultGeneratePdfRequestHandler create() {
+    check();
+    return new DefaultGeneratePdfRequestHandler( this );
+  }
+
+  /**
+   * Create a handler running the recipes through the stages of a pipeline.
+   *
+   * @param pipeline the stages running the recipes.
+   *
+   * @return the handler.
+   *
+   * @throws IllegalStateException thrown if the pdf generator is not defined.
+   */
+  public PipelinedGeneratePdfRequestHandler createPipelined( final RecipePipeline pipeline ) {
+    check();
+    return new PipelinedGeneratePdfRequestHandler( pipeline, this );
+  }
+
+  private void check() {
+    if ( null == pdfGenerator ) {
+      throw new IllegalStateException( "The handler cannot be created without a pdf generator" );
+    }
+  }
+
+  /**
+   * Get the unmarshaller of the handler, the default one is only created when none is set since its context is
+   * expensive.
+   */
+  ManifestUnmarshaller manifestUnmarshaller() {
+    return null == manifestUnmarshaller ? new ManifestUnmarshaller() : manifestUnmarshaller;
+  }
+}
@@ -27,10 +27,27 @@ import ch.vd.gidac.domain.core.Binary;
 /**
  * The response of the processing.
  *
+ * <p>When the binary is stored on disk, the resources of the processing (working directory, ...) are kept until the
+ * response is closed. The response must therefore be closed once the binary has been sent.</p>
+ *
  * @param request the request which has been processed
  * @param binary  the binary content which represent the payload generated (if the request has been successfully
  *                completed)
  * @param e       the exception which occurs during the processing if something goes wrong during that.
+ * @param cleanUp the action releasing the resources backing the binary.
  */
-public record GeneratePdfResponse(GeneratePdfRequest request, Binary binary, Exception e) {
+public record GeneratePdfResponse(GeneratePdfRequest request, Binary binary, Exception e, Runnable cleanUp)
+    implements AutoCloseable {
+
+  public GeneratePdfResponse( final GeneratePdfRequest request, final Binary binary, final Exception e ) {
+    this( request, binary, e, () -> { } );
+  }
+
+  /**
+   * Release the resources backing the binary, the binary must not be used anymore.
+   */
+  @Override
+  public void close() {
+    cleanUp.run();
+  }
 }
@@ -0,0 +1,223 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.application.generatepdf;
+
+import ch.vd.gidac.domain.core.PdfGenerationRecipe;
+import ch.vd.gidac.domain.core.RequestId;
+import ch.vd.gidac.domain.core.SimplePdfGenerationRecipeFactory;
+import ch.vd.gidac.domain.core.bake.BakeStrategy;
+import ch.vd.gidac.domain.core.compress.ZipManager;
+import ch.vd.gidac.domain.core.fs.WorkingDirectoryProvider;
+import ch.vd.gidac.domain.core.observe.RecipeObserver;
+import ch.vd.gidac.domain.core.pdf.PdfGenerator;
+import ch.vd.gidac.domain.manifest.ManifestUnmarshaller;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Request handler running the recipes through the stages of a {@link RecipePipeline}.
+ *
+ * <p>The steps of a recipe are the same as the ones of the {@link DefaultGeneratePdfRequestHandler}, but each group
+ * of steps runs on the threads of its stage: the requests overlap instead of holding a thread from the extraction to
+ * the pack. The thread of the request waits for the response.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class PipelinedGeneratePdfRequestHandler implements GeneratePdfRequestHandler {
+
+  private final RecipePipeline pipeline;
+
+  private final PdfGenerator pdfGenerator;
+
+  private final BakeStrategy bakeStrategy;
+
+  private final boolean streaming;
+
+  private final ManifestUnmarshaller manifestUnmarshaller;
+
+  private final ZipManager zipManager;
+
+  private final WorkingDirectoryProvider workingDirectoryProvider;
+
+  private final RecipeObserver observer;
+
+  /**
+   * Create a new handler, see {@link GeneratePdfRequestHandlerBuilder#createPipelined(RecipePipeline)}.
+   *
+   * @param pipeline the stages running the recipes.
+   * @param builder  the builder holding the other parts of the handler.
+   */
+  PipelinedGeneratePdfRequestHandler( final RecipePipeline pipeline, final GeneratePdfRequestHandlerBuilder builder ) {
+    this.pipeline = pipeline;
+    this.pdfGenerator = builder.pdfGenerator;
+    this.bakeStrategy = builder.bakeStrategy;
+    this.streaming = builder.streaming;
+    this.manifestUnmarshaller = builder.manifestUnmarshaller();
+    this.zipManager = builder.zipManager;
+    this.workingDirectoryProvider = builder.workingDirectoryProvider;
+    this.observer = builder.observer;
+  }
+
+  @Override
+  public GeneratePdfResponse handleRequest( final GeneratePdfRequest request ) {
+    final var flight = new Flight( request );
+    final CompletableFuture<GeneratePdfResponse> response;
+    try {
+      response = CompletableFuture
+          .supplyAsync( () -> extract( flight ), pipeline.executor( RecipePipeline.Stage.EXTRACT ) )
+          .thenApplyAsync( this::bake, pipeline.executor( RecipePipeline.Stage.BAKE ) )
+          .thenApplyAsync( this::pack, pipeline.executor( RecipePipeline.Stage.PACK ) )
+          .handle( ( done, e ) -> null == e ? done.response : flight.abort( e ) );
+    } catch ( final RejectedExecutionException e ) {
+      DefaultGeneratePdfRequestHandler.releaseArchive( request );
+      return new GeneratePdfResponse( request, null, e );
+    }
+    try {
+      return response.get();
+    } catch ( final InterruptedException e ) {
+      // the recipe keeps going in the pipeline, its resources are released once it is done.
+      response.thenAccept( GeneratePdfResponse::close );
+      Thread.currentThread().interrupt();
+      return new GeneratePdfResponse( request, null, e );
+    } catch ( final ExecutionException e ) {
+      return fail( request, e.getCause() );
+    }
+  }
+
+  /**
+   * Create the recipe, set up its working directory, extract the archive and read the manifest.
+   */
+  private Flight extract( final Flight flight ) {
+    final var request = flight.request;
+    try {
+      final var factory = new SimplePdfGenerationRecipeFactory();
+      factory.requestId( RequestId.fromString( request.requestId() ) )
+          .archive( request.archive() )
+          .zipManager( zipManager )
+          .workingDirectoryProvider( workingDirectoryProvider )
+          .observer( observer );
+      if ( !factory.canCreate() ) {
+        return flight.done( new IllegalStateException( "The recipe cannot be created" ) );
+      }
+      flight.recipe = factory.create();
+      flight.recipe.setUp().extract();
+      if ( !flight.recipe.canProcess() ) {
+        return flight.done( new IllegalStateException( "The recipe cannot be baked" ) );
+      }
+      flight.recipe.prepare( manifestUnmarshaller );
+      return flight;
+    } catch ( final Exception e ) {
+      return flight.done( e );
+    } finally {
+      DefaultGeneratePdfRequestHandler.releaseArchive( request );
+    }
+  }
+
+  private Flight bake( final Flight flight ) {
+    if ( flight.isDone() ) {
+      return flight;
+    }
+    try {
+      flight.recipe.bake( pdfGenerator, bakeStrategy );
+      return flight;
+    } catch ( final Exception e ) {
+      return flight.done( e );
+    }
+  }
+
+  private Flight pack( final Flight flight ) {
+    if ( flight.isDone() ) {
+      return flight;
+    }
+    try {
+      final var binary = flight.recipe
+          .pack( streaming )
+          .tearDown()
+          .getBinary();
+      if ( binary.isStoredOnDisk() ) {
+        // the binary lives in the working directory, it is cleaned up once the response has been sent.
+        flight.response = new GeneratePdfResponse( flight.request, binary, null,
+            DefaultGeneratePdfRequestHandler.cleanUpOnce( flight.recipe ) );
+        return flight;
+      }
+      flight.response = new GeneratePdfResponse( flight.request, binary, null );
+    } catch ( final Exception e ) {
+      flight.response = new GeneratePdfResponse( flight.request, null, e );
+    }
+    DefaultGeneratePdfRequestHandler.cleanUp( flight.recipe );
+    return flight;
+  }
+
+  private static GeneratePdfResponse fail( final GeneratePdfRequest request, final Throwable e ) {
+    final var failure = e instanceof CompletionException && null != e.getCause() ? e.getCause() : e;
+    final var cause = failure instanceof Exception exception ? exception : new IllegalStateException( failure );
+    return new GeneratePdfResponse( request, null, cause );
+  }
+
+  /**
+   * A request going through the stages, with its recipe and, once it is done, its response.
+   */
+  private static final class Flight {
+
+    private final GeneratePdfRequest request;
+
+    private PdfGenerationRecipe recipe;
+
+    private GeneratePdfResponse response;
+
+    private Flight( final GeneratePdfRequest request ) {
+      this.request = request;
+    }
+
+    private boolean isDone() {
+      return null != response;
+    }
+
+    /**
+     * End the flight which a stage did not accept (pipeline closed, interrupted hand-over), the recipe is cleaned up
+     * unless the flight already ended.
+     */
+    private GeneratePdfResponse abort( final Throwable e ) {
+      if ( !isDone() && null != recipe ) {
+        DefaultGeneratePdfRequestHandler.cleanUp( recipe );
+      }
+      return fail( request, e );
+    }
+
+    /**
+     * End the flight with a failure, the recipe (if any) is cleaned up right away.
+     */
+    private Flight done( final Exception e ) {
+      response = new GeneratePdfResponse( request, null, e );
+      if ( null != recipe ) {
+        DefaultGeneratePdfRequestHandler.cleanUp( recipe );
+      }
+      return this;
+    }
+  }
+}
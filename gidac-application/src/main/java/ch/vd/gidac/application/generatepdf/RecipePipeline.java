@@ -0,0 +1,181 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.application.generatepdf;
+
+import ch.vd.gidac.domain.core.concurrent.ContextPropagatingThreadPoolExecutor;
+import ch.vd.gidac.domain.core.concurrent.ThreadFactories;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Stages of the recipes run by the {@link PipelinedGeneratePdfRequestHandler}.
+ *
+ * <p>Each stage has its own threads and its own bounded queue, so the stages of different requests overlap: a request
+ * is extracted while another one is baked and a third one is packed. When the queue of a stage is full, the stage
+ * which hands a recipe over waits, which throttles the previous stages up to the requests.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class RecipePipeline implements AutoCloseable {
+
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+  /**
+   * The stages of the pipeline, in the order a recipe goes through them.
+   */
+  public enum Stage {
+    /**
+     * Set up of the working directory, extraction of the archive and reading of the manifest (I/O).
+     */
+    EXTRACT,
+    /**
+     * Generation of the pdfs of the ditamaps (DITA-OT).
+     */
+    BAKE,
+    /**
+     * Creation of the binary from the outputs (I/O).
+     */
+    PACK
+  }
+
+  private final Map<Stage, ThreadPoolExecutor> executors = new EnumMap<>( Stage.class );
+
+  /**
+   * Create a pipeline whose stages run on platform threads.
+   *
+   * @param extractThreads the number of recipes extracted at the same time.
+   * @param bakeThreads    the number of recipes baked at the same time.
+   * @param packThreads    the number of recipes packed at the same time.
+   * @param queueCapacity  the number of recipes waiting for each stage.
+   */
+  public RecipePipeline( final int extractThreads, final int bakeThreads, final int packThreads,
+                         final int queueCapacity ) {
+    this( extractThreads, bakeThreads, packThreads, queueCapacity, ThreadFactories::platform );
+  }
+
+  /**
+   * Create a pipeline.
+   *
+   * @param extractThreads the number of recipes extracted at the same time.
+   * @param bakeThreads    the number of recipes baked at the same time.
+   * @param packThreads    the number of recipes packed at the same time.
+   * @param queueCapacity  the number of recipes waiting for each stage.
+   * @param threadFactory  the factory of the threads of a stage, from the prefix of their names.
+   */
+  public RecipePipeline( final int extractThreads, final int bakeThreads, final int packThreads,
+                         final int queueCapacity, final Function<String, ThreadFactory> threadFactory ) {
+    if ( extractThreads < 1 || bakeThreads < 1 || packThreads < 1 || queueCapacity < 1 ) {
+      throw new IllegalArgumentException( "The threads and the capacity of the stages must be positive" );
+    }
+    executors.put( Stage.EXTRACT, newExecutor( Stage.EXTRACT, extractThreads, queueCapacity, threadFactory ) );
+    executors.put( Stage.BAKE, newExecutor( Stage.BAKE, bakeThreads, queueCapacity, threadFactory ) );
+    executors.put( Stage.PACK, newExecutor( Stage.PACK, packThreads, queueCapacity, threadFactory ) );
+  }
+
+  private static ThreadPoolExecutor newExecutor( final Stage stage, final int threads, final int queueCapacity,
+                                                 final Function<String, ThreadFactory> threadFactory ) {
+    final var prefix = "gidac-" + stage.name().toLowerCase( Locale.ROOT ) + "-";
+    return new ContextPropagatingThreadPoolExecutor( threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>( queueCapacity ),
+        threadFactory.apply( prefix ),
+        RecipePipeline::waitForRoom );
+  }
+
+  /**
+   * Make the thread handing a recipe over wait until the stage has room for it.
+   */
+  private static void waitForRoom( final Runnable task, final ThreadPoolExecutor executor ) {
+    if ( executor.isShutdown() ) {
+      throw new RejectedExecutionException( "The pipeline is closed" );
+    }
+    try {
+      executor.getQueue().put( task );
+    } catch ( final InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new RejectedExecutionException( "Interrupted while waiting for the stage", e );
+    }
+  }
+
+  /**
+   * Get the executor of a stage.
+   *
+   * @param stage the stage.
+   *
+   * @return the executor running the stage.
+   */
+  Executor executor( final Stage stage ) {
+    return executors.get( stage );
+  }
+
+  /**
+   * Get the number of recipes waiting for a stage.
+   *
+   * @param stage the stage.
+   *
+   * @return the depth of the queue of the stage.
+   */
+  public int getQueueDepth( final Stage stage ) {
+    return executors.get( stage ).getQueue().size();
+  }
+
+  /**
+   * Get the number of recipes running a stage.
+   *
+   * @param stage the stage.
+   *
+   * @return the number of busy threads of the stage.
+   */
+  public int getActive( final Stage stage ) {
+    return executors.get( stage ).getActiveCount();
+  }
+
+  /**
+   * Stop the stages, the recipes in progress are completed first.
+   */
+  @Override
+  public void close() {
+    for ( final var stage : Stage.values() ) {
+      final var executor = executors.get( stage );
+      executor.shutdown();
+      try {
+        if ( !executor.awaitTermination( SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS ) ) {
+          executor.shutdownNow();
+        }
+      } catch ( final InterruptedException e ) {
+        executor.shutdownNow();
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.application.jobs;
+
+import ch.vd.gidac.application.generatepdf.GeneratePdfRequest;
+import ch.vd.gidac.application.generatepdf.GeneratePdfRequestHandler;
+import ch.vd.gidac.application.generatepdf.GeneratePdfResponse;
+import ch.vd.gidac.domain.core.concurrent.ContextPropagatingThreadPoolExecutor;
+import ch.vd.gidac.domain.core.concurrent.ThreadFactories;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Default job service: the jobs are run by a fixed number of workers and wait in a bounded queue.
+ *
+ * <p>When the queue is full, the submission is rejected instead of piling up archives in memory. The finished jobs
+ * are kept during a retention period to let the clients download their result, then they are purged. The purge runs
+ * in background, the downloads in progress keep the binary of their job until they end.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class DefaultGeneratePdfJobService implements GeneratePdfJobService, AutoCloseable {
+
+  private static final Logger log = LogManager.getLogger( DefaultGeneratePdfJobService.class );
+
+  /**
+   * Delay suggested to the clients until a first job has been completed.
+   */
+  private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds( 5 );
+
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+  /**
+   * Bounds of the period of the purge, a fraction of the retention.
+   */
+  private static final Duration MIN_PURGE_PERIOD = Duration.ofSeconds( 1 );
+
+  private static final Duration MAX_PURGE_PERIOD = Duration.ofMinutes( 1 );
+
+  private final GeneratePdfRequestHandler requestHandler;
+
+  private final ThreadPoolExecutor executor;
+
+  private final ScheduledExecutorService purger;
+
+  private final Map<JobId, Job> jobs = new ConcurrentHashMap<>();
+
+  private final Duration retention;
+
+  private final Clock clock;
+
+  private final AtomicLong completedJobs = new AtomicLong();
+
+  private final AtomicLong totalDurationNanos = new AtomicLong();
+
+  public DefaultGeneratePdfJobService( final GeneratePdfRequestHandler requestHandler,
+                                       final int workers,
+                                       final int queueCapacity,
+                                       final Duration retention ) {
+    this( requestHandler, workers, queueCapacity, retention, Clock.systemUTC() );
+  }
+
+  public DefaultGeneratePdfJobService( final GeneratePdfRequestHandler requestHandler,
+                                       final int workers,
+                                       final int queueCapacity,
+                                       final Duration retention,
+                                       final Clock clock ) {
+    this( requestHandler, workers, queueCapacity, retention, clock, ThreadFactories.platform( "gidac-job-" ) );
+  }
+
+  /**
+   * Create a new service.
+   *
+   * @param requestHandler the handler which generates the pdfs.
+   * @param workers        the number of jobs run at the same time.
+   * @param queueCapacity  the number of jobs which can wait for a worker.
+   * @param retention      the time a finished job is kept.
+   * @param clock          the clock to use to timestamp the jobs.
+   * @param threadFactory  the factory of the workers.
+   */
+  public DefaultGeneratePdfJobService( final GeneratePdfRequestHandler requestHandler,
+                                       final int workers,
+                                       final int queueCapacity,
+                                       final Duration retention,
+                                       final Clock clock,
+                                       final ThreadFactory threadFactory ) {
+    if ( workers < 1 || queueCapacity < 1 ) {
+      throw new IllegalArgumentException( "The number of workers and the capacity of the queue must be positive" );
+    }
+    this.requestHandler = requestHandler;
+    this.retention = retention;
+    this.clock = clock;
+    executor = new ContextPropagatingThreadPoolExecutor( workers, workers, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>( queueCapacity ),
+        threadFactory,
+        new ThreadPoolExecutor.AbortPolicy() );
+    purger = Executors.newSingleThreadScheduledExecutor( runnable -> {
+      final var thread = new Thread( runnable, "gidac-job-purger" );
+      thread.setDaemon( true );
+      return thread;
+    } );
+    final var period = purgePeriod( retention );
+    purger.scheduleAtFixedRate( this::purgeQuietly, period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS );
+  }
+
+  private static Duration purgePeriod( final Duration retention ) {
+    final var period = retention.dividedBy( 4 );
+    if ( period.compareTo( MIN_PURGE_PERIOD ) < 0 ) {
+      return MIN_PURGE_PERIOD;
+    }
+    return period.compareTo( MAX_PURGE_PERIOD ) > 0 ? MAX_PURGE_PERIOD : period;
+  }
+
+  @Override
+  public Job submit( final GeneratePdfRequest request ) {
+    purge();
+    final var job = new Job( JobId.generate(), request, clock.instant() );
+    jobs.put( job.getId(), job );
+    try {
+      executor.execute( () -> run( job ) );
+    } catch ( final RejectedExecutionException e ) {
+      jobs.remove( job.getId() );
+      if ( executor.isShutdown() ) {
+        throw new JobRejectedException( "The service does not accept jobs anymore",
+            JobRejectedException.Reason.SHUTDOWN, retryAfter() );
+      }
+      throw new JobRejectedException( "The job queue is full", JobRejectedException.Reason.QUEUE_FULL,
+          retryAfter() );
+    }
+    log.debug( "Job {} queued for request {}", job.getId(), request.requestId() );
+    return job;
+  }
+
+  private void run( final Job job ) {
+    final var request = job.start( clock.instant() );
+    if ( null == request ) {
+      return;
+    }
+    final var start = System.nanoTime();
+    GeneratePdfResponse response;
+    try {
+      response = requestHandler.handleRequest( request );
+    } catch ( final RuntimeException e ) {
+      response = new GeneratePdfResponse( request, null, e );
+    }
+    job.finish( response, clock.instant() );
+    totalDurationNanos.addAndGet( System.nanoTime() - start );
+    completedJobs.incrementAndGet();
+    log.debug( "Job {} done with status {}", job.getId(), job.getStatus() );
+  }
+
+  @Override
+  public Optional<Job> find( final JobId id ) {
+    purge();
+    return Optional.ofNullable( jobs.get( id ) );
+  }
+
+  /**
+   * Get the number of jobs waiting for a worker.
+   *
+   * @return the depth of the queue.
+   */
+  public int getQueueDepth() {
+    return executor.getQueue().size();
+  }
+
+  /**
+   * Estimate the delay before a worker becomes available for a new job, based on the mean duration of the jobs.
+   *
+   * @return the estimated delay, at least one second.
+   */
+  public Duration retryAfter() {
+    final var completed = completedJobs.get();
+    if ( completed == 0 ) {
+      return DEFAULT_RETRY_AFTER;
+    }
+    final var meanNanos = totalDurationNanos.get() / completed;
+    final var pending = executor.getQueue().size() + executor.getActiveCount();
+    final var waitNanos = meanNanos * pending / executor.getMaximumPoolSize();
+    return Duration.ofSeconds( Math.max( 1, TimeUnit.NANOSECONDS.toSeconds( waitNanos ) + 1 ) );
+  }
+
+  /**
+   * Remove the jobs which are done for longer than the retention and release their binary, once not downloaded
+   * anymore.
+   */
+  private void purge() {
+    final var limit = clock.instant().minus( retention );
+    jobs.values().forEach( job -> {
+      if ( job.getFinishedAt().map( limit::isAfter ).orElse( false ) && jobs.remove( job.getId(), job ) ) {
+        job.expire();
+      }
+    } );
+  }
+
+  private void purgeQuietly() {
+    try {
+      purge();
+    } catch ( final RuntimeException e ) {
+      // keep the scheduled purge alive.
+      log.warn( "The purge of the expired jobs fails", e );
+    }
+  }
+
+  /**
+   * Stop accepting jobs, wait for the running ones and release the binaries of all jobs. The jobs still queued once
+   * the wait is over are cancelled, their archives are released.
+   */
+  @Override
+  public void close() {
+    purger.shutdownNow();
+    executor.shutdown();
+    try {
+      if ( !executor.awaitTermination( SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS ) ) {
+        executor.shutdownNow();
+      }
+    } catch ( final InterruptedException e ) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+    jobs.values().forEach( job -> job.cancel( clock.instant() ) );
+    jobs.values().forEach( Job::expire );
+    jobs.clear();
+  }
+}
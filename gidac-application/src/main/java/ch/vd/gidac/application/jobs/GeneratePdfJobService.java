@@ -0,0 +1,56 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.application.jobs;
+
+import ch.vd.gidac.application.generatepdf.GeneratePdfRequest;
+
+import java.util.Optional;
+
+/**
+ * Run the pdf generation requests asynchronously.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public interface GeneratePdfJobService {
+
+  /**
+   * Submit a request, the generation is done in background.
+   *
+   * @param request the request to handle.
+   *
+   * @return the job created for the request.
+   *
+   * @throws JobRejectedException thrown if the job cannot be accepted right now.
+   */
+  Job submit( GeneratePdfRequest request );
+
+  /**
+   * Find a job by its id.
+   *
+   * @param id the id of the job.
+   *
+   * @return the job, empty if it does not exist or if it has expired.
+   */
+  Optional<Job> find( JobId id );
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.application.jobs;
+
+import ch.vd.gidac.application.generatepdf.DefaultGeneratePdfRequestHandler;
+import ch.vd.gidac.application.generatepdf.GeneratePdfRequest;
+import ch.vd.gidac.application.generatepdf.GeneratePdfResponse;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A pdf generation job.
+ *
+ * <p>The request (and its archive) is released as soon as the job is done, only the response is kept. When the job
+ * expires, its response is released once the last download in progress ends.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class Job {
+
+  private final JobId id;
+
+  private final String requestId;
+
+  private final Instant submittedAt;
+
+  private volatile GeneratePdfRequest request;
+
+  private volatile JobStatus status = JobStatus.QUEUED;
+
+  private volatile Instant startedAt;
+
+  private volatile Instant finishedAt;
+
+  private volatile GeneratePdfResponse response;
+
+  /**
+   * Number of downloads in progress, guarded by the job.
+   */
+  private int downloads;
+
+  /**
+   * Tell if the job has expired, guarded by the job.
+   */
+  private boolean expired;
+
+  Job( final JobId id, final GeneratePdfRequest request, final Instant submittedAt ) {
+    this.id = id;
+    this.request = request;
+    this.requestId = request.requestId();
+    this.submittedAt = submittedAt;
+  }
+
+  /**
+   * Start the job.
+   *
+   * @param now the current time.
+   *
+   * @return the request to handle, {@code null} if the job has been cancelled meanwhile.
+   */
+  synchronized GeneratePdfRequest start( final Instant now ) {
+    if ( JobStatus.QUEUED != status ) {
+      return null;
+    }
+    startedAt = now;
+    status = JobStatus.RUNNING;
+    return request;
+  }
+
+  synchronized void finish( final GeneratePdfResponse response, final Instant now ) {
+    this.response = response;
+    request = null;
+    finishedAt = now;
+    status = null != response && null == response.e() && null != response.binary()
+        ? JobStatus.SUCCEEDED
+        : JobStatus.FAILED;
+    if ( expired && 0 == downloads ) {
+      // the service has been closed while the job was running.
+      closeResponse();
+    }
+  }
+
+  /**
+   * Fail the job if it did not start yet, its archive is released.
+   *
+   * @param now the current time.
+   */
+  synchronized void cancel( final Instant now ) {
+    if ( JobStatus.QUEUED != status ) {
+      return;
+    }
+    final var cancelled = request;
+    finish( new GeneratePdfResponse( cancelled, null, new CancellationException( "The service has been stopped" ) ),
+        now );
+    DefaultGeneratePdfRequestHandler.releaseArchive( cancelled );
+  }
+
+  public JobId getId() {
+    return id;
+  }
+
+  public String getRequestId() {
+    return requestId;
+  }
+
+  public JobStatus getStatus() {
+    return status;
+  }
+
+  public Instant getSubmittedAt() {
+    return submittedAt;
+  }
+
+  public Optional<Instant> getStartedAt() {
+    return Optional.ofNullable( startedAt );
+  }
+
+  public Optional<Instant> getFinishedAt() {
+    return Optional.ofNullable( finishedAt );
+  }
+
+  /**
+   * Keep the response of the job until the returned action is run, even if the job expires meanwhile.
+   *
+   * @return the action ending the download (it may be run several times), empty if the job is not done or has
+   * expired.
+   */
+  public synchronized Optional<Runnable> retain() {
+    if ( expired || null == response ) {
+      return Optional.empty();
+    }
+    downloads++;
+    final var released = new AtomicBoolean();
+    return Optional.of( () -> {
+      if ( released.compareAndSet( false, true ) ) {
+        release();
+      }
+    } );
+  }
+
+  private synchronized void release() {
+    downloads--;
+    if ( expired && 0 == downloads ) {
+      closeResponse();
+    }
+  }
+
+  /**
+   * Expire the job: its response is released now, or when the last download in progress ends.
+   */
+  synchronized void expire() {
+    if ( expired ) {
+      return;
+    }
+    expired = true;
+    if ( 0 == downloads ) {
+      closeResponse();
+    }
+  }
+
+  private void closeResponse() {
+    if ( null != response ) {
+      response.close();
+    }
+  }
+
+  /**
+   * Get the response of the generation, only available once the job is done.
+   *
+   * @return the response of the generation.
+   */
+  public Optional<GeneratePdfResponse> getResponse() {
+    return Optional.ofNullable( response );
+  }
+}
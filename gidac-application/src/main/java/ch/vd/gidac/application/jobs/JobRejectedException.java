@@ -0,0 +1,71 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.application.jobs;
+
+import java.time.Duration;
+
+/**
+ * Exception raised when a job cannot be accepted.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class JobRejectedException extends RuntimeException {
+
+  /**
+   * Reason of the rejection.
+   */
+  public enum Reason {
+    /**
+     * The queue is full, the client should retry later.
+     */
+    QUEUE_FULL,
+    /**
+     * The service does not accept jobs anymore.
+     */
+    SHUTDOWN
+  }
+
+  private final Reason reason;
+
+  private final Duration retryAfter;
+
+  public JobRejectedException( final String message, final Reason reason, final Duration retryAfter ) {
+    super( message );
+    this.reason = reason;
+    this.retryAfter = retryAfter;
+  }
+
+  public Reason getReason() {
+    return reason;
+  }
+
+  /**
+   * Get the estimated delay before a new submission may be accepted.
+   *
+   * @return the delay.
+   */
+  public Duration getRetryAfter() {
+    return retryAfter;
+  }
+}
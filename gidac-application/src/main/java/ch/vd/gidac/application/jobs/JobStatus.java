@@ -0,0 +1,57 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.application.jobs;
+
+/**
+ * Status of a job.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public enum JobStatus {
+  /**
+   * The job waits in the queue.
+   */
+  QUEUED,
+  /**
+   * The job is being processed.
+   */
+  RUNNING,
+  /**
+   * The job is done and its binary is available.
+   */
+  SUCCEEDED,
+  /**
+   * The job is done without binary.
+   */
+  FAILED;
+
+  /**
+   * Check if the status is final.
+   *
+   * @return {@code true} if the job is done, {@code false} otherwise.
+   */
+  public boolean isDone() {
+    return this == SUCCEEDED || this == FAILED;
+  }
+}
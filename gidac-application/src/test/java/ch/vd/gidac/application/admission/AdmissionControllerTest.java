@@ -0,0 +1,208 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.application.admission;
+
+import ch.vd.gidac.application.generatepdf.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControllerTest {
+
+  private static AdmissionConfiguration configuration( final int maxConcurrent, final int maxQueued,
+                                                       final Duration timeout ) {
+    return new AdmissionConfiguration( maxConcurrent, 0, maxQueued, timeout, 100, 100, null );
+  }
+
+  @Test
+  void admitUpToTheMaximumAndReleaseOnClose() {
+    // GIVEN
+    final var controller = new AdmissionController( configuration( 2, 0, Duration.ZERO ), () -> 1000,
+        () -> 1000 );
+
+    // WHEN
+    final var first = controller.admit();
+    final var second = controller.admit();
+    final var rejection = assertThrows( AdmissionRejectedException.class, controller::admit );
+    first.close();
+    first.close();
+    final var third = controller.admit();
+
+    // THEN
+    assertEquals( AdmissionRejectedException.Reason.QUEUE_FULL, rejection.getReason() );
+    assertEquals( 2, controller.getActive() );
+    assertEquals( 1, controller.getRejected() );
+    second.close();
+    third.close();
+    assertEquals( 0, controller.getActive() );
+  }
+
+  @Test
+  void waitForASlotUntilTheTimeout() throws Exception {
+    // GIVEN
+    final var controller = new AdmissionController( configuration( 1, 1, Duration.ofMillis( 500 ) ), () -> 1000,
+        () -> 1000 );
+    final var permit = controller.admit();
+
+    // WHEN
+    final var rejection = assertThrows( AdmissionRejectedException.class, controller::admit );
+    final var executor = Executors.newSingleThreadExecutor();
+    final var waiting = new CountDownLatch( 1 );
+    try {
+      final var admitted = executor.submit( () -> {
+        waiting.countDown();
+        controller.admit().close();
+        return true;
+      } );
+      waiting.await();
+      permit.close();
+
+      // THEN
+      assertEquals( AdmissionRejectedException.Reason.TIMEOUT, rejection.getReason() );
+      assertTrue( rejection.getRetryAfter().toSeconds() >= 1 );
+      assertTrue( admitted.get( 5, TimeUnit.SECONDS ) );
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void rejectWhenResourcesAreLow() {
+    // GIVEN
+    final var lowMemory = new AdmissionController( configuration( 1, 1, Duration.ZERO ), () -> 10, () -> 1000 );
+    final var lowDisk = new AdmissionController( configuration( 1, 1, Duration.ZERO ), () -> 1000, () -> 10 );
+
+    // WHEN
+    final var memory = assertThrows( AdmissionRejectedException.class, lowMemory::admit );
+    final var disk = assertThrows( AdmissionRejectedException.class, lowDisk::admit );
+
+    // THEN
+    assertEquals( AdmissionRejectedException.Reason.LOW_MEMORY, memory.getReason() );
+    assertEquals( AdmissionRejectedException.Reason.LOW_DISK, disk.getReason() );
+    assertEquals( 0, lowMemory.getActive() );
+  }
+
+  private static Future<?> waiter( final ExecutorService executor, final AdmissionController controller,
+                                   final String principal, final Priority priority, final List<String> order ) {
+    return executor.submit( () -> {
+      final var permit = controller.admit( principal, priority );
+      order.add( principal + ":" + priority );
+      permit.close();
+    } );
+  }
+
+  private static void awaitWaiting( final AdmissionController controller, final int waiting )
+      throws InterruptedException {
+    final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos( 5 );
+    while ( controller.getWaiting() < waiting && System.nanoTime() < deadline ) {
+      Thread.sleep( 5 );
+    }
+    assertEquals( waiting, controller.getWaiting() );
+  }
+
+  @Test
+  void interactiveGenerationsJumpAheadOfBulkOnes() throws Exception {
+    // GIVEN
+    final var controller = new AdmissionController( configuration( 1, 4, Duration.ofSeconds( 5 ) ), () -> 1000,
+        () -> 1000 );
+    final var order = new CopyOnWriteArrayList<String>();
+    final var executor = Executors.newFixedThreadPool( 2 );
+    final var permit = controller.admit();
+    try {
+      final var bulk = waiter( executor, controller, "batch", Priority.BULK, order );
+      awaitWaiting( controller, 1 );
+      final var interactive = waiter( executor, controller, "alice", Priority.INTERACTIVE, order );
+      awaitWaiting( controller, 2 );
+
+      // WHEN
+      permit.close();
+      bulk.get( 5, TimeUnit.SECONDS );
+      interactive.get( 5, TimeUnit.SECONDS );
+
+      // THEN
+      assertEquals( List.of( "alice:INTERACTIVE", "batch:BULK" ), order );
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void shareTheSlotsFairlyBetweenPrincipals() throws Exception {
+    // GIVEN
+    final var controller = new AdmissionController( configuration( 2, 4, Duration.ofSeconds( 5 ) ), () -> 1000,
+        () -> 1000 );
+    final var order = new CopyOnWriteArrayList<String>();
+    final var executor = Executors.newFixedThreadPool( 2 );
+    final var first = controller.admit( "batch", Priority.BULK );
+    final var second = controller.admit( "batch", Priority.BULK );
+    try {
+      final var batch = waiter( executor, controller, "batch", Priority.BULK, order );
+      awaitWaiting( controller, 1 );
+      final var alice = waiter( executor, controller, "alice", Priority.BULK, order );
+      awaitWaiting( controller, 2 );
+
+      // WHEN
+      first.close();
+      alice.get( 5, TimeUnit.SECONDS );
+      second.close();
+      batch.get( 5, TimeUnit.SECONDS );
+
+      // THEN
+      assertEquals( List.of( "alice:BULK", "batch:BULK" ), order );
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void enforceTheQuotaOfAPrincipal() {
+    // GIVEN
+    final var controller = new AdmissionController(
+        new AdmissionConfiguration( 2, 1, 4, Duration.ofMillis( 50 ), 0, 0, null ), () -> 1000, () -> 1000 );
+    final var permit = controller.admit( "batch", Priority.BULK );
+
+    // WHEN
+    final var rejection = assertThrows( AdmissionRejectedException.class,
+        () -> controller.admit( "batch", Priority.BULK ) );
+    final var other = controller.admit( "alice", Priority.BULK );
+
+    // THEN
+    assertEquals( AdmissionRejectedException.Reason.TIMEOUT, rejection.getReason() );
+    assertEquals( 1, controller.getActive( "batch" ) );
+    assertEquals( 1, controller.getActive( "alice" ) );
+    assertEquals( 0, controller.getWaiting() );
+    permit.close();
+    other.close();
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.application.batch;
+
+import ch.vd.gidac.application.generatepdf.GeneratePdfRequest;
+import ch.vd.gidac.application.generatepdf.GeneratePdfResponse;
+import ch.vd.gidac.domain.core.Archive;
+import ch.vd.gidac.domain.core.Binary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DefaultGeneratePdfBatchServiceTest {
+
+  private DefaultGeneratePdfBatchService service;
+
+  @AfterEach
+  void tearDown() {
+    if ( service != null ) {
+      service.close();
+    }
+  }
+
+  private static List<GeneratePdfRequest> requests( final int count ) {
+    return IntStream.range( 0, count )
+        .mapToObj( i -> new GeneratePdfRequest( "request-" + i,
+            Archive.create( "file", new byte[]{ 1 }, "application/zip" ) ) )
+        .toList();
+  }
+
+  private static GeneratePdfResponse success( final GeneratePdfRequest request, final Runnable cleanUp ) {
+    return new GeneratePdfResponse( request, Binary.create( "application/pdf", "test.pdf", new byte[]{ 1 } ), null,
+        cleanUp );
+  }
+
+  private static void await( final CountDownLatch latch ) {
+    try {
+      assertTrue( latch.await( 10, TimeUnit.SECONDS ) );
+    } catch ( final InterruptedException e ) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Test
+  void handOverTheResponsesAsSoonAsTheyAreDone() throws IOException {
+    // GIVEN
+    final var fastConsumed = new CountDownLatch( 1 );
+    service = new DefaultGeneratePdfBatchService( request -> {
+      if ( "request-0".equals( request.requestId() ) ) {
+        await( fastConsumed );
+      }
+      return success( request, () -> { } );
+    }, 2, 10 );
+    final var order = new CopyOnWriteArrayList<Integer>();
+
+    // WHEN
+    service.process( requests( 2 ), ( index, response ) -> {
+      order.add( index );
+      response.close();
+      fastConsumed.countDown();
+    } );
+
+    // THEN
+    assertEquals( List.of( 1, 0 ), order );
+  }
+
+  @Test
+  void reportTheFailedRequestsAsResponses() throws IOException {
+    // GIVEN
+    service = new DefaultGeneratePdfBatchService( request -> {
+      if ( "request-1".equals( request.requestId() ) ) {
+        throw new IllegalStateException( "boom" );
+      }
+      return success( request, () -> { } );
+    }, 2, 10 );
+    final var responses = new GeneratePdfResponse[ 3 ];
+
+    // WHEN
+    service.process( requests( 3 ), ( index, response ) -> responses[ index ] = response );
+
+    // THEN
+    assertNull( responses[ 0 ].e() );
+    assertEquals( "boom", responses[ 1 ].e().getMessage() );
+    assertNotNull( responses[ 2 ].binary() );
+  }
+
+  @Test
+  void skipTheRemainingRequestsWhenTheConsumerFails() {
+    // GIVEN
+    final var consumed = new CountDownLatch( 1 );
+    final var handled = new AtomicInteger();
+    final var closed = new AtomicInteger();
+    service = new DefaultGeneratePdfBatchService( request -> {
+      handled.incrementAndGet();
+      if ( !"request-0".equals( request.requestId() ) ) {
+        await( consumed );
+        sleep();
+      }
+      return success( request, closed::incrementAndGet );
+    }, 1, 10 );
+
+    // WHEN
+    final var e = assertThrows( IOException.class, () -> service.process( requests( 10 ), ( index, response ) -> {
+      response.close();
+      consumed.countDown();
+      throw new IOException( "client gone" );
+    } ) );
+
+    // THEN
+    assertEquals( "client gone", e.getMessage() );
+    assertTrue( handled.get() < 10 );
+    assertEquals( handled.get(), closed.get() );
+  }
+
+  @Test
+  void closeTheRemainingResponsesWhenInterrupted() throws InterruptedException {
+    // GIVEN
+    final var started = new CountDownLatch( 1 );
+    final var handled = new AtomicInteger();
+    final var closed = new AtomicInteger();
+    service = new DefaultGeneratePdfBatchService( request -> {
+      handled.incrementAndGet();
+      started.countDown();
+      sleep();
+      return success( request, closed::incrementAndGet );
+    }, 1, 10 );
+    final var failure = new AtomicReference<Throwable>();
+    final var batch = new Thread( () -> {
+      try {
+        service.process( requests( 10 ), ( index, response ) -> response.close() );
+      } catch ( final IOException | RuntimeException e ) {
+        failure.set( e );
+      }
+    } );
+    batch.start();
+    await( started );
+
+    // WHEN
+    batch.interrupt();
+    batch.join( 10_000 );
+
+    // THEN
+    assertInstanceOf( IOException.class, failure.get() );
+    assertTrue( handled.get() < 10 );
+    assertEquals( handled.get(), closed.get() );
+  }
+
+  private static void sleep() {
+    try {
+      Thread.sleep( 50 );
+    } catch ( final InterruptedException e ) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Test
+  void rejectTooLargeBatches() {
+    // GIVEN
+    service = new DefaultGeneratePdfBatchService( request -> success( request, () -> { } ), 1, 2 );
+
+    // WHEN
+    final var requests = requests( 3 );
+
+    // THEN
+    assertThrows( IllegalArgumentException.class, () -> service.process( requests, ( index, response ) -> { } ) );
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.application.generatepdf;
+
+import ch.vd.gidac.domain.core.Archive;
+import ch.vd.gidac.domain.core.Binary;
+import ch.vd.gidac.domain.core.cache.FileSystemBinaryCache;
+import org.apache.commons.io.file.PathUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CachingGeneratePdfRequestHandlerTest {
+
+  private Path root;
+
+  private final AtomicInteger generations = new AtomicInteger();
+
+  private final GeneratePdfRequestHandler delegate = request -> {
+    generations.incrementAndGet();
+    return new GeneratePdfResponse( request, Binary.create( "application/pdf", "out.pdf", request.archive().bytes() ),
+        null );
+  };
+
+  @BeforeEach
+  void setUp() {
+    root = Path.of( "/tmp/gidac", UUID.randomUUID().toString() );
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    PathUtils.deleteDirectory( root );
+  }
+
+  private static GeneratePdfRequest request( final String content ) {
+    return new GeneratePdfRequest( UUID.randomUUID().toString(),
+        Archive.create( "file", content.getBytes(), "application/zip" ) );
+  }
+
+  @Test
+  void serveIdenticalArchivesFromCache() throws IOException {
+    // GIVEN
+    final var handler = new CachingGeneratePdfRequestHandler( delegate, new FileSystemBinaryCache( root, 1024 ),
+        "generator" );
+
+    // WHEN
+    handler.handleRequest( request( "archive" ) );
+    final var response = handler.handleRequest( request( "archive" ) );
+    handler.handleRequest( request( "other archive" ) );
+
+    // THEN
+    assertEquals( 2, generations.get() );
+    assertEquals( "out.pdf", response.binary().name() );
+  }
+
+  @Test
+  void separateGeneratorConfigurations() throws IOException {
+    // GIVEN
+    final var cache = new FileSystemBinaryCache( root, 1024 );
+    final var first = new CachingGeneratePdfRequestHandler( delegate, cache, "toolkit-1" );
+    final var second = new CachingGeneratePdfRequestHandler( delegate, cache, "toolkit-2" );
+
+    // WHEN
+    first.handleRequest( request( "archive" ) );
+    second.handleRequest( request( "archive" ) );
+
+    // THEN
+    assertEquals( 2, generations.get() );
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.application.generatepdf;
+
+import ch.vd.gidac.domain.core.Archive;
+import ch.vd.gidac.domain.core.RequestId;
+import ch.vd.gidac.domain.core.WorkingDirectory;
+import ch.vd.gidac.domain.core.fs.TemporaryWorkingDirectoryProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PipelinedGeneratePdfRequestHandlerTest {
+
+  private static final String MANIFEST = "<manifest version=\"1.0\"><items>"
+      + "<item><name>a</name><ditamap>a.ditamap</ditamap><files/></item>"
+      + "</items></manifest>";
+
+  private RecipePipeline pipeline;
+
+  @AfterEach
+  void tearDown() {
+    if ( pipeline != null ) {
+      pipeline.close();
+    }
+  }
+
+  @Test
+  void answerWithTheFailureOfTheRecipe() {
+    // GIVEN
+    pipeline = new RecipePipeline( 1, 1, 1, 1 );
+    final var handler = DefaultGeneratePdfRequestHandler.builder()
+        .pdfGenerator( ( directory, ditaMap ) -> {
+        } )
+        .streaming( true )
+        .createPipelined( pipeline );
+    final var request = new GeneratePdfRequest( UUID.randomUUID().toString(), null );
+
+    // WHEN
+    final var response = handler.handleRequest( request );
+
+    // THEN
+    assertNull( response.binary() );
+    assertEquals( "The recipe cannot be created", response.e().getMessage() );
+    assertEquals( request, response.request() );
+  }
+
+  @Test
+  void releaseTheWorkingDirectoryWhenAStageRejectsTheRecipe() throws IOException {
+    // GIVEN
+    pipeline = new RecipePipeline( 1, 1, 1, 1 );
+    ( (ThreadPoolExecutor) pipeline.executor( RecipePipeline.Stage.BAKE ) ).shutdown();
+    final var acquired = new AtomicInteger();
+    final var released = new AtomicInteger();
+    final var handler = DefaultGeneratePdfRequestHandler.builder()
+        .pdfGenerator( ( directory, ditaMap ) -> {
+        } )
+        .workingDirectoryProvider( new TemporaryWorkingDirectoryProvider() {
+          @Override
+          public WorkingDirectory acquire( final RequestId requestId ) throws IOException {
+            acquired.incrementAndGet();
+            return super.acquire( requestId );
+          }
+
+          @Override
+          public void release( final WorkingDirectory workingDirectory ) throws IOException {
+            released.incrementAndGet();
+            super.release( workingDirectory );
+          }
+        } )
+        .createPipelined( pipeline );
+    final var request = new GeneratePdfRequest( UUID.randomUUID().toString(), archive() );
+
+    // WHEN
+    final var response = handler.handleRequest( request );
+
+    // THEN
+    assertInstanceOf( RejectedExecutionException.class, response.e() );
+    assertEquals( 1, acquired.get() );
+    assertEquals( 1, released.get() );
+  }
+
+  private static Archive archive() throws IOException {
+    final var bytes = new ByteArrayOutputStream();
+    try ( var zip = new ZipOutputStream( bytes ) ) {
+      zip.putNextEntry( new ZipEntry( "manifest.xml" ) );
+      zip.write( MANIFEST.getBytes( StandardCharsets.UTF_8 ) );
+      zip.closeEntry();
+      zip.putNextEntry( new ZipEntry( "a.ditamap" ) );
+      zip.write( "<map/>".getBytes( StandardCharsets.UTF_8 ) );
+      zip.closeEntry();
+    }
+    return Archive.create( "archive.zip", bytes.toByteArray(), "application/zip" );
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.application.generatepdf;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecipePipelineTest {
+
+  private RecipePipeline pipeline;
+
+  @AfterEach
+  void tearDown() {
+    if ( pipeline != null ) {
+      pipeline.close();
+    }
+  }
+
+  private static Runnable awaiting( final CountDownLatch started, final CountDownLatch release ) {
+    return () -> {
+      started.countDown();
+      try {
+        release.await( 10, TimeUnit.SECONDS );
+      } catch ( final InterruptedException e ) {
+        Thread.currentThread().interrupt();
+      }
+    };
+  }
+
+  @Test
+  void runTheStagesOfDifferentRecipesAtTheSameTime() throws InterruptedException {
+    // GIVEN
+    pipeline = new RecipePipeline( 1, 1, 1, 4 );
+    final var started = new CountDownLatch( 3 );
+    final var release = new CountDownLatch( 1 );
+
+    // WHEN
+    for ( final var stage : RecipePipeline.Stage.values() ) {
+      pipeline.executor( stage ).execute( awaiting( started, release ) );
+    }
+
+    // THEN
+    assertTrue( started.await( 10, TimeUnit.SECONDS ) );
+    for ( final var stage : RecipePipeline.Stage.values() ) {
+      assertEquals( 1, pipeline.getActive( stage ) );
+    }
+    release.countDown();
+  }
+
+  @Test
+  void exposeTheDepthOfTheQueueOfEachStage() throws InterruptedException {
+    // GIVEN
+    pipeline = new RecipePipeline( 1, 1, 1, 4 );
+    final var started = new CountDownLatch( 1 );
+    final var release = new CountDownLatch( 1 );
+    final var bake = pipeline.executor( RecipePipeline.Stage.BAKE );
+    bake.execute( awaiting( started, release ) );
+    assertTrue( started.await( 10, TimeUnit.SECONDS ) );
+
+    // WHEN
+    bake.execute( () -> { } );
+    bake.execute( () -> { } );
+
+    // THEN
+    assertEquals( 2, pipeline.getQueueDepth( RecipePipeline.Stage.BAKE ) );
+    assertEquals( 0, pipeline.getQueueDepth( RecipePipeline.Stage.EXTRACT ) );
+    assertEquals( 0, pipeline.getQueueDepth( RecipePipeline.Stage.PACK ) );
+    release.countDown();
+  }
+
+  @Test
+  void waitForRoomWhenAStageIsFull() throws InterruptedException {
+    // GIVEN
+    pipeline = new RecipePipeline( 1, 1, 1, 1 );
+    final var started = new CountDownLatch( 1 );
+    final var release = new CountDownLatch( 1 );
+    final var pack = pipeline.executor( RecipePipeline.Stage.PACK );
+    pack.execute( awaiting( started, release ) );
+    assertTrue( started.await( 10, TimeUnit.SECONDS ) );
+    pack.execute( () -> { } );
+    final var handedOver = new CountDownLatch( 1 );
+
+    // WHEN
+    final var producer = new Thread( () -> {
+      pack.execute( () -> { } );
+      handedOver.countDown();
+    } );
+    producer.start();
+
+    // THEN
+    assertFalse( handedOver.await( 200, TimeUnit.MILLISECONDS ) );
+    release.countDown();
+    assertTrue( handedOver.await( 10, TimeUnit.SECONDS ) );
+  }
+
+  @Test
+  void rejectInvalidConfiguration() {
+    assertThrows( IllegalArgumentException.class, () -> new RecipePipeline( 0, 1, 1, 1 ) );
+  }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.application.jobs;
+
+import ch.vd.gidac.application.generatepdf.GeneratePdfRequest;
+import ch.vd.gidac.application.generatepdf.GeneratePdfResponse;
+import ch.vd.gidac.domain.core.Archive;
+import ch.vd.gidac.domain.core.Binary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DefaultGeneratePdfJobServiceTest {
+
+  private DefaultGeneratePdfJobService service;
+
+  @AfterEach
+  void tearDown() {
+    if ( service != null ) {
+      service.close();
+    }
+  }
+
+  private static GeneratePdfRequest request( final String requestId ) {
+    return new GeneratePdfRequest( requestId, null );
+  }
+
+  private static GeneratePdfResponse success( final GeneratePdfRequest request ) {
+    return new GeneratePdfResponse( request, Binary.create( "application/pdf", "test.pdf", new byte[]{ 1 } ),
+        null );
+  }
+
+  private static void awaitDone( final Job job ) throws InterruptedException {
+    final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos( 10 );
+    while ( !job.getStatus().isDone() && System.nanoTime() < deadline ) {
+      Thread.sleep( 10 );
+    }
+  }
+
+  @Test
+  void runJobsInBackground() throws InterruptedException {
+    // GIVEN
+    service = new DefaultGeneratePdfJobService( DefaultGeneratePdfJobServiceTest::success, 1, 4,
+        Duration.ofMinutes( 1 ) );
+
+    // WHEN
+    final var job = service.submit( request( "request-1" ) );
+    awaitDone( job );
+
+    // THEN
+    assertEquals( JobStatus.SUCCEEDED, job.getStatus() );
+    assertEquals( "request-1", job.getRequestId() );
+    assertTrue( job.getResponse().isPresent() );
+    assertEquals( job, service.find( job.getId() ).orElseThrow() );
+  }
+
+  @Test
+  void reportFailedJobs() throws InterruptedException {
+    // GIVEN
+    service = new DefaultGeneratePdfJobService( request -> {
+      throw new IllegalStateException( "boom" );
+    }, 1, 4, Duration.ofMinutes( 1 ) );
+
+    // WHEN
+    final var job = service.submit( request( "request-1" ) );
+    awaitDone( job );
+
+    // THEN
+    assertEquals( JobStatus.FAILED, job.getStatus() );
+    assertEquals( "boom", job.getResponse().orElseThrow().e().getMessage() );
+  }
+
+  @Test
+  void rejectWhenQueueIsFull() throws InterruptedException {
+    // GIVEN
+    final var started = new CountDownLatch( 1 );
+    final var release = new CountDownLatch( 1 );
+    service = new DefaultGeneratePdfJobService( request -> {
+      started.countDown();
+      try {
+        release.await();
+      } catch ( final InterruptedException e ) {
+        Thread.currentThread().interrupt();
+      }
+      return success( request );
+    }, 1, 1, Duration.ofMinutes( 1 ) );
+    service.submit( request( "running" ) );
+    assertTrue( started.await( 10, TimeUnit.SECONDS ) );
+    service.submit( request( "queued" ) );
+
+    // WHEN
+    final var exception = assertThrows( JobRejectedException.class, () -> service.submit( request( "rejected" ) ) );
+    release.countDown();
+
+    // THEN
+    assertEquals( JobRejectedException.Reason.QUEUE_FULL, exception.getReason() );
+    assertFalse( exception.getRetryAfter().isNegative() );
+  }
+
+  @Test
+  void purgeExpiredJobs() throws InterruptedException {
+    // GIVEN
+    final var clock = new MutableClock( Instant.parse( "2022-11-01T10:00:00Z" ) );
+    service = new DefaultGeneratePdfJobService( DefaultGeneratePdfJobServiceTest::success, 1, 4,
+        Duration.ofMinutes( 1 ), clock );
+    final var job = service.submit( request( "request-1" ) );
+    awaitDone( job );
+
+    // WHEN
+    clock.advance( Duration.ofMinutes( 2 ) );
+
+    // THEN
+    assertTrue( service.find( job.getId() ).isEmpty() );
+  }
+
+  @Test
+  void keepTheBinaryOfAnExpiredJobUntilItsDownloadEnds() throws InterruptedException {
+    // GIVEN
+    final var clock = new MutableClock( Instant.parse( "2022-11-01T10:00:00Z" ) );
+    final var released = new CountDownLatch( 1 );
+    service = new DefaultGeneratePdfJobService( request -> new GeneratePdfResponse( request,
+        Binary.create( "application/pdf", "test.pdf", new byte[]{ 1 } ), null, released::countDown ), 1, 4,
+        Duration.ofMinutes( 1 ), clock );
+    final var job = service.submit( request( "request-1" ) );
+    awaitDone( job );
+    final var download = job.retain().orElseThrow();
+
+    // WHEN
+    clock.advance( Duration.ofMinutes( 2 ) );
+    assertTrue( service.find( job.getId() ).isEmpty() );
+    final var releasedDuringDownload = released.getCount() == 0;
+    download.run();
+    download.run();
+
+    // THEN
+    assertFalse( releasedDuringDownload );
+    assertEquals( 0, released.getCount() );
+    assertTrue( job.retain().isEmpty() );
+  }
+
+  @Test
+  void purgeExpiredJobsInBackground() throws InterruptedException {
+    // GIVEN
+    final var released = new CountDownLatch( 1 );
+    service = new DefaultGeneratePdfJobService( request -> new GeneratePdfResponse( request,
+        Binary.create( "application/pdf", "test.pdf", new byte[]{ 1 } ), null, released::countDown ), 1, 4,
+        Duration.ofMillis( 10 ) );
+
+    // WHEN
+    awaitDone( service.submit( request( "request-1" ) ) );
+
+    // THEN
+    assertTrue( released.await( 10, TimeUnit.SECONDS ) );
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private volatile Instant now;
+
+    private MutableClock( final Instant now ) {
+      this.now = now;
+    }
+
+    void advance( final Duration duration ) {
+      now = now.plus( duration );
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone( final ZoneId zone ) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+
+  @Test
+  void releaseTheArchivesOfTheJobsDroppedByTheShutdown() throws IOException, InterruptedException {
+    // GIVEN
+    final var started = new CountDownLatch( 1 );
+    service = new DefaultGeneratePdfJobService( request -> {
+      started.countDown();
+      try {
+        Thread.sleep( 60_000 );
+      } catch ( final InterruptedException e ) {
+        Thread.currentThread().interrupt();
+      }
+      return success( request );
+    }, 1, 4, Duration.ofMinutes( 1 ) );
+    final var file = Files.createTempFile( "gidac-", ".zip" );
+    Files.write( file, new byte[]{ 1 } );
+    service.submit( request( "request-1" ) );
+    final var queued = service.submit( new GeneratePdfRequest( "request-2",
+        Archive.createFromFile( "file", "file.zip", file, "application/zip" ) ) );
+    assertTrue( started.await( 10, TimeUnit.SECONDS ) );
+
+    // WHEN
+    // the interrupted wait for the running jobs drops the queued ones right away
+    Thread.currentThread().interrupt();
+    service.close();
+    Thread.interrupted();
+
+    // THEN
+    assertEquals( JobStatus.FAILED, queued.getStatus() );
+    assertFalse( Files.exists( file ) );
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.benchmarks.compress;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Generator of the directories zipped and extracted by the benchmarks.
+ *
+ * <p>The directories are flat, as the output directories packed by the recipes. The {@code .xml} files are text which
+ * deflates well, the {@code .png} files are random bytes which do not compress, as the images of the archives.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public final class SyntheticArchives {
+
+  /**
+   * Many small text files, as the topics of a documentation.
+   */
+  public static final String MANY_SMALL = "many-small";
+
+  /**
+   * A few large files, as generated pdfs.
+   */
+  public static final String FEW_LARGE = "few-large";
+
+  /**
+   * Text files and images.
+   */
+  public static final String MIXED = "mixed";
+
+  private SyntheticArchives() {
+  }
+
+  /**
+   * Fill a directory with files of a given shape.
+   *
+   * @param directory the directory, it is created if it does not exist.
+   * @param shape     the shape of the content ({@link #MANY_SMALL}, {@link #FEW_LARGE} or {@link #MIXED}).
+   *
+   * @return the directory.
+   *
+   * @throws IOException thrown if the files cannot be written.
+   */
+  public static Path create( final Path directory, final String shape ) throws IOException {
+    Files.createDirectories( directory );
+    final var random = new Random( 42 );
+    switch ( shape ) {
+      case MANY_SMALL -> write( directory, random, 2000, 2 * 1024, 0 );
+      case FEW_LARGE -> {
+        write( directory, random, 2, 8 * 1024 * 1024, 0 );
+        write( directory, random, 2, 0, 8 * 1024 * 1024 );
+      }
+      case MIXED -> {
+        write( directory, random, 200, 8 * 1024, 0 );
+        write( directory, random, 20, 0, 256 * 1024 );
+      }
+      default -> throw new IllegalArgumentException( "Unknown shape " + shape );
+    }
+    return directory;
+  }
+
+  private static void write( final Path directory, final Random random, final int count, final int textSize,
+                             final int binarySize ) throws IOException {
+    for ( var i = 0; i < count; i++ ) {
+      if ( textSize > 0 ) {
+        Files.writeString( directory.resolve( "topic-" + textSize + "-" + i + ".xml" ), text( random, textSize ),
+            StandardCharsets.UTF_8 );
+      } else {
+        final var bytes = new byte[binarySize];
+        random.nextBytes( bytes );
+        Files.write( directory.resolve( "image-" + binarySize + "-" + i + ".png" ), bytes );
+      }
+    }
+  }
+
+  private static String text( final Random random, final int size ) {
+    final var builder = new StringBuilder( size + 64 );
+    while ( builder.length() < size ) {
+      builder.append( "<p id=\"p" ).append( random.nextInt( 1000 ) ).append( "\">Lorem ipsum dolor sit amet</p>\n" );
+    }
+    return builder.toString();
+  }
+}
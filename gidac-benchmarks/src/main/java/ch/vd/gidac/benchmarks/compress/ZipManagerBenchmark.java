@@ -0,0 +1,124 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.benchmarks.compress;
+
+import ch.vd.gidac.domain.core.compress.DefaultZipManager;
+import ch.vd.gidac.domain.core.compress.ParallelZipManager;
+import ch.vd.gidac.domain.core.compress.ZipManager;
+import org.apache.commons.io.file.PathUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the pack of the outputs and of the extraction of the archives of the recipes.
+ *
+ * <p>The {@link DefaultZipManager} runs with a parallelism of {@code 1}, the {@link ParallelZipManager} otherwise. The
+ * extraction reads the archive from memory, as the uploads which are not spooled to disk. Each extraction writes into
+ * an empty directory, it is emptied outside the measure.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class ZipManagerBenchmark {
+
+  @Param( { SyntheticArchives.MANY_SMALL, SyntheticArchives.FEW_LARGE, SyntheticArchives.MIXED } )
+  private String shape;
+
+  @Param( { "1", "4" } )
+  private int parallelism;
+
+  private Path root;
+
+  private Path source;
+
+  private Path target;
+
+  private byte[] archive;
+
+  private ZipManager zipManager;
+
+  @Setup
+  public void setUp() throws IOException {
+    root = Files.createTempDirectory( "gidac-zip-benchmark" );
+    source = SyntheticArchives.create( root.resolve( "source" ), shape );
+    target = root.resolve( "target" );
+    zipManager = 1 == parallelism ? new DefaultZipManager() : new ParallelZipManager( parallelism );
+    final var zip = zipManager.zip( source );
+    archive = Files.readAllBytes( zip.toPath() );
+    Files.delete( zip.toPath() );
+  }
+
+  @Setup( Level.Invocation )
+  public void emptyTarget() throws IOException {
+    // the operations take milliseconds, the cost of the invocation level is negligible.
+    if ( Files.exists( target ) ) {
+      PathUtils.deleteDirectory( target );
+    }
+    Files.createDirectories( target );
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    if ( zipManager instanceof ParallelZipManager parallel ) {
+      parallel.close();
+    }
+    PathUtils.deleteDirectory( root );
+  }
+
+  @Benchmark
+  public File zip() throws IOException {
+    final var zip = zipManager.zip( source );
+    Files.delete( zip.toPath() );
+    return zip;
+  }
+
+  @Benchmark
+  public Path unzip() throws IOException {
+    zipManager.unzip( archive, target );
+    return target;
+  }
+}
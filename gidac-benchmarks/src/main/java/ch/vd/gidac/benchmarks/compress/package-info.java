@@ -20,10 +20,12 @@
  * SOFTWARE.
  */
 
+
 /**
- * Defines all aspects to use in the presentation layer of the application.
+ * JMH benchmarks of the compression and the extraction of the archives.
  *
  * @version 0.0.1
  * @since 0.0.1
  */
-package ch.vd.gidac.presentation.web.core.aspects;
\ No newline at end of file
+
+package ch.vd.gidac.benchmarks.compress;
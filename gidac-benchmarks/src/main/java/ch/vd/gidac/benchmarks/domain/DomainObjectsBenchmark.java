@@ -0,0 +1,110 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.benchmarks.domain;
+
+import ch.vd.gidac.domain.core.Archive;
+import ch.vd.gidac.domain.core.Binary;
+import org.apache.commons.io.file.PathUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the creation of the archives received and of the binaries answered, including the checks of their
+ * specifications.
+ *
+ * <p>The in-memory variants depend on the size of the payload when the specifications read it, the file-backed
+ * variants only check the file.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class DomainObjectsBenchmark {
+
+  /**
+   * Size of the payload, in KB.
+   */
+  @Param( { "1", "1024", "65536" } )
+  private int sizeKb;
+
+  private byte[] payload;
+
+  private Path root;
+
+  private Path file;
+
+  @Setup
+  public void setUp() throws IOException {
+    payload = new byte[sizeKb * 1024];
+    new Random( 42 ).nextBytes( payload );
+    root = Files.createTempDirectory( "gidac-domain-benchmark" );
+    file = Files.write( root.resolve( "archive.zip" ), payload );
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    PathUtils.deleteDirectory( root );
+  }
+
+  @Benchmark
+  public Archive createArchive() {
+    return Archive.create( "archive.zip", payload, "application/zip" );
+  }
+
+  @Benchmark
+  public Archive createArchiveFromFile() {
+    return Archive.createFromFile( "archive.zip", "archive.zip", file, "application/zip" );
+  }
+
+  @Benchmark
+  public Binary createBinary() {
+    return Binary.create( "application/pdf", "output.pdf", payload );
+  }
+
+  @Benchmark
+  public Binary createBinaryFromFile() {
+    return Binary.createFromFile( "application/pdf", "output.pdf", file );
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.benchmarks.fs;
+
+import ch.vd.gidac.domain.core.RequestId;
+import ch.vd.gidac.domain.core.WorkingDirectory;
+import org.apache.commons.io.file.PathUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the working directory of each recipe.
+ *
+ * <ul>
+ *   <li>{@code createAndCleanup}: layout of a temporary working directory created for a request, then deleted.</li>
+ *   <li>{@code lockAndDirtyCycle}: markers written and deleted around the processing of a request.</li>
+ *   <li>{@code wipe}: reset of a working directory of the pool between two requests.</li>
+ * </ul>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class WorkingDirectoryBenchmark {
+
+  private Path root;
+
+  private WorkingDirectory workingDirectory;
+
+  @Setup
+  public void setUp() throws IOException {
+    root = Files.createTempDirectory( "gidac-workdir-benchmark" );
+    workingDirectory = WorkingDirectory.create( root.resolve( "slot" ) );
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    PathUtils.deleteDirectory( root );
+  }
+
+  @Benchmark
+  public WorkingDirectory createAndCleanup() throws IOException {
+    return WorkingDirectory.create( RequestId.generate() ).cleanup();
+  }
+
+  @Benchmark
+  public WorkingDirectory lockAndDirtyCycle() throws IOException {
+    workingDirectory.lock();
+    workingDirectory.markDirty();
+    workingDirectory.markClean();
+    workingDirectory.unlock();
+    return workingDirectory;
+  }
+
+  @Benchmark
+  public WorkingDirectory wipe() throws IOException {
+    workingDirectory.lock();
+    workingDirectory.markDirty();
+    Files.writeString( workingDirectory.inputDirectory().resolve( "manifest.xml" ), "<manifest/>" );
+    workingDirectory.isolate( "item-0" );
+    return workingDirectory.wipe();
+  }
+}
@@ -20,11 +20,12 @@
  * SOFTWARE.
  */
 
+
 /**
- * This package defines aspects to use for logging.
+ * JMH benchmarks of the working directories of the recipes.
  *
  * @version 0.0.1
  * @since 0.0.1
  */
 
-package ch.vd.gidac.presentation.web.core.aspects.logging;
\ No newline at end of file
+package ch.vd.gidac.benchmarks.fs;
@@ -0,0 +1,271 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.benchmarks.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Driver of the load tests: it sends the archives of each scenario to {@code /binaries} and reports the throughput,
+ * the percentiles of the latency and the behavior of the heap and of the garbage collector of the application.
+ *
+ * <p>The heap and the garbage collections are read from the metrics endpoint of the application before and after
+ * each scenario, they are reported as unknown if the endpoint is not reachable. The application must run the
+ * simulated toolkit ({@code loadtest} profile), so that the results measure the cost of the service itself.</p>
+ *
+ * <p>Options, all optional:</p>
+ * <ul>
+ *   <li>{@code --url=http://localhost:8080}: the root of the application.</li>
+ *   <li>{@code --user=...} and {@code --password=...}: the basic-auth credentials.</li>
+ *   <li>{@code --scenario=name:items:files:fileSizeKb:concurrency:requests}: repeatable, see {@link Scenario}.</li>
+ *   <li>{@code --warmup=20}: the requests sent before each scenario, not measured.</li>
+ *   <li>{@code --output=target/load-result.json}: the file receiving the results as json.</li>
+ * </ul>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public final class LoadDriver {
+
+  private static final List<String> DEFAULT_SCENARIOS = List.of(
+      "small:1:5:4:4:200",
+      "medium:10:20:16:8:200",
+      "large:50:20:64:4:50" );
+
+  private static final Pattern STATISTIC = Pattern.compile(
+      "\"statistic\"\\s*:\\s*\"([A-Z_]+)\"\\s*,\\s*\"value\"\\s*:\\s*([-0-9.Ee+]+)" );
+
+  private final HttpClient client = HttpClient.newBuilder()
+      .version( HttpClient.Version.HTTP_1_1 )
+      .connectTimeout( Duration.ofSeconds( 10 ) )
+      .build();
+
+  private final URI root;
+
+  private final String authorization;
+
+  private final int warmup;
+
+  LoadDriver( final URI root, final String user, final String password, final int warmup ) {
+    this.root = root;
+    this.authorization = "Basic " + Base64.getEncoder()
+        .encodeToString( ( user + ':' + password ).getBytes( StandardCharsets.UTF_8 ) );
+    this.warmup = warmup;
+  }
+
+  public static void main( final String[] args ) throws IOException, InterruptedException, ExecutionException {
+    final var options = new TreeMap<String, List<String>>();
+    for ( final var arg : args ) {
+      final var separator = arg.indexOf( '=' );
+      if ( !arg.startsWith( "--" ) || separator < 0 ) {
+        throw new IllegalArgumentException( "Options are given as --name=value: " + arg );
+      }
+      options.computeIfAbsent( arg.substring( 2, separator ), k -> new ArrayList<>() )
+          .add( arg.substring( separator + 1 ) );
+    }
+    final var driver = new LoadDriver( URI.create( option( options, "url", "http://localhost:8080" ) ),
+        option( options, "user", "oscar" ),
+        option( options, "password", "PhP7vvnPpfN7SC7" ),
+        Integer.parseInt( option( options, "warmup", "20" ) ) );
+    final var scenarios = options.getOrDefault( "scenario", DEFAULT_SCENARIOS ).stream().map( Scenario::parse ).toList();
+
+    final var results = new ArrayList<ScenarioResult>();
+    System.out.println( ScenarioResult.header() );
+    for ( final var scenario : scenarios ) {
+      final var result = driver.run( scenario );
+      System.out.println( result.toLine() );
+      results.add( result );
+    }
+
+    final var output = Path.of( option( options, "output", "target/load-result.json" ) );
+    if ( null != output.toAbsolutePath().getParent() ) {
+      Files.createDirectories( output.toAbsolutePath().getParent() );
+    }
+    Files.writeString( output, results.stream()
+        .map( ScenarioResult::toJson )
+        .collect( Collectors.joining( ",\n  ", "[\n  ", "\n]\n" ) ) );
+  }
+
+  private static String option( final Map<String, List<String>> options, final String name, final String value ) {
+    final var values = options.get( name );
+    return null == values ? value : values.get( values.size() - 1 );
+  }
+
+  /**
+   * Run a scenario: the warmup requests, then the measured requests.
+   *
+   * @param scenario the scenario.
+   *
+   * @return the result of the scenario.
+   */
+  ScenarioResult run( final Scenario scenario ) throws IOException, InterruptedException, ExecutionException {
+    final var archive = SyntheticDitaArchives.create( scenario.items(), scenario.files(), scenario.fileSizeKb() * 1024 );
+    final var boundary = "gidac-" + UUID.randomUUID();
+    final var body = multipart( boundary, archive );
+
+    send( scenario.concurrency(), warmup, boundary, body, new long[warmup], new ConcurrentHashMap<>() );
+
+    final var gcBefore = metric( "jvm.gc.pause", "" );
+    final var latencies = new long[scenario.requests()];
+    final var failures = new ConcurrentHashMap<Integer, AtomicInteger>();
+    final var start = System.nanoTime();
+    send( scenario.concurrency(), scenario.requests(), boundary, body, latencies, failures );
+    final var seconds = ( System.nanoTime() - start ) / 1e9;
+    final var gcAfter = metric( "jvm.gc.pause", "" );
+    final var heap = metric( "jvm.memory.used", "?tag=area:heap" );
+
+    Arrays.sort( latencies );
+    final var failed = failures.values().stream().mapToInt( AtomicInteger::get ).sum();
+    final var statuses = new TreeMap<>( failures ).entrySet().stream()
+        .map( e -> e.getKey() + "=" + e.getValue() )
+        .collect( Collectors.joining( "," ) );
+    return new ScenarioResult( scenario, archive.length, scenario.requests() - failed, failed, statuses, seconds,
+        percentile( latencies, 50 ), percentile( latencies, 90 ), percentile( latencies, 99 ),
+        latencies[latencies.length - 1] / 1e6,
+        heap.containsKey( "VALUE" ) ? heap.get( "VALUE" ) / ( 1024 * 1024 ) : -1,
+        difference( gcBefore, gcAfter, "COUNT", 1 ),
+        difference( gcBefore, gcAfter, "TOTAL_TIME", 1000 ) );
+  }
+
+  /**
+   * Send the requests with a given concurrency, the status {@code -1} stands for the requests which failed without
+   * answer.
+   */
+  private void send( final int concurrency, final int requests, final String boundary, final byte[] body,
+                     final long[] latencies, final Map<Integer, AtomicInteger> failures )
+      throws InterruptedException, ExecutionException {
+    final var next = new AtomicInteger();
+    final var executor = Executors.newFixedThreadPool( concurrency );
+    try {
+      final var workers = new ArrayList<Future<?>>();
+      for ( var i = 0; i < concurrency; i++ ) {
+        workers.add( executor.submit( () -> {
+          for ( var index = next.getAndIncrement(); index < requests; index = next.getAndIncrement() ) {
+            final var start = System.nanoTime();
+            final var status = post( boundary, body );
+            latencies[index] = System.nanoTime() - start;
+            if ( status != 200 ) {
+              failures.computeIfAbsent( status, k -> new AtomicInteger() ).incrementAndGet();
+            }
+          }
+        } ) );
+      }
+      for ( final var worker : workers ) {
+        worker.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private int post( final String boundary, final byte[] body ) {
+    final var request = HttpRequest.newBuilder( root.resolve( "/binaries" ) )
+        .header( "Authorization", authorization )
+        .header( "Content-Type", "multipart/form-data; boundary=" + boundary )
+        .header( "Accept", "application/pdf, application/zip" )
+        .timeout( Duration.ofMinutes( 5 ) )
+        .POST( HttpRequest.BodyPublishers.ofByteArray( body ) )
+        .build();
+    try {
+      return client.send( request, HttpResponse.BodyHandlers.discarding() ).statusCode();
+    } catch ( final IOException e ) {
+      return -1;
+    } catch ( final InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      return -1;
+    }
+  }
+
+  private static byte[] multipart( final String boundary, final byte[] archive ) {
+    final var head = ( "--" + boundary + "\r\n"
+        + "Content-Disposition: form-data; name=\"file\"; filename=\"archive.zip\"\r\n"
+        + "Content-Type: application/zip\r\n\r\n" ).getBytes( StandardCharsets.UTF_8 );
+    final var tail = ( "\r\n--" + boundary + "--\r\n" ).getBytes( StandardCharsets.UTF_8 );
+    final var body = new byte[head.length + archive.length + tail.length];
+    System.arraycopy( head, 0, body, 0, head.length );
+    System.arraycopy( archive, 0, body, head.length, archive.length );
+    System.arraycopy( tail, 0, body, head.length + archive.length, tail.length );
+    return body;
+  }
+
+  /**
+   * Read the statistics of a meter of the application, empty if the metrics endpoint is not reachable.
+   */
+  private Map<String, Double> metric( final String name, final String query ) {
+    final var request = HttpRequest.newBuilder( root.resolve( "/actuator/metrics/" + name + query ) )
+        .header( "Authorization", authorization )
+        .timeout( Duration.ofSeconds( 10 ) )
+        .GET()
+        .build();
+    final var statistics = new TreeMap<String, Double>();
+    try {
+      final var response = client.send( request, HttpResponse.BodyHandlers.ofString() );
+      if ( response.statusCode() == 200 ) {
+        final var matcher = STATISTIC.matcher( response.body() );
+        while ( matcher.find() ) {
+          statistics.put( matcher.group( 1 ), Double.parseDouble( matcher.group( 2 ) ) );
+        }
+      }
+    } catch ( final IOException e ) {
+      // the statistics are reported as unknown.
+    } catch ( final InterruptedException e ) {
+      Thread.currentThread().interrupt();
+    }
+    return statistics;
+  }
+
+  private static double difference( final Map<String, Double> before, final Map<String, Double> after,
+                                    final String statistic, final double scale ) {
+    if ( !after.containsKey( statistic ) ) {
+      return -1;
+    }
+    return ( after.get( statistic ) - before.getOrDefault( statistic, 0d ) ) * scale;
+  }
+
+  private static double percentile( final long[] sorted, final int percentile ) {
+    final var rank = (int) Math.ceil( percentile / 100d * sorted.length );
+    return sorted[Math.max( 0, rank - 1 )] / 1e6;
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.benchmarks.load;
+
+/**
+ * Scenario of a load test: shape of the archives sent and load applied.
+ *
+ * @param name        the name of the scenario in the report.
+ * @param items       the number of items (ditamaps) of each archive.
+ * @param files       the number of topics of each item.
+ * @param fileSizeKb  the size of each topic, in KB.
+ * @param concurrency the number of requests sent at the same time.
+ * @param requests    the number of requests measured.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public record Scenario( String name, int items, int files, int fileSizeKb, int concurrency, int requests ) {
+
+  public Scenario {
+    if ( items < 1 || files < 0 || fileSizeKb < 0 || concurrency < 1 || requests < 1 ) {
+      throw new IllegalArgumentException( "Invalid scenario " + name );
+    }
+  }
+
+  /**
+   * Read a scenario from its definition {@code name:items:files:fileSizeKb:concurrency:requests}.
+   *
+   * @param definition the definition.
+   *
+   * @return the scenario.
+   *
+   * @throws IllegalArgumentException thrown if the definition is not valid.
+   */
+  public static Scenario parse( final String definition ) {
+    final var parts = definition.split( ":" );
+    if ( parts.length != 6 ) {
+      throw new IllegalArgumentException( "A scenario is defined as name:items:files:fileSizeKb:concurrency:requests" );
+    }
+    return new Scenario( parts[0], Integer.parseInt( parts[1] ), Integer.parseInt( parts[2] ),
+        Integer.parseInt( parts[3] ), Integer.parseInt( parts[4] ), Integer.parseInt( parts[5] ) );
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.benchmarks.load;
+
+import java.util.Locale;
+
+/**
+ * Result of a scenario of a load test.
+ *
+ * @param scenario      the scenario.
+ * @param archiveSize   the size of the archives sent, in bytes.
+ * @param succeeded     the number of requests answered with a binary.
+ * @param failed        the number of requests rejected or failed.
+ * @param statuses      the count of the statuses of the failed requests, as {@code status=count} pairs.
+ * @param seconds       the duration of the measure.
+ * @param p50Millis     the median latency.
+ * @param p90Millis     the 90th percentile of the latency.
+ * @param p99Millis     the 99th percentile of the latency.
+ * @param maxMillis     the maximum latency.
+ * @param heapUsedMb    the heap used by the application at the end of the scenario, {@code -1} if unknown.
+ * @param gcPauses      the number of garbage collections of the application during the scenario, {@code -1} if
+ *                      unknown.
+ * @param gcPauseMillis the time spent by the application in the garbage collections during the scenario, {@code -1}
+ *                      if unknown.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public record ScenarioResult( Scenario scenario,
+                              long archiveSize,
+                              int succeeded,
+                              int failed,
+                              String statuses,
+                              double seconds,
+                              double p50Millis,
+                              double p90Millis,
+                              double p99Millis,
+                              double maxMillis,
+                              double heapUsedMb,
+                              double gcPauses,
+                              double gcPauseMillis ) {
+
+  /**
+   * Get the number of requests answered per second.
+   *
+   * @return the throughput.
+   */
+  public double throughput() {
+    return seconds > 0 ? ( succeeded + failed ) / seconds : 0;
+  }
+
+  /**
+   * Format the result as a json object.
+   *
+   * @return the json object.
+   */
+  public String toJson() {
+    return String.format( Locale.ROOT, "{\"scenario\":\"%s\",\"items\":%d,\"files\":%d,\"fileSizeKb\":%d,"
+            + "\"concurrency\":%d,\"requests\":%d,\"archiveSize\":%d,\"succeeded\":%d,\"failed\":%d,"
+            + "\"statuses\":\"%s\",\"seconds\":%.3f,\"throughput\":%.3f,\"p50Millis\":%.3f,\"p90Millis\":%.3f,"
+            + "\"p99Millis\":%.3f,\"maxMillis\":%.3f,\"heapUsedMb\":%.1f,\"gcPauses\":%.0f,\"gcPauseMillis\":%.3f}",
+        scenario.name(), scenario.items(), scenario.files(), scenario.fileSizeKb(), scenario.concurrency(),
+        scenario.requests(), archiveSize, succeeded, failed, statuses, seconds, throughput(), p50Millis, p90Millis,
+        p99Millis, maxMillis, heapUsedMb, gcPauses, gcPauseMillis );
+  }
+
+  /**
+   * Format the result as a line of the report.
+   *
+   * @return the line.
+   */
+  public String toLine() {
+    return String.format( Locale.ROOT, "%-12s %10d %6d %6d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f %7.0f %9.1f  %s",
+        scenario.name(), archiveSize, succeeded, failed, throughput(), p50Millis, p90Millis, p99Millis, maxMillis,
+        heapUsedMb, gcPauses, gcPauseMillis, statuses );
+  }
+
+  /**
+   * Get the header of the lines of the report.
+   *
+   * @return the header.
+   */
+  public static String header() {
+    return String.format( Locale.ROOT, "%-12s %10s %6s %6s %9s %9s %9s %9s %9s %9s %7s %9s  %s",
+        "scenario", "archive", "ok", "ko", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "heap MB", "gc",
+        "gc ms", "failures" );
+  }
+}
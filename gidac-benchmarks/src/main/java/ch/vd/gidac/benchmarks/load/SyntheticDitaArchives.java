@@ -0,0 +1,93 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.benchmarks.load;
+
+import ch.vd.gidac.benchmarks.manifest.SyntheticManifests;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Generator of the archives sent by the load tests: a manifest with its ditamaps, topics and stylesheet.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public final class SyntheticDitaArchives {
+
+  private SyntheticDitaArchives() {
+  }
+
+  /**
+   * Create the content of an archive.
+   *
+   * @param items    the number of items (ditamaps) of the manifest.
+   * @param files    the number of topics of each item.
+   * @param fileSize the size of each topic, in bytes.
+   *
+   * @return the content of the zip.
+   *
+   * @throws IOException thrown if the zip cannot be written.
+   */
+  public static byte[] create( final int items, final int files, final int fileSize ) throws IOException {
+    final var bytes = new ByteArrayOutputStream();
+    try ( var zip = new ZipOutputStream( bytes ) ) {
+      write( zip, "manifest.xml", SyntheticManifests.create( items, files ) );
+      write( zip, "sheet.css", "body { font-family: sans-serif; }\n" );
+      // the directories have their own entries, as in the archives created by the zip tools.
+      zip.putNextEntry( new ZipEntry( "topics/" ) );
+      zip.closeEntry();
+      for ( var i = 0; i < items; i++ ) {
+        final var map = new StringBuilder( "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<map>\n" );
+        for ( var j = 0; j < files; j++ ) {
+          final var topic = "topics/topic-" + i + '-' + j + ".dita";
+          map.append( "  <topicref href=\"" ).append( topic ).append( "\"/>\n" );
+          write( zip, topic, topic( i, j, fileSize ) );
+        }
+        write( zip, "map-" + i + ".ditamap", map.append( "</map>\n" ).toString() );
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  private static String topic( final int item, final int file, final int size ) {
+    final var builder = new StringBuilder( size + 128 )
+        .append( "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<topic id=\"t-" ).append( item ).append( '-' )
+        .append( file ).append( "\">\n  <title>Topic " ).append( file ).append( "</title>\n  <body>\n" );
+    var paragraph = 0;
+    while ( builder.length() < size ) {
+      builder.append( "    <p>Paragraph " ).append( paragraph++ ).append( " lorem ipsum dolor sit amet.</p>\n" );
+    }
+    return builder.append( "  </body>\n</topic>\n" ).toString();
+  }
+
+  private static void write( final ZipOutputStream zip, final String name, final String content ) throws IOException {
+    zip.putNextEntry( new ZipEntry( name ) );
+    zip.write( content.getBytes( StandardCharsets.UTF_8 ) );
+    zip.closeEntry();
+  }
+}
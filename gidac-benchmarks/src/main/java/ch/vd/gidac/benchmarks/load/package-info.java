@@ -0,0 +1,53 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+/**
+ * End-to-end load tests of the http api, against an application running the simulated toolkit.
+ *
+ * <p>The application is started with the {@code loadtest} profile, which simulates the toolkit and disables the
+ * caches, then the driver sends the scenarios to {@code /binaries}:</p>
+ * <pre>
+ *   java -jar gidac-presentation/target/gidac-presentation-0.0.1-SNAPSHOT.jar --spring.profiles.active=loadtest
+ *   java -cp gidac-benchmarks/target/benchmarks.jar ch.vd.gidac.benchmarks.load.LoadDriver \
+ *       --scenario=small:1:5:4:4:200 --scenario=large:50:20:64:4:50 --output=target/load-result.json
+ * </pre>
+ *
+ * <p>The execution models of the requests are compared by sending the same burst of concurrent uploads to the
+ * application started with the platform threads, then with the virtual threads (which require Java 21, the platform
+ * threads are kept on older runtimes):</p>
+ * <pre>
+ *   java -jar gidac-presentation/target/gidac-presentation-0.0.1-SNAPSHOT.jar --spring.profiles.active=loadtest \
+ *       --application.run.processing.threads.virtual=false
+ *   java -cp gidac-benchmarks/target/benchmarks.jar ch.vd.gidac.benchmarks.load.LoadDriver \
+ *       --scenario=burst:1:5:4:500:2000 --output=target/load-platform.json
+ *   java -jar gidac-presentation/target/gidac-presentation-0.0.1-SNAPSHOT.jar --spring.profiles.active=loadtest \
+ *       --application.run.processing.threads.virtual=true
+ *   java -cp gidac-benchmarks/target/benchmarks.jar ch.vd.gidac.benchmarks.load.LoadDriver \
+ *       --scenario=burst:1:5:4:500:2000 --output=target/load-virtual.json
+ * </pre>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+
+package ch.vd.gidac.benchmarks.load;
@@ -0,0 +1,113 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.benchmarks.manifest;
+
+import ch.vd.gidac.domain.manifest.Manifest;
+import ch.vd.gidac.domain.manifest.ManifestUnmarshaller;
+import ch.vd.gidac.domain.manifest.StaxManifestUnmarshaller;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the unmarshalling of a manifest for each request.
+ *
+ * <p>{@code newContextPerCall} reproduces the former implementation which created a {@link JAXBContext} for each
+ * manifest, the other benchmarks use the shared context of the {@link ManifestUnmarshaller}, with and without the
+ * validation against the schema, or the StAX parser of the {@link StaxManifestUnmarshaller}.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class ManifestUnmarshallerBenchmark {
+
+  /**
+   * Number of items of the manifest.
+   */
+  @Param( { "1", "100", "5000", "50000" } )
+  private int items;
+
+  private byte[] manifest;
+
+  private ManifestUnmarshaller unmarshaller;
+
+  private ManifestUnmarshaller validatingUnmarshaller;
+
+  private ManifestUnmarshaller staxUnmarshaller;
+
+  @Setup
+  public void setUp() {
+    manifest = SyntheticManifests.create( items, 5 ).getBytes( StandardCharsets.UTF_8 );
+    unmarshaller = new ManifestUnmarshaller();
+    validatingUnmarshaller = new ManifestUnmarshaller( true );
+    staxUnmarshaller = new StaxManifestUnmarshaller();
+  }
+
+  @Benchmark
+  public Manifest newContextPerCall() throws JAXBException {
+    final var jaxbContext = JAXBContext.newInstance( Manifest.class );
+    final var jaxbUnmarshaller = jaxbContext.createUnmarshaller();
+    return (Manifest) jaxbUnmarshaller.unmarshal( new ByteArrayInputStream( manifest ) );
+  }
+
+  @Benchmark
+  public Manifest sharedContext() {
+    return unmarshaller.unmarshall( new ByteArrayInputStream( manifest ), true );
+  }
+
+  @Benchmark
+  public Manifest sharedContextValidating() {
+    return validatingUnmarshaller.unmarshall( new ByteArrayInputStream( manifest ), true );
+  }
+
+  @Benchmark
+  public Manifest stax() {
+    return staxUnmarshaller.unmarshall( new ByteArrayInputStream( manifest ), true );
+  }
+
+  @Benchmark
+  public void staxStreaming( final Blackhole blackhole ) {
+    blackhole.consume( staxUnmarshaller.unmarshall( new ByteArrayInputStream( manifest ), true, blackhole::consume ) );
+  }
+}
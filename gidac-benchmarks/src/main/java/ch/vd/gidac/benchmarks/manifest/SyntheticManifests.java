@@ -0,0 +1,59 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.benchmarks.manifest;
+
+/**
+ * Generator of manifests used as input of the benchmarks.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public final class SyntheticManifests {
+
+  private SyntheticManifests() {
+  }
+
+  /**
+   * Create the content of a manifest.
+   *
+   * @param items the number of items of the manifest.
+   * @param files the number of files of each item.
+   *
+   * @return the xml content of the manifest.
+   */
+  public static String create( final int items, final int files ) {
+    final var builder = new StringBuilder( "<manifest version=\"1.0\">\n  <items>\n" );
+    for ( var i = 0; i < items; i++ ) {
+      builder.append( "    <item>\n" )
+          .append( "      <name>" ).append( i ).append( "</name>\n" )
+          .append( "      <ditamap>map-" ).append( i ).append( ".ditamap</ditamap>\n" )
+          .append( "      <files>\n" );
+      for ( var j = 0; j < files; j++ ) {
+        builder.append( "        <file>topics/topic-" ).append( i ).append( '-' ).append( j ).append( ".dita</file>\n" );
+      }
+      builder.append( "      </files>\n" )
+          .append( "    </item>\n" );
+    }
+    return builder.append( "  </items>\n  <stylesheet>sheet.css</stylesheet>\n</manifest>\n" ).toString();
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.benchmarks.processor;
+
+import ch.vd.gidac.domain.core.pdf.processor.DefaultProcessor;
+import ch.vd.gidac.domain.core.pdf.processor.ProcessingRecipe;
+import org.apache.commons.exec.CommandLine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the preparation of the command run for each ditamap by the {@link DefaultProcessor}: build of the
+ * {@link ProcessingRecipe} and of the command line, the process itself is not started.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class DefaultProcessorBenchmark {
+
+  /**
+   * Stylesheet of the recipe, empty for none.
+   */
+  @Param( { "", "/tmp/gidac/input/style.css" } )
+  private String style;
+
+  private DefaultProcessor processor;
+
+  private ProcessingRecipe recipe;
+
+  @Setup
+  public void setUp() {
+    processor = new DefaultProcessor();
+    recipe = buildRecipe();
+  }
+
+  private ProcessingRecipe buildRecipe() {
+    return ProcessingRecipe.builder()
+        .executable( "/opt/dita-ot/bin/dita" )
+        .tmpDir( "/tmp/gidac/0b5ab1c2-8d3e-4f7a-9c61-2e4d5f6a7b8c/tmp" )
+        .ditaMap( "/tmp/gidac/0b5ab1c2-8d3e-4f7a-9c61-2e4d5f6a7b8c/input/flowers/flowers.ditamap" )
+        .outputDir( "/tmp/gidac/0b5ab1c2-8d3e-4f7a-9c61-2e4d5f6a7b8c/output" )
+        .format( "pdf" )
+        .style( style )
+        .build();
+  }
+
+  @Benchmark
+  public ProcessingRecipe recipe() {
+    return buildRecipe();
+  }
+
+  @Benchmark
+  public CommandLine commandLine() {
+    return processor.commandLine( recipe );
+  }
+
+  @Benchmark
+  public CommandLine recipeAndCommandLine() {
+    return processor.commandLine( buildRecipe() );
+  }
+}
@@ -23,22 +23,66 @@
 package ch.vd.gidac.domain.core;
 
 import ch.vd.gidac.domain.core.specifications.ArchiveCreationSpecification;
+import org.apache.commons.lang3.StringUtils;
 import org.javatuples.Quintet;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
 /**
  * Represent an archive to handle to generate the pdf.
  *
  * @param name         the name of the file.
  * @param originalName the original name of the file.
  * @param size         the size of the archive.
- * @param bytes        the content of the archive.
+ * @param bytes        the content of the archive, {@code null} when the archive is stored on disk.
  * @param contentType  the MIME type of the archive.
+ * @param path         the file holding the content of the archive, {@code null} when the content is in memory.
  *
  * @author Mehdi Lefebvre
  * @version 0.0.1
  * @since 0.0.1
  */
-public record Archive( String name, String originalName, long size, byte[] bytes, String contentType ) {
+public record Archive( String name, String originalName, long size, byte[] bytes, String contentType, Path path ) {
+
+  /**
+   * Create an archive whose content is held in memory.
+   *
+   * @param name         the name of the file.
+   * @param originalName the original name of the file.
+   * @param size         the size of the archive.
+   * @param bytes        the content of the archive.
+   * @param contentType  the MIME type of the archive.
+   */
+  public Archive( final String name, final String originalName, final long size, final byte[] bytes,
+                  final String contentType ) {
+    this( name, originalName, size, bytes, contentType, null );
+  }
+
+  /**
+   * Check if the content of the archive is stored on disk.
+   *
+   * @return {@code true} if the archive is backed by a file, {@code false} if its content is in memory.
+   */
+  public boolean isStoredOnDisk () {
+    return Objects.nonNull( path );
+  }
+
+  /**
+   * Delete the file backing the archive, if any.
+   *
+   * <p>Once the archive has been extracted (or rejected), its file is useless and should not wait for the clean up of
+   * the request to free the disk.</p>
+   *
+   * @throws IOException thrown if the file cannot be deleted.
+   */
+  public void release () throws IOException {
+    if (isStoredOnDisk()) {
+      Files.deleteIfExists( path );
+    }
+  }
 
   /**
    * Create specifications to pass to the specification from arguments valid on the archive creation content.
@@ -98,4 +142,36 @@ public record Archive( String name, String originalName, long size, byte[] bytes
   public static Archive create (final String name, final byte[] content, final String mimeType) {
     return create( name, name, content.length, content, mimeType );
   }
+
+  /**
+   * Create a new instance of an archive whose content is stored in a file.
+   *
+   * <p>The content is not loaded in memory, the archive only references the file. The size is read from the
+   * filesystem.</p>
+   *
+   * @param name         the name of the archive to create
+   * @param originalName the original name of the archive
+   * @param path         the file holding the content of the archive
+   * @param mimeType     the mime type of the archive
+   *
+   * @return a new instance of an archive.
+   *
+   * @throws InvalidArchiveCreationException thrown if the archive cannot be created with provided parameters.
+   */
+  public static Archive createFromFile (final String name, final String originalName, final Path path,
+                                        final String mimeType) {
+    if (StringUtils.isEmpty( name ) || StringUtils.isEmpty( originalName ) || StringUtils.isEmpty( mimeType ) ||
+        Objects.isNull( path ) || !Files.isRegularFile( path )) {
+      throw new InvalidArchiveCreationException( "The archive cannot be created since it is not compliant with business rules" );
+    }
+    try {
+      final var size = Files.size( path );
+      if (size == 0) {
+        throw new InvalidArchiveCreationException( "The archive cannot be created from an empty file" );
+      }
+      return new Archive( name, originalName, size, null, mimeType, path );
+    } catch (final IOException e) {
+      throw new InvalidArchiveCreationException( "The size of the archive cannot be read", e );
+    }
+  }
 }
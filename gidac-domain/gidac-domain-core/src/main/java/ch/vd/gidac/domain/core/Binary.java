@@ -23,18 +23,90 @@
 package ch.vd.gidac.domain.core;
 
 import ch.vd.gidac.domain.core.specifications.BinaryCreationSpecification;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Triple;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.Objects;
 
 /**
  * Represents a binary content to send back to the client.
  *
+ * <p>The content is either held in memory ({@code payload}) or stored in a file ({@code path}). A file-backed binary
+ * is only valid as long as its file exists, that is until the working directory of its recipe is cleaned up.</p>
+ *
  * @version 0.0.1
  * @since 0.0.1
  */
-public record Binary( String mimeType, String name, byte[] payload ) {
+public record Binary( String mimeType, String name, byte[] payload, Path path ) {
+
+  /**
+   * Create a binary whose content is held in memory.
+   *
+   * @param mimeType the mime type of the content.
+   * @param name     the name of the binary.
+   * @param payload  the content.
+   */
+  public Binary (final String mimeType, final String name, final byte[] payload) {
+    this( mimeType, name, payload, null );
+  }
+
+  /**
+   * Check if the content of the binary is stored on disk.
+   *
+   * @return {@code true} if the binary is backed by a file, {@code false} if its content is in memory.
+   */
+  public boolean isStoredOnDisk () {
+    return Objects.nonNull( path );
+  }
+
+  /**
+   * Get the size of the content.
+   *
+   * @return the size in bytes.
+   *
+   * @throws IOException thrown if the size of the file cannot be read.
+   */
+  public long size () throws IOException {
+    return isStoredOnDisk() ? Files.size( path ) : payload.length;
+  }
+
+  /**
+   * Write the content to a channel.
+   *
+   * <p>A file-backed content is transferred with {@link FileChannel#transferTo(long, long, WritableByteChannel)}, it
+   * is never loaded in the heap.</p>
+   *
+   * @param target the channel to write the content to.
+   *
+   * @return the number of bytes written.
+   *
+   * @throws IOException thrown if the content cannot be read or written.
+   */
+  public long transferTo (final WritableByteChannel target) throws IOException {
+    if (!isStoredOnDisk()) {
+      final var buffer = ByteBuffer.wrap( payload );
+      while (buffer.hasRemaining()) {
+        target.write( buffer );
+      }
+      return payload.length;
+    }
+    try (final var channel = FileChannel.open( path, StandardOpenOption.READ )) {
+      final var size = channel.size();
+      var position = 0L;
+      while (position < size) {
+        position += channel.transferTo( position, size - position, target );
+      }
+      return position;
+    }
+  }
 
   @Override
   public boolean equals (Object o) {
@@ -45,12 +117,13 @@ public record Binary( String mimeType, String name, byte[] payload ) {
       return false;
     }
     final Binary binary = (Binary) o;
-    return mimeType.equals( binary.mimeType ) && name.equals( binary.name ) && Arrays.equals( payload, binary.payload );
+    return mimeType.equals( binary.mimeType ) && name.equals( binary.name ) && Arrays.equals( payload, binary.payload )
+        && Objects.equals( path, binary.path );
   }
 
   @Override
   public int hashCode () {
-    int result = Objects.hash( mimeType, name );
+    int result = Objects.hash( mimeType, name, path );
     result = 31 * result + Arrays.hashCode( payload );
     return result;
   }
@@ -61,6 +134,7 @@ public record Binary( String mimeType, String name, byte[] payload ) {
         "mimeType='" + mimeType + '\'' +
         ", name='" + name + '\'' +
         ", payload=" + Arrays.toString( payload ) +
+        ", path=" + path +
         '}';
   }
 
@@ -71,4 +145,23 @@ public record Binary( String mimeType, String name, byte[] payload ) {
     }
     throw new IllegalArgumentException( "Provided argument are not valid regarding binary creation rules" );
   }
+
+  /**
+   * Create a binary whose content is stored in a file.
+   *
+   * @param mimeType the mime type of the content.
+   * @param name     the name of the binary.
+   * @param path     the file holding the content.
+   *
+   * @return the binary.
+   *
+   * @throws IllegalArgumentException thrown if the arguments are not valid or the file does not exist.
+   */
+  public static Binary createFromFile (final String mimeType, final String name, final Path path) {
+    if (StringUtils.isNotEmpty( mimeType ) && StringUtils.isNotEmpty( name ) && Objects.nonNull( path ) &&
+        Files.isRegularFile( path )) {
+      return new Binary( mimeType, name, null, path );
+    }
+    throw new IllegalArgumentException( "Provided argument are not valid regarding binary creation rules" );
+  }
 }
@@ -23,13 +23,28 @@
 package ch.vd.gidac.domain.core;
 
 import java.nio.file.Path;
+import java.util.List;
 
 /**
  * Represent a dita map in the scope of the pdf generation.
  *
- * @param value the path to the ditamap file
+ * @param value      the path to the ditamap file
+ * @param files      the files referenced by the ditamap, relative to the input directory
+ * @param stylesheet the stylesheet applied to the ditamap, {@code null} if none
  */
-public record DitaMap(Path value) {
+public record DitaMap(Path value, List<Path> files, Path stylesheet) {
+
+  public DitaMap {
+    files = null == files ? List.of() : List.copyOf( files );
+  }
+
+  public DitaMap( final Path value ) {
+    this( value, List.of(), null );
+  }
+
+  public static DitaMap create( final Path value, final List<Path> files, final Path stylesheet ) {
+    return new DitaMap( value, files, stylesheet );
+  }
 
   public static DitaMap fromPath( final Path value ) {
     return new DitaMap( value );
@@ -22,8 +22,12 @@
 
 package ch.vd.gidac.domain.core;
 
-import ch.vd.gidac.domain.core.compress.DefaultZipManager;
+import ch.vd.gidac.domain.core.bake.BakeStrategy;
+import ch.vd.gidac.domain.core.bake.SequentialBakeStrategy;
 import ch.vd.gidac.domain.core.compress.ZipManager;
+import ch.vd.gidac.domain.core.fs.WorkingDirectoryProvider;
+import ch.vd.gidac.domain.core.observe.RecipeObserver;
+import ch.vd.gidac.domain.core.observe.RecipeStage;
 import ch.vd.gidac.domain.core.pdf.PdfGenerator;
 import ch.vd.gidac.domain.core.specifications.IsProcessableArchiveSpecification;
 import ch.vd.gidac.domain.core.specifications.Specification;
@@ -36,8 +40,10 @@ import org.apache.commons.lang3.builder.HashCodeBuilder;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -50,6 +56,13 @@ import java.util.List;
  */
 public class PdfGenerationRecipe {
 
+  /**
+   * Name of the archive file in the working directory.
+   */
+  private static final String ARCHIVE_FILENAME = "archive.zip";
+
+  private static final ManifestUnmarshaller DEFAULT_UNMARSHALLER = new ManifestUnmarshaller();
+
   /**
    * The unique id of the request for which we are generating the binary
    */
@@ -80,11 +93,36 @@ public class PdfGenerationRecipe {
    */
   private WorkingDirectory workingDirectory;
 
+  /**
+   * The file of the archive once moved into the working directory (only for archives stored on disk).
+   */
+  private Path archiveFile;
+
+  /**
+   * Flag indicating the binary references the output file instead of holding its content.
+   */
+  private boolean streaming = false;
+
   /**
    * Manager to use during the process to interact with zip items
    */
   private final ZipManager zipManager;
 
+  /**
+   * Provider of the working directory, it takes it back once the recipe has been cleaned up.
+   */
+  private final WorkingDirectoryProvider workingDirectoryProvider;
+
+  /**
+   * Observer of the stages of the recipe (metrics, ...).
+   */
+  private final RecipeObserver observer;
+
+  /**
+   * Flag indicating the observer has been told the recipe started and must be told when it is over.
+   */
+  private boolean observed = false;
+
   /**
    * This is the specification to use to check if the archive is processable.
    */
@@ -93,15 +131,21 @@ public class PdfGenerationRecipe {
   /**
    * Create a new recipe to generate a pdf.
    *
-   * <p>A recipe can only be generated by a factory.</p>
+   * <p>A recipe can only be generated by a factory, see {@link SimplePdfGenerationRecipeFactory}.</p>
    *
-   * @param requestId the unique id of the process for which we are generating the binary.
-   * @param archive   the archive to use to read info to generate the binary.
+   * @param requestId                the unique id of the process for which we are generating the binary.
+   * @param archive                  the archive to use to read info to generate the binary.
+   * @param zipManager               the manager to use to extract the archive and to pack the outputs.
+   * @param workingDirectoryProvider the provider of the working directory of the recipe.
+   * @param observer                 the observer of the stages of the recipe.
    */
-  PdfGenerationRecipe (final RequestId requestId, final Archive archive) {
+  PdfGenerationRecipe (final RequestId requestId, final Archive archive, final ZipManager zipManager,
+                       final WorkingDirectoryProvider workingDirectoryProvider, final RecipeObserver observer) {
     this.requestId = requestId;
     this.archive = archive;
-    zipManager = new DefaultZipManager();
+    this.zipManager = zipManager;
+    this.workingDirectoryProvider = workingDirectoryProvider;
+    this.observer = observer;
     processableSpecification = new IsProcessableArchiveSpecification();
   }
 
@@ -144,31 +188,48 @@ public class PdfGenerationRecipe {
    * This method prepares the host to receive the process (temporary files, locks, ...). It also set up all resources
    * invoked the process.
    *
+   * <p>An archive stored on disk is moved into the working directory, so it shares the lifecycle of the request.</p>
+   *
    * @return the current instance of the recipe
    *
    * @throws RuntimeException if anything goes wrong during the process.
    */
   public PdfGenerationRecipe setUp () {
-    try {
-      workingDirectory = WorkingDirectory.create( requestId );
-      workingDirectory.lock();
-      return this;
-    } catch (final IOException ioException) {
-      throw new RuntimeException( ioException );
-    }
+    observer.recipeStarted( requestId, archive.size() );
+    observed = true;
+    return observe( RecipeStage.SET_UP, () -> {
+      try {
+        workingDirectory = workingDirectoryProvider.acquire( requestId, archive.size() );
+        workingDirectory.lock();
+        if (archive.isStoredOnDisk()) {
+          archiveFile = Files.move( archive.path(), workingDirectory.root().resolve( ARCHIVE_FILENAME ),
+              StandardCopyOption.REPLACE_EXISTING );
+        }
+      } catch (final IOException ioException) {
+        throw new RuntimeException( ioException );
+      }
+    } );
   }
 
   /**
    * Effectively extract the archive into the working directory without doing anything else.
    *
+   * <p>An archive stored on disk is streamed from its file, which is deleted once extracted.</p>
+   *
    * @return the current instance of the recipe
    *
    * @throws RuntimeException if something goes wrong during the process.
    */
   public PdfGenerationRecipe extract () throws IOException {
-    workingDirectory.markDirty();
-    zipManager.unzip( archive.bytes(), workingDirectory.inputDirectory() );
-    return this;
+    return observe( RecipeStage.EXTRACT, () -> {
+      workingDirectory.markDirty();
+      if (null != archiveFile) {
+        zipManager.unzip( archiveFile.toFile(), workingDirectory.inputDirectory() );
+        Files.delete( archiveFile );
+      } else {
+        zipManager.unzip( archive.bytes(), workingDirectory.inputDirectory() );
+      }
+    } );
   }
 
   /**
@@ -179,38 +240,108 @@ public class PdfGenerationRecipe {
    * @throws RuntimeException if anything goes wrong during the process.
    */
   public PdfGenerationRecipe prepare () {
-    final var unmarshaller = new ManifestUnmarshaller();
-    try (final var inputStream =
-             new FileInputStream( workingDirectory.getManifestFile() )) {
-
-      final var manifest = unmarshaller.unmarshall( inputStream, false );
-      reader = new ManifestDecorator( manifest );
-
-      final var ditaStream = reader.getItems()
-          .stream()
-          .map( Item::getDitamap )
-          .map( Paths::get )
-          .map( DitaMap::fromPath );
-
-      ditaMaps.addAll( ditaStream.toList() );
-    } catch (IOException exception) {
-      throw new PdfRecipePreparationException( exception );
-    }
-    return this;
+    return prepare( DEFAULT_UNMARSHALLER );
+  }
+
+  /**
+   * Initialize the manifest, all styles, generators and so on.
+   *
+   * @param unmarshaller the unmarshaller to use to read the manifest, it is shared between the recipes.
+   *
+   * @return the current instance of the recipe
+   *
+   * @throws RuntimeException if anything goes wrong during the process.
+   */
+  public PdfGenerationRecipe prepare (final ManifestUnmarshaller unmarshaller) {
+    return observe( RecipeStage.PREPARE, () -> {
+      try (final var inputStream =
+               new FileInputStream( workingDirectory.getManifestFile() )) {
+
+        // the ditamaps are created while the items are read, streaming unmarshallers do not keep the items.
+        final var manifest = unmarshaller.unmarshall( inputStream, false, item -> ditaMaps.add( toDitaMap( item ) ) );
+        reader = new ManifestDecorator( manifest );
+
+        // the stylesheet of the manifest follows the items, it is applied once the whole manifest has been read.
+        if (null != reader.getStylesheet()) {
+          final var stylesheet = Paths.get( reader.getStylesheet() );
+          ditaMaps.replaceAll( ditaMap -> null != ditaMap.stylesheet()
+              ? ditaMap
+              : DitaMap.create( ditaMap.value(), ditaMap.files(), stylesheet ) );
+        }
+      } catch (IOException exception) {
+        throw new PdfRecipePreparationException( exception );
+      }
+    } );
+  }
+
+  /**
+   * Create the ditamap of an item of the manifest, with the files it references and its own stylesheet.
+   *
+   * @param item the item of the manifest.
+   *
+   * @return the ditamap.
+   */
+  private static DitaMap toDitaMap (final Item item) {
+    final var files = null == item.getFiles()
+        ? List.<Path>of()
+        : item.getFiles().getFile().stream().map( Paths::get ).toList();
+    final var stylesheet = item.getStylesheet();
+    return DitaMap.create( Paths.get( item.getDitamap() ), files, null == stylesheet ? null : Paths.get( stylesheet ) );
   }
 
   /**
    * Effective processing of the recipe.
    *
    * <p>If there is more than one file to bake, all files will be processed one by one.</p>
-   * <p>For now, the process is sequential, it must be parallelized when we go on production.</p>
    *
    * @return the current instance of the recipe
    *
    */
   public PdfGenerationRecipe bake (final PdfGenerator pdfGenerator) {
-    ditaMaps.forEach( ditaMap -> pdfGenerator.generatePdf( workingDirectory, ditaMap ) );
-    return this;
+    return bake( pdfGenerator, new SequentialBakeStrategy() );
+  }
+
+  /**
+   * Effective processing of the recipe using a given strategy to bake the ditamaps.
+   *
+   * @param pdfGenerator the generator to use to bake each ditamap.
+   * @param strategy     the strategy which schedules the ditamaps (sequential, parallel, ...).
+   *
+   * @return the current instance of the recipe
+   *
+   * @throws PdfGenerationException thrown if the generation of a ditamap fails.
+   */
+  public PdfGenerationRecipe bake (final PdfGenerator pdfGenerator, final BakeStrategy strategy) {
+    final var generator = RecipeObserver.NONE == observer ? pdfGenerator : observed( pdfGenerator );
+    return observe( RecipeStage.BAKE, () -> strategy.bake( workingDirectory, ditaMaps, generator ) );
+  }
+
+  /**
+   * Decorate a generator to report the generation of each ditamap to the observer.
+   *
+   * @param pdfGenerator the generator to decorate.
+   *
+   * @return the decorated generator, with the same fingerprint.
+   */
+  private PdfGenerator observed (final PdfGenerator pdfGenerator) {
+    return new PdfGenerator() {
+      @Override
+      public void generatePdf (final WorkingDirectory directory, final DitaMap ditaMap) {
+        final var start = System.nanoTime();
+        try {
+          pdfGenerator.generatePdf( directory, ditaMap );
+          observer.ditaMapBaked( requestId, ditaMap, System.nanoTime() - start, null );
+        } catch (final RuntimeException exception) {
+          observer.ditaMapBaked( requestId, ditaMap, System.nanoTime() - start, exception );
+          throw exception;
+        }
+      }
+
+      @Override
+      public String fingerprint () {
+        return pdfGenerator.fingerprint();
+      }
+    };
   }
 
   public PdfGenerationRecipe tearDown () throws IOException {
@@ -223,6 +354,10 @@ public class PdfGenerationRecipe {
   private void createBinaryFromPath (final Path pdf) throws IOException {
     final var name = FilenameUtils.getName( pdf.toString() );
     final var mime = "application/pdf"; // this should be adapted from the format
+    if (streaming) {
+      binary = Binary.createFromFile( mime, name, pdf );
+      return;
+    }
     try (final var fis = new FileInputStream( pdf.toFile() )) {
       final var content = fis.readAllBytes();
       binary = Binary.create( mime, name, content );
@@ -232,7 +367,11 @@ public class PdfGenerationRecipe {
   private void createBinaryFromOutput () throws IOException {
     final var zip = zipManager.zip( workingDirectory.outputDirectory() );
     final var name = zip.getName();
-    final var mime = "application/pdf";
+    final var mime = "application/zip";
+    if (streaming) {
+      binary = Binary.createFromFile( mime, name, zip.toPath() );
+      return;
+    }
     try (final var fis = new FileInputStream( zip )) {
       final var content = fis.readAllBytes();
       binary = Binary.create( mime, name, content );
@@ -247,11 +386,33 @@ public class PdfGenerationRecipe {
    * @throws RuntimeException thrown if something goes wrong during the process.
    */
   public PdfGenerationRecipe pack () throws IOException {
-    final var outputFiles = workingDirectory.listOutputFiles();
-    if (outputFiles.size() == 1) {
-      createBinaryFromPath( outputFiles.get( 0 ) );
-    } else {
-      createBinaryFromOutput();
+    return pack( false );
+  }
+
+  /**
+   * Takes in charge the strategy to create the binary according to the content of the recipe.
+   *
+   * <p>A streaming binary references the file of the working directory instead of loading it in memory. The
+   * working directory must then be cleaned up only once the binary has been sent.</p>
+   *
+   * @param streaming {@code true} to create a file-backed binary, {@code false} to load it in memory.
+   *
+   * @return the current instance of the recipe
+   *
+   * @throws RuntimeException thrown if something goes wrong during the process.
+   */
+  public PdfGenerationRecipe pack (final boolean streaming) throws IOException {
+    observe( RecipeStage.PACK, () -> {
+      this.streaming = streaming;
+      final var outputFiles = workingDirectory.listOutputFiles();
+      if (outputFiles.size() == 1) {
+        createBinaryFromPath( outputFiles.get( 0 ) );
+      } else {
+        createBinaryFromOutput();
+      }
+    } );
+    if (RecipeObserver.NONE != observer) {
+      observer.binaryPacked( requestId, binary.size() );
     }
     return this;
   }
@@ -271,15 +432,69 @@ public class PdfGenerationRecipe {
   /**
    * Clean up all resources used during the process in order to avoid to let the waste growing on the host system.
    *
+   * <p>The process is over, so a working directory left dirty by a failure is released as well.</p>
+   *
    * @return the current instance of the recipe
    *
    * @throws RuntimeException may occur if something goes wrong during the process.
    */
   public PdfGenerationRecipe cleanUp () throws IOException {
-    workingDirectory.cleanup();
+    try {
+      return observe( RecipeStage.CLEAN_UP, () -> {
+        if (null != archiveFile) {
+          Files.deleteIfExists( archiveFile );
+        }
+        if (null == workingDirectory) {
+          return;
+        }
+        if (workingDirectory.isDirty()) {
+          workingDirectory.markClean();
+        }
+        workingDirectoryProvider.release( workingDirectory );
+      } );
+    } finally {
+      if (observed) {
+        observed = false;
+        observer.recipeFinished( requestId );
+      }
+    }
+  }
+
+  /**
+   * Run a stage of the recipe and report its duration and its failure to the observer.
+   *
+   * @param stage the stage.
+   * @param body  the work of the stage.
+   * @param <E>   the type of the exception thrown by the stage.
+   *
+   * @return the current instance of the recipe
+   *
+   * @throws E thrown if the stage fails.
+   */
+  private <E extends Exception> PdfGenerationRecipe observe (final RecipeStage stage, final StageBody<E> body)
+      throws E {
+    final var start = System.nanoTime();
+    try {
+      body.run();
+    } catch (final Exception | Error failure) {
+      observer.stageCompleted( requestId, stage, System.nanoTime() - start, failure );
+      throw failure;
+    }
+    observer.stageCompleted( requestId, stage, System.nanoTime() - start, null );
     return this;
   }
 
+  /**
+   * The work of a stage of the recipe.
+   *
+   * @param <E> the type of the exception thrown by the stage.
+   */
+  @FunctionalInterface
+  private interface StageBody<E extends Exception> {
+
+    void run () throws E;
+  }
+
   @Override
   public boolean equals (Object o) {
     if (this == o) {
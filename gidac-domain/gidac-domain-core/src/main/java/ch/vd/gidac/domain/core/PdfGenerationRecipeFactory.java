@@ -22,6 +22,10 @@
 
 package ch.vd.gidac.domain.core;
 
+import ch.vd.gidac.domain.core.compress.ZipManager;
+import ch.vd.gidac.domain.core.fs.WorkingDirectoryProvider;
+import ch.vd.gidac.domain.core.observe.RecipeObserver;
+
 /**
  * Define the contract for a factory able to create {@link  ch.vd.gidac.domain.core.PdfGenerationRecipe}.
  *
@@ -63,4 +67,31 @@ public interface PdfGenerationRecipeFactory {
    * @return the current instance of the factory.
    */
   PdfGenerationRecipeFactory requestId( RequestId requestId );
+
+  /**
+   * Define the zip manager the recipe uses to extract the archive and to pack the outputs.
+   *
+   * @param zipManager the zip manager, it may be shared between the recipes.
+   *
+   * @return the current instance of the factory.
+   */
+  PdfGenerationRecipeFactory zipManager( ZipManager zipManager );
+
+  /**
+   * Define the provider of the working directory of the recipe.
+   *
+   * @param workingDirectoryProvider the provider, it may be shared between the recipes.
+   *
+   * @return the current instance of the factory.
+   */
+  PdfGenerationRecipeFactory workingDirectoryProvider( WorkingDirectoryProvider workingDirectoryProvider );
+
+  /**
+   * Define the observer of the stages of the recipe.
+   *
+   * @param observer the observer, it may be shared between the recipes.
+   *
+   * @return the current instance of the factory.
+   */
+  PdfGenerationRecipeFactory observer( RecipeObserver observer );
 }
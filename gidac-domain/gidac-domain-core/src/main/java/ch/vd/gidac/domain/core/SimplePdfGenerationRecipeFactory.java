@@ -22,6 +22,11 @@
 
 package ch.vd.gidac.domain.core;
 
+import ch.vd.gidac.domain.core.compress.DefaultZipManager;
+import ch.vd.gidac.domain.core.compress.ZipManager;
+import ch.vd.gidac.domain.core.fs.TemporaryWorkingDirectoryProvider;
+import ch.vd.gidac.domain.core.fs.WorkingDirectoryProvider;
+import ch.vd.gidac.domain.core.observe.RecipeObserver;
 import ch.vd.gidac.domain.core.policies.ArchiveValidPolicy;
 import ch.vd.gidac.domain.core.policies.RequestIdPolicy;
 
@@ -40,6 +45,12 @@ public class SimplePdfGenerationRecipeFactory implements PdfGenerationRecipeFact
 
   private RequestId requestId;
 
+  private ZipManager zipManager = new DefaultZipManager();
+
+  private WorkingDirectoryProvider workingDirectoryProvider = new TemporaryWorkingDirectoryProvider();
+
+  private RecipeObserver observer = RecipeObserver.NONE;
+
   @Override
   public boolean canCreate() {
     return archiveValidPolicy.test( archive ) && requestIdPolicy.test( requestId );
@@ -50,7 +61,7 @@ public class SimplePdfGenerationRecipeFactory implements PdfGenerationRecipeFact
     if ( !canCreate() ) {
       throw new IllegalStateException( "The recipe cannot be generate with the curently defined state" );
     }
-    return new PdfGenerationRecipe( requestId, archive );
+    return new PdfGenerationRecipe( requestId, archive, zipManager, workingDirectoryProvider, observer );
   }
 
   @Override
@@ -64,4 +75,22 @@ public class SimplePdfGenerationRecipeFactory implements PdfGenerationRecipeFact
     this.requestId = requestId;
     return this;
   }
+
+  @Override
+  public PdfGenerationRecipeFactory zipManager( final ZipManager zipManager ) {
+    this.zipManager = zipManager;
+    return this;
+  }
+
+  @Override
+  public PdfGenerationRecipeFactory workingDirectoryProvider( final WorkingDirectoryProvider workingDirectoryProvider ) {
+    this.workingDirectoryProvider = workingDirectoryProvider;
+    return this;
+  }
+
+  @Override
+  public PdfGenerationRecipeFactory observer( final RecipeObserver observer ) {
+    this.observer = observer;
+    return this;
+  }
 }
@@ -24,11 +24,13 @@ package ch.vd.gidac.domain.core;
 
 import ch.vd.gidac.domain.core.specifications.ValidWorkingDirectorySpecification;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.file.PathUtils;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
@@ -66,6 +68,8 @@ public record WorkingDirectory( Path root, Path inputDirectory, Path outputDirec
 
   private static final String TMP_DIRECTORY = "tmp";
 
+  private static final String ITEMS_DIRECTORY = "items";
+
   private static final String DIRTY_FILENAME = ".dirty";
 
   private static final String LOCK_FILE_NAME = "file.lock";
@@ -81,6 +85,8 @@ public record WorkingDirectory( Path root, Path inputDirectory, Path outputDirec
   /**
    * Clean up the working directory by removing files from the filesystem.
    *
+   * <p>The whole tree of the working directory is deleted, including the files left by the process.</p>
+   *
    * @return the current instance of the working directory.
    *
    * @throws IOException thrown if something goes wrong during the process.
@@ -89,10 +95,35 @@ public record WorkingDirectory( Path root, Path inputDirectory, Path outputDirec
     if (isDirty()) {
       throw new IOException( "The working directory is dirty, it can't be deleted" );
     }
-    Files.deleteIfExists( outputDirectory );
-    Files.deleteIfExists( inputDirectory );
-    Files.deleteIfExists( tmpDirectory );
-    Files.deleteIfExists( root );
+    if (Files.exists( root )) {
+      PathUtils.deleteDirectory( root );
+    }
+    return this;
+  }
+
+  /**
+   * Remove the content of the working directory but keep its layout (root, input and output directories), so it can
+   * be used by another process.
+   *
+   * <p>The dirty and lock markers are removed as well, the working directory must not be used anymore by the process
+   * which owned it.</p>
+   *
+   * @return the current instance of the working directory.
+   *
+   * @throws IOException thrown if something goes wrong during the process.
+   */
+  public WorkingDirectory wipe () throws IOException {
+    try (final var children = Files.list( root )) {
+      for (final var child : children.toList()) {
+        if (child.equals( inputDirectory ) || child.equals( outputDirectory )) {
+          PathUtils.cleanDirectory( child );
+        } else if (Files.isDirectory( child, LinkOption.NOFOLLOW_LINKS )) {
+          PathUtils.deleteDirectory( child );
+        } else {
+          Files.delete( child );
+        }
+      }
+    }
     return this;
   }
 
@@ -203,6 +234,39 @@ public record WorkingDirectory( Path root, Path inputDirectory, Path outputDirec
     Files.delete( lockFile );
   }
 
+  /**
+   * Create a working directory dedicated to a single item of the process.
+   *
+   * <p>The isolated working directory shares the input directory of the current one but owns its own output and
+   * temporary directories. It allows to process several items at the same time without any collision. The temporary
+   * directory of the item lives in the one of the current working directory, on the same storage.</p>
+   *
+   * @param name the name of the item, it must be unique in the scope of the working directory.
+   *
+   * @return the isolated working directory.
+   *
+   * @throws IOException thrown if the layout of the isolated working directory cannot be created.
+   */
+  public WorkingDirectory isolate (final String name) throws IOException {
+    final var itemRoot = Files.createDirectories( root.resolve( ITEMS_DIRECTORY ).resolve( name ) );
+    final var itemOutput = Files.createDirectory( itemRoot.resolve( OUTPUT_DIRECTORY ) );
+    return new WorkingDirectory( itemRoot, inputDirectory, itemOutput,
+        tmpDirectory.resolve( ITEMS_DIRECTORY ).resolve( name ) );
+  }
+
+  /**
+   * Delete an isolated working directory (see {@link #isolate(String)}), its root and its temporary directory.
+   *
+   * @throws IOException thrown if the directories cannot be deleted.
+   */
+  public void discard () throws IOException {
+    for (final var directory : List.of( tmpDirectory, root )) {
+      if (Files.exists( directory )) {
+        PathUtils.deleteDirectory( directory );
+      }
+    }
+  }
+
   public Path getManifestPath () {
     return inputDirectory.resolve( MANIFEST_FILE_NAME );
   }
@@ -263,10 +327,22 @@ public record WorkingDirectory( Path root, Path inputDirectory, Path outputDirec
    * @throws IOException thrown if something goes wrong during the creation of the working directory layout.
    */
   public static WorkingDirectory create (final RequestId requestId) throws IOException {
-    // TODO: review the implementation to allow the creation of a directory with a non native temporary directory structure.
-    final var rootDirectory = Files.createTempDirectory( requestId.value().toString() );
-    final var inputDirectory = Files.createDirectory( rootDirectory.resolve( INPUT_DIRECTORY ) );
-    final var outputDirectory = Files.createDirectory( rootDirectory.resolve( OUTPUT_DIRECTORY ) );
+    return create( Files.createTempDirectory( requestId.value().toString() ) );
+  }
+
+  /**
+   * Create a new working directory in a given root directory, the root is created if it does not exist.
+   *
+   * @param rootDirectory the root of the working directory.
+   *
+   * @return the working directory
+   *
+   * @throws IOException thrown if something goes wrong during the creation of the working directory layout.
+   */
+  public static WorkingDirectory create (final Path rootDirectory) throws IOException {
+    Files.createDirectories( rootDirectory );
+    final var inputDirectory = Files.createDirectories( rootDirectory.resolve( INPUT_DIRECTORY ) );
+    final var outputDirectory = Files.createDirectories( rootDirectory.resolve( OUTPUT_DIRECTORY ) );
     return create( rootDirectory, inputDirectory, outputDirectory );
   }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.bake;
+
+import java.util.Locale;
+
+/**
+ * Indicates how a parallel bake reacts when the generation of a ditamap fails.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public enum BakeFailureMode {
+  /**
+   * The first failure cancels all the pending ditamaps and is reported immediately.
+   */
+  FAIL_FAST,
+
+  /**
+   * All ditamaps are baked and every failure is reported once the bake is over.
+   */
+  COLLECT_ALL;
+
+  /**
+   * Read the failure mode from its configuration value ({@code fail-fast} or {@code collect-all}).
+   *
+   * @param value the configuration value.
+   *
+   * @return the failure mode.
+   *
+   * @throws IllegalArgumentException thrown if the value does not match any failure mode.
+   */
+  public static BakeFailureMode fromString( final String value ) {
+    return valueOf( value.trim().replace( '-', '_' ).toUpperCase( Locale.ROOT ) );
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.bake;
+
+import ch.vd.gidac.domain.core.DitaMap;
+import ch.vd.gidac.domain.core.WorkingDirectory;
+import ch.vd.gidac.domain.core.pdf.PdfGenerator;
+
+import java.util.List;
+
+/**
+ * Define the way the ditamaps of a recipe are baked.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public interface BakeStrategy {
+
+  /**
+   * Bake all ditamaps using the given generator.
+   *
+   * <p>Once the method returns, all generated files must be available in the output directory of the working
+   * directory.</p>
+   *
+   * @param directory    the working directory of the recipe.
+   * @param ditaMaps     the ditamaps to bake.
+   * @param pdfGenerator the generator to use to bake each ditamap.
+   *
+   * @throws ch.vd.gidac.domain.core.PdfGenerationException thrown if the generation of a ditamap fails.
+   */
+  void bake( WorkingDirectory directory, List<DitaMap> ditaMaps, PdfGenerator pdfGenerator );
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.bake;
+
+import ch.vd.gidac.domain.core.DitaMap;
+import ch.vd.gidac.domain.core.PdfGenerationException;
+import ch.vd.gidac.domain.core.WorkingDirectory;
+import ch.vd.gidac.domain.core.concurrent.ContextPropagatingThreadPoolExecutor;
+import ch.vd.gidac.domain.core.concurrent.ThreadFactories;
+import ch.vd.gidac.domain.core.pdf.PdfGenerator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Bake the ditamaps of a recipe concurrently.
+ *
+ * <p>Each ditamap is baked in its own isolated working directory (see {@link WorkingDirectory#isolate(String)}) so
+ * that the temporary and output files of the items never collide. Once all items are baked, their outputs are moved
+ * back to the output directory of the recipe.</p>
+ *
+ * <p>The executor is shared by all the recipes using the strategy: its number of threads is the maximum number of
+ * ditamaps baked at the same time on the host. Once the strategy is closed, the bakes still running fail instead of
+ * waiting for their items.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class ParallelBakeStrategy implements BakeStrategy, AutoCloseable {
+
+  private static final Logger log = LogManager.getLogger( ParallelBakeStrategy.class );
+
+  private static final int QUEUE_CAPACITY_PER_THREAD = 16;
+
+  private static final int PENDING = 0;
+
+  private static final int STARTED = 1;
+
+  private static final int SKIPPED = 2;
+
+  private final ThreadPoolExecutor executor;
+
+  private final BakeFailureMode failureMode;
+
+  private final Set<Future<Integer>> pending = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Create a new parallel strategy.
+   *
+   * @param parallelism the maximum number of ditamaps baked at the same time.
+   * @param failureMode the behavior to adopt when the generation of a ditamap fails.
+   */
+  public ParallelBakeStrategy( final int parallelism, final BakeFailureMode failureMode ) {
+    this( parallelism, failureMode, ThreadFactories.platform( "gidac-bake-" ) );
+  }
+
+  /**
+   * Create a new parallel strategy whose threads are created by the given factory.
+   *
+   * @param parallelism   the maximum number of ditamaps baked at the same time.
+   * @param failureMode   the behavior to adopt when the generation of a ditamap fails.
+   * @param threadFactory the factory of the threads baking the ditamaps.
+   */
+  public ParallelBakeStrategy( final int parallelism, final BakeFailureMode failureMode,
+                               final ThreadFactory threadFactory ) {
+    if ( parallelism < 1 ) {
+      throw new IllegalArgumentException( "The parallelism must be greater than 0" );
+    }
+    this.failureMode = failureMode;
+    // When the queue is full, the thread of the request bakes the item itself, which throttles the callers.
+    executor = new ContextPropagatingThreadPoolExecutor( parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>( parallelism * QUEUE_CAPACITY_PER_THREAD ),
+        threadFactory,
+        ParallelBakeStrategy::runOrReject );
+  }
+
+  /**
+   * Run a task the executor cannot queue in the thread submitting it, or reject it once the executor is shut down.
+   */
+  private static void runOrReject( final Runnable task, final ThreadPoolExecutor executor ) {
+    if ( executor.isShutdown() ) {
+      throw new RejectedExecutionException( "The bake executor has been shut down" );
+    }
+    task.run();
+  }
+
+  @Override
+  public void bake( final WorkingDirectory directory, final List<DitaMap> ditaMaps, final PdfGenerator pdfGenerator ) {
+    if ( ditaMaps.size() < 2 ) {
+      ditaMaps.forEach( ditaMap -> pdfGenerator.generatePdf( directory, ditaMap ) );
+      return;
+    }
+
+    final var items = isolate( directory, ditaMaps.size() );
+    try {
+      bakeItems( items, ditaMaps, pdfGenerator );
+      merge( directory, items );
+    } finally {
+      discard( items );
+    }
+  }
+
+  /**
+   * Bake each ditamap in its item directory and wait until no task of the recipe runs anymore.
+   *
+   * <p>A task moves from {@link #PENDING} to {@link #STARTED} when it starts, or to {@link #SKIPPED} when the bake is
+   * aborted before. The running tasks are interrupted on abort and always awaited, so that none of them writes in
+   * its item directory once the bake returns.</p>
+   */
+  private void bakeItems( final List<WorkingDirectory> items, final List<DitaMap> ditaMaps,
+                          final PdfGenerator pdfGenerator ) {
+    final var count = ditaMaps.size();
+    final var states = new AtomicIntegerArray( count );
+    final var finished = new CountDownLatch( count );
+    final var completionService = new ExecutorCompletionService<Integer>( executor );
+    final var futures = new ArrayList<Future<Integer>>( count );
+    try {
+      for ( int i = 0; i < count; i++ ) {
+        final var index = i;
+        futures.add( completionService.submit( () -> {
+          if ( !states.compareAndSet( index, PENDING, STARTED ) ) {
+            return index;
+          }
+          try {
+            pdfGenerator.generatePdf( items.get( index ), ditaMaps.get( index ) );
+            return index;
+          } finally {
+            finished.countDown();
+          }
+        } ) );
+      }
+    } catch ( final RejectedExecutionException e ) {
+      abort( futures, states, finished );
+      throw new PdfGenerationException( "The bake has been cancelled", e );
+    }
+
+    final var failures = new ArrayList<Throwable>();
+    pending.addAll( futures );
+    try {
+      // the strategy may have been closed before the futures were registered, they would never be cancelled
+      if ( executor.isShutdown() ) {
+        futures.forEach( future -> future.cancel( true ) );
+      }
+      for ( int i = 0; i < count; i++ ) {
+        try {
+          completionService.take().get();
+        } catch ( final ExecutionException e ) {
+          failures.add( e.getCause() );
+          if ( failureMode == BakeFailureMode.FAIL_FAST ) {
+            abort( futures, states, finished );
+            break;
+          }
+        } catch ( final CancellationException e ) {
+          abort( futures, states, finished );
+          throw new PdfGenerationException( "The bake has been cancelled", e );
+        }
+      }
+    } catch ( final InterruptedException e ) {
+      abort( futures, states, finished );
+      Thread.currentThread().interrupt();
+      throw new PdfGenerationException( "The bake has been interrupted", e );
+    } finally {
+      pending.removeAll( futures );
+    }
+
+    if ( !failures.isEmpty() ) {
+      throw toException( failures, count );
+    }
+  }
+
+  /**
+   * Skip the tasks not started yet (submitted or not), interrupt the running ones and wait for them to end.
+   */
+  private static void abort( final List<Future<Integer>> futures, final AtomicIntegerArray states,
+                             final CountDownLatch finished ) {
+    for ( int i = 0; i < states.length(); i++ ) {
+      if ( states.compareAndSet( i, PENDING, SKIPPED ) ) {
+        finished.countDown();
+      }
+      if ( i < futures.size() ) {
+        futures.get( i ).cancel( true );
+      }
+    }
+    var interrupted = false;
+    while ( true ) {
+      try {
+        finished.await();
+        break;
+      } catch ( final InterruptedException e ) {
+        interrupted = true;
+      }
+    }
+    if ( interrupted ) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Create one isolated working directory per item to bake.
+   */
+  private List<WorkingDirectory> isolate( final WorkingDirectory directory, final int count ) {
+    try {
+      final var items = new ArrayList<WorkingDirectory>( count );
+      for ( int i = 0; i < count; i++ ) {
+        items.add( directory.isolate( "item-" + i ) );
+      }
+      return items;
+    } catch ( final IOException ioException ) {
+      throw new PdfGenerationException( "Unable to isolate the items of the recipe", ioException );
+    }
+  }
+
+  /**
+   * Move the outputs of each item into the output directory of the recipe.
+   *
+   * <p>If two items produce a file with the same name, the file of the latter is prefixed by the name of its item
+   * directory.</p>
+   */
+  private void merge( final WorkingDirectory directory, final List<WorkingDirectory> items ) {
+    try {
+      for ( final var item : items ) {
+        for ( final var file : item.listOutputFiles() ) {
+          var target = directory.outputDirectory().resolve( file.getFileName() );
+          if ( Files.exists( target ) ) {
+            target = directory.outputDirectory()
+                .resolve( item.root().getFileName() + "-" + file.getFileName() );
+          }
+          Files.move( file, target );
+        }
+      }
+    } catch ( final IOException | UncheckedIOException exception ) {
+      throw new PdfGenerationException( "Unable to collect the outputs of the baked items", exception );
+    }
+  }
+
+  /**
+   * Delete the item directories, whether the bake succeeded or not.
+   */
+  private static void discard( final List<WorkingDirectory> items ) {
+    for ( final var item : items ) {
+      try {
+        item.discard();
+      } catch ( final IOException | UncheckedIOException exception ) {
+        log.warn( "Unable to delete the item directory {}", item.root(), exception );
+      }
+    }
+  }
+
+  private PdfGenerationException toException( final List<Throwable> failures, final int total ) {
+    final var first = failures.get( 0 );
+    if ( failureMode == BakeFailureMode.FAIL_FAST ) {
+      return first instanceof PdfGenerationException pdfGenerationException
+          ? pdfGenerationException
+          : new PdfGenerationException( first );
+    }
+    final var exception = new PdfGenerationException( failures.size() + " of " + total + " ditamaps failed", first );
+    failures.stream().skip( 1 ).forEach( exception::addSuppressed );
+    return exception;
+  }
+
+  /**
+   * Get the maximum number of ditamaps baked at the same time.
+   *
+   * @return the parallelism of the strategy.
+   */
+  public int getParallelism() {
+    return executor.getMaximumPoolSize();
+  }
+
+  @Override
+  public void close() {
+    log.debug( "Shutting down the bake executor" );
+    executor.shutdownNow();
+    // the tasks dropped from the queue never complete, cancel them so that their bakes stop waiting
+    pending.forEach( future -> future.cancel( true ) );
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.cache;
+
+import ch.vd.gidac.domain.core.Binary;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Cache of generated binaries.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public interface BinaryCache {
+
+  /**
+   * Look up a binary.
+   *
+   * <p>The binary returned is leased to the caller: it is not affected by the later evictions of its entry, until it
+   * is given back with {@link #release(Binary)}.</p>
+   *
+   * @param key the digest of the inputs of the binary.
+   *
+   * @return the binary, empty if it is not in the cache.
+   */
+  Optional<Binary> get( ContentDigest key );
+
+  /**
+   * Give back a binary returned by {@link #get(ContentDigest)}, once it is not read anymore.
+   *
+   * @param binary the binary.
+   */
+  void release( Binary binary );
+
+  /**
+   * Store a binary.
+   *
+   * @param key    the digest of the inputs of the binary.
+   * @param binary the binary to store, its content is copied.
+   *
+   * @throws IOException thrown if the binary cannot be stored.
+   */
+  void put( ContentDigest key, Binary binary ) throws IOException;
+
+  /**
+   * Get the statistics of the cache.
+   *
+   * @return the statistics.
+   */
+  CacheStatistics getStatistics();
+}
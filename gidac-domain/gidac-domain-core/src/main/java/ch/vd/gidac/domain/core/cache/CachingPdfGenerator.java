@@ -0,0 +1,211 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.cache;
+
+import ch.vd.gidac.domain.core.Binary;
+import ch.vd.gidac.domain.core.DitaMap;
+import ch.vd.gidac.domain.core.PdfGenerationException;
+import ch.vd.gidac.domain.core.WorkingDirectory;
+import ch.vd.gidac.domain.core.pdf.PdfGenerator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Pdf generator which reuses the pdf of a ditamap when none of its inputs changed.
+ *
+ * <p>The key of a ditamap is the digest of the fingerprint of the generator, the ditamap, the files it references
+ * (as listed in the manifest) and its stylesheet. The ditamaps whose key is in the cache are not generated, their pdf
+ * is linked (or copied) from the cache to the output directory. The others are generated in an isolated directory so
+ * their pdf can be identified and stored before joining the output directory.</p>
+ *
+ * <p>The cache relies on the manifest: a file used by the ditamap but not listed in the manifest is not part of the
+ * key.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class CachingPdfGenerator implements PdfGenerator {
+
+  private static final Logger log = LogManager.getLogger( CachingPdfGenerator.class );
+
+  private static final String PDF_MIME_TYPE = "application/pdf";
+
+  private final PdfGenerator delegate;
+
+  private final BinaryCache cache;
+
+  /**
+   * Create a new generator.
+   *
+   * @param delegate the generator to use for the ditamaps which are not in the cache.
+   * @param cache    the cache of the pdfs of the ditamaps.
+   */
+  public CachingPdfGenerator (final PdfGenerator delegate, final BinaryCache cache) {
+    this.delegate = delegate;
+    this.cache = cache;
+  }
+
+  @Override
+  public void generatePdf (final WorkingDirectory directory, final DitaMap ditaMap) {
+    final var key = key( directory, ditaMap );
+    if (key.isEmpty()) {
+      delegate.generatePdf( directory, ditaMap );
+      return;
+    }
+    final var cached = cache.get( key.get() );
+    if (cached.isPresent()) {
+      try {
+        if (restore( cached.get(), directory )) {
+          log.debug( "The pdf of {} is served from the cache ({})", ditaMap.value(), key.get() );
+          return;
+        }
+      } finally {
+        cache.release( cached.get() );
+      }
+    }
+    final WorkingDirectory itemDirectory;
+    try {
+      itemDirectory = directory.isolate( "cache-" + UUID.randomUUID() );
+    } catch (final IOException e) {
+      throw new PdfGenerationException( "The generation of " + ditaMap.value() + " fails", e );
+    }
+    try {
+      delegate.generatePdf( itemDirectory, ditaMap );
+      final var outputs = itemDirectory.listOutputFiles();
+      if (outputs.size() == 1) {
+        store( key.get(), Binary.createFromFile( PDF_MIME_TYPE, outputs.get( 0 ).getFileName().toString(),
+            outputs.get( 0 ) ) );
+      }
+      for (final var output : outputs) {
+        Files.move( output, directory.outputDirectory().resolve( output.getFileName() ),
+            StandardCopyOption.REPLACE_EXISTING );
+      }
+    } catch (final IOException e) {
+      throw new PdfGenerationException( "The generation of " + ditaMap.value() + " fails", e );
+    } finally {
+      discard( itemDirectory );
+    }
+  }
+
+  private static void discard (final WorkingDirectory itemDirectory) {
+    try {
+      itemDirectory.discard();
+    } catch (final IOException e) {
+      log.warn( "The directory {} cannot be deleted", itemDirectory.root(), e );
+    }
+  }
+
+  private void store (final ContentDigest key, final Binary binary) {
+    try {
+      cache.put( key, binary );
+    } catch (final IOException e) {
+      log.warn( "The pdf {} cannot be cached", binary.name(), e );
+    }
+  }
+
+  /**
+   * Put a cached pdf in the output directory, a hard link is used when the filesystem allows it.
+   *
+   * @param binary    the cached pdf.
+   * @param directory the working directory.
+   *
+   * @return {@code true} if the pdf has been restored, {@code false} if it must be generated.
+   */
+  private static boolean restore (final Binary binary, final WorkingDirectory directory) {
+    final var target = directory.outputDirectory().resolve( binary.name() );
+    try {
+      Files.deleteIfExists( target );
+      try {
+        Files.createLink( target, binary.path() );
+      } catch (final IOException | UnsupportedOperationException e) {
+        Files.copy( binary.path(), target );
+      }
+      return true;
+    } catch (final IOException e) {
+      log.warn( "The cached pdf {} cannot be restored", binary.name(), e );
+      return false;
+    }
+  }
+
+  /**
+   * Compute the key of a ditamap.
+   *
+   * @param directory the working directory.
+   * @param ditaMap   the ditamap.
+   *
+   * @return the key, empty if one of the inputs cannot be read (the ditamap is then generated without cache).
+   *
+   * @throws PdfGenerationException thrown if one of the inputs is outside the input directory.
+   */
+  private Optional<ContentDigest> key (final WorkingDirectory directory, final DitaMap ditaMap) {
+    final var input = directory.inputDirectory().normalize();
+    try {
+      final var builder = ContentDigest.builder()
+          .update( fingerprint() )
+          .update( ditaMap.value().toString() )
+          .update( resolve( input, ditaMap.value(), ditaMap ) );
+      for (final var file : ditaMap.files()) {
+        builder.update( file.toString() ).update( resolve( input, file, ditaMap ) );
+      }
+      if (null != ditaMap.stylesheet()) {
+        builder.update( ditaMap.stylesheet().toString() ).update( resolve( input, ditaMap.stylesheet(), ditaMap ) );
+      }
+      return Optional.of( builder.build() );
+    } catch (final IOException e) {
+      log.debug( "The inputs of {} cannot be read, the cache is bypassed", ditaMap.value(), e );
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Resolve a path of the manifest against the input directory.
+   *
+   * @param input   the normalized input directory.
+   * @param file    the path of the manifest.
+   * @param ditaMap the ditamap using the path.
+   *
+   * @return the path of the file.
+   *
+   * @throws PdfGenerationException thrown if the path is outside the input directory.
+   */
+  private static Path resolve (final Path input, final Path file, final DitaMap ditaMap) {
+    final var resolved = input.resolve( file ).normalize();
+    if (!resolved.startsWith( input )) {
+      throw new PdfGenerationException( "The file " + file + " of " + ditaMap.value()
+          + " is outside the input directory" );
+    }
+    return resolved;
+  }
+
+  @Override
+  public String fingerprint () {
+    return delegate.fingerprint();
+  }
+}
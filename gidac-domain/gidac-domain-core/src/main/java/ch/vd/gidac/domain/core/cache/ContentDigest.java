@@ -0,0 +1,157 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.cache;
+
+import ch.vd.gidac.domain.core.Archive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Digest (SHA-256) of the inputs of a generation, used as the key of the caches.
+ *
+ * @param value the hexadecimal value of the digest.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public record ContentDigest( String value ) {
+
+  private static final String ALGORITHM = "SHA-256";
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * Get an instance of the builder.
+   *
+   * @return a fresh instance of a builder.
+   */
+  public static Builder builder () {
+    return new Builder();
+  }
+
+  @Override
+  public String toString () {
+    return value;
+  }
+
+  /**
+   * Builder to use to compute the digest. Each part is prefixed with its length, so the concatenation of two parts
+   * cannot collide with another split of the same bytes.
+   */
+  public static class Builder {
+
+    private final MessageDigest digest;
+
+    Builder () {
+      try {
+        digest = MessageDigest.getInstance( ALGORITHM );
+      } catch (final NoSuchAlgorithmException e) {
+        throw new IllegalStateException( ALGORITHM + " is not supported by the platform", e );
+      }
+    }
+
+    private void updateLength (final long length) {
+      for (var i = 7; i >= 0; i--) {
+        digest.update( (byte) ( length >>> ( i * 8 ) ) );
+      }
+    }
+
+    /**
+     * Add a string to the digest, {@code null} is accepted.
+     *
+     * @param value the value to add.
+     *
+     * @return the current instance of the builder.
+     */
+    public Builder update (final String value) {
+      return update( null == value ? new byte[0] : value.getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    /**
+     * Add bytes to the digest.
+     *
+     * @param value the value to add.
+     *
+     * @return the current instance of the builder.
+     */
+    public Builder update (final byte[] value) {
+      updateLength( value.length );
+      digest.update( value );
+      return this;
+    }
+
+    /**
+     * Add the content of a file to the digest, the file is streamed.
+     *
+     * @param file the file to add.
+     *
+     * @return the current instance of the builder.
+     *
+     * @throws IOException thrown if the file cannot be read.
+     */
+    public Builder update (final Path file) throws IOException {
+      updateLength( Files.size( file ) );
+      try (final var inputStream = Files.newInputStream( file )) {
+        return update( inputStream );
+      }
+    }
+
+    private Builder update (final InputStream inputStream) throws IOException {
+      final var buffer = new byte[BUFFER_SIZE];
+      int read;
+      while (( read = inputStream.read( buffer ) ) != -1) {
+        digest.update( buffer, 0, read );
+      }
+      return this;
+    }
+
+    /**
+     * Add the content of an archive to the digest, whether it is stored in memory or on disk.
+     *
+     * @param archive the archive to add.
+     *
+     * @return the current instance of the builder.
+     *
+     * @throws IOException thrown if the file of the archive cannot be read.
+     */
+    public Builder update (final Archive archive) throws IOException {
+      return archive.isStoredOnDisk() ? update( archive.path() ) : update( archive.bytes() );
+    }
+
+    /**
+     * Compute the digest, the builder must not be used anymore.
+     *
+     * @return the digest.
+     */
+    public ContentDigest build () {
+      return new ContentDigest( HexFormat.of().formatHex( digest.digest() ) );
+    }
+  }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.cache;
+
+import ch.vd.gidac.domain.core.Binary;
+import org.apache.commons.io.file.PathUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Cache of binaries stored on the filesystem, bounded in size with a least recently used eviction.
+ *
+ * <p>Each entry is a directory named after its key which holds the content of the binary and its metadata. An entry
+ * is written in a temporary directory then renamed, so a partially written entry is never visible. The entries found
+ * on disk are loaded at creation, the least recently used first according to their modification date.</p>
+ *
+ * <p>A binary looked up is a hard link (a copy when the filesystem does not support the links) to the content of its
+ * entry, in a lease directory of its own. The entry can then be evicted while the binary is read, the lease is
+ * deleted when the binary is released.</p>
+ *
+ * <p>The directory may be shared by several instances of the application: the temporary directories are named after
+ * the pid of their process, and a cache loaded only deletes the ones of the processes which are not running
+ * anymore.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class FileSystemBinaryCache implements BinaryCache {
+
+  private static final Logger log = LogManager.getLogger( FileSystemBinaryCache.class );
+
+  private static final String CONTENT_FILE = "content";
+
+  private static final String METADATA_FILE = "metadata";
+
+  private static final String TMP_PREFIX = ".tmp-";
+
+  private static final String PROCESS_TMP_PREFIX = TMP_PREFIX + ProcessHandle.current().pid() + "-";
+
+  private static final Pattern TMP_PATTERN = Pattern.compile( Pattern.quote( TMP_PREFIX ) + "(\\d+)-.*" );
+
+  private final Path root;
+
+  private final long maxBytes;
+
+  /**
+   * Size of the entries by key, in access order (the eldest is the least recently used).
+   */
+  private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>( 16, 0.75f, true );
+
+  private long bytes = 0;
+
+  private final AtomicLong hits = new AtomicLong();
+
+  private final AtomicLong misses = new AtomicLong();
+
+  private final AtomicLong evictions = new AtomicLong();
+
+  /**
+   * Create a cache in a given directory, the entries already stored in the directory are reused.
+   *
+   * @param root     the directory of the cache.
+   * @param maxBytes the maximum size of the cache.
+   *
+   * @throws IOException thrown if the directory cannot be created or read.
+   */
+  public FileSystemBinaryCache (final Path root, final long maxBytes) throws IOException {
+    this.root = Files.createDirectories( root );
+    this.maxBytes = maxBytes;
+    load();
+  }
+
+  private void load () throws IOException {
+    try (final var s = Files.list( root )) {
+      final var directories = s.filter( Files::isDirectory ).toList();
+      for (final var directory : directories) {
+        if (isOrphan( directory )) {
+          PathUtils.deleteDirectory( directory );
+        }
+      }
+      final var sorted = new ArrayList<>( directories.stream()
+          .filter( Files::exists )
+          .filter( d -> Files.exists( d.resolve( CONTENT_FILE ) ) )
+          .toList() );
+      sorted.sort( Comparator.comparing( FileSystemBinaryCache::lastModified ) );
+      for (final var directory : sorted) {
+        final var size = Files.size( directory.resolve( CONTENT_FILE ) );
+        synchronized (this) {
+          entries.put( directory.getFileName().toString(), size );
+          bytes += size;
+        }
+      }
+    }
+    delete( evict() );
+    log.debug( "Cache {} loaded with {} entries", root, entries.size() );
+  }
+
+  /**
+   * Tell if a directory is a temporary directory whose process is not running anymore.
+   */
+  private static boolean isOrphan (final Path directory) {
+    final var name = directory.getFileName().toString();
+    if (!name.startsWith( TMP_PREFIX )) {
+      return false;
+    }
+    final var matcher = TMP_PATTERN.matcher( name );
+    if (!matcher.matches()) {
+      return true;
+    }
+    try {
+      return ProcessHandle.of( Long.parseLong( matcher.group( 1 ) ) ).map( p -> !p.isAlive() ).orElse( true );
+    } catch (final NumberFormatException e) {
+      return true;
+    }
+  }
+
+  private static FileTime lastModified (final Path path) {
+    try {
+      return Files.getLastModifiedTime( path );
+    } catch (final IOException e) {
+      return FileTime.fromMillis( 0 );
+    }
+  }
+
+  @Override
+  public Optional<Binary> get (final ContentDigest key) {
+    synchronized (this) {
+      if (null == entries.get( key.value() )) {
+        misses.incrementAndGet();
+        return Optional.empty();
+      }
+    }
+    final var directory = root.resolve( key.value() );
+    Path lease = null;
+    try {
+      final var metadata = Files.readAllLines( directory.resolve( METADATA_FILE ), StandardCharsets.UTF_8 );
+      lease = Files.createTempDirectory( root, PROCESS_TMP_PREFIX );
+      final var content = lease.resolve( CONTENT_FILE );
+      try {
+        Files.createLink( content, directory.resolve( CONTENT_FILE ) );
+      } catch (final IOException | UnsupportedOperationException e) {
+        Files.copy( directory.resolve( CONTENT_FILE ), content );
+      }
+      final var binary = Binary.createFromFile( metadata.get( 0 ), metadata.get( 1 ), content );
+      Files.setLastModifiedTime( directory, FileTime.fromMillis( System.currentTimeMillis() ) );
+      hits.incrementAndGet();
+      return Optional.of( binary );
+    } catch (final IOException | RuntimeException e) {
+      if (null != lease) {
+        delete( List.of( lease ) );
+      }
+      if (!Files.exists( directory )) {
+        // evicted by a concurrent request in the meantime.
+        misses.incrementAndGet();
+        return Optional.empty();
+      }
+      log.warn( "The cache entry {} is corrupted, removing it", key, e );
+      synchronized (this) {
+        final var size = entries.remove( key.value() );
+        if (null != size) {
+          bytes -= size;
+        }
+      }
+      delete( List.of( directory ) );
+      misses.incrementAndGet();
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public void release (final Binary binary) {
+    final var lease = binary.path().getParent();
+    if (null != lease && root.equals( lease.getParent() )
+        && lease.getFileName().toString().startsWith( TMP_PREFIX )) {
+      delete( List.of( lease ) );
+    }
+  }
+
+  @Override
+  public void put (final ContentDigest key, final Binary binary) throws IOException {
+    synchronized (this) {
+      if (entries.containsKey( key.value() )) {
+        return;
+      }
+    }
+    final var tmp = Files.createTempDirectory( root, PROCESS_TMP_PREFIX );
+    final long size;
+    try {
+      final var content = tmp.resolve( CONTENT_FILE );
+      if (binary.isStoredOnDisk()) {
+        Files.copy( binary.path(), content );
+      } else {
+        Files.write( content, binary.payload() );
+      }
+      Files.write( tmp.resolve( METADATA_FILE ), List.of( binary.mimeType(), binary.name() ),
+          StandardCharsets.UTF_8 );
+      size = Files.size( content );
+      if (size > maxBytes) {
+        log.debug( "The binary {} is bigger than the cache, it is not stored", binary.name() );
+        PathUtils.deleteDirectory( tmp );
+        return;
+      }
+      Files.move( tmp, root.resolve( key.value() ), StandardCopyOption.ATOMIC_MOVE );
+    } catch (final IOException | RuntimeException e) {
+      PathUtils.deleteDirectory( tmp );
+      if (e instanceof IOException && Files.exists( root.resolve( key.value() ).resolve( CONTENT_FILE ) )) {
+        // stored by a concurrent request in the meantime.
+        return;
+      }
+      throw e;
+    }
+    final List<Path> evicted;
+    synchronized (this) {
+      entries.put( key.value(), size );
+      bytes += size;
+      evicted = evict();
+    }
+    delete( evicted );
+  }
+
+  /**
+   * Remove the least recently used entries until the cache fits in its size.
+   *
+   * @return the directories of the removed entries, to delete outside of the lock.
+   */
+  private synchronized List<Path> evict () {
+    final var evicted = new ArrayList<Path>();
+    final var iterator = entries.entrySet().iterator();
+    while (bytes > maxBytes && iterator.hasNext()) {
+      final var eldest = iterator.next();
+      iterator.remove();
+      bytes -= eldest.getValue();
+      evicted.add( root.resolve( eldest.getKey() ) );
+      evictions.incrementAndGet();
+    }
+    return evicted;
+  }
+
+  private static void delete (final List<Path> directories) {
+    for (final var directory : directories) {
+      try {
+        if (Files.exists( directory )) {
+          PathUtils.deleteDirectory( directory );
+        }
+      } catch (final IOException e) {
+        log.warn( "The cache entry {} cannot be deleted", directory, e );
+      }
+    }
+  }
+
+  @Override
+  public synchronized CacheStatistics getStatistics () {
+    return new CacheStatistics( hits.get(), misses.get(), evictions.get(), entries.size(), bytes );
+  }
+}
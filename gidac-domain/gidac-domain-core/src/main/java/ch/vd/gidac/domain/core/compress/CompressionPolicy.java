@@ -0,0 +1,74 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.compress;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+
+/**
+ * Policy selecting the compression method of the entries of the archives created by the zip managers.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+@FunctionalInterface
+public interface CompressionPolicy {
+
+  /**
+   * Extensions of the formats which are already compressed, deflating them again burns CPU for no size gain.
+   */
+  Set<String> COMPRESSED_EXTENSIONS = Set.of( "pdf", "png", "jpg", "jpeg", "gif", "webp", "svgz", "zip", "gz",
+      "bz2", "xz", "7z", "jar", "docx", "xlsx", "pptx", "odt", "epub", "mp3", "mp4", "woff", "woff2" );
+
+  /**
+   * Get the compression method of an entry.
+   *
+   * @param name the name of the entry.
+   *
+   * @return the method, {@link ZipEntry#DEFLATED} or {@link ZipEntry#STORED}.
+   */
+  int methodOf( String name );
+
+  /**
+   * Policy deflating all the entries.
+   *
+   * @return the policy.
+   */
+  static CompressionPolicy deflateAll() {
+    return name -> ZipEntry.DEFLATED;
+  }
+
+  /**
+   * Policy storing the entries which are already compressed ({@link #COMPRESSED_EXTENSIONS}) and deflating the others.
+   *
+   * @return the policy.
+   */
+  static CompressionPolicy storeCompressed() {
+    return name -> {
+      final var dot = name.lastIndexOf( '.' );
+      final var extension = dot < 0 ? "" : name.substring( dot + 1 ).toLowerCase( Locale.ROOT );
+      return COMPRESSED_EXTENSIONS.contains( extension ) ? ZipEntry.STORED : ZipEntry.DEFLATED;
+    };
+  }
+}
@@ -22,6 +22,7 @@
 
 package ch.vd.gidac.domain.core.compress;
 
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
 import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.apache.commons.io.IOUtils;
@@ -44,15 +45,59 @@ import java.util.zip.ZipEntry;
  * @since 0.0.1
  */
 public class DefaultZipManager implements ZipManager {
+
+  private final CompressionPolicy compressionPolicy;
+
+  private final ExtractionLimits extractionLimits;
+
+  public DefaultZipManager() {
+    this( CompressionPolicy.deflateAll() );
+  }
+
+  /**
+   * Create a new manager enforcing the default {@link ExtractionLimits}.
+   *
+   * @param compressionPolicy the policy selecting the compression method of the entries of the created archives.
+   */
+  public DefaultZipManager( final CompressionPolicy compressionPolicy ) {
+    this( compressionPolicy, ExtractionLimits.defaults() );
+  }
+
+  /**
+   * Create a new manager.
+   *
+   * @param compressionPolicy the policy selecting the compression method of the entries of the created archives.
+   * @param extractionLimits  the limits enforced while an archive is extracted.
+   */
+  public DefaultZipManager( final CompressionPolicy compressionPolicy, final ExtractionLimits extractionLimits ) {
+    this.compressionPolicy = compressionPolicy;
+    this.extractionLimits = extractionLimits;
+  }
+
+  protected CompressionPolicy getCompressionPolicy() {
+    return compressionPolicy;
+  }
+
+  /**
+   * Create the guard of the extraction of an archive.
+   *
+   * @return a new guard enforcing the limits of the manager.
+   */
+  protected ExtractionGuard newExtractionGuard() {
+    return new ExtractionGuard( extractionLimits );
+  }
+
   @Override
   public File zip( final Path path ) throws IOException {
     final var filename = path.resolve( UUID.randomUUID() + ".zip" );
-    try ( final var os = Files.newOutputStream( filename );
-          final var as = new ZipArchiveOutputStream( os ) ) {
+    // the archive is written to a seekable file so stored entries do not need their size and crc beforehand.
+    try ( final var as = new ZipArchiveOutputStream( filename.toFile() ) ) {
       try ( final var s = Files.list( path ) ) {
-        s.map( Path::toFile ).forEach( f -> {
+        // the zip is created in the listed directory, it must not include itself.
+        s.filter( p -> !p.equals( filename ) ).map( Path::toFile ).forEach( f -> {
           try {
-            final var entry = as.createArchiveEntry( f, f.getName() );
+            final var entry = (ZipArchiveEntry) as.createArchiveEntry( f, f.getName() );
+            entry.setMethod( f.isFile() ? compressionPolicy.methodOf( f.getName() ) : ZipEntry.STORED );
             as.putArchiveEntry( entry );
 
             if ( f.isFile() ) {
@@ -72,14 +117,16 @@ public class DefaultZipManager implements ZipManager {
   }
 
   private void extract( final Path path, final ZipArchiveInputStream za ) throws IOException {
+    final var guard = newExtractionGuard();
     ZipEntry zipEntry;
     while ( ( zipEntry = za.getNextZipEntry() ) != null ) {
-      final var file = path.resolve( zipEntry.getName() );
+      final var file = guard.entry( path, zipEntry.getName() );
       if ( zipEntry.isDirectory() ) {
         Files.createDirectories( file );
       } else {
         try ( final var fos = new FileOutputStream( file.toFile() ) ) {
-          IOUtils.copy( za, fos );
+          // the guarded stream is not closed, it would close the archive stream.
+          IOUtils.copy( guard.guard( zipEntry.getName(), za ), fos );
         }
       }
     }
@@ -0,0 +1,192 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.compress;
+
+import org.apache.commons.compress.utils.InputStreamStatistics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Guard of the extraction of a single archive.
+ *
+ * <p>The guard counts the entries and the bytes while they are extracted and stops the extraction as soon as one of
+ * the limits is exceeded: the streams it wraps fail on their next read, including the ones of the other entries
+ * extracted in parallel. It only relies on counters, so it is cheap enough to be used for every archive. It also
+ * rejects the entries which would be written outside the target directory.</p>
+ *
+ * <p>A guard is thread safe and must not be reused for another archive.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class ExtractionGuard {
+
+  private final ExtractionLimits limits;
+
+  private final AtomicLong entries = new AtomicLong();
+
+  private final AtomicLong totalBytes = new AtomicLong();
+
+  private final AtomicReference<String> failure = new AtomicReference<>();
+
+  public ExtractionGuard( final ExtractionLimits limits ) {
+    this.limits = limits;
+  }
+
+  /**
+   * Register a new entry and resolve it against the target directory.
+   *
+   * @param target the directory the archive is extracted to.
+   * @param name   the name of the entry.
+   *
+   * @return the path of the entry.
+   *
+   * @throws ArchiveLimitExceededException thrown if the archive has too many entries or if the entry escapes the
+   *                                       target directory.
+   */
+  public Path entry( final Path target, final String name ) throws ArchiveLimitExceededException {
+    checkNotFailed();
+    final var root = target.normalize();
+    final var file = root.resolve( name ).normalize();
+    if ( !file.startsWith( root ) ) {
+      throw fail( "The entry " + name + " is outside the target directory" );
+    }
+    if ( limits.limitsEntries() && entries.incrementAndGet() > limits.maxEntries() ) {
+      throw fail( "The archive has more than " + limits.maxEntries() + " entries" );
+    }
+    return file;
+  }
+
+  /**
+   * Wrap the stream of an entry so its content is counted while it is read.
+   *
+   * @param name       the name of the entry.
+   * @param in         the stream of the content of the entry.
+   * @param statistics the statistics of the stream (compressed and uncompressed counts), {@code null} if unknown.
+   *
+   * @return the guarded stream.
+   */
+  public InputStream guard( final String name, final InputStream in, final InputStreamStatistics statistics ) {
+    return new GuardedInputStream( name, in, statistics );
+  }
+
+  /**
+   * Wrap the stream of an entry whose statistics are exposed by the stream itself (if any).
+   *
+   * @param name the name of the entry.
+   * @param in   the stream of the content of the entry.
+   *
+   * @return the guarded stream.
+   */
+  public InputStream guard( final String name, final InputStream in ) {
+    return guard( name, in, in instanceof InputStreamStatistics statistics ? statistics : null );
+  }
+
+  public long getEntries() {
+    return entries.get();
+  }
+
+  public long getTotalBytes() {
+    return totalBytes.get();
+  }
+
+  private void checkNotFailed() throws ArchiveLimitExceededException {
+    final var reason = failure.get();
+    if ( null != reason ) {
+      throw new ArchiveLimitExceededException( reason );
+    }
+  }
+
+  private ArchiveLimitExceededException fail( final String reason ) {
+    failure.compareAndSet( null, reason );
+    return new ArchiveLimitExceededException( reason );
+  }
+
+  private void count( final String name, final long bytes, final long entryBytes,
+                      final InputStreamStatistics statistics ) throws ArchiveLimitExceededException {
+    checkNotFailed();
+    if ( limits.limitsTotalBytes() && totalBytes.addAndGet( bytes ) > limits.maxTotalBytes() ) {
+      throw fail( "The archive expands to more than " + limits.maxTotalBytes() + " bytes" );
+    }
+    if ( limits.limitsRatio() && null != statistics && entryBytes > limits.ratioThreshold() ) {
+      final var compressed = Math.max( 1, statistics.getCompressedCount() );
+      if ( (double) statistics.getUncompressedCount() / compressed > limits.maxRatio() ) {
+        throw fail( "The compression ratio of the entry " + name + " exceeds " + limits.maxRatio() );
+      }
+    }
+  }
+
+  /**
+   * Stream counting the bytes of an entry.
+   */
+  private final class GuardedInputStream extends FilterInputStream {
+
+    private final String name;
+
+    private final InputStreamStatistics statistics;
+
+    private long entryBytes;
+
+    private GuardedInputStream( final String name, final InputStream in, final InputStreamStatistics statistics ) {
+      super( in );
+      this.name = name;
+      this.statistics = statistics;
+    }
+
+    @Override
+    public int read() throws IOException {
+      final var b = super.read();
+      if ( b != -1 ) {
+        entryBytes++;
+        count( name, 1, entryBytes, statistics );
+      }
+      return b;
+    }
+
+    @Override
+    public int read( final byte[] b, final int off, final int len ) throws IOException {
+      final var n = super.read( b, off, len );
+      if ( n > 0 ) {
+        entryBytes += n;
+        count( name, n, entryBytes, statistics );
+      }
+      return n;
+    }
+
+    @Override
+    public long skip( final long n ) throws IOException {
+      // skipped bytes are inflated as well, they are counted.
+      final var skipped = super.skip( n );
+      if ( skipped > 0 ) {
+        entryBytes += skipped;
+        count( name, skipped, entryBytes, statistics );
+      }
+      return skipped;
+    }
+  }
+}
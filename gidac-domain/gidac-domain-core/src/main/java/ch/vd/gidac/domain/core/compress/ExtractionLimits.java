@@ -0,0 +1,73 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.compress;
+
+/**
+ * Limits enforced while an archive is extracted.
+ *
+ * <p>A limit lower or equal to 0 is not enforced. The compression ratio of an entry is only checked once the entry
+ * has produced {@code ratioThreshold} bytes, small and very repetitive files are legitimate.</p>
+ *
+ * @param maxEntries     the maximum number of entries of the archive.
+ * @param maxTotalBytes  the maximum number of bytes extracted from the archive.
+ * @param maxRatio       the maximum ratio between the uncompressed and the compressed size of an entry.
+ * @param ratioThreshold the number of bytes of an entry above which its ratio is checked.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public record ExtractionLimits( long maxEntries, long maxTotalBytes, double maxRatio, long ratioThreshold ) {
+
+  private static final long MB = 1024L * 1024L;
+
+  /**
+   * Limits which are never reached.
+   *
+   * @return the limits.
+   */
+  public static ExtractionLimits unlimited() {
+    return new ExtractionLimits( 0, 0, 0, 0 );
+  }
+
+  /**
+   * Default limits, generous enough for any documentation archive: 10 000 entries, 2 GB and a ratio of 200 above
+   * 1 MB.
+   *
+   * @return the limits.
+   */
+  public static ExtractionLimits defaults() {
+    return new ExtractionLimits( 10_000, 2048 * MB, 200, MB );
+  }
+
+  boolean limitsEntries() {
+    return maxEntries > 0;
+  }
+
+  boolean limitsTotalBytes() {
+    return maxTotalBytes > 0;
+  }
+
+  boolean limitsRatio() {
+    return maxRatio > 0;
+  }
+}
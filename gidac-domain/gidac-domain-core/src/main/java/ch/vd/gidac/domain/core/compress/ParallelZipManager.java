@@ -0,0 +1,297 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.compress;
+
+import org.apache.commons.compress.archivers.zip.ScatterZipOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntryRequest;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+
+/**
+ * Zip manager which inflates and deflates the entries of the archives in parallel.
+ *
+ * <p>The archive is read through its central directory ({@link ZipFile} over a {@link SeekableByteChannel}) instead
+ * of being streamed entry by entry. The directories are created first, then the files are inflated concurrently on a
+ * fork-join pool, each worker copying through its own direct buffer. The archives are created in the style of the
+ * {@code ParallelScatterZipCreator} of commons-compress: the entries are compressed concurrently then stitched
+ * together.</p>
+ *
+ * <p>The extraction is guarded by the {@link ExtractionLimits} of the manager: once a limit is exceeded by one entry,
+ * all the entries being inflated stop.</p>
+ *
+ * <p>The pool is owned by the manager, it is shared by all the extractions and released by {@link #close()}.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class ParallelZipManager extends DefaultZipManager implements AutoCloseable {
+
+  /**
+   * Default size of the buffer of each worker.
+   */
+  public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+  private final ForkJoinPool pool;
+
+  private final ThreadLocal<ByteBuffer> buffers;
+
+  /**
+   * Create a new manager.
+   *
+   * @param parallelism the number of entries inflated or deflated at the same time.
+   */
+  public ParallelZipManager( final int parallelism ) {
+    this( parallelism, DEFAULT_BUFFER_SIZE );
+  }
+
+  /**
+   * Create a new manager.
+   *
+   * @param parallelism the number of entries inflated or deflated at the same time.
+   * @param bufferSize  the size of the direct buffer of each worker.
+   */
+  public ParallelZipManager( final int parallelism, final int bufferSize ) {
+    this( parallelism, bufferSize, CompressionPolicy.deflateAll() );
+  }
+
+  /**
+   * Create a new manager.
+   *
+   * @param parallelism       the number of entries inflated or deflated at the same time.
+   * @param bufferSize        the size of the direct buffer of each worker.
+   * @param compressionPolicy the policy selecting the compression method of the entries of the created archives.
+   */
+  public ParallelZipManager( final int parallelism, final int bufferSize, final CompressionPolicy compressionPolicy ) {
+    this( parallelism, bufferSize, compressionPolicy, ExtractionLimits.defaults() );
+  }
+
+  /**
+   * Create a new manager.
+   *
+   * @param parallelism       the number of entries inflated or deflated at the same time.
+   * @param bufferSize        the size of the direct buffer of each worker.
+   * @param compressionPolicy the policy selecting the compression method of the entries of the created archives.
+   * @param extractionLimits  the limits enforced while an archive is extracted, the entries being extracted in
+   *                          parallel all stop once one of the limits is exceeded.
+   */
+  public ParallelZipManager( final int parallelism, final int bufferSize, final CompressionPolicy compressionPolicy,
+                             final ExtractionLimits extractionLimits ) {
+    super( compressionPolicy, extractionLimits );
+    if ( parallelism < 1 ) {
+      throw new IllegalArgumentException( "The parallelism must be at least 1" );
+    }
+    pool = new ForkJoinPool( parallelism );
+    buffers = ThreadLocal.withInitial( () -> ByteBuffer.allocateDirect( bufferSize ) );
+  }
+
+  /**
+   * Zip the content of a directory, the entries are compressed concurrently and then stitched together.
+   *
+   * <p>Each entry is compressed by a worker into its own scatter file, the scatter files are then appended to the
+   * archive in the order of the listing, without being compressed again. The scatter files are created next to the
+   * archive, so they share the storage and the lifecycle of the working directory.</p>
+   */
+  @Override
+  public File zip( final Path path ) throws IOException {
+    final var filename = path.resolve( UUID.randomUUID() + ".zip" );
+    final List<Path> entries;
+    try ( final var s = Files.list( path ) ) {
+      // the zip is created in the listed directory, it must not include itself.
+      entries = s.filter( p -> !p.equals( filename ) ).toList();
+    }
+    final var tasks = new ArrayList<Callable<ScatterZipOutputStream>>( entries.size() );
+    for ( final var entry : entries ) {
+      tasks.add( () -> scatter( entry.toFile(), path ) );
+    }
+    final var scatters = pool.invokeAll( tasks );
+    try ( final var as = new ZipArchiveOutputStream( filename.toFile() ) ) {
+      for ( final var scatter : scatters ) {
+        try ( final var s = get( scatter ) ) {
+          s.writeTo( as );
+        }
+      }
+      as.finish();
+      return filename.toFile();
+    } finally {
+      // release the scatter files which have not been stitched (failure of an entry).
+      for ( final var scatter : scatters ) {
+        closeQuietly( scatter );
+      }
+    }
+  }
+
+  private ScatterZipOutputStream scatter( final File file, final Path directory ) throws IOException {
+    final var entry = new ZipArchiveEntry( file, file.getName() );
+    entry.setMethod( file.isFile() ? getCompressionPolicy().methodOf( file.getName() ) : ZipEntry.STORED );
+    final var scatter = ScatterZipOutputStream.fileBased(
+        Files.createTempFile( directory, ".gidac-", ".scatter" ).toFile() );
+    try {
+      scatter.addArchiveEntry( ZipArchiveEntryRequest.createZipArchiveEntryRequest( entry, () -> {
+        try {
+          return file.isFile() ? Files.newInputStream( file.toPath() ) : InputStream.nullInputStream();
+        } catch ( final IOException e ) {
+          throw new UncheckedIOException( e );
+        }
+      } ) );
+      return scatter;
+    } catch ( final IOException | UncheckedIOException e ) {
+      scatter.close();
+      throw e;
+    }
+  }
+
+  private static ScatterZipOutputStream get( final Future<ScatterZipOutputStream> future ) throws IOException {
+    try {
+      return future.get();
+    } catch ( final InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new IOException( "The creation of the archive has been interrupted", e );
+    } catch ( final ExecutionException e ) {
+      throw unwrap( e, "The creation of the archive fails" );
+    }
+  }
+
+  private static void closeQuietly( final Future<ScatterZipOutputStream> future ) {
+    if ( !future.isDone() || future.isCancelled() ) {
+      return;
+    }
+    try {
+      future.get().close();
+    } catch ( final Exception ignore ) {
+      // the scatter file is either already deleted or could not be created.
+    }
+  }
+
+  @Override
+  public void unzip( final byte[] content, final Path path ) throws IOException {
+    extract( new SeekableInMemoryByteChannel( content ), path );
+  }
+
+  @Override
+  public void unzip( final File zipFile, final Path path ) throws IOException {
+    extract( Files.newByteChannel( zipFile.toPath() ), path );
+  }
+
+  private void extract( final SeekableByteChannel channel, final Path path ) throws IOException {
+    final var guard = newExtractionGuard();
+    try ( final var zip = new ZipFile( channel ) ) {
+      final var tasks = new ArrayList<Callable<Void>>();
+      for ( final var entry : Collections.list( zip.getEntriesInPhysicalOrder() ) ) {
+        final var file = guard.entry( path, entry.getName() );
+        if ( entry.isDirectory() ) {
+          Files.createDirectories( file );
+        } else {
+          if ( null != file.getParent() ) {
+            Files.createDirectories( file.getParent() );
+          }
+          tasks.add( () -> {
+            inflate( guard.guard( entry.getName(), zip.getInputStream( entry ) ), file );
+            return null;
+          } );
+        }
+      }
+      await( pool.invokeAll( tasks ) );
+    }
+  }
+
+  private void inflate( final InputStream entry, final Path file ) throws IOException {
+    final var buffer = buffers.get();
+    try ( final var in = Channels.newChannel( entry );
+          final var out = FileChannel.open( file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+              StandardOpenOption.TRUNCATE_EXISTING ) ) {
+      buffer.clear();
+      while ( in.read( buffer ) != -1 ) {
+        buffer.flip();
+        while ( buffer.hasRemaining() ) {
+          out.write( buffer );
+        }
+        buffer.clear();
+      }
+    }
+  }
+
+  /**
+   * Wait for the extraction of all the entries, the first failure is rethrown.
+   *
+   * @param futures the extraction of the entries.
+   *
+   * @throws IOException the first failure of the extraction.
+   */
+  private static void await( final List<Future<Void>> futures ) throws IOException {
+    for ( final var future : futures ) {
+      try {
+        future.get();
+      } catch ( final InterruptedException e ) {
+        Thread.currentThread().interrupt();
+        throw new IOException( "The extraction has been interrupted", e );
+      } catch ( final ExecutionException e ) {
+        throw unwrap( e, "The extraction of the archive fails" );
+      }
+    }
+  }
+
+  /**
+   * Find the I/O failure of a task, the fork-join pool may wrap it in runtime exceptions.
+   *
+   * @param e       the failure of the task.
+   * @param message the message used when the failure is not an I/O one.
+   *
+   * @return the failure to rethrow.
+   */
+  private static IOException unwrap( final ExecutionException e, final String message ) {
+    for ( var cause = e.getCause(); null != cause; cause = cause.getCause() ) {
+      if ( cause instanceof IOException ioException ) {
+        return ioException;
+      }
+    }
+    return new IOException( message, e.getCause() );
+  }
+
+  @Override
+  public void close() {
+    pool.shutdown();
+  }
+}
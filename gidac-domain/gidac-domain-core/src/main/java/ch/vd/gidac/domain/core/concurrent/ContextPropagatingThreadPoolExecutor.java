@@ -0,0 +1,85 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.domain.core.concurrent;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of threads running its tasks with the logging context of the thread submitting them.
+ *
+ * <p>All the submissions ({@code execute}, {@code submit}, {@code invokeAll}, the completion services, ...) go
+ * through {@link #execute(Runnable)}, where the context is captured. The queued tasks, and the tasks given to the
+ * rejection handler, are therefore the wrapped ones.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ * @see LoggingContext
+ */
+public class ContextPropagatingThreadPoolExecutor extends ThreadPoolExecutor {
+
+  /**
+   * Create a new pool.
+   *
+   * @param corePoolSize    the number of threads to keep in the pool.
+   * @param maximumPoolSize the maximum number of threads in the pool.
+   * @param keepAliveTime   the time the threads above the core size wait for a new task before ending.
+   * @param unit            the unit of the keep alive time.
+   * @param workQueue       the queue of the waiting tasks.
+   * @param threadFactory   the factory of the threads.
+   */
+  public ContextPropagatingThreadPoolExecutor( final int corePoolSize, final int maximumPoolSize,
+                                               final long keepAliveTime, final TimeUnit unit,
+                                               final BlockingQueue<Runnable> workQueue,
+                                               final ThreadFactory threadFactory ) {
+    super( corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory );
+  }
+
+  /**
+   * Create a new pool.
+   *
+   * @param corePoolSize    the number of threads to keep in the pool.
+   * @param maximumPoolSize the maximum number of threads in the pool.
+   * @param keepAliveTime   the time the threads above the core size wait for a new task before ending.
+   * @param unit            the unit of the keep alive time.
+   * @param workQueue       the queue of the waiting tasks.
+   * @param threadFactory   the factory of the threads.
+   * @param handler         the handler of the tasks the pool cannot accept.
+   */
+  public ContextPropagatingThreadPoolExecutor( final int corePoolSize, final int maximumPoolSize,
+                                               final long keepAliveTime, final TimeUnit unit,
+                                               final BlockingQueue<Runnable> workQueue,
+                                               final ThreadFactory threadFactory,
+                                               final RejectedExecutionHandler handler ) {
+    super( corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory, handler );
+  }
+
+  @Override
+  public void execute( final Runnable command ) {
+    super.execute( LoggingContext.propagate( command ) );
+  }
+}
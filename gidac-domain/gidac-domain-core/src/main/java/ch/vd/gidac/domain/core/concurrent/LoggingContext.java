@@ -0,0 +1,195 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.domain.core.concurrent;
+
+import org.apache.logging.log4j.ThreadContext;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+/**
+ * Snapshot of the logging context ({@link ThreadContext}) of a thread, to attach to the threads doing its work.
+ *
+ * <p>The context (request id, start of the request, trace ids, ...) is bound to the thread which receives the
+ * request. The work is then handed to the pools of the application, to the pumps of the child processes, etc. The
+ * context is captured when the work is submitted and attached to the thread running it, for the time of the run
+ * only: the previous context of the thread is restored afterwards.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public final class LoggingContext {
+
+  /**
+   * The empty context.
+   */
+  public static final LoggingContext EMPTY = new LoggingContext( Map.of(), ThreadContext.EMPTY_STACK );
+
+  private final Map<String, String> map;
+
+  private final ThreadContext.ContextStack stack;
+
+  private LoggingContext( final Map<String, String> map, final ThreadContext.ContextStack stack ) {
+    this.map = map;
+    this.stack = stack;
+  }
+
+  /**
+   * Capture the logging context of the current thread.
+   *
+   * @return the snapshot of the context.
+   */
+  public static LoggingContext capture() {
+    final var map = ThreadContext.getImmutableContext();
+    final var depth = ThreadContext.getDepth();
+    if ( map.isEmpty() && 0 == depth ) {
+      return EMPTY;
+    }
+    return new LoggingContext( Map.copyOf( map ), 0 == depth ? ThreadContext.EMPTY_STACK : ThreadContext.cloneStack() );
+  }
+
+  /**
+   * Wrap a task so that it runs with the logging context of the current thread.
+   *
+   * @param task the task to wrap.
+   *
+   * @return the wrapped task.
+   */
+  public static Runnable propagate( final Runnable task ) {
+    return capture().wrap( task );
+  }
+
+  /**
+   * Wrap a task so that it runs with the logging context of the current thread.
+   *
+   * @param task the task to wrap.
+   * @param <V>  the type of the result of the task.
+   *
+   * @return the wrapped task.
+   */
+  public static <V> Callable<V> propagate( final Callable<V> task ) {
+    return capture().wrap( task );
+  }
+
+  /**
+   * Wrap an executor so that its tasks run with the logging context of the thread submitting them.
+   *
+   * @param executor the executor to wrap.
+   *
+   * @return the wrapped executor.
+   */
+  public static Executor propagating( final Executor executor ) {
+    return task -> executor.execute( propagate( task ) );
+  }
+
+  /**
+   * Tell if the snapshot is empty.
+   *
+   * @return {@code true} if nothing was in the context when it was captured.
+   */
+  public boolean isEmpty() {
+    return map.isEmpty() && 0 == stack.getDepth();
+  }
+
+  /**
+   * Get the entries of the context.
+   *
+   * @return the immutable entries of the context.
+   */
+  public Map<String, String> getMap() {
+    return map;
+  }
+
+  /**
+   * Attach the context to the current thread, until the returned scope is closed.
+   *
+   * @return the scope, which restores the previous context of the thread when closed.
+   */
+  public Scope attach() {
+    final var previous = capture();
+    replace( this );
+    return () -> replace( previous );
+  }
+
+  /**
+   * Wrap a task so that it runs with this context.
+   *
+   * @param task the task to wrap.
+   *
+   * @return the wrapped task, or the task itself if the context is empty.
+   */
+  public Runnable wrap( final Runnable task ) {
+    if ( isEmpty() ) {
+      return task;
+    }
+    return () -> {
+      try ( final var ignored = attach() ) {
+        task.run();
+      }
+    };
+  }
+
+  /**
+   * Wrap a task so that it runs with this context.
+   *
+   * @param task the task to wrap.
+   * @param <V>  the type of the result of the task.
+   *
+   * @return the wrapped task, or the task itself if the context is empty.
+   */
+  public <V> Callable<V> wrap( final Callable<V> task ) {
+    if ( isEmpty() ) {
+      return task;
+    }
+    return () -> {
+      try ( final var ignored = attach() ) {
+        return task.call();
+      }
+    };
+  }
+
+  private static void replace( final LoggingContext context ) {
+    ThreadContext.clearAll();
+    if ( !context.map.isEmpty() ) {
+      ThreadContext.putAll( context.map );
+    }
+    if ( 0 != context.stack.getDepth() ) {
+      ThreadContext.setStack( context.stack.asList() );
+    }
+  }
+
+  /**
+   * Scope of an attached context.
+   */
+  @FunctionalInterface
+  public interface Scope extends AutoCloseable {
+
+    /**
+     * Restore the previous context of the thread.
+     */
+    @Override
+    void close();
+  }
+}
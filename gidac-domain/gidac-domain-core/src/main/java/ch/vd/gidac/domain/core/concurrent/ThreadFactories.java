@@ -0,0 +1,166 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.domain.core.concurrent;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factories of the threads running the generations.
+ *
+ * <p>The generations mostly wait: on the upload, on the file system and on the DITA-OT process. From Java 21, they
+ * may run on virtual threads, which release their carrier thread while they are blocked. The application is built
+ * for Java 17, so the virtual threads are looked up at runtime and the platform threads are used when the runtime
+ * does not provide them.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public final class ThreadFactories {
+
+  private static final Logger log = LogManager.getLogger( ThreadFactories.class );
+
+  /**
+   * Handles on {@code Thread.ofVirtual()}, {@code Thread.Builder.name(String, long)} and
+   * {@code Thread.Builder.factory()}, looked up on the public types since the builders are internal classes. They are
+   * {@code null} if the runtime does not support the virtual threads.
+   */
+  private static final MethodHandle OF_VIRTUAL;
+
+  private static final MethodHandle NAME;
+
+  private static final MethodHandle FACTORY;
+
+  static {
+    MethodHandle ofVirtual = null;
+    MethodHandle name = null;
+    MethodHandle factory = null;
+    try {
+      final var lookup = MethodHandles.publicLookup();
+      final var builder = Class.forName( "java.lang.Thread$Builder" );
+      ofVirtual = lookup.findStatic( Thread.class, "ofVirtual",
+          MethodType.methodType( Class.forName( "java.lang.Thread$Builder$OfVirtual" ) ) );
+      name = lookup.findVirtual( builder, "name", MethodType.methodType( builder, String.class, long.class ) );
+      factory = lookup.findVirtual( builder, "factory", MethodType.methodType( ThreadFactory.class ) );
+    } catch ( final ReflectiveOperationException e ) {
+      ofVirtual = null;
+    }
+    OF_VIRTUAL = ofVirtual;
+    NAME = name;
+    FACTORY = factory;
+  }
+
+  private ThreadFactories() {
+  }
+
+  /**
+   * Tell if the runtime supports the virtual threads.
+   *
+   * @return {@code true} from Java 21.
+   */
+  public static boolean isVirtualAvailable() {
+    return null != OF_VIRTUAL;
+  }
+
+  /**
+   * Create a factory of platform threads.
+   *
+   * @param prefix the prefix of the names of the threads, followed by a counter.
+   *
+   * @return the factory.
+   */
+  public static ThreadFactory platform( final String prefix ) {
+    final var counter = new AtomicInteger();
+    return runnable -> new Thread( runnable, prefix + counter.incrementAndGet() );
+  }
+
+  /**
+   * Create a factory of virtual threads.
+   *
+   * @param prefix the prefix of the names of the threads, followed by a counter.
+   *
+   * @return the factory.
+   *
+   * @throws UnsupportedOperationException thrown if the runtime does not support the virtual threads.
+   */
+  public static ThreadFactory virtual( final String prefix ) {
+    if ( !isVirtualAvailable() ) {
+      throw new UnsupportedOperationException( "The virtual threads require Java 21 or later" );
+    }
+    try {
+      final var builder = OF_VIRTUAL.invoke();
+      final var named = NAME.invoke( builder, prefix, 1L );
+      return (ThreadFactory) FACTORY.invoke( named );
+    } catch ( final Throwable e ) {
+      throw new UnsupportedOperationException( "Cannot create the factory of virtual threads", e );
+    }
+  }
+
+  /**
+   * Create a factory of virtual threads if requested and supported, of platform threads otherwise.
+   *
+   * @param prefix  the prefix of the names of the threads, followed by a counter.
+   * @param virtual {@code true} to use virtual threads.
+   *
+   * @return the factory.
+   */
+  public static ThreadFactory of( final String prefix, final boolean virtual ) {
+    if ( virtual ) {
+      if ( isVirtualAvailable() ) {
+        return virtual( prefix );
+      }
+      log.warn( "The virtual threads are not supported by Java {}, {} threads are platform threads",
+          Runtime.version().feature(), prefix );
+    }
+    return platform( prefix );
+  }
+
+  /**
+   * Create an executor which starts a new virtual thread for each task.
+   *
+   * @param prefix the prefix of the names of the threads, followed by a counter.
+   *
+   * @return the executor.
+   *
+   * @throws UnsupportedOperationException thrown if the runtime does not support the virtual threads.
+   */
+  public static ExecutorService newVirtualThreadPerTaskExecutor( final String prefix ) {
+    final var factory = virtual( prefix );
+    try {
+      return (ExecutorService) Executors.class
+          .getMethod( "newThreadPerTaskExecutor", ThreadFactory.class )
+          .invoke( null, factory );
+    } catch ( final ReflectiveOperationException e ) {
+      throw new UnsupportedOperationException( "Cannot create the executor of virtual threads", e );
+    }
+  }
+}
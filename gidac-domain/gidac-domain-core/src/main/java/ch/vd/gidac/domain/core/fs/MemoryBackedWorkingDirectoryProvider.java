@@ -0,0 +1,241 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.domain.core.fs;
+
+import ch.vd.gidac.domain.core.RequestId;
+import ch.vd.gidac.domain.core.WorkingDirectory;
+import org.apache.commons.io.file.PathUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Provider moving the temporary and/or input trees of the working directories of another provider to a
+ * memory-backed filesystem, according to a {@link StoragePolicy}.
+ *
+ * <p>Each request reserves the space its trees are estimated to take from the size of its archive (see
+ * {@link StoragePolicy#reservationFactor()}), until its working directory is released. When the free space of the
+ * memory-backed filesystem, minus the reservations of the other requests, is short, the request keeps the trees of
+ * the working directory of the delegate, on disk. The memory trees of a request are deleted when the working
+ * directory is released, before handing it back to the delegate.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class MemoryBackedWorkingDirectoryProvider implements WorkingDirectoryProvider, AutoCloseable {
+
+  private static final Logger log = LogManager.getLogger( MemoryBackedWorkingDirectoryProvider.class );
+
+  private static final String TMP_DIRECTORY = "tmp";
+
+  private static final String INPUT_DIRECTORY = "input";
+
+  private final WorkingDirectoryProvider delegate;
+
+  private final StoragePolicy policy;
+
+  private final Path memoryRoot;
+
+  /**
+   * Working directories of the delegate, by root of the working directories handed to the requests.
+   */
+  private final Map<Path, Lease> leases = new ConcurrentHashMap<>();
+
+  private final AtomicLong memoryLeases = new AtomicLong();
+
+  private final AtomicLong reservedBytes = new AtomicLong();
+
+  private final AtomicLong diskFallbacks = new AtomicLong();
+
+  /**
+   * Create a new provider.
+   *
+   * @param delegate   the provider of the working directories.
+   * @param policy     the policy defining the trees stored in memory.
+   * @param memoryRoot the directory of this provider on the memory-backed filesystem, it is emptied first.
+   *
+   * @throws IOException thrown if the directory cannot be created.
+   */
+  public MemoryBackedWorkingDirectoryProvider( final WorkingDirectoryProvider delegate,
+                                               final StoragePolicy policy,
+                                               final Path memoryRoot ) throws IOException {
+    if ( !policy.usesMemory() ) {
+      throw new IllegalArgumentException( "The policy does not store any tree in memory" );
+    }
+    this.delegate = delegate;
+    this.policy = policy;
+    this.memoryRoot = memoryRoot;
+    if ( Files.exists( memoryRoot ) ) {
+      PathUtils.deleteDirectory( memoryRoot );
+    }
+    Files.createDirectories( memoryRoot );
+  }
+
+  @Override
+  public WorkingDirectory acquire( final RequestId requestId ) throws IOException {
+    return acquire( requestId, 0 );
+  }
+
+  @Override
+  public WorkingDirectory acquire( final RequestId requestId, final long archiveSize ) throws IOException {
+    final var workingDirectory = delegate.acquire( requestId, archiveSize );
+    final var reservation = reserve( archiveSize );
+    if ( reservation < 0 ) {
+      diskFallbacks.incrementAndGet();
+      log.debug( "Not enough memory for the working directory of {}, it is stored on disk", requestId );
+      return workingDirectory;
+    }
+    final var memoryDirectory = memoryRoot.resolve( requestId.value() + "-" + UUID.randomUUID() );
+    try {
+      final var input = policy.inputInMemory()
+          ? Files.createDirectories( memoryDirectory.resolve( INPUT_DIRECTORY ) )
+          : workingDirectory.inputDirectory();
+      final var tmp = policy.tmpInMemory()
+          ? Files.createDirectories( memoryDirectory.resolve( TMP_DIRECTORY ) )
+          : workingDirectory.tmpDirectory();
+      final var memoryBacked = new WorkingDirectory( workingDirectory.root(), input,
+          workingDirectory.outputDirectory(), tmp );
+      leases.put( memoryBacked.root(), new Lease( workingDirectory, memoryDirectory, reservation ) );
+      memoryLeases.incrementAndGet();
+      return memoryBacked;
+    } catch ( final IOException | RuntimeException e ) {
+      reservedBytes.addAndGet( -reservation );
+      delete( memoryDirectory );
+      delegate.release( workingDirectory );
+      throw e;
+    }
+  }
+
+  /**
+   * Reserve the estimated space of a working directory on the memory-backed filesystem.
+   *
+   * @return the reserved bytes, or {@code -1} when the memory is short.
+   */
+  private long reserve( final long archiveSize ) {
+    final long usable;
+    try {
+      usable = Files.getFileStore( memoryRoot ).getUsableSpace();
+    } catch ( final IOException e ) {
+      log.warn( "Cannot read the free space of {}", memoryRoot, e );
+      return -1;
+    }
+    final var factor = policy.reservationFactor();
+    final var size = Math.max( 0, archiveSize );
+    final var reservation = factor > 0 && size > Long.MAX_VALUE / factor ? Long.MAX_VALUE : size * factor;
+    while ( true ) {
+      final var reserved = reservedBytes.get();
+      final var available = usable - reserved;
+      if ( available < policy.minFreeBytes() || reservation > available - policy.minFreeBytes() ) {
+        return -1;
+      }
+      if ( reservedBytes.compareAndSet( reserved, reserved + reservation ) ) {
+        return reservation;
+      }
+    }
+  }
+
+  @Override
+  public void release( final WorkingDirectory workingDirectory ) throws IOException {
+    final var lease = leases.remove( workingDirectory.root() );
+    if ( null == lease ) {
+      delegate.release( workingDirectory );
+      return;
+    }
+    memoryLeases.decrementAndGet();
+    reservedBytes.addAndGet( -lease.reservation() );
+    try {
+      PathUtils.deleteDirectory( lease.memoryDirectory() );
+    } finally {
+      delegate.release( lease.workingDirectory() );
+    }
+  }
+
+  private static void delete( final Path directory ) {
+    try {
+      if ( Files.exists( directory ) ) {
+        PathUtils.deleteDirectory( directory );
+      }
+    } catch ( final IOException e ) {
+      log.warn( "Cannot delete {}", directory, e );
+    }
+  }
+
+  public WorkingDirectoryProvider getDelegate() {
+    return delegate;
+  }
+
+  /**
+   * Get the number of working directories whose trees are in memory.
+   *
+   * @return the number of working directories in memory.
+   */
+  public long getMemoryLeases() {
+    return memoryLeases.get();
+  }
+
+  /**
+   * Get the space reserved by the working directories in memory.
+   *
+   * @return the reserved bytes.
+   */
+  public long getReservedBytes() {
+    return reservedBytes.get();
+  }
+
+  /**
+   * Get the number of working directories stored on disk because the memory was short.
+   *
+   * @return the number of fallbacks to the disk.
+   */
+  public long getDiskFallbacks() {
+    return diskFallbacks.get();
+  }
+
+  /**
+   * Delete the directory of the provider from the memory-backed filesystem.
+   */
+  @Override
+  public void close() {
+    leases.clear();
+    reservedBytes.set( 0 );
+    delete( memoryRoot );
+    if ( delegate instanceof AutoCloseable closeable ) {
+      try {
+        closeable.close();
+      } catch ( final Exception e ) {
+        log.warn( "Cannot close the provider of the working directories", e );
+      }
+    }
+  }
+
+  private record Lease( WorkingDirectory workingDirectory, Path memoryDirectory, long reservation ) {
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.domain.core.fs;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Storage policy of the working directories: which trees are stored on a memory-backed filesystem.
+ *
+ * <p>The temporary tree receives the intermediate files of DITA-OT, the input tree receives the content of the
+ * archive. Both are read and written many times during a bake, while the output tree only receives the binaries.
+ * Each working directory in memory reserves {@code reservationFactor} times the size of its archive until it is
+ * released. The memory is used as long as the filesystem keeps {@code minFreeBytes} free once the reservations are
+ * deducted, the trees of the next requests are stored on disk otherwise.</p>
+ *
+ * @param memoryRoot        the directory of the memory-backed filesystem ({@code /dev/shm}, a tmpfs mount, ...).
+ * @param tmpInMemory       {@code true} to store the temporary trees in memory.
+ * @param inputInMemory     {@code true} to store the input trees in memory.
+ * @param minFreeBytes      the free space the memory-backed filesystem must keep to receive a new working directory.
+ * @param reservationFactor the space reserved for a working directory, as a multiple of the size of its archive.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public record StoragePolicy( Path memoryRoot, boolean tmpInMemory, boolean inputInMemory, long minFreeBytes,
+                             int reservationFactor ) {
+
+  public StoragePolicy {
+    if (tmpInMemory || inputInMemory) {
+      Objects.requireNonNull( memoryRoot, "The memory-backed directory is required" );
+    }
+    if (minFreeBytes < 0) {
+      throw new IllegalArgumentException( "The free space must be positive" );
+    }
+    if (reservationFactor < 0) {
+      throw new IllegalArgumentException( "The reservation factor must be positive" );
+    }
+  }
+
+  /**
+   * Policy storing everything on disk.
+   *
+   * @return the policy.
+   */
+  public static StoragePolicy disk () {
+    return new StoragePolicy( null, false, false, 0, 0 );
+  }
+
+  /**
+   * Tell if at least one tree is stored in memory.
+   *
+   * @return {@code true} if the memory-backed filesystem is used.
+   */
+  public boolean usesMemory () {
+    return tmpInMemory || inputInMemory;
+  }
+}
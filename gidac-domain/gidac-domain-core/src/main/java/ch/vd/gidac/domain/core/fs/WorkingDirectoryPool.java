@@ -0,0 +1,205 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.domain.core.fs;
+
+import ch.vd.gidac.domain.core.RequestId;
+import ch.vd.gidac.domain.core.WorkingDirectory;
+import ch.vd.gidac.domain.core.concurrent.LoggingContext;
+import ch.vd.gidac.domain.core.concurrent.ThreadFactories;
+import org.apache.commons.io.file.PathUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of working directories created once under a root directory and recycled between the requests.
+ *
+ * <p>A request leases an empty working directory, the layout of which already exists. Once released, the directory
+ * is wiped by a background thread and goes back to the pool: the request does not pay the creation of the layout nor
+ * the recursive delete of its files. When the pool is empty, a new directory is created for the request and deleted
+ * when released if the pool is already full.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class WorkingDirectoryPool implements WorkingDirectoryProvider, AutoCloseable {
+
+  private static final Logger log = LogManager.getLogger( WorkingDirectoryPool.class );
+
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+  private final Path root;
+
+  private final int size;
+
+  private final ConcurrentLinkedQueue<WorkingDirectory> idle = new ConcurrentLinkedQueue<>();
+
+  private final Set<Path> pooled = ConcurrentHashMap.newKeySet();
+
+  private final AtomicInteger leased = new AtomicInteger();
+
+  private final AtomicInteger wiping = new AtomicInteger();
+
+  private final ExecutorService cleaner;
+
+  /**
+   * Create the pool and its working directories.
+   *
+   * @param root the directory in which the working directories are created, it is emptied first.
+   * @param size the number of working directories kept in the pool.
+   *
+   * @throws IOException thrown if the working directories cannot be created.
+   */
+  public WorkingDirectoryPool( final Path root, final int size ) throws IOException {
+    if ( size < 1 ) {
+      throw new IllegalArgumentException( "The size of the pool must be positive" );
+    }
+    this.root = root;
+    this.size = size;
+    // the directories left by a previous run are useless, they are removed with the root.
+    if ( Files.exists( root ) ) {
+      PathUtils.deleteDirectory( root );
+    }
+    Files.createDirectories( root );
+    for ( var i = 0; i < size; i++ ) {
+      final var directory = WorkingDirectory.create( root.resolve( "slot-" + i ) );
+      pooled.add( directory.root() );
+      idle.add( directory );
+    }
+    cleaner = Executors.newSingleThreadExecutor( ThreadFactories.platform( "gidac-workdir-cleaner-" ) );
+  }
+
+  @Override
+  public WorkingDirectory acquire( final RequestId requestId ) throws IOException {
+    final var directory = idle.poll();
+    leased.incrementAndGet();
+    if ( null != directory ) {
+      return directory;
+    }
+    try {
+      return WorkingDirectory.create( root.resolve( requestId.value() + "-" + UUID.randomUUID() ) );
+    } catch ( final IOException | RuntimeException e ) {
+      leased.decrementAndGet();
+      throw e;
+    }
+  }
+
+  @Override
+  public void release( final WorkingDirectory workingDirectory ) {
+    leased.decrementAndGet();
+    wiping.incrementAndGet();
+    try {
+      cleaner.execute( LoggingContext.propagate( () -> recycle( workingDirectory ) ) );
+    } catch ( final RejectedExecutionException e ) {
+      // the pool is closed, the directory is deleted with the root.
+      wiping.decrementAndGet();
+    }
+  }
+
+  private void recycle( final WorkingDirectory workingDirectory ) {
+    try {
+      if ( pooled.contains( workingDirectory.root() ) ) {
+        idle.add( workingDirectory.wipe() );
+      } else if ( pooled.size() < size ) {
+        pooled.add( workingDirectory.wipe().root() );
+        idle.add( workingDirectory );
+      } else {
+        PathUtils.deleteDirectory( workingDirectory.root() );
+      }
+    } catch ( final IOException | RuntimeException e ) {
+      log.warn( "Cannot recycle the working directory {}", workingDirectory.root(), e );
+      pooled.remove( workingDirectory.root() );
+      delete( workingDirectory.root() );
+    } finally {
+      wiping.decrementAndGet();
+    }
+  }
+
+  private static void delete( final Path directory ) {
+    try {
+      if ( Files.exists( directory ) ) {
+        PathUtils.deleteDirectory( directory );
+      }
+    } catch ( final IOException e ) {
+      log.warn( "Cannot delete the working directory {}", directory, e );
+    }
+  }
+
+  /**
+   * Get the number of working directories ready to be leased.
+   *
+   * @return the number of idle working directories.
+   */
+  public int getIdle() {
+    return idle.size();
+  }
+
+  /**
+   * Get the number of working directories leased by the requests.
+   *
+   * @return the number of leased working directories.
+   */
+  public int getLeased() {
+    return leased.get();
+  }
+
+  /**
+   * Get the number of released working directories not wiped yet.
+   *
+   * @return the number of working directories waiting for the cleaner.
+   */
+  public int getWiping() {
+    return wiping.get();
+  }
+
+  /**
+   * Stop the cleaner and delete the root of the pool.
+   */
+  @Override
+  public void close() {
+    cleaner.shutdown();
+    try {
+      if ( !cleaner.awaitTermination( SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS ) ) {
+        cleaner.shutdownNow();
+      }
+    } catch ( final InterruptedException e ) {
+      cleaner.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+    idle.clear();
+    delete( root );
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.domain.core.fs;
+
+import ch.vd.gidac.domain.core.RequestId;
+import ch.vd.gidac.domain.core.WorkingDirectory;
+
+import java.io.IOException;
+
+/**
+ * Provide the working directories of the recipes.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public interface WorkingDirectoryProvider {
+
+  /**
+   * Get an empty working directory for a request.
+   *
+   * @param requestId the id of the request.
+   *
+   * @return the working directory, owned by the request until it is released.
+   *
+   * @throws IOException thrown if the working directory cannot be created.
+   */
+  WorkingDirectory acquire( RequestId requestId ) throws IOException;
+
+  /**
+   * Get an empty working directory for a request which extracts an archive of a given size.
+   *
+   * <p>The size lets the providers estimate the space the request needs, the others ignore it.</p>
+   *
+   * @param requestId   the id of the request.
+   * @param archiveSize the size of the archive of the request, in bytes.
+   *
+   * @return the working directory, owned by the request until it is released.
+   *
+   * @throws IOException thrown if the working directory cannot be created.
+   */
+  default WorkingDirectory acquire( final RequestId requestId, final long archiveSize ) throws IOException {
+    return acquire( requestId );
+  }
+
+  /**
+   * Give a working directory back once the request does not use it anymore, its content is deleted.
+   *
+   * @param workingDirectory the working directory to release.
+   *
+   * @throws IOException thrown if the working directory cannot be deleted.
+   */
+  void release( WorkingDirectory workingDirectory ) throws IOException;
+}
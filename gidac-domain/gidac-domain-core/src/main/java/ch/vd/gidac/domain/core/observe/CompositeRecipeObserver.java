@@ -0,0 +1,101 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.domain.core.observe;
+
+import ch.vd.gidac.domain.core.DitaMap;
+import ch.vd.gidac.domain.core.RequestId;
+
+import java.util.List;
+
+/**
+ * Observer forwarding the progress of the recipes to several observers, in order.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class CompositeRecipeObserver implements RecipeObserver {
+
+  private final RecipeObserver[] observers;
+
+  /**
+   * Create a new observer.
+   *
+   * @param observers the observers to forward to.
+   */
+  public CompositeRecipeObserver( final List<? extends RecipeObserver> observers ) {
+    this.observers = observers.toArray( RecipeObserver[]::new );
+  }
+
+  /**
+   * Combine observers, without composite if there is a single one.
+   *
+   * @param observers the observers.
+   *
+   * @return the observer forwarding to the observers, {@link RecipeObserver#NONE} if there is none.
+   */
+  public static RecipeObserver of( final List<? extends RecipeObserver> observers ) {
+    return switch ( observers.size() ) {
+      case 0 -> RecipeObserver.NONE;
+      case 1 -> observers.get( 0 );
+      default -> new CompositeRecipeObserver( observers );
+    };
+  }
+
+  @Override
+  public void recipeStarted( final RequestId requestId, final long archiveSize ) {
+    for ( final var observer : observers ) {
+      observer.recipeStarted( requestId, archiveSize );
+    }
+  }
+
+  @Override
+  public void stageCompleted( final RequestId requestId, final RecipeStage stage, final long durationNanos,
+                              final Throwable failure ) {
+    for ( final var observer : observers ) {
+      observer.stageCompleted( requestId, stage, durationNanos, failure );
+    }
+  }
+
+  @Override
+  public void ditaMapBaked( final RequestId requestId, final DitaMap ditaMap, final long durationNanos,
+                            final Throwable failure ) {
+    for ( final var observer : observers ) {
+      observer.ditaMapBaked( requestId, ditaMap, durationNanos, failure );
+    }
+  }
+
+  @Override
+  public void binaryPacked( final RequestId requestId, final long binarySize ) {
+    for ( final var observer : observers ) {
+      observer.binaryPacked( requestId, binarySize );
+    }
+  }
+
+  @Override
+  public void recipeFinished( final RequestId requestId ) {
+    for ( final var observer : observers ) {
+      observer.recipeFinished( requestId );
+    }
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.domain.core.observe;
+
+import ch.vd.gidac.domain.core.DitaMap;
+import ch.vd.gidac.domain.core.RequestId;
+
+/**
+ * Observer of the progress of the recipes.
+ *
+ * <p>The observer is called from the threads running the recipes, it must be thread safe and it must return
+ * quickly. The methods do nothing by default.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public interface RecipeObserver {
+
+  /**
+   * Observer which ignores everything.
+   */
+  RecipeObserver NONE = new RecipeObserver() {
+  };
+
+  /**
+   * A recipe starts, its working directory is about to be set up.
+   *
+   * @param requestId   the id of the request of the recipe.
+   * @param archiveSize the size of the archive, in bytes.
+   */
+  default void recipeStarted( RequestId requestId, long archiveSize ) {
+  }
+
+  /**
+   * A stage of a recipe is done.
+   *
+   * @param requestId     the id of the request of the recipe.
+   * @param stage         the stage.
+   * @param durationNanos the duration of the stage.
+   * @param failure       the failure of the stage, {@code null} if it succeeded.
+   */
+  default void stageCompleted( RequestId requestId, RecipeStage stage, long durationNanos, Throwable failure ) {
+  }
+
+  /**
+   * A ditamap of a recipe has been baked.
+   *
+   * @param requestId     the id of the request of the recipe.
+   * @param ditaMap       the ditamap.
+   * @param durationNanos the duration of the generation of the ditamap.
+   * @param failure       the failure of the generation, {@code null} if it succeeded.
+   */
+  default void ditaMapBaked( RequestId requestId, DitaMap ditaMap, long durationNanos, Throwable failure ) {
+  }
+
+  /**
+   * The binary of a recipe has been packed.
+   *
+   * @param requestId  the id of the request of the recipe.
+   * @param binarySize the size of the binary, in bytes.
+   */
+  default void binaryPacked( RequestId requestId, long binarySize ) {
+  }
+
+  /**
+   * A recipe is over, its working directory has been released.
+   *
+   * @param requestId the id of the request of the recipe.
+   */
+  default void recipeFinished( RequestId requestId ) {
+  }
+}
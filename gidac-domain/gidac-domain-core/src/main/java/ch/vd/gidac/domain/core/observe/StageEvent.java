@@ -0,0 +1,52 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.domain.core.observe;
+
+import ch.vd.gidac.domain.core.RequestId;
+
+/**
+ * Event describing a stage of a recipe, or the generation of one of its ditamaps.
+ *
+ * @param requestId     the id of the request of the recipe.
+ * @param stage         the stage.
+ * @param item          the ditamap generated during the {@link RecipeStage#BAKE} stage, {@code null} for the event of
+ *                      the stage itself.
+ * @param durationNanos the duration of the stage or of the generation.
+ * @param failure       the failure of the stage or of the generation, {@code null} if it succeeded.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public record StageEvent( RequestId requestId, RecipeStage stage, String item, long durationNanos,
+                          Throwable failure ) {
+
+  /**
+   * Tell if the stage or the generation succeeded.
+   *
+   * @return {@code true} if it succeeded.
+   */
+  public boolean succeeded() {
+    return null == failure;
+  }
+}
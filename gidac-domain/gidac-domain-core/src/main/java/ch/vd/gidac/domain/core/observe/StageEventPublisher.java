@@ -0,0 +1,202 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.domain.core.observe;
+
+import ch.vd.gidac.domain.core.DitaMap;
+import ch.vd.gidac.domain.core.RequestId;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Observer publishing the stages of the recipes as {@link StageEvent}s to asynchronous sinks.
+ *
+ * <p>The threads of the recipes only build the event and offer it to a bounded queue, a single background thread
+ * hands the events to the sinks by batches. When the queue is full the events are dropped and counted, the recipes
+ * never wait for the sinks.</p>
+ *
+ * <p>The requests are sampled: all the events of a sampled request are published, so that its stages can be read
+ * together. The failed stages are published whatever the sampling.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class StageEventPublisher implements RecipeObserver, AutoCloseable {
+
+  private static final Logger log = LogManager.getLogger( StageEventPublisher.class );
+
+  /**
+   * Resolution of the sampling rate.
+   */
+  private static final int SAMPLING_SCALE = 10_000;
+
+  private static final int BATCH_SIZE = 256;
+
+  private final List<StageEventSink> sinks;
+
+  private final int samplingThreshold;
+
+  private final BlockingQueue<StageEvent> queue;
+
+  private final Thread drainer;
+
+  private final AtomicLong published = new AtomicLong();
+
+  private final AtomicLong dropped = new AtomicLong();
+
+  private volatile boolean closed = false;
+
+  /**
+   * Create a new publisher and start its thread.
+   *
+   * @param sinks         the sinks receiving the events.
+   * @param samplingRate  the share of the requests whose events are published, between {@code 0} and {@code 1}.
+   * @param capacity      the number of events waiting for the sinks before the next ones are dropped.
+   * @param threadFactory the factory of the thread handing the events to the sinks.
+   */
+  public StageEventPublisher( final List<StageEventSink> sinks, final double samplingRate, final int capacity,
+                              final ThreadFactory threadFactory ) {
+    if ( samplingRate < 0 || samplingRate > 1 ) {
+      throw new IllegalArgumentException( "The sampling rate must be between 0 and 1" );
+    }
+    this.sinks = List.copyOf( sinks );
+    this.samplingThreshold = (int) Math.round( samplingRate * SAMPLING_SCALE );
+    this.queue = new ArrayBlockingQueue<>( capacity );
+    this.drainer = threadFactory.newThread( this::drain );
+    drainer.setDaemon( true );
+    drainer.start();
+  }
+
+  /**
+   * Tell if the events of a request are published.
+   *
+   * @param requestId the id of the request.
+   *
+   * @return {@code true} if the request is sampled.
+   */
+  public boolean isSampled( final RequestId requestId ) {
+    return samplingThreshold >= SAMPLING_SCALE
+        || ( samplingThreshold > 0 && Math.floorMod( requestId.value().hashCode(), SAMPLING_SCALE ) < samplingThreshold );
+  }
+
+  @Override
+  public void stageCompleted( final RequestId requestId, final RecipeStage stage, final long durationNanos,
+                              final Throwable failure ) {
+    if ( null != failure || isSampled( requestId ) ) {
+      publish( new StageEvent( requestId, stage, null, durationNanos, failure ) );
+    }
+  }
+
+  @Override
+  public void ditaMapBaked( final RequestId requestId, final DitaMap ditaMap, final long durationNanos,
+                            final Throwable failure ) {
+    if ( null != failure || isSampled( requestId ) ) {
+      publish( new StageEvent( requestId, RecipeStage.BAKE, ditaMap.value().toString(), durationNanos, failure ) );
+    }
+  }
+
+  private void publish( final StageEvent event ) {
+    if ( !closed && queue.offer( event ) ) {
+      published.incrementAndGet();
+    } else {
+      dropped.incrementAndGet();
+    }
+  }
+
+  private void drain() {
+    final var batch = new ArrayList<StageEvent>( BATCH_SIZE );
+    while ( !closed || !queue.isEmpty() ) {
+      try {
+        final var first = queue.poll( 100, TimeUnit.MILLISECONDS );
+        if ( null == first ) {
+          continue;
+        }
+        batch.add( first );
+        queue.drainTo( batch, BATCH_SIZE - 1 );
+        deliver( batch );
+        batch.clear();
+      } catch ( final InterruptedException e ) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private void deliver( final List<StageEvent> batch ) {
+    for ( final var sink : sinks ) {
+      try {
+        sink.accept( batch );
+      } catch ( final RuntimeException e ) {
+        log.warn( "The sink {} cannot receive the stage events", sink, e );
+      }
+    }
+  }
+
+  /**
+   * Get the number of events accepted by the queue since the start.
+   *
+   * @return the number of events.
+   */
+  public long getPublished() {
+    return published.get();
+  }
+
+  /**
+   * Get the number of events dropped because the queue was full.
+   *
+   * @return the number of events.
+   */
+  public long getDropped() {
+    return dropped.get();
+  }
+
+  /**
+   * Get the number of events waiting for the sinks.
+   *
+   * @return the number of events.
+   */
+  public int getQueueDepth() {
+    return queue.size();
+  }
+
+  /**
+   * Stop accepting events, and wait for the events of the queue to be handed to the sinks.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    try {
+      drainer.join( TimeUnit.SECONDS.toMillis( 5 ) );
+    } catch ( final InterruptedException e ) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
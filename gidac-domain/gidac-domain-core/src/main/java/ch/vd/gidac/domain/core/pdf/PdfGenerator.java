@@ -40,4 +40,16 @@ public interface PdfGenerator {
    * @param ditaMap   the ditamap to process.
    */
   void generatePdf( WorkingDirectory directory, DitaMap ditaMap );
+
+  /**
+   * Describe the configuration of the generator (toolkit, format, style, ...).
+   *
+   * <p>Two generators with the same fingerprint must produce the same output from the same input, the fingerprint
+   * is part of the key of the cached binaries.</p>
+   *
+   * @return the fingerprint of the generator.
+   */
+  default String fingerprint() {
+    return getClass().getName();
+  }
 }
@@ -25,6 +25,7 @@ package ch.vd.gidac.domain.core.policies;
 import ch.vd.gidac.domain.core.Archive;
 import org.apache.commons.lang3.StringUtils;
 
+import java.nio.file.Files;
 import java.util.Objects;
 import java.util.function.Predicate;
 
@@ -37,7 +38,9 @@ import java.util.function.Predicate;
 public class ArchiveValidPolicy implements Predicate<Archive> {
 
   private final Predicate<Archive> notNull = Objects::nonNull;
-  private final Predicate<Archive> withPayload = x -> Objects.nonNull( x.bytes() ) && x.bytes().length > 0;
+  private final Predicate<Archive> withBytes = x -> Objects.nonNull( x.bytes() ) && x.bytes().length > 0;
+  private final Predicate<Archive> withFile = x -> Objects.nonNull( x.path() ) && Files.isRegularFile( x.path() );
+  private final Predicate<Archive> withPayload = withBytes.or( withFile );
   private final Predicate<Archive> withMimeType = x -> Objects.nonNull( x.contentType() ) && StringUtils.isNotEmpty( x.contentType() );
   private final Predicate<Archive> withName = x -> StringUtils.isNotEmpty( x.name() );
   private final Predicate<Archive> withOriginalName = x -> StringUtils.isNotEmpty( x.originalName() );
@@ -24,11 +24,17 @@ package ch.vd.gidac.domain.core;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ArchiveTest {
 
@@ -84,4 +90,36 @@ class ArchiveTest {
       Archive.create( name, originalName, size, content, mime );
     } );
   }
-}
\ No newline at end of file
+
+  @Test
+  void createArchiveFromFile() throws IOException {
+    // GIVEN
+    final var content = "this is a test".getBytes( StandardCharsets.UTF_8 );
+    final var file = Files.write( Files.createTempFile( "archive", ".zip" ), content );
+
+    // WHEN
+    final var archive = Archive.createFromFile( "file", "test.zip", file, "application/zip" );
+
+    // THEN
+    assertTrue( archive.isStoredOnDisk() );
+    assertNull( archive.bytes() );
+    assertEquals( content.length, archive.size() );
+    assertEquals( file, archive.path() );
+
+    // WHEN
+    archive.release();
+
+    // THEN
+    assertFalse( Files.exists( file ) );
+  }
+
+  @Test
+  void invalidArchiveCreationMissingFile() {
+    // GIVEN
+    final var file = Path.of( "/tmp/gidac/does-not-exist.zip" );
+
+    // WHEN / THEN
+    assertThrows( InvalidArchiveCreationException.class,
+        () -> Archive.createFromFile( "file", "test.zip", file, "application/zip" ) );
+  }
+}
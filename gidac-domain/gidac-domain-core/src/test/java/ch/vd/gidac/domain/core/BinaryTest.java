@@ -24,11 +24,18 @@ package ch.vd.gidac.domain.core;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class BinaryTest {
 
@@ -55,4 +62,32 @@ class BinaryTest {
       Binary.create( "application/json", "", "test".getBytes( StandardCharsets.UTF_8 ) );
     } );
   }
-}
\ No newline at end of file
+
+  @Test
+  void streamBinaryFromFile () throws IOException {
+    // GIVEN
+    final var content = "this is a test".getBytes( StandardCharsets.UTF_8 );
+    final var file = Files.write( Files.createTempFile( "binary", ".pdf" ), content );
+    final var out = new ByteArrayOutputStream();
+
+    try {
+      // WHEN
+      final var binary = Binary.createFromFile( "application/pdf", "bin.pdf", file );
+      final var written = binary.transferTo( Channels.newChannel( out ) );
+
+      // THEN
+      assertTrue( binary.isStoredOnDisk() );
+      assertEquals( content.length, binary.size() );
+      assertEquals( content.length, written );
+      assertArrayEquals( content, out.toByteArray() );
+    } finally {
+      Files.delete( file );
+    }
+  }
+
+  @Test
+  void createBinaryFromMissingFile () {
+    assertThrows( IllegalArgumentException.class,
+        () -> Binary.createFromFile( "application/pdf", "bin.pdf", Path.of( "/tmp/gidac/none.pdf" ) ) );
+  }
+}
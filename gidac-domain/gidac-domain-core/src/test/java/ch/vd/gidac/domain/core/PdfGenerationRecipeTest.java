@@ -20,12 +20,36 @@
  * SOFTWARE.
  */
 
+
 package ch.vd.gidac.domain.core;
 
+import ch.vd.gidac.domain.core.observe.RecipeObserver;
+import ch.vd.gidac.domain.core.observe.RecipeStage;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
 class PdfGenerationRecipeTest {
 
+  private static final String MANIFEST = "<manifest version=\"1.0\"><items>"
+      + "<item><name>a</name><ditamap>a.ditamap</ditamap><files/></item>"
+      + "<item><name>b</name><ditamap>b.ditamap</ditamap><files/></item>"
+      + "</items></manifest>";
+
   @Test
   void binaryAccessRejection() {
     // GIVEN
@@ -36,4 +60,119 @@ class PdfGenerationRecipeTest {
 
     // THEN
   }
-}
\ No newline at end of file
+
+  @Test
+  void observeTheStages() throws IOException {
+    // GIVEN
+    final var observer = new RecordingObserver();
+    final var recipe = recipe( observer );
+
+    // WHEN
+    recipe.setUp()
+        .extract()
+        .prepare()
+        .bake( ( directory, ditaMap ) -> write( directory, ditaMap ) )
+        .pack()
+        .tearDown()
+        .cleanUp();
+
+    // THEN
+    assertEquals( List.of( "started", "SET_UP", "EXTRACT", "PREPARE", "a.ditamap", "b.ditamap", "BAKE", "PACK",
+        "packed", "CLEAN_UP", "finished" ), observer.events );
+    assertEquals( Collections.nCopies( 8, null ), observer.failures );
+    assertEquals( recipe.getArchive().size(), observer.archiveSize );
+    assertEquals( recipe.getBinary().size(), observer.binarySize );
+  }
+
+  @Test
+  void observeTheFailedStage() throws IOException {
+    // GIVEN
+    final var observer = new RecordingObserver();
+    final var recipe = recipe( observer ).setUp().extract().prepare();
+    final var failure = new PdfGenerationException( "boom" );
+
+    // WHEN
+    assertThrows( PdfGenerationException.class, () -> recipe.bake( ( directory, ditaMap ) -> {
+      throw failure;
+    } ) );
+    recipe.cleanUp();
+
+    // THEN
+    assertEquals( List.of( "started", "SET_UP", "EXTRACT", "PREPARE", "a.ditamap", "BAKE", "CLEAN_UP", "finished" ),
+        observer.events );
+    assertNull( observer.failures.get( 2 ) );
+    assertEquals( failure, observer.failures.get( 3 ) );
+    assertInstanceOf( PdfGenerationException.class, observer.failures.get( 4 ) );
+  }
+
+  private static PdfGenerationRecipe recipe( final RecipeObserver observer ) throws IOException {
+    return new SimplePdfGenerationRecipeFactory()
+        .requestId( RequestId.generate() )
+        .archive( Archive.create( "archive.zip", zip(), "application/zip" ) )
+        .observer( observer )
+        .create();
+  }
+
+  private static byte[] zip() throws IOException {
+    final var bytes = new ByteArrayOutputStream();
+    try ( var zip = new ZipOutputStream( bytes ) ) {
+      zip.putNextEntry( new ZipEntry( "manifest.xml" ) );
+      zip.write( MANIFEST.getBytes( StandardCharsets.UTF_8 ) );
+      zip.closeEntry();
+    }
+    return bytes.toByteArray();
+  }
+
+  private static void write( final WorkingDirectory directory, final DitaMap ditaMap ) {
+    try {
+      Files.writeString( directory.outputDirectory().resolve( ditaMap.value() + ".pdf" ), "pdf" );
+    } catch ( final IOException e ) {
+      throw new UncheckedIOException( e );
+    }
+  }
+
+  /**
+   * Observer keeping the sequence of the events in the order they are received.
+   */
+  private static class RecordingObserver implements RecipeObserver {
+
+    private final List<String> events = new ArrayList<>();
+
+    private final List<Throwable> failures = new ArrayList<>();
+
+    private long archiveSize;
+
+    private long binarySize;
+
+    @Override
+    public void recipeStarted( final RequestId requestId, final long archiveSize ) {
+      this.archiveSize = archiveSize;
+      events.add( "started" );
+    }
+
+    @Override
+    public void stageCompleted( final RequestId requestId, final RecipeStage stage, final long durationNanos,
+                                final Throwable failure ) {
+      events.add( stage.name() );
+      failures.add( failure );
+    }
+
+    @Override
+    public void ditaMapBaked( final RequestId requestId, final DitaMap ditaMap, final long durationNanos,
+                              final Throwable failure ) {
+      events.add( ditaMap.value().toString() );
+      failures.add( failure );
+    }
+
+    @Override
+    public void binaryPacked( final RequestId requestId, final long binarySize ) {
+      this.binarySize = binarySize;
+      events.add( "packed" );
+    }
+
+    @Override
+    public void recipeFinished( final RequestId requestId ) {
+      events.add( "finished" );
+    }
+  }
+}
@@ -26,8 +26,11 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -40,4 +43,45 @@ class WorkingDirectoryTest {
     final var files = Files.list( root ).toList();
     assertFalse( files.isEmpty() );
   }
-}
\ No newline at end of file
+
+  @Test
+  void cleanupDeletesTheWholeTree() throws IOException {
+    // GIVEN
+    final var directory = WorkingDirectory.create( Path.of( "/tmp/gidac", UUID.randomUUID().toString() ) );
+    Files.createDirectories( directory.inputDirectory().resolve( "topics" ) );
+    Files.writeString( directory.inputDirectory().resolve( "topics/topic.dita" ), "<topic/>" );
+    Files.writeString( directory.outputDirectory().resolve( "output.pdf" ), "pdf" );
+
+    // WHEN
+    directory.cleanup();
+
+    // THEN
+    assertFalse( Files.exists( directory.root() ) );
+  }
+
+  @Test
+  void wipeKeepsTheLayout() throws IOException {
+    // GIVEN
+    final var directory = WorkingDirectory.create( Path.of( "/tmp/gidac", UUID.randomUUID().toString() ) );
+    directory.lock();
+    directory.markDirty();
+    Files.writeString( directory.inputDirectory().resolve( "manifest.xml" ), "<manifest/>" );
+    directory.isolate( "item-0" );
+
+    // WHEN
+    directory.wipe();
+
+    // THEN
+    assertTrue( Files.isDirectory( directory.inputDirectory() ) );
+    assertTrue( Files.isDirectory( directory.outputDirectory() ) );
+    assertFalse( directory.isDirty() );
+    assertFalse( directory.isLocked() );
+    try ( var children = Files.list( directory.root() ) ) {
+      assertEquals( 2, children.count() );
+    }
+    try ( var children = Files.list( directory.inputDirectory() ) ) {
+      assertEquals( 0, children.count() );
+    }
+    directory.cleanup();
+  }
+}
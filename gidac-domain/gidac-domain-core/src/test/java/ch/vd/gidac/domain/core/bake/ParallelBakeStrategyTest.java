@@ -0,0 +1,251 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.bake;
+
+import ch.vd.gidac.domain.core.DitaMap;
+import ch.vd.gidac.domain.core.PdfGenerationException;
+import ch.vd.gidac.domain.core.WorkingDirectory;
+import ch.vd.gidac.domain.core.pdf.PdfGenerator;
+import org.apache.commons.io.file.PathUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelBakeStrategyTest {
+
+  private Path root;
+  private WorkingDirectory workingDirectory;
+
+  /**
+   * Generator which writes a pdf named after the ditamap and keeps track of the concurrent generations.
+   */
+  static class FakePdfGenerator implements PdfGenerator {
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    @Override
+    public void generatePdf( final WorkingDirectory directory, final DitaMap ditaMap ) {
+      maxRunning.accumulateAndGet( running.incrementAndGet(), Math::max );
+      try {
+        Thread.sleep( 50 );
+        final var name = ditaMap.value().getFileName().toString().replace( ".ditamap", ".pdf" );
+        Files.writeString( directory.outputDirectory().resolve( name ), name );
+      } catch ( final InterruptedException e ) {
+        Thread.currentThread().interrupt();
+      } catch ( final IOException e ) {
+        throw new UncheckedIOException( e );
+      } finally {
+        running.decrementAndGet();
+      }
+    }
+  }
+
+  @BeforeEach
+  void prepareWorkingDirectory() throws IOException {
+    root = Paths.get( "/tmp/gidac", UUID.randomUUID().toString() );
+    final var input = Files.createDirectories( root.resolve( "input" ) );
+    final var output = Files.createDirectories( root.resolve( "output" ) );
+    workingDirectory = WorkingDirectory.create( root, input, output );
+  }
+
+  @AfterEach
+  void cleanupWorkingDirectory() throws IOException {
+    PathUtils.deleteDirectory( root );
+  }
+
+  private List<DitaMap> ditaMaps( final String... names ) {
+    final var ditaMaps = new ArrayList<DitaMap>();
+    for ( final var name : names ) {
+      ditaMaps.add( DitaMap.fromPath( Paths.get( name ) ) );
+    }
+    return ditaMaps;
+  }
+
+  @Test
+  void bakeAllDitaMaps() throws IOException {
+    // GIVEN
+    final var generator = new FakePdfGenerator();
+    final var ditaMaps = ditaMaps( "a/first.ditamap", "b/second.ditamap", "c/third.ditamap", "d/fourth.ditamap" );
+
+    // WHEN
+    try ( final var strategy = new ParallelBakeStrategy( 4, BakeFailureMode.FAIL_FAST ) ) {
+      strategy.bake( workingDirectory, ditaMaps, generator );
+    }
+
+    // THEN
+    assertEquals( 4, workingDirectory.listOutputFiles().size() );
+    assertTrue( generator.maxRunning.get() > 1 );
+    assertTrue( Files.notExists( root.resolve( "items" ).resolve( "item-0" ) ) );
+  }
+
+  @Test
+  void keepOutputsWithTheSameName() throws IOException {
+    // GIVEN
+    final var ditaMaps = ditaMaps( "a/flowers.ditamap", "b/flowers.ditamap" );
+
+    // WHEN
+    try ( final var strategy = new ParallelBakeStrategy( 2, BakeFailureMode.FAIL_FAST ) ) {
+      strategy.bake( workingDirectory, ditaMaps, new FakePdfGenerator() );
+    }
+
+    // THEN
+    final var files = workingDirectory.listOutputFiles().stream()
+        .map( p -> p.getFileName().toString() )
+        .sorted()
+        .toList();
+    assertEquals( List.of( "flowers.pdf", "item-1-flowers.pdf" ), files );
+  }
+
+  @Test
+  void failFast() {
+    // GIVEN
+    final var ditaMaps = ditaMaps( "a/first.ditamap", "b/second.ditamap", "c/third.ditamap" );
+    final PdfGenerator generator = ( directory, ditaMap ) -> {
+      throw new PdfGenerationException( ditaMap.value().toString() );
+    };
+
+    // WHEN / THEN
+    try ( final var strategy = new ParallelBakeStrategy( 1, BakeFailureMode.FAIL_FAST ) ) {
+      final var exception = assertThrows( PdfGenerationException.class,
+          () -> strategy.bake( workingDirectory, ditaMaps, generator ) );
+      assertEquals( 0, exception.getSuppressed().length );
+    }
+  }
+
+  @Test
+  void failFastWaitsForTheRunningItems() {
+    // GIVEN
+    final var ditaMaps = ditaMaps( "a/first.ditamap", "b/second.ditamap", "c/third.ditamap" );
+    final var running = new AtomicInteger();
+    final PdfGenerator generator = ( directory, ditaMap ) -> {
+      if ( ditaMap.value().startsWith( "a" ) ) {
+        throw new PdfGenerationException( ditaMap.value().toString() );
+      }
+      running.incrementAndGet();
+      try {
+        // a toolkit which ignores the interruption and keeps writing its outputs
+        final var end = System.nanoTime() + 200_000_000L;
+        while ( System.nanoTime() < end ) {
+          Thread.onSpinWait();
+        }
+        Files.writeString( directory.outputDirectory().resolve( "late.pdf" ), "late" );
+      } catch ( final IOException e ) {
+        throw new UncheckedIOException( e );
+      } finally {
+        running.decrementAndGet();
+      }
+    };
+
+    // WHEN
+    try ( final var strategy = new ParallelBakeStrategy( 3, BakeFailureMode.FAIL_FAST ) ) {
+      assertThrows( PdfGenerationException.class, () -> strategy.bake( workingDirectory, ditaMaps, generator ) );
+    }
+
+    // THEN
+    assertEquals( 0, running.get() );
+    assertTrue( Files.notExists( root.resolve( "items" ).resolve( "item-1" ) ) );
+    assertTrue( Files.notExists( root.resolve( "items" ).resolve( "item-2" ) ) );
+  }
+
+  @Test
+  void collectAllFailures() {
+    // GIVEN
+    final var ditaMaps = ditaMaps( "a/first.ditamap", "b/second.ditamap", "c/third.ditamap" );
+    final PdfGenerator generator = ( directory, ditaMap ) -> {
+      if ( !ditaMap.value().startsWith( "b" ) ) {
+        throw new PdfGenerationException( ditaMap.value().toString() );
+      }
+    };
+
+    // WHEN / THEN
+    try ( final var strategy = new ParallelBakeStrategy( 3, BakeFailureMode.COLLECT_ALL ) ) {
+      final var exception = assertThrows( PdfGenerationException.class,
+          () -> strategy.bake( workingDirectory, ditaMaps, generator ) );
+      assertEquals( "2 of 3 ditamaps failed", exception.getMessage() );
+      assertEquals( 1, exception.getSuppressed().length );
+    }
+  }
+
+  @Test
+  void closingTheStrategyFailsTheRunningBakes() throws Exception {
+    // GIVEN
+    final var ditaMaps = ditaMaps( "a/first.ditamap", "b/second.ditamap", "c/third.ditamap" );
+    final var started = new CountDownLatch( 1 );
+    final PdfGenerator generator = ( directory, ditaMap ) -> {
+      started.countDown();
+      try {
+        Thread.sleep( 60_000 );
+      } catch ( final InterruptedException e ) {
+        Thread.currentThread().interrupt();
+      }
+    };
+    final var strategy = new ParallelBakeStrategy( 1, BakeFailureMode.COLLECT_ALL );
+    final var bake = CompletableFuture.runAsync( () -> strategy.bake( workingDirectory, ditaMaps, generator ) );
+    assertTrue( started.await( 5, TimeUnit.SECONDS ) );
+
+    // WHEN
+    strategy.close();
+
+    // THEN
+    final var exception = assertThrows( ExecutionException.class, () -> bake.get( 5, TimeUnit.SECONDS ) );
+    assertInstanceOf( PdfGenerationException.class, exception.getCause() );
+  }
+
+  @Test
+  void rejectTheBakesOnceClosed() {
+    // GIVEN
+    final var ditaMaps = ditaMaps( "a/first.ditamap", "b/second.ditamap" );
+    final var strategy = new ParallelBakeStrategy( 2, BakeFailureMode.FAIL_FAST );
+    strategy.close();
+
+    // WHEN / THEN
+    assertThrows( PdfGenerationException.class,
+        () -> strategy.bake( workingDirectory, ditaMaps, new FakePdfGenerator() ) );
+    assertTrue( Files.notExists( root.resolve( "items" ).resolve( "item-0" ) ) );
+  }
+
+  @Test
+  void failureModeFromConfiguration() {
+    assertEquals( BakeFailureMode.FAIL_FAST, BakeFailureMode.fromString( "fail-fast" ) );
+    assertEquals( BakeFailureMode.COLLECT_ALL, BakeFailureMode.fromString( " collect-all " ) );
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.cache;
+
+import ch.vd.gidac.domain.core.DitaMap;
+import ch.vd.gidac.domain.core.PdfGenerationException;
+import ch.vd.gidac.domain.core.WorkingDirectory;
+import ch.vd.gidac.domain.core.pdf.PdfGenerator;
+import org.apache.commons.io.file.PathUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachingPdfGeneratorTest {
+
+  private Path root;
+
+  private AtomicInteger generations;
+
+  private PdfGenerator generator;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    root = Files.createDirectories( Path.of( "/tmp/gidac", UUID.randomUUID().toString() ) );
+    generations = new AtomicInteger();
+    final PdfGenerator fake = ( directory, ditaMap ) -> {
+      generations.incrementAndGet();
+      try {
+        Files.writeString( directory.outputDirectory().resolve( ditaMap.value() + ".pdf" ),
+            Files.readString( directory.inputDirectory().resolve( ditaMap.value() ) ) );
+      } catch ( final IOException e ) {
+        throw new UncheckedIOException( e );
+      }
+    };
+    generator = new CachingPdfGenerator( fake, new FileSystemBinaryCache( root.resolve( "cache" ), 1024 ) );
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    PathUtils.deleteDirectory( root );
+  }
+
+  private WorkingDirectory workingDirectory( final String topic ) throws IOException {
+    final var request = Files.createDirectory( root.resolve( UUID.randomUUID().toString() ) );
+    final var input = Files.createDirectory( request.resolve( "input" ) );
+    final var output = Files.createDirectory( request.resolve( "output" ) );
+    Files.writeString( input.resolve( "map.ditamap" ), "map" );
+    Files.writeString( input.resolve( "topic.dita" ), topic );
+    return WorkingDirectory.create( request, input, output );
+  }
+
+  private static DitaMap ditaMap() {
+    return DitaMap.create( Path.of( "map.ditamap" ), List.of( Path.of( "topic.dita" ) ), null );
+  }
+
+  @Test
+  void reuseThePdfOfAnUnchangedDitaMap() throws IOException {
+    // GIVEN
+    final var first = workingDirectory( "topic" );
+    final var second = workingDirectory( "topic" );
+
+    // WHEN
+    generator.generatePdf( first, ditaMap() );
+    generator.generatePdf( second, ditaMap() );
+
+    // THEN
+    assertEquals( 1, generations.get() );
+    final var restored = second.outputDirectory().resolve( "map.ditamap.pdf" );
+    assertTrue( Files.exists( restored ) );
+    assertEquals( "map", Files.readString( restored ) );
+    assertEquals( 1, first.listOutputFiles().size() );
+  }
+
+  @Test
+  void regenerateWhenAReferencedFileChanges() throws IOException {
+    // GIVEN
+    final var first = workingDirectory( "topic" );
+    final var second = workingDirectory( "changed topic" );
+
+    // WHEN
+    generator.generatePdf( first, ditaMap() );
+    generator.generatePdf( second, ditaMap() );
+
+    // THEN
+    assertEquals( 2, generations.get() );
+    assertEquals( 1, second.listOutputFiles().size() );
+  }
+
+  @Test
+  void rejectAFileOutsideTheInputDirectory() throws IOException {
+    // GIVEN
+    final var directory = workingDirectory( "topic" );
+    final var ditaMap = DitaMap.create( Path.of( "map.ditamap" ), List.of( Path.of( "../../secret" ) ), null );
+
+    // WHEN / THEN
+    assertThrows( PdfGenerationException.class, () -> generator.generatePdf( directory, ditaMap ) );
+    assertEquals( 0, generations.get() );
+  }
+
+  @Test
+  void discardTheItemDirectoryWhenTheGenerationFails() throws IOException {
+    // GIVEN
+    final var directory = workingDirectory( "topic" );
+    final var failing = new CachingPdfGenerator( ( item, ditaMap ) -> {
+      throw new PdfGenerationException( "boom" );
+    }, new FileSystemBinaryCache( root.resolve( "cache" ), 1024 ) );
+
+    // WHEN
+    assertThrows( PdfGenerationException.class, () -> failing.generatePdf( directory, ditaMap() ) );
+
+    // THEN
+    try ( var items = Files.list( directory.root().resolve( "items" ) ) ) {
+      assertEquals( 0, items.count() );
+    }
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.cache;
+
+import ch.vd.gidac.domain.core.Binary;
+import org.apache.commons.io.file.PathUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileSystemBinaryCacheTest {
+
+  private Path root;
+
+  @BeforeEach
+  void setUp() {
+    root = Path.of( "/tmp/gidac", UUID.randomUUID().toString() );
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    if ( Files.exists( root ) ) {
+      PathUtils.deleteDirectory( root );
+    }
+  }
+
+  private static ContentDigest key( final String value ) {
+    return ContentDigest.builder().update( value ).build();
+  }
+
+  private static Binary binary( final int size ) {
+    return Binary.create( "application/pdf", "test.pdf", new byte[size] );
+  }
+
+  @Test
+  void storeAndServeBinaries() throws IOException {
+    // GIVEN
+    final var cache = new FileSystemBinaryCache( root, 1024 );
+    final var content = new byte[]{ 1, 2, 3 };
+
+    // WHEN
+    final var miss = cache.get( key( "a" ) );
+    cache.put( key( "a" ), Binary.create( "application/pdf", "a.pdf", content ) );
+    final var hit = cache.get( key( "a" ) );
+
+    // THEN
+    assertTrue( miss.isEmpty() );
+    assertTrue( hit.isPresent() );
+    assertTrue( hit.get().isStoredOnDisk() );
+    assertEquals( "a.pdf", hit.get().name() );
+    assertEquals( "application/pdf", hit.get().mimeType() );
+    assertArrayEquals( content, Files.readAllBytes( hit.get().path() ) );
+    assertEquals( new CacheStatistics( 1, 1, 0, 1, 3 ), cache.getStatistics() );
+  }
+
+  @Test
+  void evictLeastRecentlyUsed() throws IOException {
+    // GIVEN
+    final var cache = new FileSystemBinaryCache( root, 250 );
+    cache.put( key( "a" ), binary( 100 ) );
+    cache.put( key( "b" ), binary( 100 ) );
+    cache.get( key( "a" ) );
+
+    // WHEN
+    cache.put( key( "c" ), binary( 100 ) );
+
+    // THEN
+    assertTrue( cache.get( key( "a" ) ).isPresent() );
+    assertTrue( cache.get( key( "b" ) ).isEmpty() );
+    assertTrue( cache.get( key( "c" ) ).isPresent() );
+    assertEquals( 1, cache.getStatistics().evictions() );
+    assertEquals( 200, cache.getStatistics().bytes() );
+  }
+
+  @Test
+  void keepLeasedBinariesOfEvictedEntries() throws IOException {
+    // GIVEN
+    final var cache = new FileSystemBinaryCache( root, 150 );
+    cache.put( key( "a" ), Binary.create( "application/pdf", "a.pdf", new byte[100] ) );
+    final var leased = cache.get( key( "a" ) ).orElseThrow();
+
+    // WHEN
+    cache.put( key( "b" ), binary( 100 ) );
+
+    // THEN
+    assertTrue( cache.get( key( "a" ) ).isEmpty() );
+    assertEquals( 100, Files.readAllBytes( leased.path() ).length );
+    cache.release( leased );
+    assertFalse( Files.exists( leased.path().getParent() ) );
+  }
+
+  @Test
+  void reloadEntriesFromDisk() throws IOException {
+    // GIVEN
+    new FileSystemBinaryCache( root, 1024 ).put( key( "a" ), binary( 10 ) );
+
+    // WHEN
+    final var cache = new FileSystemBinaryCache( root, 1024 );
+
+    // THEN
+    assertTrue( cache.get( key( "a" ) ).isPresent() );
+    assertEquals( 10, cache.getStatistics().bytes() );
+  }
+
+  @Test
+  void keepTheLeasesOfTheRunningProcesses() throws IOException {
+    // GIVEN
+    final var cache = new FileSystemBinaryCache( root, 1024 );
+    cache.put( key( "a" ), binary( 10 ) );
+    final var leased = cache.get( key( "a" ) ).orElseThrow();
+    final var orphan = Files.createDirectories( root.resolve( ".tmp-" + Integer.MAX_VALUE + "-1" ) );
+
+    // WHEN
+    new FileSystemBinaryCache( root, 1024 );
+
+    // THEN
+    assertEquals( 10, Files.readAllBytes( leased.path() ).length );
+    assertFalse( Files.exists( orphan ) );
+  }
+
+  @Test
+  void digestDependsOnEveryPart() {
+    assertEquals( key( "a" ), key( "a" ) );
+    assertNotEquals( ContentDigest.builder().update( "ab" ).update( "c" ).build(),
+        ContentDigest.builder().update( "a" ).update( "bc" ).build() );
+  }
+}
@@ -22,6 +22,7 @@
 
 package ch.vd.gidac.domain.core.compress;
 
+import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.apache.commons.io.file.PathUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -34,6 +35,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.UUID;
+import java.util.zip.ZipEntry;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -93,4 +95,22 @@ class DefaultZipManagerTest {
       assertNotEquals( 0, files.length );
     }
   }
-}
\ No newline at end of file
+
+  @Test
+  void zipStoresCompressedEntries() throws IOException {
+    // GIVEN
+    final var dir = Files.createDirectories( workingDirectory );
+    Files.write( dir.resolve( "a.pdf" ), new byte[]{ '%', 'P', 'D', 'F' } );
+    Files.writeString( dir.resolve( "b.txt" ), "b".repeat( 1000 ) );
+
+    // WHEN
+    final var zip = new DefaultZipManager( CompressionPolicy.storeCompressed() ).zip( dir );
+
+    // THEN
+    try ( final var zipFile = new ZipFile( zip ) ) {
+      assertEquals( ZipEntry.STORED, zipFile.getEntry( "a.pdf" ).getMethod() );
+      assertEquals( ZipEntry.DEFLATED, zipFile.getEntry( "b.txt" ).getMethod() );
+      assertEquals( 4, zipFile.getEntry( "a.pdf" ).getSize() );
+    }
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.compress;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.io.file.PathUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExtractionGuardTest {
+
+  private Path root;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    root = Files.createDirectories( Paths.get( "/tmp/gidac", UUID.randomUUID().toString() ) );
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    PathUtils.deleteDirectory( root );
+  }
+
+  private static byte[] zip( final int entries, final int size ) throws IOException {
+    final var bytes = new ByteArrayOutputStream();
+    try ( final var zos = new ZipArchiveOutputStream( bytes ) ) {
+      for ( var i = 0; i < entries; i++ ) {
+        zos.putArchiveEntry( new ZipArchiveEntry( "file-" + i + ".txt" ) );
+        zos.write( new byte[size] );
+        zos.closeArchiveEntry();
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  private static byte[] zipSlip() throws IOException {
+    final var bytes = new ByteArrayOutputStream();
+    try ( final var zos = new ZipArchiveOutputStream( bytes ) ) {
+      zos.putArchiveEntry( new ZipArchiveEntry( "../evil.txt" ) );
+      zos.write( 1 );
+      zos.closeArchiveEntry();
+    }
+    return bytes.toByteArray();
+  }
+
+  @Test
+  void rejectTooManyEntries() throws IOException {
+    // GIVEN
+    final var content = zip( 5, 10 );
+    final var limits = new ExtractionLimits( 4, 0, 0, 0 );
+
+    // WHEN
+    // THEN
+    assertThrows( ArchiveLimitExceededException.class,
+        () -> new DefaultZipManager( CompressionPolicy.deflateAll(), limits ).unzip( content, root ) );
+    try ( final var manager = new ParallelZipManager( 2, 1024, CompressionPolicy.deflateAll(), limits ) ) {
+      assertThrows( ArchiveLimitExceededException.class, () -> manager.unzip( content, root ) );
+    }
+  }
+
+  @Test
+  void rejectTooLargeArchive() throws IOException {
+    // GIVEN
+    final var content = zip( 4, 1000 );
+    final var limits = new ExtractionLimits( 0, 2500, 0, 0 );
+
+    // WHEN
+    // THEN
+    assertThrows( ArchiveLimitExceededException.class,
+        () -> new DefaultZipManager( CompressionPolicy.deflateAll(), limits ).unzip( content, root ) );
+    try ( final var manager = new ParallelZipManager( 2, 1024, CompressionPolicy.deflateAll(), limits ) ) {
+      assertThrows( ArchiveLimitExceededException.class, () -> manager.unzip( content, root ) );
+    }
+  }
+
+  @Test
+  void rejectCompressionBomb() throws IOException {
+    // GIVEN
+    final var content = zip( 1, 10 * 1024 * 1024 );
+    final var limits = new ExtractionLimits( 0, 0, 100, 1024 * 1024 );
+
+    // WHEN
+    // THEN
+    final var exception = assertThrows( ArchiveLimitExceededException.class,
+        () -> new DefaultZipManager( CompressionPolicy.deflateAll(), limits ).unzip( content, root ) );
+    assertEquals( "The compression ratio of the entry file-0.txt exceeds 100.0", exception.getMessage() );
+    try ( final var manager = new ParallelZipManager( 2, 1024, CompressionPolicy.deflateAll(), limits ) ) {
+      assertThrows( ArchiveLimitExceededException.class, () -> manager.unzip( content, root ) );
+    }
+  }
+
+  @Test
+  void rejectEntryOutsideTheTarget() throws IOException {
+    // GIVEN
+    final var content = zipSlip();
+    final var target = Files.createDirectory( root.resolve( "target" ) );
+
+    // WHEN
+    // THEN
+    assertThrows( ArchiveLimitExceededException.class, () -> new DefaultZipManager().unzip( content, target ) );
+    try ( final var manager = new ParallelZipManager( 2 ) ) {
+      assertThrows( ArchiveLimitExceededException.class, () -> manager.unzip( content, target ) );
+    }
+    assertFalse( Files.exists( root.resolve( "evil.txt" ) ) );
+  }
+
+  @Test
+  void acceptArchiveWithinTheLimits() throws IOException {
+    // GIVEN
+    final var content = zip( 4, 1000 );
+
+    // WHEN
+    new DefaultZipManager().unzip( content, root );
+
+    // THEN
+    try ( final var files = Files.list( root ) ) {
+      assertEquals( 4, files.count() );
+    }
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.compress;
+
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.file.PathUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelZipManagerTest {
+
+  private static final String ARCHIVE = "archives/flowers.zip";
+
+  private Path root;
+
+  private ParallelZipManager zipManager;
+
+  @BeforeEach
+  void setUp() {
+    root = Paths.get( "/tmp/gidac", UUID.randomUUID().toString() );
+    zipManager = new ParallelZipManager( 4, 1024 );
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    zipManager.close();
+    if ( Files.exists( root ) ) {
+      PathUtils.deleteDirectory( root );
+    }
+  }
+
+  private byte[] archive() throws IOException {
+    try ( final InputStream is = getClass().getClassLoader().getResourceAsStream( ARCHIVE ) ) {
+      assertNotNull( is );
+      return is.readAllBytes();
+    }
+  }
+
+  private static void assertSameTree( final Path expected, final Path actual ) throws IOException {
+    try ( final var files = Files.walk( expected ) ) {
+      for ( final var file : files.toList() ) {
+        final var other = actual.resolve( expected.relativize( file ).toString() );
+        if ( Files.isRegularFile( file ) ) {
+          assertArrayEquals( Files.readAllBytes( file ), Files.readAllBytes( other ), file.toString() );
+        } else {
+          assertEquals( Files.isDirectory( file ), Files.isDirectory( other ), file.toString() );
+        }
+      }
+    }
+  }
+
+  @Test
+  void extractLikeTheSequentialManager() throws IOException {
+    // GIVEN
+    final var sequential = Files.createDirectories( root.resolve( "sequential" ) );
+    final var parallel = Files.createDirectories( root.resolve( "parallel" ) );
+    final var archive = Files.write( root.resolve( "archive.zip" ), archive() );
+    new DefaultZipManager().unzip( archive.toFile(), sequential );
+
+    // WHEN
+    zipManager.unzip( archive.toFile(), parallel );
+
+    // THEN
+    assertSameTree( sequential, parallel );
+    assertSameTree( parallel, sequential );
+  }
+
+  @Test
+  void extractByteArray() throws IOException {
+    // GIVEN
+    final var sequential = Files.createDirectories( root.resolve( "sequential" ) );
+    final var parallel = Files.createDirectories( root.resolve( "parallel" ) );
+    final var content = archive();
+    new DefaultZipManager().unzip( content, sequential );
+
+    // WHEN
+    zipManager.unzip( content, parallel );
+
+    // THEN
+    assertSameTree( sequential, parallel );
+  }
+
+  @Test
+  void zipConcurrentlyAndStoreCompressedEntries() throws IOException {
+    // GIVEN
+    final var dir = Files.createDirectories( root.resolve( "output" ) );
+    final var pdf = new byte[]{ '%', 'P', 'D', 'F', 1, 2, 3 };
+    Files.write( dir.resolve( "a.pdf" ), pdf );
+    Files.writeString( dir.resolve( "b.txt" ), "b".repeat( 1000 ) );
+    Files.createDirectory( dir.resolve( "c" ) );
+    final var manager = new ParallelZipManager( 2, 1024, CompressionPolicy.storeCompressed() );
+
+    // WHEN
+    final File zip;
+    try {
+      zip = manager.zip( dir );
+    } finally {
+      manager.close();
+    }
+
+    // THEN
+    try ( final var zipFile = new ZipFile( zip ) ) {
+      final var stored = zipFile.getEntry( "a.pdf" );
+      final var deflated = zipFile.getEntry( "b.txt" );
+      assertEquals( ZipEntry.STORED, stored.getMethod() );
+      assertEquals( ZipEntry.DEFLATED, deflated.getMethod() );
+      assertTrue( deflated.getCompressedSize() < 1000 );
+      assertTrue( zipFile.getEntry( "c/" ).isDirectory() );
+      try ( final var is = zipFile.getInputStream( stored ) ) {
+        assertArrayEquals( pdf, is.readAllBytes() );
+      }
+      assertEquals( 3, Collections.list( zipFile.getEntries() ).size() );
+    }
+    // the scatter files are deleted once stitched
+    try ( final var s = Files.list( dir ) ) {
+      assertEquals( 4, s.count() );
+    }
+  }
+
+  @Test
+  void failOnCorruptedArchive() throws IOException {
+    // GIVEN
+    final var dir = Files.createDirectories( root );
+    final var content = new byte[]{ 'P', 'K', 3, 4, 0, 0 };
+
+    // WHEN
+    // THEN
+    assertThrows( IOException.class, () -> zipManager.unzip( content, dir ) );
+  }
+}
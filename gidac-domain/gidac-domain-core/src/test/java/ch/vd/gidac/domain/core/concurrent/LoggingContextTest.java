@@ -0,0 +1,114 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+
+package ch.vd.gidac.domain.core.concurrent;
+
+import org.apache.logging.log4j.CloseableThreadContext;
+import org.apache.logging.log4j.ThreadContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoggingContextTest {
+
+  @AfterEach
+  void clear() {
+    ThreadContext.clearAll();
+  }
+
+  @Test
+  void attachTheContextForTheTimeOfTheTask() {
+    // GIVEN
+    final LoggingContext context;
+    try ( final var ignored = CloseableThreadContext.put( "requestId", "r-1" ) ) {
+      context = LoggingContext.capture();
+    }
+    ThreadContext.put( "requestId", "other" );
+    ThreadContext.push( "outer" );
+
+    // WHEN
+    final var seen = new String[ 2 ];
+    context.wrap( () -> {
+      seen[ 0 ] = ThreadContext.get( "requestId" );
+      seen[ 1 ] = ThreadContext.peek();
+    } ).run();
+
+    // THEN
+    assertEquals( "r-1", seen[ 0 ] );
+    assertEquals( "", seen[ 1 ] );
+    assertEquals( "other", ThreadContext.get( "requestId" ) );
+    assertEquals( "outer", ThreadContext.peek() );
+  }
+
+  @Test
+  void leaveTheTasksAloneWithoutContext() {
+    // GIVEN
+    final Runnable task = () -> { };
+
+    // WHEN
+    final var wrapped = LoggingContext.propagate( task );
+
+    // THEN
+    assertSame( LoggingContext.EMPTY, LoggingContext.capture() );
+    assertSame( task, wrapped );
+  }
+
+  @Test
+  void propagateTheContextToThePoolThreads() throws Exception {
+    // GIVEN
+    final var executor = new ContextPropagatingThreadPoolExecutor( 1, 1, 0L, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(), ThreadFactories.platform( "gidac-test-" ) );
+    final var completion = new ExecutorCompletionService<Map<String, String>>( executor );
+
+    try {
+      // WHEN
+      try ( final var ignored = CloseableThreadContext.put( "requestId", "r-1" ) ) {
+        completion.submit( ThreadContext::getImmutableContext );
+      }
+      try ( final var ignored = CloseableThreadContext.put( "requestId", "r-2" ) ) {
+        completion.submit( ThreadContext::getImmutableContext );
+      }
+      final var first = completion.take().get( 5, TimeUnit.SECONDS );
+      final var second = completion.take().get( 5, TimeUnit.SECONDS );
+      final var after = executor.submit( () -> ThreadContext.get( "requestId" ) ).get( 5, TimeUnit.SECONDS );
+
+      // THEN
+      assertEquals( "r-1", first.get( "requestId" ) );
+      assertEquals( "r-2", second.get( "requestId" ) );
+      assertNull( after );
+      assertTrue( ThreadContext.isEmpty() );
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
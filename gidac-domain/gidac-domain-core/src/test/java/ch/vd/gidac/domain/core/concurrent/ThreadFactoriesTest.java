@@ -0,0 +1,98 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.domain.core.concurrent;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+class ThreadFactoriesTest {
+
+  @Test
+  void namePlatformThreadsWithACounter() {
+    // GIVEN
+    final var factory = ThreadFactories.platform( "gidac-test-" );
+
+    // WHEN
+    final var first = factory.newThread( () -> { } );
+    final var second = factory.newThread( () -> { } );
+
+    // THEN
+    assertEquals( "gidac-test-1", first.getName() );
+    assertEquals( "gidac-test-2", second.getName() );
+  }
+
+  @Test
+  void runTasksOnTheRequestedThreads() throws Exception {
+    // GIVEN
+    final var factory = ThreadFactories.of( "gidac-test-", true );
+    final var name = new CompletableFuture<String>();
+
+    // WHEN
+    final var thread = factory.newThread( () -> name.complete( Thread.currentThread().getName() ) );
+    thread.start();
+
+    // THEN
+    assertEquals( "gidac-test-1", name.get( 5, TimeUnit.SECONDS ) );
+    assertEquals( ThreadFactories.isVirtualAvailable(), thread.toString().contains( "Virtual" ) );
+  }
+
+  @Test
+  void rejectVirtualThreadsWhenNotSupported() {
+    assumeFalse( ThreadFactories.isVirtualAvailable() );
+
+    assertThrows( UnsupportedOperationException.class, () -> ThreadFactories.virtual( "gidac-test-" ) );
+    assertThrows( UnsupportedOperationException.class,
+        () -> ThreadFactories.newVirtualThreadPerTaskExecutor( "gidac-test-" ) );
+  }
+
+  @Test
+  @EnabledForJreRange( min = JRE.JAVA_21 )
+  void runTasksOnVirtualThreadsFromJava21() throws Exception {
+    // GIVEN
+    final var name = new CompletableFuture<String>();
+    final var virtual = new CompletableFuture<Boolean>();
+
+    // WHEN
+    final var executor = ThreadFactories.newVirtualThreadPerTaskExecutor( "gidac-test-" );
+    executor.execute( () -> {
+      name.complete( Thread.currentThread().getName() );
+      virtual.complete( Thread.currentThread().toString().startsWith( "VirtualThread" ) );
+    } );
+    executor.shutdown();
+
+    // THEN
+    assertTrue( ThreadFactories.isVirtualAvailable() );
+    assertEquals( "gidac-test-1", name.get( 5, TimeUnit.SECONDS ) );
+    assertTrue( virtual.get( 5, TimeUnit.SECONDS ) );
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.domain.core.fs;
+
+import ch.vd.gidac.domain.core.RequestId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MemoryBackedWorkingDirectoryProviderTest {
+
+  private Path memoryRoot;
+
+  private MemoryBackedWorkingDirectoryProvider provider;
+
+  @BeforeEach
+  void setUp() {
+    // any filesystem does the job for the tests, /dev/shm is not available everywhere
+    memoryRoot = Path.of( "/tmp/gidac", UUID.randomUUID().toString(), "shm" );
+  }
+
+  @AfterEach
+  void tearDown() {
+    if ( provider != null ) {
+      provider.close();
+    }
+  }
+
+  @Test
+  void storeTheTemporaryTreeInMemory() throws IOException {
+    // GIVEN
+    provider = new MemoryBackedWorkingDirectoryProvider( new TemporaryWorkingDirectoryProvider(),
+        new StoragePolicy( memoryRoot, true, false, 0, 10 ), memoryRoot );
+
+    // WHEN
+    final var directory = provider.acquire( RequestId.generate() );
+    final var item = directory.isolate( "item-0" );
+
+    // THEN
+    assertTrue( directory.tmpDirectory().startsWith( memoryRoot ) );
+    assertTrue( item.tmpDirectory().startsWith( directory.tmpDirectory() ) );
+    assertTrue( directory.inputDirectory().startsWith( directory.root() ) );
+    assertTrue( directory.outputDirectory().startsWith( directory.root() ) );
+    assertEquals( 1, provider.getMemoryLeases() );
+
+    provider.release( directory );
+    assertFalse( Files.exists( directory.tmpDirectory() ) );
+    assertFalse( Files.exists( directory.root() ) );
+    assertEquals( 0, provider.getMemoryLeases() );
+  }
+
+  @Test
+  void storeTheInputTreeInMemory() throws IOException {
+    // GIVEN
+    provider = new MemoryBackedWorkingDirectoryProvider( new TemporaryWorkingDirectoryProvider(),
+        new StoragePolicy( memoryRoot, false, true, 0, 10 ), memoryRoot );
+
+    // WHEN
+    final var directory = provider.acquire( RequestId.generate() );
+
+    // THEN
+    assertTrue( directory.inputDirectory().startsWith( memoryRoot ) );
+    assertTrue( directory.tmpDirectory().startsWith( directory.root() ) );
+    provider.release( directory );
+    assertFalse( Files.exists( directory.inputDirectory() ) );
+  }
+
+  @Test
+  void fallBackToTheDiskWhenTheMemoryIsShort() throws IOException {
+    // GIVEN
+    provider = new MemoryBackedWorkingDirectoryProvider( new TemporaryWorkingDirectoryProvider(),
+        new StoragePolicy( memoryRoot, true, true, Long.MAX_VALUE, 10 ), memoryRoot );
+
+    // WHEN
+    final var directory = provider.acquire( RequestId.generate() );
+
+    // THEN
+    assertTrue( directory.tmpDirectory().startsWith( directory.root() ) );
+    assertTrue( directory.inputDirectory().startsWith( directory.root() ) );
+    assertEquals( 1, provider.getDiskFallbacks() );
+    provider.release( directory );
+    assertFalse( Files.exists( directory.root() ) );
+  }
+
+  @Test
+  void reserveTheSpaceOfTheArchivesInMemory() throws IOException {
+    // GIVEN
+    provider = new MemoryBackedWorkingDirectoryProvider( new TemporaryWorkingDirectoryProvider(),
+        new StoragePolicy( memoryRoot, true, true, 0, 2 ), memoryRoot );
+    // each request reserves 60% of the free space
+    final var archiveSize = Files.getFileStore( memoryRoot ).getUsableSpace() * 3 / 10;
+
+    // WHEN
+    final var first = provider.acquire( RequestId.generate(), archiveSize );
+    final var second = provider.acquire( RequestId.generate(), archiveSize );
+
+    // THEN
+    assertTrue( first.tmpDirectory().startsWith( memoryRoot ) );
+    assertEquals( archiveSize * 2, provider.getReservedBytes() );
+    assertTrue( second.tmpDirectory().startsWith( second.root() ) );
+    assertEquals( 1, provider.getDiskFallbacks() );
+
+    provider.release( first );
+    provider.release( second );
+    assertEquals( 0, provider.getReservedBytes() );
+    final var third = provider.acquire( RequestId.generate(), archiveSize );
+    assertTrue( third.tmpDirectory().startsWith( memoryRoot ) );
+    provider.release( third );
+  }
+
+  @Test
+  void rejectAPolicyWithoutMemory() {
+    assertThrows( IllegalArgumentException.class, () -> new MemoryBackedWorkingDirectoryProvider(
+        new TemporaryWorkingDirectoryProvider(), StoragePolicy.disk(), memoryRoot ) );
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.domain.core.fs;
+
+import ch.vd.gidac.domain.core.RequestId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkingDirectoryPoolTest {
+
+  private Path root;
+
+  private WorkingDirectoryPool pool;
+
+  @BeforeEach
+  void setUp() {
+    root = Path.of( "/tmp/gidac", UUID.randomUUID().toString(), "workdirs" );
+  }
+
+  @AfterEach
+  void tearDown() {
+    if ( pool != null ) {
+      pool.close();
+    }
+  }
+
+  private static void awaitValue( final IntSupplier supplier, final int expected ) throws InterruptedException {
+    final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos( 5 );
+    while ( supplier.getAsInt() != expected && System.nanoTime() < deadline ) {
+      Thread.sleep( 5 );
+    }
+    assertEquals( expected, supplier.getAsInt() );
+  }
+
+  @Test
+  void recycleTheWorkingDirectoriesOnceWiped() throws IOException, InterruptedException {
+    // GIVEN
+    pool = new WorkingDirectoryPool( root, 1 );
+    final var directory = pool.acquire( RequestId.generate() );
+    Files.writeString( directory.outputDirectory().resolve( "output.pdf" ), "pdf" );
+    directory.markDirty();
+
+    // WHEN
+    pool.release( directory );
+    awaitValue( pool::getIdle, 1 );
+    final var recycled = pool.acquire( RequestId.generate() );
+
+    // THEN
+    assertEquals( directory.root(), recycled.root() );
+    assertFalse( recycled.isDirty() );
+    assertTrue( recycled.listOutputFiles().isEmpty() );
+    assertEquals( 1, pool.getLeased() );
+  }
+
+  @Test
+  void createAWorkingDirectoryWhenThePoolIsEmpty() throws IOException, InterruptedException {
+    // GIVEN
+    pool = new WorkingDirectoryPool( root, 1 );
+    final var pooled = pool.acquire( RequestId.generate() );
+
+    // WHEN
+    final var extra = pool.acquire( RequestId.generate() );
+    pool.release( pooled );
+    pool.release( extra );
+    awaitValue( pool::getWiping, 0 );
+
+    // THEN
+    assertEquals( 1, pool.getIdle() );
+    assertEquals( 0, pool.getLeased() );
+    assertTrue( Files.exists( pooled.root() ) );
+    assertFalse( Files.exists( extra.root() ) );
+  }
+
+  @Test
+  void deleteTheRootOnClose() throws IOException {
+    // GIVEN
+    pool = new WorkingDirectoryPool( root, 2 );
+
+    // WHEN
+    pool.close();
+
+    // THEN
+    assertFalse( Files.exists( root ) );
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.domain.core.observe;
+
+import ch.vd.gidac.domain.core.DitaMap;
+import ch.vd.gidac.domain.core.RequestId;
+import ch.vd.gidac.domain.core.concurrent.ThreadFactories;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StageEventPublisherTest {
+
+  @Test
+  void publishTheEventsOfTheSampledRequests() {
+    // GIVEN
+    final var received = Collections.synchronizedList( new ArrayList<StageEvent>() );
+    final var publisher = new StageEventPublisher( List.of( received::addAll ), 1, 16,
+        ThreadFactories.platform( "test-events-" ) );
+    final var requestId = RequestId.generate();
+
+    // WHEN
+    publisher.stageCompleted( requestId, RecipeStage.EXTRACT, 10, null );
+    publisher.ditaMapBaked( requestId, DitaMap.fromPath( Path.of( "map.ditamap" ) ), 20, null );
+    publisher.close();
+
+    // THEN
+    assertEquals( 2, received.size() );
+    assertEquals( RecipeStage.EXTRACT, received.get( 0 ).stage() );
+    assertNull( received.get( 0 ).item() );
+    assertEquals( RecipeStage.BAKE, received.get( 1 ).stage() );
+    assertEquals( "map.ditamap", received.get( 1 ).item() );
+    assertTrue( received.get( 1 ).succeeded() );
+    assertEquals( 2, publisher.getPublished() );
+  }
+
+  @Test
+  void publishOnlyTheFailuresOfTheRequestsNotSampled() {
+    // GIVEN
+    final var received = Collections.synchronizedList( new ArrayList<StageEvent>() );
+    final var publisher = new StageEventPublisher( List.of( received::addAll ), 0, 16,
+        ThreadFactories.platform( "test-events-" ) );
+    final var requestId = RequestId.generate();
+    final var failure = new IllegalStateException( "boom" );
+
+    // WHEN
+    publisher.stageCompleted( requestId, RecipeStage.EXTRACT, 10, null );
+    publisher.stageCompleted( requestId, RecipeStage.BAKE, 10, failure );
+    publisher.close();
+
+    // THEN
+    assertFalse( publisher.isSampled( requestId ) );
+    assertEquals( 1, received.size() );
+    assertEquals( failure, received.get( 0 ).failure() );
+  }
+
+  @Test
+  void dropTheEventsWhenTheSinksAreLate() throws InterruptedException {
+    // GIVEN
+    final var release = new CountDownLatch( 1 );
+    final var publisher = new StageEventPublisher( List.of( events -> {
+      try {
+        release.await( 5, TimeUnit.SECONDS );
+      } catch ( final InterruptedException e ) {
+        Thread.currentThread().interrupt();
+      }
+    } ), 1, 1, ThreadFactories.platform( "test-events-" ) );
+    final var requestId = RequestId.generate();
+
+    // WHEN
+    final var start = System.nanoTime();
+    for ( var i = 0; i < 3; i++ ) {
+      publisher.stageCompleted( requestId, RecipeStage.PACK, i, null );
+    }
+    final var elapsed = System.nanoTime() - start;
+    release.countDown();
+    publisher.close();
+
+    // THEN
+    assertTrue( elapsed < TimeUnit.SECONDS.toNanos( 1 ) );
+    assertTrue( publisher.getDropped() >= 1 );
+    assertEquals( 3, publisher.getPublished() + publisher.getDropped() );
+  }
+}
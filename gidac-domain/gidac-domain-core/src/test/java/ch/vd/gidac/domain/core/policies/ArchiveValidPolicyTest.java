@@ -25,7 +25,10 @@ package ch.vd.gidac.domain.core.policies;
 import ch.vd.gidac.domain.core.Archive;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -78,4 +81,21 @@ class ArchiveValidPolicyTest {
         "application/zip" );
     assertTrue( policy.test( archive ) );
   }
-}
\ No newline at end of file
+
+  @Test
+  void archiveStoredOnDisk() throws IOException {
+    final var file = Files.write( Files.createTempFile( "archive", ".zip" ), new byte[]{ 1 } );
+    try {
+      final var archive = new Archive( "foo", "bar", 1, null, "application/zip", file );
+      assertTrue( policy.test( archive ) );
+    } finally {
+      Files.delete( file );
+    }
+  }
+
+  @Test
+  void archiveWithMissingFile() {
+    final var archive = new Archive( "foo", "bar", 1, null, "application/zip", Path.of( "/tmp/gidac/none.zip" ) );
+    assertFalse( policy.test( archive ) );
+  }
+}
@@ -48,7 +48,8 @@ public class ManifestDecorator {
   }
 
   public List<Item> getItems() {
-    return manifest.getItems().getItem();
+    // the manifests read by a streaming unmarshaller do not keep their items.
+    return null == manifest.getItems() ? List.of() : manifest.getItems().getItem();
   }
 
   public Stream<Item> getItemsStream() {
@@ -63,6 +64,26 @@ public class ManifestDecorator {
     return item.getFiles().file.stream();
   }
 
+  /**
+   * Get the stylesheet of an item, the stylesheet of the manifest applies when the item does not define one.
+   *
+   * @param item the item.
+   *
+   * @return the stylesheet, {@code null} if neither the item nor the manifest define one.
+   */
+  public String getStylesheet( final Item item ) {
+    return null != item.getStylesheet() ? item.getStylesheet() : manifest.getStylesheet();
+  }
+
+  /**
+   * Get the stylesheet of the manifest, it applies to the items which do not define one.
+   *
+   * @return the stylesheet, {@code null} if the manifest does not define one.
+   */
+  public String getStylesheet() {
+    return manifest.getStylesheet();
+  }
+
   public Manifest getManifest() {
     return manifest;
   }
@@ -22,27 +22,62 @@
 
 package ch.vd.gidac.domain.manifest;
 
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
 
 /**
  * Helper able to unmarshall the manifest
  *
+ * <p>The {@link JAXBContext} is created once and shared by all the instances, it is thread safe. The
+ * {@link Unmarshaller}s are not, they are pooled so each call borrows one and gives it back once the manifest has
+ * been read. The manifest may optionally be validated against {@value #SCHEMA_RESOURCE}, the schema is compiled once
+ * as well.</p>
+ *
  * @version 0.0.1
  * @since 0.0.1
  */
 public class ManifestUnmarshaller {
 
+  /**
+   * The location of the schema of the manifest in the classpath.
+   */
+  public static final String SCHEMA_RESOURCE = "xsd/Manifest.xsd";
+
+  private final Queue<Unmarshaller> pool = new ConcurrentLinkedQueue<>();
+
+  private final boolean validating;
+
   public ManifestUnmarshaller() {
+    this( false );
+  }
+
+  /**
+   * Create a new unmarshaller.
+   *
+   * @param validating {@code true} to validate the manifests against the schema.
+   */
+  public ManifestUnmarshaller( final boolean validating ) {
+    this.validating = validating;
+  }
 
+  public boolean isValidating() {
+    return validating;
   }
 
   public Manifest unmarshall( final InputStream inputStream, boolean autoClose ) {
+    final var unmarshaller = borrow();
     try {
-      final var jaxbContext = JAXBContext.newInstance( Manifest.class );
-      final var unmarshaller = jaxbContext.createUnmarshaller();
       final var manifest = (Manifest) unmarshaller.unmarshal( inputStream );
       if (autoClose) {
         inputStream.close();
@@ -50,6 +85,81 @@ public class ManifestUnmarshaller {
       return manifest;
     } catch( JAXBException | IOException exception) {
       throw new UnmarshallException(exception);
+    } finally {
+      pool.offer( unmarshaller );
+    }
+  }
+
+  /**
+   * Unmarshall the manifest and hand over its items one by one.
+   *
+   * <p>The items are given to the consumer in the order of the manifest. This implementation reads the whole manifest
+   * before handing over the items, the streaming implementations hand them over while reading and do not keep them in
+   * the returned manifest.</p>
+   *
+   * @param inputStream the stream of the manifest.
+   * @param autoClose   {@code true} to close the stream once read.
+   * @param items       the consumer of the items.
+   *
+   * @return the manifest, only its attributes and its stylesheet are guaranteed to be set.
+   */
+  public Manifest unmarshall( final InputStream inputStream, boolean autoClose, final Consumer<Item> items ) {
+    final var manifest = unmarshall( inputStream, autoClose );
+    if ( null != manifest.getItems() ) {
+      manifest.getItems().getItem().forEach( items );
+    }
+    return manifest;
+  }
+
+  private Unmarshaller borrow() {
+    final var pooled = pool.poll();
+    if ( null != pooled ) {
+      return pooled;
+    }
+    try {
+      final var unmarshaller = Holder.CONTEXT.createUnmarshaller();
+      if ( validating ) {
+        unmarshaller.setSchema( SchemaHolder.SCHEMA );
+      }
+      return unmarshaller;
+    } catch ( final JAXBException exception ) {
+      throw new UnmarshallException( exception );
+    }
+  }
+
+  /**
+   * Lazy holder of the shared context, it is created on first use.
+   */
+  private static final class Holder {
+
+    private static final JAXBContext CONTEXT = createContext();
+
+    private static JAXBContext createContext() {
+      try {
+        return JAXBContext.newInstance( Manifest.class );
+      } catch ( final JAXBException exception ) {
+        throw new UnmarshallException( "The context of the manifest cannot be created", exception );
+      }
+    }
+  }
+
+  /**
+   * Lazy holder of the compiled schema, it is only compiled when a validating unmarshaller is used.
+   */
+  private static final class SchemaHolder {
+
+    private static final Schema SCHEMA = compileSchema();
+
+    private static Schema compileSchema() {
+      final var resource = ManifestUnmarshaller.class.getClassLoader().getResource( SCHEMA_RESOURCE );
+      if ( null == resource ) {
+        throw new UnmarshallException( "The schema " + SCHEMA_RESOURCE + " cannot be found" );
+      }
+      try {
+        return SchemaFactory.newInstance( XMLConstants.W3C_XML_SCHEMA_NS_URI ).newSchema( resource );
+      } catch ( final SAXException exception ) {
+        throw new UnmarshallException( "The schema " + SCHEMA_RESOURCE + " cannot be compiled", exception );
+      }
     }
   }
 }
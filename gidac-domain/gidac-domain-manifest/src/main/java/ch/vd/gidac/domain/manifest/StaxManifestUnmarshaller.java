@@ -0,0 +1,144 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.manifest;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Unmarshaller reading the manifest with a StAX pull parser.
+ *
+ * <p>The items are built one by one while the manifest is read, no JAXB object graph is created. When the items are
+ * consumed with {@link #unmarshall(InputStream, boolean, Consumer)} they are not kept, which allows to read manifests
+ * with thousands of files with a constant memory footprint.</p>
+ *
+ * <p>The manifest is not validated against the schema, only the mandatory parts of the items (the ditamap) are
+ * checked.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class StaxManifestUnmarshaller extends ManifestUnmarshaller {
+
+  private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+  private static XMLInputFactory createInputFactory() {
+    final var factory = XMLInputFactory.newFactory();
+    factory.setProperty( XMLInputFactory.SUPPORT_DTD, false );
+    factory.setProperty( XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false );
+    factory.setProperty( XMLInputFactory.IS_COALESCING, true );
+    return factory;
+  }
+
+  @Override
+  public Manifest unmarshall( final InputStream inputStream, boolean autoClose ) {
+    final var items = new Items();
+    final var manifest = unmarshall( inputStream, autoClose, items.getItem()::add );
+    manifest.setItems( items );
+    return manifest;
+  }
+
+  @Override
+  public Manifest unmarshall( final InputStream inputStream, boolean autoClose, final Consumer<Item> items ) {
+    XMLStreamReader reader = null;
+    try {
+      reader = INPUT_FACTORY.createXMLStreamReader( inputStream );
+      final var manifest = read( reader, items );
+      if ( autoClose ) {
+        inputStream.close();
+      }
+      return manifest;
+    } catch ( final XMLStreamException | IOException exception ) {
+      throw new UnmarshallException( exception );
+    } finally {
+      close( reader );
+    }
+  }
+
+  private static Manifest read( final XMLStreamReader reader, final Consumer<Item> items ) throws XMLStreamException {
+    final var manifest = new Manifest();
+    Item item = null;
+    while ( reader.hasNext() ) {
+      final var event = reader.next();
+      if ( event == XMLStreamConstants.START_ELEMENT ) {
+        switch ( reader.getLocalName() ) {
+          case "manifest" -> manifest.setVersion( reader.getAttributeValue( XMLConstants.NULL_NS_URI, "version" ) );
+          case "item" -> item = new Item();
+          case "name" -> requireItem( item, reader ).setName( reader.getElementText() );
+          case "ditamap" -> requireItem( item, reader ).setDitamap( reader.getElementText() );
+          case "files" -> requireItem( item, reader ).setFiles( new Files() );
+          case "file" -> addFile( requireItem( item, reader ), reader.getElementText() );
+          case "stylesheet" -> {
+            if ( null == item ) {
+              manifest.setStylesheet( reader.getElementText() );
+            } else {
+              item.setStylesheet( reader.getElementText() );
+            }
+          }
+          default -> {
+            // the other elements (items) only structure the manifest.
+          }
+        }
+      } else if ( event == XMLStreamConstants.END_ELEMENT && "item".equals( reader.getLocalName() ) ) {
+        if ( null == item.getDitamap() ) {
+          throw new UnmarshallException( "The item " + item.getName() + " does not define a ditamap" );
+        }
+        items.accept( item );
+        item = null;
+      }
+    }
+    return manifest;
+  }
+
+  private static Item requireItem( final Item item, final XMLStreamReader reader ) {
+    if ( null == item ) {
+      throw new UnmarshallException( "The element " + reader.getLocalName() + " must be defined in an item (line "
+          + reader.getLocation().getLineNumber() + ")" );
+    }
+    return item;
+  }
+
+  private static void addFile( final Item item, final String file ) {
+    if ( null == item.getFiles() ) {
+      item.setFiles( new Files() );
+    }
+    item.getFiles().getFile().add( file );
+  }
+
+  private static void close( final XMLStreamReader reader ) {
+    if ( null == reader ) {
+      return;
+    }
+    try {
+      reader.close();
+    } catch ( final XMLStreamException ignore ) {
+      // the reader does not own the stream, nothing is left to release.
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.manifest;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ManifestUnmarshallerTest {
+
+  private static final String INVALID_MANIFEST = """
+      <manifest version="1.0">
+          <items>
+              <item>
+                  <name>1</name>
+                  <files/>
+              </item>
+          </items>
+      </manifest>
+      """;
+
+  private InputStream sample() {
+    final var is = getClass().getClassLoader().getResourceAsStream( "samples/manifest.xml" );
+    assertNotNull( is, "The input stream must be defined" );
+    return is;
+  }
+
+  @Test
+  void unmarshallTheSample() throws IOException {
+    // GIVEN
+    final var unmarshaller = new ManifestUnmarshaller();
+
+    // WHEN
+    final Manifest manifest;
+    try ( final var is = sample() ) {
+      manifest = unmarshaller.unmarshall( is, false );
+    }
+
+    // THEN
+    assertEquals( "1.0", manifest.getVersion() );
+    assertEquals( 2, manifest.getItems().getItem().size() );
+  }
+
+  @Test
+  void validateAgainstTheSchema() throws IOException {
+    // GIVEN
+    final var unmarshaller = new ManifestUnmarshaller( true );
+
+    // WHEN
+    final Manifest manifest;
+    try ( final var is = sample() ) {
+      manifest = unmarshaller.unmarshall( is, false );
+    }
+    final var invalid = new ByteArrayInputStream( INVALID_MANIFEST.getBytes( StandardCharsets.UTF_8 ) );
+
+    // THEN
+    assertEquals( 2, manifest.getItems().getItem().size() );
+    assertThrows( UnmarshallException.class, () -> unmarshaller.unmarshall( invalid, true ) );
+  }
+
+  @Test
+  void acceptTheInvalidManifestWithoutValidation() {
+    // GIVEN
+    final var unmarshaller = new ManifestUnmarshaller();
+    final var invalid = new ByteArrayInputStream( INVALID_MANIFEST.getBytes( StandardCharsets.UTF_8 ) );
+
+    // WHEN
+    final var manifest = unmarshaller.unmarshall( invalid, true );
+
+    // THEN
+    assertNotNull( manifest.getItems().getItem().get( 0 ).getFiles() );
+  }
+
+  @Test
+  void shareTheUnmarshallerBetweenThreads() throws Exception {
+    // GIVEN
+    final var unmarshaller = new ManifestUnmarshaller( true );
+    final var tasks = new ArrayList<Callable<String>>();
+    for ( var i = 0; i < 32; i++ ) {
+      tasks.add( () -> {
+        try ( final var is = sample() ) {
+          return unmarshaller.unmarshall( is, false ).getItems().getItem().get( 1 ).getStylesheet();
+        }
+      } );
+    }
+    final var executor = Executors.newFixedThreadPool( 4 );
+
+    // WHEN
+    try {
+      for ( final var result : executor.invokeAll( tasks ) ) {
+        // THEN
+        assertEquals( "sheet.css", result.get() );
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
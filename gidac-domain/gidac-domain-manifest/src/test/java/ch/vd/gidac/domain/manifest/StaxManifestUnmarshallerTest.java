@@ -0,0 +1,104 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.manifest;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StaxManifestUnmarshallerTest {
+
+  private InputStream sample() {
+    final var is = getClass().getClassLoader().getResourceAsStream( "samples/manifest.xml" );
+    assertNotNull( is, "The input stream must be defined" );
+    return is;
+  }
+
+  @Test
+  void readTheSampleLikeJaxb() throws IOException {
+    // GIVEN
+    final Manifest expected;
+    try ( final var is = sample() ) {
+      expected = new ManifestUnmarshaller().unmarshall( is, false );
+    }
+
+    // WHEN
+    final Manifest manifest;
+    try ( final var is = sample() ) {
+      manifest = new StaxManifestUnmarshaller().unmarshall( is, false );
+    }
+
+    // THEN
+    assertEquals( expected.getVersion(), manifest.getVersion() );
+    assertEquals( expected.getStylesheet(), manifest.getStylesheet() );
+    assertEquals( expected.getItems().getItem().size(), manifest.getItems().getItem().size() );
+    for ( var i = 0; i < expected.getItems().getItem().size(); i++ ) {
+      final var expectedItem = expected.getItems().getItem().get( i );
+      final var item = manifest.getItems().getItem().get( i );
+      assertEquals( expectedItem.getName(), item.getName() );
+      assertEquals( expectedItem.getDitamap(), item.getDitamap() );
+      assertEquals( expectedItem.getFiles().getFile(), item.getFiles().getFile() );
+      assertEquals( expectedItem.getStylesheet(), item.getStylesheet() );
+    }
+  }
+
+  @Test
+  void streamTheItems() throws IOException {
+    // GIVEN
+    final var items = new ArrayList<Item>();
+
+    // WHEN
+    final Manifest manifest;
+    try ( final var is = sample() ) {
+      manifest = new StaxManifestUnmarshaller().unmarshall( is, false, items::add );
+    }
+
+    // THEN
+    assertNull( manifest.getItems() );
+    assertEquals( "sheet.css", manifest.getStylesheet() );
+    assertEquals( 2, items.size() );
+    assertEquals( "1", items.get( 0 ).getName() );
+    assertNull( items.get( 0 ).getStylesheet() );
+    assertEquals( 3, items.get( 1 ).getFiles().getFile().size() );
+  }
+
+  @Test
+  void rejectAnItemWithoutDitamap() {
+    // GIVEN
+    final var content = "<manifest version=\"1.0\"><items><item><name>1</name><files/></item></items></manifest>";
+    final var is = new ByteArrayInputStream( content.getBytes( StandardCharsets.UTF_8 ) );
+
+    // WHEN
+    // THEN
+    assertThrows( UnmarshallException.class, () -> new StaxManifestUnmarshaller().unmarshall( is, true ) );
+  }
+}
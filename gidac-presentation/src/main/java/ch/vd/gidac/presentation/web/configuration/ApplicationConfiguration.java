@@ -26,15 +26,66 @@ import ch.vd.gidac.application.appinit.AppInitRequestHandler;
 import ch.vd.gidac.application.appinit.DefaultAppInitRequestHandler;
 import ch.vd.gidac.application.appshutdown.AppShutdownRequestHandler;
 import ch.vd.gidac.application.appshutdown.DefaultAppShutdownRequestHandler;
+import ch.vd.gidac.application.admission.AdmissionConfiguration;
+import ch.vd.gidac.application.admission.AdmissionController;
+import ch.vd.gidac.application.batch.DefaultGeneratePdfBatchService;
+import ch.vd.gidac.application.batch.GeneratePdfBatchService;
+import ch.vd.gidac.application.generatepdf.AdmissionControlledGeneratePdfRequestHandler;
+import ch.vd.gidac.application.generatepdf.CachingGeneratePdfRequestHandler;
 import ch.vd.gidac.application.generatepdf.DefaultGeneratePdfRequestHandler;
 import ch.vd.gidac.application.generatepdf.GeneratePdfRequestHandler;
+import ch.vd.gidac.application.generatepdf.RecipePipeline;
+import ch.vd.gidac.application.jobs.DefaultGeneratePdfJobService;
+import ch.vd.gidac.application.jobs.GeneratePdfJobService;
+import ch.vd.gidac.domain.core.ApplicationWorkingDirectory;
+import ch.vd.gidac.domain.core.bake.BakeFailureMode;
+import ch.vd.gidac.domain.core.bake.BakeStrategy;
+import ch.vd.gidac.domain.core.bake.ParallelBakeStrategy;
+import ch.vd.gidac.domain.core.bake.SequentialBakeStrategy;
+import ch.vd.gidac.domain.core.cache.BinaryCache;
+import ch.vd.gidac.domain.core.cache.CachingPdfGenerator;
+import ch.vd.gidac.domain.core.cache.FileSystemBinaryCache;
+import ch.vd.gidac.domain.core.compress.CompressionPolicy;
+import ch.vd.gidac.domain.core.compress.DefaultZipManager;
+import ch.vd.gidac.domain.core.compress.ExtractionLimits;
+import ch.vd.gidac.domain.core.compress.ParallelZipManager;
+import ch.vd.gidac.domain.core.compress.ZipManager;
+import ch.vd.gidac.domain.core.fs.MemoryBackedWorkingDirectoryProvider;
+import ch.vd.gidac.domain.core.fs.StoragePolicy;
+import ch.vd.gidac.domain.core.fs.TemporaryWorkingDirectoryProvider;
+import ch.vd.gidac.domain.core.fs.WorkingDirectoryPool;
+import ch.vd.gidac.domain.core.fs.WorkingDirectoryProvider;
+import ch.vd.gidac.domain.core.concurrent.ThreadFactories;
+import ch.vd.gidac.domain.core.observe.RecipeObserver;
 import ch.vd.gidac.domain.core.pdf.PdfGenerator;
 import ch.vd.gidac.domain.core.pdf.chemistry.ChemistryPdfGenerator;
+import ch.vd.gidac.domain.core.pdf.ditaot.DitaOtPdfGenerator;
 import ch.vd.gidac.domain.core.pdf.processor.DefaultProcessor;
 import ch.vd.gidac.domain.core.pdf.processor.Processor;
+import ch.vd.gidac.domain.core.pdf.processor.pool.PooledProcessor;
+import ch.vd.gidac.domain.core.pdf.processor.pool.WorkerPoolConfiguration;
+import ch.vd.gidac.domain.core.pdf.processor.simulated.SimulatedProcessor;
+import ch.vd.gidac.domain.core.pdf.processor.simulated.SimulationProfile;
+import ch.vd.gidac.domain.manifest.ManifestUnmarshaller;
+import ch.vd.gidac.domain.manifest.StaxManifestUnmarshaller;
+import org.apache.commons.io.file.PathUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Configuration for the application layer and all dependent item.
@@ -45,27 +96,525 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class ApplicationConfiguration {
 
+  private static final String CACHE_DIRECTORY = "cache";
+
+  private static final String WORKING_DIRECTORIES = "workdirs";
+
+  private static final String SIMULATED_ENGINE = "simulated";
+
+  private static final String WORKER_CLASS = "ch.vd.gidac.domain.core.pdf.ditaot.DitaOtWorker";
+
+  /**
+   * Launcher of the packaged application, able to run another main class from the nested jars.
+   */
+  private static final String BOOT_LAUNCHER = "org.springframework.boot.loader.PropertiesLauncher";
+
+  @Value( "${application.name}" )
+  private String applicationName;
+
+  @Value( "${application.run.processing.fs-tree.tmp-dir}" )
+  private String tmpDir;
+
+  @Value( "${application.run.processing.fs-tree.native-tmp}" )
+  private boolean useNativeTmp;
+
+  @Value( "${application.run.processing.fs-tree.working-directory-pool.size:0}" )
+  private int workingDirectoryPoolSize;
+
+  @Value( "${application.run.processing.fs-tree.storage.policy:disk}" )
+  private String storagePolicy;
+
+  @Value( "${application.run.processing.fs-tree.storage.memory-path:/dev/shm}" )
+  private String storageMemoryPath;
+
+  @Value( "${application.run.processing.fs-tree.storage.memory-trees:tmp}" )
+  private String storageMemoryTrees;
+
+  @Value( "${application.run.processing.fs-tree.storage.min-free-mb:256}" )
+  private long storageMinFreeMb;
+
+  @Value( "${application.run.processing.fs-tree.storage.reservation-factor:10}" )
+  private int storageReservationFactor;
+
+  @Value( "${application.run.processing.cache.max-size-mb:1024}" )
+  private long cacheMaxSizeMb;
+
+  @Value( "${application.run.processing.cache.items.max-size-mb:1024}" )
+  private long itemCacheMaxSizeMb;
+
   @Value( "${application.run.processing.dita.toolkit-path}" )
   private String ditaToolkotPath;
 
+  @Value( "${application.run.processing.dita.toolkit-home:}" )
+  private String ditaToolkitHome;
+
+  @Value( "${application.run.processing.dita.engine:process}" )
+  private String ditaEngine;
+
+  @Value( "${application.run.processing.dita.pool.size:2}" )
+  private int poolSize;
+
+  @Value( "${application.run.processing.dita.pool.max-jobs:50}" )
+  private int poolMaxJobs;
+
+  @Value( "${application.run.processing.dita.pool.max-heap-mb:0}" )
+  private long poolMaxHeapMb;
+
+  @Value( "${application.run.processing.dita.pool.acquire-timeout-seconds:120}" )
+  private long poolAcquireTimeoutSeconds;
+
+  @Value( "${application.run.processing.dita.pool.job-timeout-seconds:600}" )
+  private long poolJobTimeoutSeconds;
+
+  @Value( "${application.run.processing.dita.pool.command:}" )
+  private String poolCommand;
+
+  @Value( "${application.run.processing.dita.simulated.cpu-millis:50}" )
+  private long simulatedCpuMillis;
+
+  @Value( "${application.run.processing.dita.simulated.sleep-millis:500}" )
+  private long simulatedSleepMillis;
+
+  @Value( "${application.run.processing.dita.simulated.pdf-size-kb:256}" )
+  private long simulatedPdfSizeKb;
+
+  @Value( "${application.run.processing.jobs.workers:2}" )
+  private int jobWorkers;
+
+  @Value( "${application.run.processing.jobs.queue-capacity:16}" )
+  private int jobQueueCapacity;
+
+  @Value( "${application.run.processing.jobs.retention-minutes:15}" )
+  private long jobRetentionMinutes;
+
+  @Value( "${application.run.processing.batch.workers:2}" )
+  private int batchWorkers;
+
+  @Value( "${application.run.processing.batch.max-archives:200}" )
+  private int batchMaxArchives;
+
+  @Value( "${application.run.processing.response.streaming:true}" )
+  private boolean streamResponses;
+
+  @Value( "${application.run.processing.manifest.parser:jaxb}" )
+  private String manifestParser;
+
+  @Value( "${application.run.processing.manifest.validate:false}" )
+  private boolean validateManifest;
+
+  @Value( "${application.run.processing.zip.parallelism:1}" )
+  private int zipParallelism;
+
+  @Value( "${application.run.processing.zip.store-compressed:true}" )
+  private boolean zipStoreCompressed;
+
+  @Value( "${application.run.processing.zip.limits.max-entries:10000}" )
+  private long zipMaxEntries;
+
+  @Value( "${application.run.processing.zip.limits.max-total-size-mb:2048}" )
+  private long zipMaxTotalSizeMb;
+
+  @Value( "${application.run.processing.zip.limits.max-ratio:200}" )
+  private double zipMaxRatio;
+
+  @Value( "${application.run.processing.zip.limits.ratio-threshold-kb:1024}" )
+  private long zipRatioThresholdKb;
+
+  @Value( "${application.run.processing.admission.max-concurrent:4}" )
+  private int admissionMaxConcurrent;
+
+  @Value( "${application.run.processing.admission.max-concurrent-per-principal:0}" )
+  private int admissionMaxPerPrincipal;
+
+  @Value( "${application.run.processing.admission.max-queued:16}" )
+  private int admissionMaxQueued;
+
+  @Value( "${application.run.processing.admission.queue-timeout-seconds:60}" )
+  private long admissionQueueTimeoutSeconds;
+
+  @Value( "${application.run.processing.admission.min-free-heap-mb:0}" )
+  private long admissionMinFreeHeapMb;
+
+  @Value( "${application.run.processing.admission.min-free-disk-mb:0}" )
+  private long admissionMinFreeDiskMb;
+
+  @Value( "${application.run.processing.pipeline.extract-threads:2}" )
+  private int pipelineExtractThreads;
+
+  @Value( "${application.run.processing.pipeline.bake-threads:2}" )
+  private int pipelineBakeThreads;
+
+  @Value( "${application.run.processing.pipeline.pack-threads:2}" )
+  private int pipelinePackThreads;
+
+  @Value( "${application.run.processing.pipeline.queue-capacity:8}" )
+  private int pipelineQueueCapacity;
+
+  @Value( "${application.run.processing.threads.virtual:false}" )
+  private boolean virtualThreads;
+
+  @Value( "${application.run.processing.bake.parallelism:1}" )
+  private int bakeParallelism;
+
+  @Value( "${application.run.processing.bake.failure-mode:fail-fast}" )
+  private String bakeFailureMode;
+
+  /**
+   * Defines the processor used by the chemistry generator.
+   *
+   * <p>The {@code pool} engine keeps warm worker JVMs running the toolkit, the {@code simulated} engine does not run
+   * the toolkit at all (load tests), the other engines fork the {@code dita} launcher.</p>
+   *
+   * @return the instance of the processor.
+   *
+   * @throws IOException thrown if the workers of the pool cannot be started.
+   */
   @Bean
-  Processor processor() {
+  Processor processor() throws IOException {
+    if ( "pool".equals( ditaEngine ) ) {
+      return new PooledProcessor( new WorkerPoolConfiguration( workerCommand(),
+          poolSize,
+          poolMaxJobs,
+          poolMaxHeapMb * 1024 * 1024,
+          Duration.ofSeconds( poolAcquireTimeoutSeconds ),
+          Duration.ofSeconds( poolJobTimeoutSeconds ) ) );
+    }
+    if ( SIMULATED_ENGINE.equals( ditaEngine ) ) {
+      return new SimulatedProcessor( new SimulationProfile( Duration.ofMillis( simulatedCpuMillis ),
+          Duration.ofMillis( simulatedSleepMillis ), simulatedPdfSizeKb * 1024 ) );
+    }
     return new DefaultProcessor();
   }
 
+  /**
+   * Build the command used to start a worker of the pool.
+   *
+   * <p>By default, the worker runs with the java executable and the classpath of the application. When the application
+   * runs from its packaged jar, the classpath is the jar only and the classes are nested in {@code BOOT-INF}: the worker
+   * is then started through the launcher of the jar, with {@code loader.main} naming the worker class.</p>
+   *
+   * @return the command line.
+   */
+  private List<String> workerCommand() {
+    if ( StringUtils.isNotBlank( poolCommand ) ) {
+      return Arrays.stream( poolCommand.trim().split( "\\s+" ) ).toList();
+    }
+    final var java = Path.of( System.getProperty( "java.home" ), "bin", "java" ).toString();
+    final var classPath = System.getProperty( "java.class.path" );
+    if ( ClassUtils.isPresent( BOOT_LAUNCHER, ClassLoader.getSystemClassLoader() ) ) {
+      return List.of( java, "-Dloader.main=" + WORKER_CLASS, "-cp", classPath, BOOT_LAUNCHER, toolkitHome() );
+    }
+    return List.of( java, "-cp", classPath, WORKER_CLASS, toolkitHome() );
+  }
+
+  /**
+   * Defines the pdf generator according to the configured engine.
+   *
+   * <p>The {@code in-process} engine runs the toolkit found in {@code toolkit-home} inside the JVM of the application,
+   * the {@code pool} engine sends the ditamaps to warm worker JVMs, the
+   * {@code simulated} engine writes a placeholder pdf for each ditamap and the {@code process} engine forks the
+   * {@code dita} launcher given by {@code toolkit-path} for each ditamap.</p>
+   *
+   * <p>When the cache of the items is enabled, the ditamaps whose inputs did not change are served from it.</p>
+   *
+   * @param itemCache the cache of the pdfs of the ditamaps, if enabled.
+   *
+   * @return the instance of the generator.
+   *
+   * @throws IOException thrown if the processor cannot be created.
+   */
   @Bean
-  PdfGenerator pdfGenerator() {
-    return new ChemistryPdfGenerator(processor(), ditaToolkotPath);
+  PdfGenerator pdfGenerator( @Qualifier( "itemCache" ) final ObjectProvider<BinaryCache> itemCache )
+      throws IOException {
+    final PdfGenerator generator;
+    if ( "in-process".equals( ditaEngine ) ) {
+      generator = new DitaOtPdfGenerator( toolkitHome() );
+    } else {
+      // the simulated engine runs without toolkit, its name stands for the launcher.
+      generator = new ChemistryPdfGenerator( processor(),
+          SIMULATED_ENGINE.equals( ditaEngine ) ? SIMULATED_ENGINE : ditaToolkotPath );
+    }
+    final var cache = itemCache.getIfAvailable();
+    return null == cache ? generator : new CachingPdfGenerator( generator, cache );
+  }
+
+  /**
+   * Get the root directory of the toolkit, used by the engines running the toolkit in a JVM.
+   *
+   * <p>It is not the {@code toolkit-path} of the {@code process} engine, which is the {@code dita} launcher.</p>
+   *
+   * @return the root directory of the toolkit.
+   *
+   * @throws IllegalStateException thrown if the root directory is not configured.
+   */
+  private String toolkitHome() {
+    if ( StringUtils.isBlank( ditaToolkitHome ) ) {
+      throw new IllegalStateException( "The " + ditaEngine + " engine requires "
+          + "application.run.processing.dita.toolkit-home, the root directory of the DITA-OT toolkit" );
+    }
+    return ditaToolkitHome;
+  }
+
+  /**
+   * Defines the strategy used to bake the ditamaps of a recipe.
+   *
+   * <p>A parallelism of {@code 1} keeps the sequential bake. The bakers wait on the DITA-OT processes, they run on
+   * virtual threads when enabled.</p>
+   *
+   * @return the instance of the strategy.
+   */
+  @Bean
+  BakeStrategy bakeStrategy() {
+    if ( bakeParallelism <= 1 ) {
+      return new SequentialBakeStrategy();
+    }
+    return new ParallelBakeStrategy( bakeParallelism, BakeFailureMode.fromString( bakeFailureMode ),
+        ThreadFactories.of( "gidac-bake-", virtualThreads ) );
+  }
+
+  /**
+   * Defines the unmarshaller of the manifests, shared by all the requests.
+   *
+   * <p>The {@code stax} parser streams the items of the manifest without building the JAXB object graph, it does not
+   * validate the manifest against the schema.</p>
+   *
+   * @return the instance of the unmarshaller.
+   */
+  @Bean
+  ManifestUnmarshaller manifestUnmarshaller() {
+    if ( "stax".equals( manifestParser ) ) {
+      return new StaxManifestUnmarshaller();
+    }
+    return new ManifestUnmarshaller( validateManifest );
+  }
+
+  /**
+   * Defines the limits guarding the extraction of the archives and the reading of the bundles.
+   *
+   * @return the configured limits.
+   */
+  @Bean
+  ExtractionLimits extractionLimits() {
+    return new ExtractionLimits( zipMaxEntries, zipMaxTotalSizeMb * 1024 * 1024, zipMaxRatio,
+        zipRatioThresholdKb * 1024 );
+  }
+
+  /**
+   * Defines the zip manager shared by the requests to extract the archives and pack the outputs.
+   *
+   * <p>Above a parallelism of 1, the entries of the archives are inflated and deflated in parallel on a pool owned by
+   * the manager. The outputs which are already compressed (pdf, png, ...) may be stored as is. The extraction of the
+   * archives is always guarded by the configured limits (entries, total size, compression ratio).</p>
+   *
+   * @param extractionLimits the limits of the extraction of the archives.
+   *
+   * @return the instance of the zip manager.
+   */
+  @Bean
+  ZipManager zipManager( final ExtractionLimits extractionLimits ) {
+    final var compressionPolicy = zipStoreCompressed
+        ? CompressionPolicy.storeCompressed()
+        : CompressionPolicy.deflateAll();
+    if ( zipParallelism > 1 ) {
+      return new ParallelZipManager( zipParallelism, ParallelZipManager.DEFAULT_BUFFER_SIZE, compressionPolicy,
+          extractionLimits );
+    }
+    return new DefaultZipManager( compressionPolicy, extractionLimits );
+  }
+
+  /**
+   * Defines the provider of the working directories of the recipes.
+   *
+   * <p>When the pool is enabled, the working directories are created once in the working directory of the
+   * application and wiped in background between the requests. Otherwise, each request creates and deletes its own
+   * temporary directory.</p>
+   *
+   * <p>With the {@code memory} storage policy, the configured trees (temporary files of DITA-OT, content of the
+   * archive) are stored on a memory-backed filesystem as long as it has enough free space.</p>
+   *
+   * <p>The pool of each instance of the application lives in a directory named after its process, the pools left by
+   * the instances which are not running anymore are deleted.</p>
+   *
+   * @return the instance of the provider.
+   *
+   * @throws IOException thrown if the directories of the provider cannot be created.
+   */
+  @Bean
+  WorkingDirectoryProvider workingDirectoryProvider() throws IOException {
+    final WorkingDirectoryProvider provider = workingDirectoryPoolSize < 1
+        ? new TemporaryWorkingDirectoryProvider()
+        : new WorkingDirectoryPool( processDirectory( ApplicationWorkingDirectory
+        .create( applicationName, tmpDir, useNativeTmp )
+        .getRoot()
+        .resolve( WORKING_DIRECTORIES ) ), workingDirectoryPoolSize );
+    if ( !"memory".equals( storagePolicy ) ) {
+      return provider;
+    }
+    final var trees = Arrays.stream( storageMemoryTrees.split( "," ) ).map( String::trim ).toList();
+    final var policy = new StoragePolicy( Path.of( storageMemoryPath ), trees.contains( "tmp" ),
+        trees.contains( "input" ), storageMinFreeMb * 1024 * 1024, storageReservationFactor );
+    return new MemoryBackedWorkingDirectoryProvider( provider, policy,
+        processDirectory( policy.memoryRoot().resolve( applicationName ) ) );
+  }
+
+  /**
+   * Get the directory of the current process in a directory shared by the instances of the application, the
+   * directories of the processes which are not running anymore are deleted.
+   */
+  private static Path processDirectory( final Path parent ) throws IOException {
+    if ( Files.isDirectory( parent ) ) {
+      try ( var children = Files.list( parent ) ) {
+        for ( final var child : children.toList() ) {
+          final var pid = NumberUtils.toLong( child.getFileName().toString(), -1 );
+          if ( pid > 0 && ProcessHandle.of( pid ).isEmpty() ) {
+            PathUtils.deleteDirectory( child );
+          }
+        }
+      }
+    }
+    return parent.resolve( Long.toString( ProcessHandle.current().pid() ) );
+  }
+
+  private Path cacheDirectory() {
+    return ApplicationWorkingDirectory.create( applicationName, tmpDir, useNativeTmp )
+        .getRoot()
+        .resolve( CACHE_DIRECTORY );
+  }
+
+  /**
+   * Defines the cache of the generated binaries, stored in the working directory of the application.
+   *
+   * @return the instance of the cache.
+   *
+   * @throws IOException thrown if the directory of the cache cannot be created.
+   */
+  @Bean
+  @ConditionalOnProperty( name = "application.run.processing.cache.enabled", havingValue = "true" )
+  BinaryCache resultCache() throws IOException {
+    return new FileSystemBinaryCache( cacheDirectory().resolve( "results" ), cacheMaxSizeMb * 1024 * 1024 );
+  }
+
+  /**
+   * Defines the cache of the pdfs of the ditamaps, stored in the working directory of the application.
+   *
+   * @return the instance of the cache.
+   *
+   * @throws IOException thrown if the directory of the cache cannot be created.
+   */
+  @Bean
+  @ConditionalOnProperty( name = "application.run.processing.cache.items.enabled", havingValue = "true" )
+  BinaryCache itemCache() throws IOException {
+    return new FileSystemBinaryCache( cacheDirectory().resolve( "items" ), itemCacheMaxSizeMb * 1024 * 1024 );
+  }
+
+  /**
+   * Defines the controller admitting the generations on the host.
+   *
+   * <p>The free space is checked in the working directory of the application, which holds the uploads, the working
+   * directories of the requests and the cache.</p>
+   *
+   * @return the instance of the controller.
+   */
+  @Bean
+  @ConditionalOnProperty( name = "application.run.processing.admission.enabled", havingValue = "true" )
+  AdmissionController admissionController() {
+    final var applicationWorkingDirectory = ApplicationWorkingDirectory.create( applicationName, tmpDir, useNativeTmp );
+    applicationWorkingDirectory.createIfNotExists();
+    return new AdmissionController( new AdmissionConfiguration(
+        admissionMaxConcurrent,
+        admissionMaxPerPrincipal,
+        admissionMaxQueued,
+        Duration.ofSeconds( admissionQueueTimeoutSeconds ),
+        admissionMinFreeHeapMb * 1024 * 1024,
+        admissionMinFreeDiskMb * 1024 * 1024,
+        applicationWorkingDirectory.getRoot() ) );
+  }
+
+  /**
+   * Defines the stages running the recipes, so that the extraction, the bake and the pack of different requests
+   * overlap.
+   *
+   * @return the instance of the pipeline.
+   */
+  @Bean
+  @ConditionalOnProperty( name = "application.run.processing.pipeline.enabled", havingValue = "true" )
+  RecipePipeline recipePipeline() {
+    return new RecipePipeline( pipelineExtractThreads, pipelineBakeThreads, pipelinePackThreads,
+        pipelineQueueCapacity, prefix -> ThreadFactories.of( prefix, virtualThreads ) );
   }
 
   /**
    * Defines the pdf generation handler to use in the application.
    *
+   * <p>When the cache is enabled, identical archives are served from the cache without being admitted. The other
+   * requests are admitted by the admission controller, if enabled. When the pipeline is enabled, the recipes run
+   * through its stages instead of the thread of the request.</p>
+   *
+   * @param pdfGenerator        the generator of the pdfs.
+   * @param resultCache         the cache of the generated binaries, if enabled.
+   * @param admissionController the controller of the admission, if enabled.
+   * @param recipePipeline      the stages running the recipes, if enabled.
+   * @param recipeObserver      the observer of the stages of the recipes.
+   *
    * @return the instance of the request handler.
+   *
+   * @throws IOException thrown if the working directories of the recipes cannot be created.
+   */
+  @Bean
+  GeneratePdfRequestHandler generatePdfRequestHandler(
+      final PdfGenerator pdfGenerator,
+      @Qualifier( "resultCache" ) final ObjectProvider<BinaryCache> resultCache,
+      final ObjectProvider<AdmissionController> admissionController,
+      final ObjectProvider<RecipePipeline> recipePipeline,
+      final RecipeObserver recipeObserver ) throws IOException {
+    final var builder = DefaultGeneratePdfRequestHandler.builder()
+        .pdfGenerator( pdfGenerator )
+        .bakeStrategy( bakeStrategy() )
+        .streaming( streamResponses )
+        .manifestUnmarshaller( manifestUnmarshaller() )
+        .zipManager( zipManager( extractionLimits() ) )
+        .workingDirectoryProvider( workingDirectoryProvider() )
+        .observer( recipeObserver );
+    final var pipeline = recipePipeline.getIfAvailable();
+    GeneratePdfRequestHandler handler = null == pipeline ? builder.create() : builder.createPipelined( pipeline );
+    final var controller = admissionController.getIfAvailable();
+    if ( null != controller ) {
+      handler = new AdmissionControlledGeneratePdfRequestHandler( handler, controller );
+    }
+    final var cache = resultCache.getIfAvailable();
+    if ( null == cache ) {
+      return handler;
+    }
+    return new CachingGeneratePdfRequestHandler( handler, cache, pdfGenerator.fingerprint() );
+  }
+
+  /**
+   * Defines the service running the pdf generations submitted as jobs.
+   *
+   * @param generatePdfRequestHandler the handler generating the pdfs.
+   *
+   * @return the instance of the service.
+   */
+  @Bean
+  GeneratePdfJobService generatePdfJobService( final GeneratePdfRequestHandler generatePdfRequestHandler ) {
+    return new DefaultGeneratePdfJobService( generatePdfRequestHandler, jobWorkers, jobQueueCapacity,
+        Duration.ofMinutes( jobRetentionMinutes ), Clock.systemUTC(),
+        ThreadFactories.of( "gidac-job-", virtualThreads ) );
+  }
+
+  /**
+   * Defines the service running the batches of pdf generations.
+   *
+   * <p>The workers are shared by all the batches, the generations are still admitted by the handler.</p>
+   *
+   * @param generatePdfRequestHandler the handler generating the pdfs.
+   *
+   * @return the instance of the service.
    */
   @Bean
-  GeneratePdfRequestHandler generatePdfRequestHandler() {
-    return new DefaultGeneratePdfRequestHandler( pdfGenerator() );
+  GeneratePdfBatchService generatePdfBatchService( final GeneratePdfRequestHandler generatePdfRequestHandler ) {
+    return new DefaultGeneratePdfBatchService( generatePdfRequestHandler, batchWorkers, batchMaxArchives,
+        ThreadFactories.of( "gidac-batch-", virtualThreads ) );
   }
 
   @Bean
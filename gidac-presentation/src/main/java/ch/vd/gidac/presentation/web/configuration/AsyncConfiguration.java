@@ -0,0 +1,97 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.presentation.web.configuration;
+
+import ch.vd.gidac.domain.core.concurrent.LoggingContext;
+import ch.vd.gidac.presentation.web.pdfgen.BinaryCompletionInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Configuration of the asynchronous requests, which stream the generated binaries to the clients.
+ *
+ * <p>The binaries are written by a pool of their own instead of the shared task executor of Spring, sized by
+ * {@code application.run.processing.response.async}. With the virtual threads, they are written on virtual threads
+ * instead. The time a binary may take to be sent is {@code spring.mvc.async.request-timeout}, the resources backing
+ * the binary are released when the request completes, times out or fails.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+@Configuration
+public class AsyncConfiguration implements WebMvcConfigurer {
+
+  private final ObjectProvider<ExecutorService> requestExecutor;
+
+  @Value( "${application.run.processing.response.async.threads:16}" )
+  int asyncThreads;
+
+  @Value( "${application.run.processing.response.async.queue-capacity:64}" )
+  int asyncQueueCapacity;
+
+  public AsyncConfiguration( @Qualifier( "requestExecutor" ) final ObjectProvider<ExecutorService> requestExecutor ) {
+    this.requestExecutor = requestExecutor;
+  }
+
+  /**
+   * Defines the pool writing the streamed binaries, the requests are rejected once its queue is full.
+   *
+   * @return the pool.
+   */
+  @Bean
+  ThreadPoolTaskExecutor responseExecutor() {
+    final var executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize( asyncThreads );
+    executor.setMaxPoolSize( asyncThreads );
+    executor.setQueueCapacity( asyncQueueCapacity );
+    executor.setThreadNamePrefix( "gidac-response-" );
+    executor.setTaskDecorator( LoggingContext::propagate );
+    return executor;
+  }
+
+  @Override
+  public void configureAsyncSupport( final AsyncSupportConfigurer configurer ) {
+    configurer.setTaskExecutor( taskExecutor() );
+    configurer.registerCallableInterceptors( new BinaryCompletionInterceptor() );
+  }
+
+  private AsyncTaskExecutor taskExecutor() {
+    final var executor = requestExecutor.getIfAvailable();
+    if ( null == executor ) {
+      return responseExecutor();
+    }
+    final var taskExecutor = new TaskExecutorAdapter( executor );
+    taskExecutor.setTaskDecorator( LoggingContext::propagate );
+    return taskExecutor;
+  }
+}
@@ -24,7 +24,6 @@ package ch.vd.gidac.presentation.web.configuration;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.util.IdGenerator;
 import org.springframework.util.JdkIdGenerator;
 
@@ -35,7 +34,6 @@ import org.springframework.util.JdkIdGenerator;
  * @since 0.0.1
  */
 @Configuration
-@EnableAspectJAutoProxy(proxyTargetClass = true)
 public class CoreConfiguration {
   /**
    * Create a bean able to generate unique ID.
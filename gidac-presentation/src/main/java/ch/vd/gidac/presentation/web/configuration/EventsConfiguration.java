@@ -0,0 +1,89 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.presentation.web.configuration;
+
+import ch.vd.gidac.domain.core.concurrent.ThreadFactories;
+import ch.vd.gidac.domain.core.observe.CompositeRecipeObserver;
+import ch.vd.gidac.domain.core.observe.RecipeObserver;
+import ch.vd.gidac.domain.core.observe.StageEventPublisher;
+import ch.vd.gidac.presentation.web.core.events.LoggingStageEventSink;
+import ch.vd.gidac.presentation.web.core.metrics.MicrometerRecipeObserver;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration of the observation of the recipes: metrics and stage events.
+ *
+ * <p>The stage events replace the logging of each call of the controllers and of the request handlers: they are
+ * emitted by the recipes themselves, sampled, and logged from a background thread.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+@Configuration
+public class EventsConfiguration {
+
+  @Value( "${application.run.processing.events.sampling-rate:0.01}" )
+  private double eventsSamplingRate;
+
+  @Value( "${application.run.processing.events.queue-capacity:4096}" )
+  private int eventsQueueCapacity;
+
+  /**
+   * Defines the publisher of the stage events, which logs them with the {@link LoggingStageEventSink}.
+   *
+   * @return the instance of the publisher.
+   */
+  @Bean( destroyMethod = "close" )
+  @ConditionalOnProperty( name = "application.run.processing.events.enabled", havingValue = "true" )
+  StageEventPublisher stageEventPublisher() {
+    return new StageEventPublisher( List.of( new LoggingStageEventSink() ), eventsSamplingRate, eventsQueueCapacity,
+        ThreadFactories.platform( "gidac-events-" ) );
+  }
+
+  /**
+   * Defines the observer given to the recipes: the metrics, and the stage events if enabled.
+   *
+   * @param recipeMetrics       the observer recording the metrics.
+   * @param stageEventPublisher the publisher of the stage events, if enabled.
+   *
+   * @return the instance of the observer.
+   */
+  @Bean
+  @Primary
+  RecipeObserver recipeObserver( final MicrometerRecipeObserver recipeMetrics,
+                                 final ObjectProvider<StageEventPublisher> stageEventPublisher ) {
+    final var observers = new ArrayList<RecipeObserver>();
+    observers.add( recipeMetrics );
+    stageEventPublisher.ifAvailable( observers::add );
+    return CompositeRecipeObserver.of( observers );
+  }
+}
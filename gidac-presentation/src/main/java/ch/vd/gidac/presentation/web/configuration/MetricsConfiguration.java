@@ -0,0 +1,170 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.presentation.web.configuration;
+
+import ch.vd.gidac.application.generatepdf.RecipePipeline;
+import ch.vd.gidac.domain.core.cache.BinaryCache;
+import ch.vd.gidac.domain.core.fs.MemoryBackedWorkingDirectoryProvider;
+import ch.vd.gidac.domain.core.fs.WorkingDirectoryPool;
+import ch.vd.gidac.domain.core.fs.WorkingDirectoryProvider;
+import ch.vd.gidac.domain.core.observe.StageEventPublisher;
+import ch.vd.gidac.presentation.web.core.metrics.MicrometerRecipeObserver;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+
+/**
+ * Configuration of the metrics of the application.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+@Configuration
+public class MetricsConfiguration {
+
+  /**
+   * Defines the observer recording the duration of the stages of the recipes, the sizes of the archives and of the
+   * binaries and the failures.
+   *
+   * @param registry the registry of the meters.
+   *
+   * @return the instance of the observer.
+   */
+  @Bean
+  MicrometerRecipeObserver recipeMetrics( final MeterRegistry registry ) {
+    return new MicrometerRecipeObserver( registry );
+  }
+
+  /**
+   * Expose the events published and dropped by the publisher of the stage events, if enabled.
+   *
+   * @param stageEventPublisher the publisher of the stage events, if enabled.
+   *
+   * @return the binder registering the meters.
+   */
+  @Bean
+  MeterBinder eventMetrics( final ObjectProvider<StageEventPublisher> stageEventPublisher ) {
+    return registry -> stageEventPublisher.ifAvailable( publisher -> {
+      FunctionCounter.builder( "gidac.events.published", publisher, StageEventPublisher::getPublished )
+          .register( registry );
+      FunctionCounter.builder( "gidac.events.dropped", publisher, StageEventPublisher::getDropped )
+          .register( registry );
+      Gauge.builder( "gidac.events.queue.depth", publisher, StageEventPublisher::getQueueDepth )
+          .register( registry );
+    } );
+  }
+
+  /**
+   * Expose the statistics of the caches of the generated binaries and of the pdfs of the ditamaps.
+   *
+   * @param resultCache the cache of the binaries, if enabled.
+   * @param itemCache   the cache of the ditamaps, if enabled.
+   *
+   * @return the binder registering the meters.
+   */
+  @Bean
+  MeterBinder cacheMetrics( @Qualifier( "resultCache" ) final ObjectProvider<BinaryCache> resultCache,
+                            @Qualifier( "itemCache" ) final ObjectProvider<BinaryCache> itemCache ) {
+    return registry -> {
+      resultCache.ifAvailable( cache -> bindCache( registry, cache, "results" ) );
+      itemCache.ifAvailable( cache -> bindCache( registry, cache, "items" ) );
+    };
+  }
+
+  private static void bindCache( final MeterRegistry registry,
+                                 final BinaryCache cache,
+                                 final String name ) {
+    FunctionCounter.builder( "gidac.cache.hits", cache, c -> c.getStatistics().hits() )
+        .tag( "cache", name )
+        .register( registry );
+    FunctionCounter.builder( "gidac.cache.misses", cache, c -> c.getStatistics().misses() )
+        .tag( "cache", name )
+        .register( registry );
+    FunctionCounter.builder( "gidac.cache.evictions", cache, c -> c.getStatistics().evictions() )
+        .tag( "cache", name )
+        .register( registry );
+    Gauge.builder( "gidac.cache.entries", cache, c -> c.getStatistics().entries() )
+        .tag( "cache", name )
+        .register( registry );
+    Gauge.builder( "gidac.cache.size", cache, c -> c.getStatistics().bytes() )
+        .tag( "cache", name )
+        .baseUnit( "bytes" )
+        .register( registry );
+  }
+
+  /**
+   * Expose the depth of the queue and the busy threads of each stage of the pipeline.
+   *
+   * @param recipePipeline the pipeline of the recipes, if enabled.
+   *
+   * @return the binder registering the meters.
+   */
+  @Bean
+  MeterBinder pipelineMetrics( final ObjectProvider<RecipePipeline> recipePipeline ) {
+    return registry -> recipePipeline.ifAvailable( pipeline -> {
+      for ( final var stage : RecipePipeline.Stage.values() ) {
+        final var name = stage.name().toLowerCase( Locale.ROOT );
+        Gauge.builder( "gidac.pipeline.queue.depth", pipeline, p -> p.getQueueDepth( stage ) )
+            .tag( "stage", name )
+            .register( registry );
+        Gauge.builder( "gidac.pipeline.active", pipeline, p -> p.getActive( stage ) )
+            .tag( "stage", name )
+            .register( registry );
+      }
+    } );
+  }
+
+  /**
+   * Expose the state of the pool of the working directories and the use of the memory-backed storage, if enabled.
+   *
+   * @param workingDirectoryProvider the provider of the working directories.
+   *
+   * @return the binder registering the meters.
+   */
+  @Bean
+  MeterBinder workingDirectoryMetrics( final WorkingDirectoryProvider workingDirectoryProvider ) {
+    return registry -> {
+      var provider = workingDirectoryProvider;
+      if ( provider instanceof MemoryBackedWorkingDirectoryProvider memory ) {
+        Gauge.builder( "gidac.workdirs.memory", memory, MemoryBackedWorkingDirectoryProvider::getMemoryLeases )
+            .register( registry );
+        FunctionCounter.builder( "gidac.workdirs.disk.fallbacks", memory,
+                MemoryBackedWorkingDirectoryProvider::getDiskFallbacks )
+            .register( registry );
+        provider = memory.getDelegate();
+      }
+      if ( provider instanceof WorkingDirectoryPool pool ) {
+        Gauge.builder( "gidac.workdirs.idle", pool, WorkingDirectoryPool::getIdle ).register( registry );
+        Gauge.builder( "gidac.workdirs.leased", pool, WorkingDirectoryPool::getLeased ).register( registry );
+        Gauge.builder( "gidac.workdirs.wiping", pool, WorkingDirectoryPool::getWiping ).register( registry );
+      }
+    };
+  }
+}
@@ -22,8 +22,10 @@
 
 package ch.vd.gidac.presentation.web.configuration;
 
+import ch.vd.gidac.domain.core.compress.ExtractionLimits;
 import ch.vd.gidac.presentation.web.core.filters.LoggingContextEnricherFilter;
 import ch.vd.gidac.presentation.web.core.filters.RequestIdFilter;
+import ch.vd.gidac.presentation.web.pdfgen.ArchiveFactory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
@@ -32,6 +34,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.util.IdGenerator;
 
+import java.nio.file.Path;
+
 /**
  * Configuration of the servlet's behavior.
  *
@@ -41,11 +45,19 @@ import org.springframework.util.IdGenerator;
 @Configuration
 public class ServletConfiguration {
   private static final Logger log = LogManager.getLogger( ServletConfiguration.class );
+  private static final String UPLOAD_DIRECTORY = "gidac-uploads";
+
   private final IdGenerator idGenerator;
 
   @Value("${application.context.request.requestIdHeader}")
   String requestIdHeaderName;
 
+  @Value("${application.run.processing.upload.spool-to-disk:true}")
+  boolean spoolUploadsToDisk;
+
+  @Value("${application.run.processing.fs-tree.tmp-dir}")
+  String tmpDir;
+
   public ServletConfiguration( final IdGenerator idGenerator ) {
     this.idGenerator = idGenerator;
   }
@@ -83,4 +95,19 @@ public class ServletConfiguration {
     log.trace( "loggingContext filter setup completed" );
     return registrationBean;
   }
+
+  /**
+   * Create the factory which turns the uploaded files into archives.
+   *
+   * <p>Unless disabled, the uploads are spooled to disk so the archives are never held in memory. The bundles are read
+   * with the same limits as the archives.</p>
+   *
+   * @param extractionLimits the configured limits of the extraction of the archives.
+   *
+   * @return the bean definition
+   */
+  @Bean
+  ArchiveFactory archiveFactory( final ExtractionLimits extractionLimits ) {
+    return new ArchiveFactory( spoolUploadsToDisk ? Path.of( tmpDir, UPLOAD_DIRECTORY ) : null, extractionLimits );
+  }
 }
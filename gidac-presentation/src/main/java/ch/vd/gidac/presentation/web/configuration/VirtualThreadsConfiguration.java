@@ -0,0 +1,85 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.presentation.web.configuration;
+
+import ch.vd.gidac.domain.core.concurrent.ThreadFactories;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Run the requests on virtual threads, opt-in with {@code application.run.processing.threads.virtual}.
+ *
+ * <p>Tomcat handles each request on a new virtual thread instead of its pool of platform threads, and the responses
+ * streamed asynchronously are written on virtual threads too (see {@link AsyncConfiguration}). The workers of the
+ * application (bake, jobs, batches) are configured by the {@link ApplicationConfiguration}. Without Java 21, the
+ * configuration is skipped and the platform threads are kept.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+@Configuration
+@ConditionalOnProperty( name = "application.run.processing.threads.virtual", havingValue = "true" )
+@Conditional( VirtualThreadsConfiguration.OnVirtualThreadsAvailable.class )
+public class VirtualThreadsConfiguration {
+
+  /**
+   * Defines the executor running each request on a new virtual thread.
+   *
+   * @return the executor.
+   */
+  @Bean
+  ExecutorService requestExecutor() {
+    return ThreadFactories.newVirtualThreadPerTaskExecutor( "gidac-http-" );
+  }
+
+  /**
+   * Make Tomcat run the requests with the executor of virtual threads.
+   *
+   * @return the customizer of the protocol handler.
+   */
+  @Bean
+  TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+    final var executor = requestExecutor();
+    return protocolHandler -> protocolHandler.setExecutor( executor );
+  }
+
+  /**
+   * Match when the runtime supports the virtual threads.
+   */
+  static class OnVirtualThreadsAvailable implements Condition {
+
+    @Override
+    public boolean matches( final ConditionContext context, final AnnotatedTypeMetadata metadata ) {
+      return ThreadFactories.isVirtualAvailable();
+    }
+  }
+}
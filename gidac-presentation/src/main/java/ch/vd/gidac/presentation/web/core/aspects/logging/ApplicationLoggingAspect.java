@@ -1,62 +0,0 @@
-/*
- * Copyright(c) 2022 mehdi.lefebvre@gmail.com
- *
- * Permission is hereby granted, free of charge, to any person obtaining a copy
- * of this software and associated documentation files (the "Software"), to deal
- * in the Software without restriction, including without limitation the rights
- * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
- * copies of the Software, and to permit persons to whom the Software is
- * furnished to do so, subject to the following conditions:
- *
- * The above copyright notice and this permission notice shall be included in all
- * copies or substantial portions of the Software.
- *
- * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
- * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
- * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
- * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
- * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
- * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
- * SOFTWARE.
- */
-
-package ch.vd.gidac.presentation.web.core.aspects.logging;
-
-import ch.vd.gidac.presentation.web.core.aspects.SemanticAspectDefinition;
-import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.annotation.After;
-import org.aspectj.lang.annotation.AfterThrowing;
-import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
-import org.springframework.stereotype.Component;
-
-/**
- * Aspect to log information related to the processing on the application layer.
- *
- * @version 0.0.1
- * @since 0.0.1
- */
-@Aspect
-@Component
-public class ApplicationLoggingAspect extends SemanticAspectDefinition {
-
-  @Before("requestHandlerLayerMethodExecution()")
-  public void beforeExecution( final JoinPoint joinPoint ) {
-    final var log = getLogger( joinPoint );
-    log.info( "Executing the request handler on {}",
-        joinPoint.getSignature().getDeclaringType().getSimpleName() );
-  }
-
-  @After("requestHandlerLayerMethodExecution()")
-  public void afterExecution( final JoinPoint joinPoint ) {
-    final var log = getLogger( joinPoint );
-    log.info( "Executing the request handler on {}",
-        joinPoint.getSignature().getDeclaringType().getSimpleName() );
-  }
-
-  @AfterThrowing(pointcut = "requestHandlerLayerMethodExecution()", throwing = "error")
-  public void afterThrowing( final JoinPoint joinPoint, Throwable error ) {
-    final var log = getLogger( joinPoint );
-    log.warn( "An error occurred during the process with message: {}", error.getMessage() );
-  }
-}
@@ -0,0 +1,75 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.presentation.web.core.events;
+
+import ch.vd.gidac.domain.core.observe.StageEvent;
+import ch.vd.gidac.domain.core.observe.StageEventSink;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Sink writing a log line for each stage event, with the logger {@value #LOGGER_NAME}.
+ *
+ * <p>The events of the successful stages are logged at {@code INFO}, the failed ones at {@code WARN}. The sink runs on
+ * the thread of the publisher, the request id is part of the line instead of the logging context.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class LoggingStageEventSink implements StageEventSink {
+
+  /**
+   * Name of the logger of the events, so that they can be routed or silenced apart from the other logs.
+   */
+  public static final String LOGGER_NAME = "ch.vd.gidac.events";
+
+  private static final Logger log = LogManager.getLogger( LOGGER_NAME );
+
+  @Override
+  public void accept( final List<StageEvent> events ) {
+    for ( final var event : events ) {
+      final var stage = event.stage().name().toLowerCase( Locale.ROOT );
+      final var millis = event.durationNanos() / 1_000_000d;
+      if ( event.succeeded() ) {
+        if ( log.isInfoEnabled() ) {
+          log.info( "requestId={} stage={} item={} durationMs={} outcome=success", event.requestId(), stage,
+              Objects.toString( event.item(), "-" ), String.format( Locale.ROOT, "%.3f", millis ) );
+        }
+      } else {
+        log.warn( "requestId={} stage={} item={} durationMs={} outcome=failure error={}: {}", event.requestId(),
+            stage, Objects.toString( event.item(), "-" ), String.format( Locale.ROOT, "%.3f", millis ),
+            event.failure().getClass().getSimpleName(), event.failure().getMessage() );
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "LoggingStageEventSink{" + LOGGER_NAME + '}';
+  }
+}
@@ -33,12 +33,14 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.time.Instant;
 
 /**
  * Define a way to enrich the logging context to add meta information inside logs.
  *
- * <p>Note: this approach won't work with an asynchronous way of implementing the behavior of the
- * api.</p>
+ * <p>The context is bound to the thread of the request. The work handed to other threads (pools of the
+ * application, pumps of the child processes, asynchronous responses) carries it through
+ * {@link ch.vd.gidac.domain.core.concurrent.LoggingContext}.</p>
  *
  * @version 0.0.1
  * @since 0.0.1
@@ -70,7 +72,7 @@ public class LoggingContextEnricherFilter extends OncePerRequestFilter {
     final var requestId = ( String ) request.getAttribute( requestHeader );
     try ( final CloseableThreadContext.Instance cti = CloseableThreadContext.put( "requestId",
         requestId ) ) {
-      cti.put( "x-ml-test", "demo" );
+      cti.put( "requestStart", Instant.now().toString() );
       log.trace( "Request id defined in the context, process the next step in the chain" );
       filterChain.doFilter( request, response );
       log.trace( "Processing complete, Cleaning up the content of the request." );
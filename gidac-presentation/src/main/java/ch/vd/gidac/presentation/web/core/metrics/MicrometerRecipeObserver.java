@@ -0,0 +1,163 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.presentation.web.core.metrics;
+
+import ch.vd.gidac.domain.core.DitaMap;
+import ch.vd.gidac.domain.core.RequestId;
+import ch.vd.gidac.domain.core.observe.RecipeObserver;
+import ch.vd.gidac.domain.core.observe.RecipeStage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Observer recording the stages of the recipes in a Micrometer registry.
+ *
+ * <ul>
+ *   <li>{@code gidac.recipe.stage}: timer of each stage, tagged by stage and outcome.</li>
+ *   <li>{@code gidac.recipe.ditamap}: timer of the generation of each ditamap, tagged by outcome.</li>
+ *   <li>{@code gidac.recipe.failures}: counter of the failed stages, tagged by stage and exception.</li>
+ *   <li>{@code gidac.recipe.archive.size} and {@code gidac.recipe.output.size}: sizes of the archives and of the
+ *   generated binaries.</li>
+ *   <li>{@code gidac.recipe.in.flight}: recipes between their set up and their clean up.</li>
+ * </ul>
+ *
+ * <p>The timers of the stages are created once, so that observing a stage does not look the registry up.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class MicrometerRecipeObserver implements RecipeObserver {
+
+  private static final String SUCCESS = "success";
+
+  private static final String FAILURE = "failure";
+
+  private final MeterRegistry registry;
+
+  private final Map<RecipeStage, Timer> succeededStages = new EnumMap<>( RecipeStage.class );
+
+  private final Map<RecipeStage, Timer> failedStages = new EnumMap<>( RecipeStage.class );
+
+  private final Timer succeededDitaMaps;
+
+  private final Timer failedDitaMaps;
+
+  private final DistributionSummary archiveSizes;
+
+  private final DistributionSummary outputSizes;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  /**
+   * Create a new observer and register its meters.
+   *
+   * @param registry the registry of the meters.
+   */
+  public MicrometerRecipeObserver( final MeterRegistry registry ) {
+    this.registry = registry;
+    for ( final var stage : RecipeStage.values() ) {
+      succeededStages.put( stage, stageTimer( stage, SUCCESS ) );
+      failedStages.put( stage, stageTimer( stage, FAILURE ) );
+    }
+    succeededDitaMaps = ditaMapTimer( SUCCESS );
+    failedDitaMaps = ditaMapTimer( FAILURE );
+    archiveSizes = DistributionSummary.builder( "gidac.recipe.archive.size" )
+        .description( "Size of the archives received by the recipes" )
+        .baseUnit( "bytes" )
+        .register( registry );
+    outputSizes = DistributionSummary.builder( "gidac.recipe.output.size" )
+        .description( "Size of the binaries generated by the recipes" )
+        .baseUnit( "bytes" )
+        .register( registry );
+    Gauge.builder( "gidac.recipe.in.flight", inFlight, AtomicInteger::get )
+        .description( "Recipes between their set up and their clean up" )
+        .register( registry );
+  }
+
+  private Timer stageTimer( final RecipeStage stage, final String outcome ) {
+    return Timer.builder( "gidac.recipe.stage" )
+        .description( "Duration of the stages of the recipes" )
+        .tag( "stage", tagOf( stage ) )
+        .tag( "outcome", outcome )
+        .register( registry );
+  }
+
+  private Timer ditaMapTimer( final String outcome ) {
+    return Timer.builder( "gidac.recipe.ditamap" )
+        .description( "Duration of the generation of the ditamaps" )
+        .tag( "outcome", outcome )
+        .register( registry );
+  }
+
+  private static String tagOf( final RecipeStage stage ) {
+    return stage.name().toLowerCase( Locale.ROOT );
+  }
+
+  @Override
+  public void recipeStarted( final RequestId requestId, final long archiveSize ) {
+    inFlight.incrementAndGet();
+    archiveSizes.record( archiveSize );
+  }
+
+  @Override
+  public void stageCompleted( final RequestId requestId, final RecipeStage stage, final long durationNanos,
+                              final Throwable failure ) {
+    if ( null == failure ) {
+      succeededStages.get( stage ).record( durationNanos, TimeUnit.NANOSECONDS );
+      return;
+    }
+    failedStages.get( stage ).record( durationNanos, TimeUnit.NANOSECONDS );
+    Counter.builder( "gidac.recipe.failures" )
+        .description( "Failed stages of the recipes" )
+        .tag( "stage", tagOf( stage ) )
+        .tag( "exception", failure.getClass().getSimpleName() )
+        .register( registry )
+        .increment();
+  }
+
+  @Override
+  public void ditaMapBaked( final RequestId requestId, final DitaMap ditaMap, final long durationNanos,
+                            final Throwable failure ) {
+    ( null == failure ? succeededDitaMaps : failedDitaMaps ).record( durationNanos, TimeUnit.NANOSECONDS );
+  }
+
+  @Override
+  public void binaryPacked( final RequestId requestId, final long binarySize ) {
+    outputSizes.record( binarySize );
+  }
+
+  @Override
+  public void recipeFinished( final RequestId requestId ) {
+    inFlight.decrementAndGet();
+  }
+}
@@ -23,9 +23,21 @@
 package ch.vd.gidac.presentation.web.pdfgen;
 
 import ch.vd.gidac.domain.core.Archive;
+import ch.vd.gidac.domain.core.compress.ArchiveLimitExceededException;
+import ch.vd.gidac.domain.core.compress.ExtractionGuard;
+import ch.vd.gidac.domain.core.compress.ExtractionLimits;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
 
 /**
  * Factory to use to transform {@link org.springframework.web.multipart.MultipartFile} to
@@ -37,9 +49,40 @@ import java.io.IOException;
  */
 public class ArchiveFactory {
 
+  /**
+   * Directory where the uploaded archives are stored until their recipe takes them.
+   */
+  private final Path spoolDirectory;
+
+  /**
+   * Limits guarding the reading of the bundles.
+   */
+  private final ExtractionLimits extractionLimits;
+
+  /**
+   * Create a factory which keeps the archives in memory and reads the bundles with the default limits.
+   */
+  public ArchiveFactory() {
+    this( null, ExtractionLimits.defaults() );
+  }
+
+  /**
+   * Create a factory which stores the archives on disk.
+   *
+   * @param spoolDirectory   the directory to store the uploaded archives in, {@code null} to keep them in memory.
+   * @param extractionLimits the limits guarding the reading of the bundles.
+   */
+  public ArchiveFactory( final Path spoolDirectory, final ExtractionLimits extractionLimits ) {
+    this.spoolDirectory = spoolDirectory;
+    this.extractionLimits = Objects.requireNonNull( extractionLimits );
+  }
+
   /**
    * Transform a given multipart file which represents a zip to an archive representation in our model.
    *
+   * <p>When a spool directory is defined, the upload is moved (or streamed) to a file of that directory and the
+   * content of the archive is never loaded in memory.</p>
+   *
    * @param file the file to transform.
    *
    * @return the archive representation of the file.
@@ -47,7 +90,68 @@ public class ArchiveFactory {
    * @throws IOException raised if an error occurred when reading the file.
    */
   public Archive toArchive( final MultipartFile file ) throws IOException {
-    return new Archive( file.getName(), file.getOriginalFilename(), file.getSize(),
-        file.getBytes(), file.getContentType() );
+    if ( null == spoolDirectory ) {
+      return new Archive( file.getName(), file.getOriginalFilename(), file.getSize(),
+          file.getBytes(), file.getContentType() );
+    }
+    final var target = Files.createDirectories( spoolDirectory ).resolve( UUID.randomUUID() + ".zip" );
+    try {
+      file.transferTo( target.toFile() );
+      return Archive.createFromFile( file.getName(), file.getOriginalFilename(), target, file.getContentType() );
+    } catch ( final IOException | RuntimeException e ) {
+      Files.deleteIfExists( target );
+      throw e;
+    }
+  }
+
+  /**
+   * Transform a given multipart file which represents a zip of archives (a bundle) to the archives it contains.
+   *
+   * <p>Only the {@code .zip} entries of the bundle are taken, the other entries are ignored. The bundle is read as a
+   * stream, guarded by the extraction limits of the factory, and each archive is stored like an uploaded one.</p>
+   *
+   * @param bundle      the bundle to read.
+   * @param maxArchives the maximum number of archives of the bundle.
+   *
+   * @return the archives of the bundle.
+   *
+   * @throws IOException raised if the bundle cannot be read or exceeds the limits.
+   */
+  public List<Archive> toArchives( final MultipartFile bundle, final int maxArchives ) throws IOException {
+    final var guard = new ExtractionGuard( extractionLimits );
+    final var archives = new ArrayList<Archive>();
+    try ( var zip = new ZipArchiveInputStream( bundle.getInputStream() ) ) {
+      for ( var entry = zip.getNextZipEntry(); null != entry; entry = zip.getNextZipEntry() ) {
+        final var name = entry.getName();
+        if ( entry.isDirectory() || !name.toLowerCase( Locale.ROOT ).endsWith( ".zip" ) ) {
+          continue;
+        }
+        if ( archives.size() == maxArchives ) {
+          throw new ArchiveLimitExceededException( "The bundle contains more than " + maxArchives + " archives" );
+        }
+        archives.add( toArchive( name.substring( name.lastIndexOf( '/' ) + 1 ), guard.guard( name, zip ) ) );
+      }
+    } catch ( final IOException | RuntimeException e ) {
+      for ( final var archive : archives ) {
+        archive.release();
+      }
+      throw e;
+    }
+    return archives;
+  }
+
+  private Archive toArchive( final String originalName, final InputStream in ) throws IOException {
+    if ( null == spoolDirectory ) {
+      final var bytes = in.readAllBytes();
+      return new Archive( "file", originalName, bytes.length, bytes, "application/zip" );
+    }
+    final var target = Files.createDirectories( spoolDirectory ).resolve( UUID.randomUUID() + ".zip" );
+    try {
+      Files.copy( in, target );
+      return Archive.createFromFile( "file", originalName, target, "application/zip" );
+    } catch ( final IOException | RuntimeException e ) {
+      Files.deleteIfExists( target );
+      throw e;
+    }
   }
 }
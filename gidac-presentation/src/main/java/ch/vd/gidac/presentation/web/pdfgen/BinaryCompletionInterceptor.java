@@ -0,0 +1,52 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.presentation.web.pdfgen;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Run the completion action of a streamed binary once the asynchronous request is over.
+ *
+ * <p>The body of a streamed binary runs its completion action when it has been written, but the body is never run if
+ * the request times out while it waits for a thread, or fails before. The interceptor runs the action when the
+ * request completes for any reason, the action being run only once.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class BinaryCompletionInterceptor implements CallableProcessingInterceptor {
+
+  @Override
+  public <T> void afterCompletion( final NativeWebRequest request, final Callable<T> task ) {
+    final var completion = request.getAttribute( BinaryResponseFactory.COMPLETION_ATTRIBUTE,
+        RequestAttributes.SCOPE_REQUEST );
+    if ( completion instanceof Runnable runnable ) {
+      request.removeAttribute( BinaryResponseFactory.COMPLETION_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST );
+      runnable.run();
+    }
+  }
+}
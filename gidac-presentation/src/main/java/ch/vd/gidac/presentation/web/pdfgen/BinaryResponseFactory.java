@@ -0,0 +1,93 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.presentation.web.pdfgen;
+
+import ch.vd.gidac.domain.core.Binary;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Factory to use to transform {@link ch.vd.gidac.domain.core.Binary} to a streamed http response.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class BinaryResponseFactory {
+
+  /**
+   * Attribute of the request holding the completion action of its streamed binary, see
+   * {@link BinaryCompletionInterceptor}.
+   */
+  static final String COMPLETION_ATTRIBUTE = BinaryResponseFactory.class.getName() + ".completion";
+
+  /**
+   * Create the response streaming a binary to the client.
+   *
+   * <p>A file-backed binary is transferred from its file to the response without being loaded in memory. The
+   * completion action is run once the stream has been written (or has failed), it is the place to release the
+   * resources backing the binary. It is run once, even if the body is never written because the asynchronous request
+   * times out or fails first, the {@link BinaryCompletionInterceptor} runs it then.</p>
+   *
+   * @param binary       the binary to send.
+   * @param onCompletion the action to run once the binary has been sent.
+   *
+   * @return the response entity.
+   *
+   * @throws IOException thrown if the size of the binary cannot be read.
+   */
+  public ResponseEntity<StreamingResponseBody> toResponse( final Binary binary, final Runnable onCompletion )
+      throws IOException {
+    final var headers = new HttpHeaders();
+    headers.setContentType( MediaType.parseMediaType( binary.mimeType() ) );
+    headers.setContentDispositionFormData( binary.name(), binary.name() );
+    headers.setContentLength( binary.size() );
+    final var completed = new AtomicBoolean();
+    final Runnable completion = () -> {
+      if ( completed.compareAndSet( false, true ) ) {
+        onCompletion.run();
+      }
+    };
+    final var attributes = RequestContextHolder.getRequestAttributes();
+    if ( null != attributes ) {
+      attributes.setAttribute( COMPLETION_ATTRIBUTE, completion, RequestAttributes.SCOPE_REQUEST );
+    }
+    final StreamingResponseBody body = outputStream -> {
+      try {
+        binary.transferTo( Channels.newChannel( outputStream ) );
+        outputStream.flush();
+      } finally {
+        completion.run();
+      }
+    };
+    return new ResponseEntity<>( body, headers, HttpStatus.OK );
+  }
+}
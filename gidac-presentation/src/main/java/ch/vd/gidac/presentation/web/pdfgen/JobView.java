@@ -0,0 +1,67 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.presentation.web.pdfgen;
+
+import ch.vd.gidac.application.jobs.Job;
+import ch.vd.gidac.application.jobs.JobStatus;
+
+import java.time.Instant;
+
+/**
+ * Representation of a job sent to the clients.
+ *
+ * @param id          the id of the job.
+ * @param requestId   the id of the request which created the job.
+ * @param status      the status of the job.
+ * @param submittedAt the submission date.
+ * @param startedAt   the start date of the processing, if started.
+ * @param finishedAt  the end date of the processing, if finished.
+ * @param error       the error message, if the job failed.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public record JobView(String id,
+                      String requestId,
+                      JobStatus status,
+                      Instant submittedAt,
+                      Instant startedAt,
+                      Instant finishedAt,
+                      String error) {
+
+  /**
+   * Create the representation of a job.
+   *
+   * @param job the job to represent.
+   *
+   * @return the representation.
+   */
+  public static JobView of( final Job job ) {
+    final var error = job.getResponse()
+        .filter( response -> null != response.e() )
+        .map( response -> response.e().getMessage() )
+        .orElse( null );
+    return new JobView( job.getId().value(), job.getRequestId(), job.getStatus(), job.getSubmittedAt(),
+        job.getStartedAt().orElse( null ), job.getFinishedAt().orElse( null ), error );
+  }
+}
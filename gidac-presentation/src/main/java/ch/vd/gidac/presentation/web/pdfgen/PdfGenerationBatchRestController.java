@@ -0,0 +1,238 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.presentation.web.pdfgen;
+
+import ch.vd.gidac.application.admission.AdmissionRejectedException;
+import ch.vd.gidac.application.batch.GeneratePdfBatchService;
+import ch.vd.gidac.application.generatepdf.GeneratePdfRequest;
+import ch.vd.gidac.application.generatepdf.GeneratePdfResponse;
+import ch.vd.gidac.application.generatepdf.Priority;
+import ch.vd.gidac.domain.core.Archive;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.zip.Deflater;
+
+/**
+ * Rest controller for the generation of many archives in a single request.
+ *
+ * <p>The archives are generated through the same handler as the single requests, a few at a time, and the binaries
+ * are streamed back in a zip as soon as each one is done.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+@RestController()
+@RequestMapping("/batches")
+public class PdfGenerationBatchRestController {
+
+  private static final Logger log = LogManager.getLogger( PdfGenerationBatchRestController.class );
+
+  private static final String ZIP_MIME_TYPE = "application/zip";
+
+  private static final String ERROR_ENTRY = "error.txt";
+
+  private final ArchiveFactory archiveFactory;
+
+  private final GeneratePdfBatchService batchService;
+
+  public PdfGenerationBatchRestController( final ArchiveFactory archiveFactory,
+                                           final GeneratePdfBatchService batchService ) {
+    this.archiveFactory = archiveFactory;
+    this.batchService = batchService;
+  }
+
+  /**
+   * Generate the binaries of many archives.
+   *
+   * <p>The archives are either uploaded as many {@code files} parts, or as a single {@code bundle} part which is a zip
+   * of archives. The response is a zip with a directory per archive (named after its position in the batch and the
+   * archive, as {@code 0-invoices/}) which contains the generated binary, or an {@code error.txt} entry if the
+   * generation failed. The entries are written in the order the generations are done, the status is therefore always
+   * {@code 200} once the batch has started.</p>
+   *
+   * <p>The requests of a batch are bulk generations.</p>
+   *
+   * @param requestId the id of the request.
+   * @param files     the archives to generate.
+   * @param bundle    the zip of the archives to generate.
+   * @param principal the authenticated client.
+   *
+   * @return the response entity streaming the zip of the binaries, {@code 400} if the archives cannot be read or if
+   * there are too many of them.
+   */
+  @PostMapping(
+      consumes = { MediaType.MULTIPART_FORM_DATA_VALUE },
+      produces = { ZIP_MIME_TYPE }
+  )
+  public ResponseEntity<StreamingResponseBody> generatePdfs(
+      @RequestAttribute("x-request-id") final String requestId,
+      @RequestPart(value = "files", required = false) final List<MultipartFile> files,
+      @RequestPart(value = "bundle", required = false) final MultipartFile bundle,
+      final Principal principal
+  ) {
+    final List<Archive> archives;
+    try {
+      archives = toArchives( files, bundle );
+    } catch ( final IOException e ) {
+      log.debug( "Cannot read the archives of the batch {}", requestId, e );
+      return ResponseEntity.badRequest().build();
+    }
+    if ( archives.isEmpty() ) {
+      return ResponseEntity.badRequest().build();
+    }
+    final var requests = new ArrayList<GeneratePdfRequest>( archives.size() );
+    for ( var i = 0; i < archives.size(); i++ ) {
+      requests.add( new GeneratePdfRequest( requestIdOf( requestId, i ), archives.get( i ),
+          PdfGenerationRestController.nameOf( principal ), Priority.BULK ) );
+    }
+    final var headers = new HttpHeaders();
+    headers.setContentType( MediaType.parseMediaType( ZIP_MIME_TYPE ) );
+    headers.setContentDisposition( ContentDisposition.attachment().filename( "batch-" + requestId + ".zip" ).build() );
+    final StreamingResponseBody body = outputStream -> write( requests, outputStream );
+    return ResponseEntity.ok().headers( headers ).body( body );
+  }
+
+  /**
+   * Derive the id of the request of an archive from the id of the batch and the position of the archive, the id of a
+   * request must be a uuid. The position is kept in the name of the directory of the archive in the response.
+   */
+  private static String requestIdOf( final String batchId, final int index ) {
+    return UUID.nameUUIDFromBytes( ( batchId + "/" + index ).getBytes( StandardCharsets.UTF_8 ) ).toString();
+  }
+
+  /**
+   * Read the archives of the request, the uploaded files are kept as long as the request is handled only, so they are
+   * all stored before the batch starts.
+   */
+  private List<Archive> toArchives( final List<MultipartFile> files, final MultipartFile bundle )
+      throws IOException {
+    final var maxSize = batchService.getMaxSize();
+    if ( null != bundle ) {
+      return archiveFactory.toArchives( bundle, maxSize );
+    }
+    if ( null == files ) {
+      return List.of();
+    }
+    if ( files.size() > maxSize ) {
+      throw new IOException( "The batch contains more than " + maxSize + " archives" );
+    }
+    final var archives = new ArrayList<Archive>( files.size() );
+    try {
+      for ( final var file : files ) {
+        archives.add( archiveFactory.toArchive( file ) );
+      }
+    } catch ( final IOException | RuntimeException e ) {
+      for ( final var archive : archives ) {
+        archive.release();
+      }
+      throw e;
+    }
+    return archives;
+  }
+
+  private void write( final List<GeneratePdfRequest> requests, final OutputStream outputStream ) throws IOException {
+    final var zip = new ZipArchiveOutputStream( outputStream );
+    // the binaries are mostly pdfs (or zips of pdfs), deflating them harder would not pay off
+    zip.setLevel( Deflater.BEST_SPEED );
+    batchService.process( requests, ( index, response ) -> {
+      try ( response ) {
+        final var directory = directoryOf( index, response.request().archive() );
+        write( zip, directory, response );
+      }
+      zip.flush();
+      outputStream.flush();
+    } );
+    zip.finish();
+    outputStream.flush();
+  }
+
+  private static void write( final ZipArchiveOutputStream zip, final String directory,
+                             final GeneratePdfResponse response ) throws IOException {
+    if ( null != response.e() || null == response.binary() ) {
+      zip.putArchiveEntry( new ZipArchiveEntry( directory + ERROR_ENTRY ) );
+      zip.write( errorOf( response ).getBytes( StandardCharsets.UTF_8 ) );
+      zip.closeArchiveEntry();
+      return;
+    }
+    zip.putArchiveEntry( new ZipArchiveEntry( directory + response.binary().name() ) );
+    response.binary().transferTo( Channels.newChannel( zip ) );
+    zip.closeArchiveEntry();
+  }
+
+  /**
+   * Get the message of a failed generation, its cause is logged but never sent to the client.
+   */
+  private static String errorOf( final GeneratePdfResponse response ) {
+    final var e = response.e();
+    if ( null == e ) {
+      return "No binary has been generated";
+    }
+    if ( e instanceof CancellationException ) {
+      return "The batch has been aborted";
+    }
+    if ( e instanceof AdmissionRejectedException ) {
+      log.debug( "The request {} of the batch has been rejected", response.request().requestId(), e );
+      return "The generation has been rejected, the service is busy";
+    }
+    log.warn( "The request {} of the batch has failed", response.request().requestId(), e );
+    return "The generation has failed";
+  }
+
+  /**
+   * Name the directory of an archive in the response after its position in the batch and the archive.
+   */
+  private static String directoryOf( final int index, final Archive archive ) {
+    var name = null == archive.originalName() ? "" : archive.originalName();
+    name = name.replace( '\\', '/' );
+    name = name.substring( name.lastIndexOf( '/' ) + 1 );
+    if ( name.toLowerCase( Locale.ROOT ).endsWith( ".zip" ) ) {
+      name = name.substring( 0, name.length() - 4 );
+    }
+    return name.isBlank() ? index + "/" : index + "-" + name + "/";
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.presentation.web.pdfgen;
+
+import ch.vd.gidac.application.generatepdf.GeneratePdfRequest;
+import ch.vd.gidac.application.generatepdf.Priority;
+import ch.vd.gidac.application.jobs.GeneratePdfJobService;
+import ch.vd.gidac.application.jobs.Job;
+import ch.vd.gidac.application.jobs.JobId;
+import ch.vd.gidac.application.jobs.JobRejectedException;
+import ch.vd.gidac.application.jobs.JobStatus;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.security.Principal;
+
+/**
+ * Rest controller for asynchronous pdf generation.
+ *
+ * <p>The archive is submitted as a job and the request returns immediately with the location of the job. The client
+ * polls the job until it is done, then downloads the binary.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+@RestController()
+@RequestMapping("/jobs")
+public class PdfGenerationJobRestController {
+
+  private final ArchiveFactory archiveFactory;
+
+  private final GeneratePdfJobService jobService;
+
+  private final BinaryResponseFactory binaryResponseFactory;
+
+  public PdfGenerationJobRestController( final ArchiveFactory archiveFactory,
+                                         final GeneratePdfJobService jobService ) {
+    this.jobService = jobService;
+    this.archiveFactory = archiveFactory;
+    binaryResponseFactory = new BinaryResponseFactory();
+  }
+
+  /**
+   * Submit an archive for generation.
+   *
+   * <p>The jobs are bulk generations, the interactive requests are admitted before them.</p>
+   *
+   * @param requestId  the id of the request.
+   * @param file       the zip file to handle to generate the pdf content for.
+   * @param principal  the authenticated client, its jobs share the slots fairly with the other clients.
+   * @param uriBuilder the builder of the location of the job.
+   *
+   * @return {@code 202} with the location of the job, {@code 429} (or {@code 503} when the service stops) with a
+   * {@code Retry-After} header if the job cannot be accepted.
+   */
+  @PostMapping(
+      consumes = { MediaType.MULTIPART_FORM_DATA_VALUE },
+      produces = { MediaType.APPLICATION_JSON_VALUE }
+  )
+  public ResponseEntity<JobView> submit(
+      @RequestAttribute("x-request-id") final String requestId,
+      @RequestPart("file") final MultipartFile file,
+      final Principal principal,
+      final UriComponentsBuilder uriBuilder
+  ) {
+    try {
+      final var archive = archiveFactory.toArchive( file );
+      final Job job;
+      try {
+        job = jobService.submit( new GeneratePdfRequest( requestId, archive,
+            PdfGenerationRestController.nameOf( principal ), Priority.BULK ) );
+      } catch ( final JobRejectedException e ) {
+        archive.release();
+        throw e;
+      }
+      final var location = uriBuilder.path( "/jobs/{id}" ).buildAndExpand( job.getId().value() ).toUri();
+      return ResponseEntity.accepted().location( location ).body( JobView.of( job ) );
+    } catch ( final IOException e ) {
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
+  /**
+   * Get the status of a job.
+   *
+   * @param id the id of the job.
+   *
+   * @return the representation of the job, {@code 404} if the job does not exist (or has expired).
+   */
+  @GetMapping( path = "/{id}", produces = { MediaType.APPLICATION_JSON_VALUE } )
+  public ResponseEntity<JobView> status( @PathVariable("id") final String id ) {
+    return jobService.find( JobId.fromString( id ) )
+        .map( job -> ResponseEntity.ok( JobView.of( job ) ) )
+        .orElseGet( () -> ResponseEntity.notFound().build() );
+  }
+
+  /**
+   * Download the binary generated by a job.
+   *
+   * @param id the id of the job.
+   *
+   * @return the binary, {@code 409} if the job is not done yet, {@code 422} if it failed and {@code 404} if it does
+   * not exist.
+   *
+   * @throws IOException thrown if the binary cannot be read.
+   */
+  @GetMapping( path = "/{id}/binary", produces = { MediaType.APPLICATION_PDF_VALUE, "application/zip" } )
+  public ResponseEntity<StreamingResponseBody> download( @PathVariable("id") final String id ) throws IOException {
+    final var job = jobService.find( JobId.fromString( id ) );
+    if ( job.isEmpty() ) {
+      return ResponseEntity.notFound().build();
+    }
+    final var status = job.get().getStatus();
+    if ( !status.isDone() ) {
+      return ResponseEntity.status( HttpStatus.CONFLICT ).header( HttpHeaders.RETRY_AFTER, "1" ).build();
+    }
+    if ( status == JobStatus.FAILED ) {
+      return ResponseEntity.unprocessableEntity().build();
+    }
+    // the binary can be downloaded several times until the job expires, and is kept until the download ends.
+    final var release = job.get().retain();
+    if ( release.isEmpty() ) {
+      return ResponseEntity.notFound().build();
+    }
+    try {
+      return binaryResponseFactory.toResponse( job.get().getResponse().orElseThrow().binary(), release.get() );
+    } catch ( final IOException | RuntimeException e ) {
+      release.get().run();
+      throw e;
+    }
+  }
+
+  /**
+   * Translate a rejected submission to a response asking the client to retry later.
+   *
+   * @param e the rejection.
+   *
+   * @return the response with the {@code Retry-After} header.
+   */
+  @ExceptionHandler( JobRejectedException.class )
+  public ResponseEntity<Void> rejected( final JobRejectedException e ) {
+    final var status = e.getReason() == JobRejectedException.Reason.QUEUE_FULL
+        ? HttpStatus.TOO_MANY_REQUESTS
+        : HttpStatus.SERVICE_UNAVAILABLE;
+    return ResponseEntity.status( status )
+        .header( HttpHeaders.RETRY_AFTER, Long.toString( e.getRetryAfter().toSeconds() ) )
+        .build();
+  }
+}
@@ -22,20 +22,26 @@
 
 package ch.vd.gidac.presentation.web.pdfgen;
 
+import ch.vd.gidac.application.admission.AdmissionRejectedException;
 import ch.vd.gidac.application.generatepdf.GeneratePdfRequest;
 import ch.vd.gidac.application.generatepdf.GeneratePdfRequestHandler;
+import ch.vd.gidac.application.generatepdf.GeneratePdfResponse;
+import ch.vd.gidac.application.generatepdf.Priority;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.security.Principal;
 
 /**
  * Rest controller for pdf generation.
@@ -54,12 +60,16 @@ public class PdfGenerationRestController {
 
   private final GeneratePdfRequestHandler requestHandler;
 
+  private final BinaryResponseFactory binaryResponseFactory;
+
   /**
    * Default constructor of the controller
    */
-  public PdfGenerationRestController( final GeneratePdfRequestHandler requestHandler ) {
+  public PdfGenerationRestController( final ArchiveFactory archiveFactory,
+                                      final GeneratePdfRequestHandler requestHandler ) {
     this.requestHandler = requestHandler;
-    archiveFactory = new ArchiveFactory();
+    this.archiveFactory = archiveFactory;
+    binaryResponseFactory = new BinaryResponseFactory();
   }
 
   /**
@@ -69,7 +79,13 @@ public class PdfGenerationRestController {
    * generated) or a zip file if more than one binary should be generated. The content type is adapted based on the
    * content of the response.</p>
    *
-   * @param file the zip file to handle to generate the pdf content for.
+   * <p>The binary is streamed to the client, the resources of the generation are released once it has been sent.
+   * If the generation fails, the status is {@code 422}.</p>
+   *
+   * <p>The request is interactive: a client waits for it, so it is admitted before the bulk ones.</p>
+   *
+   * @param file      the zip file to handle to generate the pdf content for.
+   * @param principal the authenticated client, its generations share the slots fairly with the other clients.
    *
    * @return the response entity with the content of the data generated as payload.
    */
@@ -77,20 +93,51 @@ public class PdfGenerationRestController {
       consumes = { MediaType.MULTIPART_FORM_DATA_VALUE, MediaType.APPLICATION_JSON_VALUE },
       produces = { MediaType.APPLICATION_PDF_VALUE, "application/zip" }
   )
-  public ResponseEntity<byte[]> generatePdf(
+  public ResponseEntity<StreamingResponseBody> generatePdf(
       @RequestAttribute("x-request-id") final String requestId,
-      @RequestPart("file") final MultipartFile file
+      @RequestPart("file") final MultipartFile file,
+      final Principal principal
   ) {
+    final GeneratePdfResponse response;
     try {
       final var archive = archiveFactory.toArchive( file );
-      final var request = new GeneratePdfRequest( requestId, archive );
-      final var response = requestHandler.handleRequest( request );
-      final var headers = new HttpHeaders();
-      headers.setContentType( MediaType.parseMediaType( response.binary().mimeType() ) );
-      headers.setContentDispositionFormData( response.binary().name(), response.binary().name() );
-      return new ResponseEntity<>( response.binary().payload(), headers, HttpStatus.OK );
+      final var request = new GeneratePdfRequest( requestId, archive, nameOf( principal ), Priority.INTERACTIVE );
+      response = requestHandler.handleRequest( request );
     } catch ( final IOException e ) {
       return ResponseEntity.badRequest().build();
     }
+    if ( null != response.e() || null == response.binary() ) {
+      response.close();
+      return ResponseEntity.unprocessableEntity().build();
+    }
+    try {
+      // the working directory is released once the binary has been streamed.
+      return binaryResponseFactory.toResponse( response.binary(), response::close );
+    } catch ( final IOException | RuntimeException e ) {
+      response.close();
+      return ResponseEntity.internalServerError().build();
+    }
+  }
+
+  static String nameOf( final Principal principal ) {
+    return null == principal ? GeneratePdfRequest.ANONYMOUS : principal.getName();
+  }
+
+  /**
+   * Answer the requests which are not admitted, {@code 429} if too many requests are waiting, {@code 503} if the
+   * host lacks resources or no slot became available in time.
+   *
+   * @param e the rejection.
+   *
+   * @return the response entity with the delay after which the client may retry.
+   */
+  @ExceptionHandler( AdmissionRejectedException.class )
+  public ResponseEntity<Void> rejected( final AdmissionRejectedException e ) {
+    final var status = e.getReason() == AdmissionRejectedException.Reason.QUEUE_FULL
+        ? HttpStatus.TOO_MANY_REQUESTS
+        : HttpStatus.SERVICE_UNAVAILABLE;
+    return ResponseEntity.status( status )
+        .header( HttpHeaders.RETRY_AFTER, Long.toString( e.getRetryAfter().toSeconds() ) )
+        .build();
   }
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.presentation.web.pdfgen;
+
+import ch.vd.gidac.domain.core.compress.ArchiveLimitExceededException;
+import ch.vd.gidac.domain.core.compress.ExtractionLimits;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ArchiveFactoryTest {
+
+  private static MockMultipartFile bundle( final int archives ) throws IOException {
+    final var bytes = new ByteArrayOutputStream();
+    try ( var zip = new ZipOutputStream( bytes ) ) {
+      for ( var i = 0; i < archives; i++ ) {
+        zip.putNextEntry( new ZipEntry( "archives/archive-" + i + ".zip" ) );
+        zip.write( new byte[]{ 1, 2, 3 } );
+        zip.closeEntry();
+      }
+      zip.putNextEntry( new ZipEntry( "readme.txt" ) );
+      zip.closeEntry();
+    }
+    return new MockMultipartFile( "bundle", "bundle.zip", "application/zip", bytes.toByteArray() );
+  }
+
+  @Test
+  void readTheArchivesOfABundle() throws IOException {
+    // GIVEN
+    final var factory = new ArchiveFactory();
+
+    // WHEN
+    final var archives = factory.toArchives( bundle( 2 ), 10 );
+
+    // THEN
+    assertEquals( 2, archives.size() );
+    assertEquals( "archive-1.zip", archives.get( 1 ).originalName() );
+  }
+
+  @Test
+  void readTheBundleWithTheLimitsOfTheFactory() {
+    // GIVEN
+    final var factory = new ArchiveFactory( null, new ExtractionLimits( 0, 5, 0, 0 ) );
+
+    // WHEN / THEN
+    assertThrows( ArchiveLimitExceededException.class, () -> factory.toArchives( bundle( 2 ), 10 ) );
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.presentation.web.pdfgen;
+
+import ch.vd.gidac.domain.core.Binary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BinaryResponseFactoryTest {
+
+  private MockHttpServletRequest request;
+
+  @BeforeEach
+  void setUp() {
+    request = new MockHttpServletRequest();
+    RequestContextHolder.setRequestAttributes( new ServletRequestAttributes( request ) );
+  }
+
+  @AfterEach
+  void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  private static Binary binary() {
+    return Binary.create( "application/pdf", "test.pdf", new byte[]{ 1, 2, 3 } );
+  }
+
+  @Test
+  void completeOnceTheBinaryIsWritten() throws IOException {
+    // GIVEN
+    final var completions = new AtomicInteger();
+    final var response = new BinaryResponseFactory().toResponse( binary(), completions::incrementAndGet );
+    final var out = new ByteArrayOutputStream();
+
+    // WHEN
+    response.getBody().writeTo( out );
+    new BinaryCompletionInterceptor().afterCompletion( new ServletWebRequest( request ), () -> null );
+
+    // THEN
+    assertArrayEquals( new byte[]{ 1, 2, 3 }, out.toByteArray() );
+    assertEquals( 1, completions.get() );
+  }
+
+  @Test
+  void completeWhenTheRequestEndsBeforeTheBinaryIsWritten() throws IOException {
+    // GIVEN
+    final var completions = new AtomicInteger();
+    final var response = new BinaryResponseFactory().toResponse( binary(), completions::incrementAndGet );
+
+    // WHEN
+    new BinaryCompletionInterceptor().afterCompletion( new ServletWebRequest( request ), () -> null );
+    response.getBody().writeTo( new ByteArrayOutputStream() );
+
+    // THEN
+    assertEquals( 1, completions.get() );
+  }
+}
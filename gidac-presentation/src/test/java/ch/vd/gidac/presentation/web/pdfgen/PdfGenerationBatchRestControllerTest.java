@@ -0,0 +1,156 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.presentation.web.pdfgen;
+
+import ch.vd.gidac.application.batch.DefaultGeneratePdfBatchService;
+import ch.vd.gidac.application.generatepdf.DefaultGeneratePdfRequestHandler;
+import ch.vd.gidac.domain.core.DitaMap;
+import ch.vd.gidac.domain.core.PdfGenerationException;
+import ch.vd.gidac.domain.core.WorkingDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PdfGenerationBatchRestControllerTest {
+
+  private static final String MANIFEST = "<manifest version=\"1.0\"><items>"
+      + "<item><name>a</name><ditamap>a.ditamap</ditamap><files/></item>"
+      + "</items></manifest>";
+
+  private DefaultGeneratePdfBatchService batchService;
+
+  private PdfGenerationBatchRestController controller;
+
+  @BeforeEach
+  void setUp() {
+    final var requestHandler = new DefaultGeneratePdfRequestHandler(
+        PdfGenerationBatchRestControllerTest::generate );
+    batchService = new DefaultGeneratePdfBatchService( requestHandler, 2, 10 );
+    controller = new PdfGenerationBatchRestController( new ArchiveFactory(), batchService );
+  }
+
+  @AfterEach
+  void tearDown() {
+    batchService.close();
+  }
+
+  private static void generate( final WorkingDirectory directory, final DitaMap ditaMap ) {
+    try {
+      Files.writeString( directory.outputDirectory().resolve( ditaMap.value() + ".pdf" ), "pdf" );
+    } catch ( final IOException e ) {
+      throw new UncheckedIOException( e );
+    }
+  }
+
+  private static MultipartFile archive( final String name ) throws IOException {
+    final var bytes = new ByteArrayOutputStream();
+    try ( var zip = new ZipOutputStream( bytes ) ) {
+      zip.putNextEntry( new ZipEntry( "manifest.xml" ) );
+      zip.write( MANIFEST.getBytes( StandardCharsets.UTF_8 ) );
+      zip.closeEntry();
+      zip.putNextEntry( new ZipEntry( "a.ditamap" ) );
+      zip.write( "<map/>".getBytes( StandardCharsets.UTF_8 ) );
+      zip.closeEntry();
+    }
+    return new MockMultipartFile( "files", name, "application/zip", bytes.toByteArray() );
+  }
+
+  private static List<String> entries( final byte[] zip ) throws IOException {
+    final var names = new ArrayList<String>();
+    try ( var in = new ZipInputStream( new ByteArrayInputStream( zip ) ) ) {
+      for ( var entry = in.getNextEntry(); null != entry; entry = in.getNextEntry() ) {
+        names.add( entry.getName() );
+      }
+    }
+    names.sort( String::compareTo );
+    return names;
+  }
+
+  private static Map<String, String> contents( final byte[] zip ) throws IOException {
+    final var contents = new TreeMap<String, String>();
+    try ( var in = new ZipInputStream( new ByteArrayInputStream( zip ) ) ) {
+      for ( var entry = in.getNextEntry(); null != entry; entry = in.getNextEntry() ) {
+        contents.put( entry.getName(), new String( in.readAllBytes(), StandardCharsets.UTF_8 ) );
+      }
+    }
+    return contents;
+  }
+
+  @Test
+  void generateEveryArchiveOfTheBatch() throws IOException {
+    // GIVEN
+    final var files = List.of( archive( "invoices.zip" ), archive( "invoices.zip" ) );
+
+    // WHEN
+    final var response = controller.generatePdfs( UUID.randomUUID().toString(), files, null, null );
+    final var body = new ByteArrayOutputStream();
+    response.getBody().writeTo( body );
+
+    // THEN
+    assertEquals( HttpStatus.OK, response.getStatusCode() );
+    assertEquals( List.of( "0-invoices/a.ditamap.pdf", "1-invoices/a.ditamap.pdf" ), entries( body.toByteArray() ) );
+  }
+
+  @Test
+  void neverSendTheCauseOfAFailure() throws IOException {
+    // GIVEN
+    final var failingService = new DefaultGeneratePdfBatchService( new DefaultGeneratePdfRequestHandler(
+        ( directory, ditaMap ) -> {
+          throw new PdfGenerationException( "Toolkit failed in " + directory.root() );
+        } ), 1, 10 );
+    final var failingController = new PdfGenerationBatchRestController( new ArchiveFactory(), failingService );
+
+    // WHEN
+    final var response = failingController.generatePdfs( UUID.randomUUID().toString(),
+        List.of( archive( "invoices.zip" ) ), null, null );
+    final var body = new ByteArrayOutputStream();
+    try {
+      response.getBody().writeTo( body );
+    } finally {
+      failingService.close();
+    }
+
+    // THEN
+    assertEquals( Map.of( "0-invoices/error.txt", "The generation has failed" ), contents( body.toByteArray() ) );
+  }
+}
@@ -60,7 +60,7 @@ public class ChemistryPdfGenerator implements PdfGenerator {
         .format( "pdf" )
         .outputDir( directory.outputDirectory().toString() )
         .tmpDir( directory.tmpDirectory().toString() )
-        .ditaMap( ditaMap.value().toString() )
+        .ditaMap( directory.inputDirectory().resolve( ditaMap.value() ).toString() )
         .verbose( false )
         .build();
     try {
@@ -69,4 +69,9 @@ public class ChemistryPdfGenerator implements PdfGenerator {
       throw new PdfGenerationException( ex );
     }
   }
+
+  @Override
+  public String fingerprint () {
+    return String.join( "|", getClass().getName(), ditaBinPath, "pdf" );
+  }
 }
@@ -22,12 +22,19 @@
 
 package ch.vd.gidac.domain.core.pdf.processor;
 
+import ch.vd.gidac.domain.core.concurrent.LoggingContext;
 import org.apache.commons.exec.CommandLine;
 import org.apache.commons.exec.DefaultExecutor;
+import org.apache.commons.exec.LogOutputStream;
+import org.apache.commons.exec.PumpStreamHandler;
+import org.apache.commons.exec.StreamPumper;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.HashMap;
 
 public class DefaultProcessor implements Processor {
@@ -75,16 +82,27 @@ public class DefaultProcessor implements Processor {
     return cmd;
   }
 
+  /**
+   * Build the command line running the toolkit for a recipe.
+   *
+   * @param processingRecipe the recipe to process.
+   *
+   * @return the command line, with the arguments of the recipe.
+   */
+  public CommandLine commandLine( final ProcessingRecipe processingRecipe ) {
+    return CommandLine.parse( getCommandString( processingRecipe ) );
+  }
+
   @Override
   public void execute( final ProcessingRecipe processingRecipe ) {
     final var env = new HashMap<String, String>();
     env.put( "JAVA_HOME", "/home/mehdi/.sdkman/candidates/java/current" );
 
     try {
-      final var command = getCommandString( processingRecipe );
-      final var commandLine = CommandLine.parse( command );
+      final var commandLine = commandLine( processingRecipe );
       final var executor = new DefaultExecutor();
       executor.setExitValue( 0 );
+      executor.setStreamHandler( new LoggingPumpStreamHandler() );
       final var exitCode = executor.execute( commandLine, env );
       if ( exitCode != 0 ) {
         throw new RuntimeException( "The generation process fails with exit code " + exitCode );
@@ -93,4 +111,41 @@ public class DefaultProcessor implements Processor {
       throw new RuntimeException( e );
     }
   }
+
+  /**
+   * Forward the output of the toolkit to the logs, in the logging context of the thread running the process.
+   */
+  private static final class LoggingPumpStreamHandler extends PumpStreamHandler {
+
+    private final LoggingContext context = LoggingContext.capture();
+
+    LoggingPumpStreamHandler() {
+      super( new ToolkitOutput( Level.DEBUG ), new ToolkitOutput( Level.WARN ) );
+    }
+
+    @Override
+    protected Thread createPump( final InputStream is, final OutputStream os, final boolean closeWhenExhausted ) {
+      final var pump = new Thread( context.wrap( new StreamPumper( is, os, closeWhenExhausted ) ),
+          "gidac-toolkit-pump" );
+      pump.setDaemon( true );
+      return pump;
+    }
+  }
+
+  /**
+   * A stream of the toolkit, logged line by line.
+   */
+  private static final class ToolkitOutput extends LogOutputStream {
+
+    private final Level level;
+
+    ToolkitOutput( final Level level ) {
+      this.level = level;
+    }
+
+    @Override
+    protected void processLine( final String line, final int logLevel ) {
+      log.log( level, "[toolkit] {}", line );
+    }
+  }
 }
@@ -0,0 +1,244 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.pdf.processor.pool;
+
+import ch.vd.gidac.domain.core.concurrent.LoggingContext;
+import ch.vd.gidac.domain.core.pdf.processor.ProcessingRecipe;
+import ch.vd.gidac.domain.core.pdf.processor.Processor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Processor delegating the jobs to a pool of long-lived worker processes.
+ *
+ * <p>The workers are started once and kept warm, which avoids paying the JVM start-up and the toolkit initialization
+ * on each generation. A worker is recycled after a given number of jobs or once its heap grows above a threshold, and
+ * it is replaced in the background when it crashes or misses the deadline of a job.</p>
+ *
+ * <p>The number of live workers never exceeds the size of the pool: a slot is reserved before a worker is
+ * started.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class PooledProcessor implements Processor, AutoCloseable {
+
+  private static final Logger log = LogManager.getLogger( PooledProcessor.class );
+
+  private final WorkerPoolConfiguration configuration;
+
+  private final BlockingQueue<WorkerProcess> idleWorkers = new LinkedBlockingQueue<>();
+
+  private final AtomicInteger liveWorkers = new AtomicInteger();
+
+  private final ExecutorService recycler;
+
+  private final ScheduledExecutorService watchdog;
+
+  private volatile boolean closed = false;
+
+  /**
+   * Create the pool and start all its workers.
+   *
+   * @param configuration the configuration of the pool.
+   *
+   * @throws IOException thrown if a worker cannot be started.
+   */
+  public PooledProcessor( final WorkerPoolConfiguration configuration ) throws IOException {
+    this.configuration = configuration;
+    recycler = Executors.newSingleThreadExecutor( runnable -> {
+      final var thread = new Thread( runnable, "gidac-worker-recycler" );
+      thread.setDaemon( true );
+      return thread;
+    } );
+    final var scheduler = new ScheduledThreadPoolExecutor( 1, runnable -> {
+      final var thread = new Thread( runnable, "gidac-worker-watchdog" );
+      thread.setDaemon( true );
+      return thread;
+    } );
+    // the deadlines of the jobs are cancelled as soon as the jobs end, do not keep them until they expire.
+    scheduler.setRemoveOnCancelPolicy( true );
+    watchdog = scheduler;
+    try {
+      while ( reserve() ) {
+        startWorker();
+      }
+    } catch ( final IOException e ) {
+      close();
+      throw e;
+    }
+  }
+
+  /**
+   * Reserve the slot of a new worker, if the pool is not full.
+   *
+   * @return {@code true} if a slot has been reserved, the caller must then start the worker.
+   */
+  private boolean reserve() {
+    while ( true ) {
+      final var live = liveWorkers.get();
+      if ( live >= configuration.size() ) {
+        return false;
+      }
+      if ( liveWorkers.compareAndSet( live, live + 1 ) ) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Start a worker in a reserved slot and make it available, the slot is released if the worker cannot start.
+   */
+  private void startWorker() throws IOException {
+    try {
+      idleWorkers.add( WorkerProcess.start( configuration.command() ) );
+    } catch ( final IOException | RuntimeException e ) {
+      liveWorkers.decrementAndGet();
+      throw e;
+    }
+    if ( closed ) {
+      // started by a replacement racing with the closing of the pool.
+      closeIdleWorkers();
+    }
+  }
+
+  @Override
+  public void execute( final ProcessingRecipe recipe ) throws IOException, InterruptedException {
+    final var worker = acquire();
+    final WorkerResult result;
+    try {
+      result = worker.execute( recipe, configuration.jobTimeout(), watchdog );
+    } catch ( final IOException | RuntimeException e ) {
+      recycle( worker );
+      throw e;
+    }
+    release( worker );
+    if ( !result.success() ) {
+      throw new IOException( "The processing of " + recipe.ditaMap() + " fails: " + result.message() );
+    }
+  }
+
+  private WorkerProcess acquire() throws IOException, InterruptedException {
+    if ( closed ) {
+      throw new IllegalStateException( "The pool of workers is closed" );
+    }
+    final var deadline = System.nanoTime() + configuration.acquireTimeout().toNanos();
+    while ( true ) {
+      if ( reserve() ) {
+        // a previous replacement failed, try to restore the capacity of the pool.
+        startWorker();
+      }
+      final var worker = idleWorkers.poll( deadline - System.nanoTime(), TimeUnit.NANOSECONDS );
+      if ( worker == null ) {
+        throw new IOException( "No worker available after " + configuration.acquireTimeout() );
+      }
+      if ( worker.isAlive() ) {
+        return worker;
+      }
+      log.warn( "Worker {} died while idle", worker.pid() );
+      recycle( worker );
+    }
+  }
+
+  private void release( final WorkerProcess worker ) {
+    if ( closed ) {
+      liveWorkers.decrementAndGet();
+      worker.close();
+    } else if ( configuration.mustRecycle( worker.getJobs(), worker.getUsedHeap() ) ) {
+      log.debug( "Recycling worker {} after {} jobs ({} bytes of heap used)", worker.pid(), worker.getJobs(),
+          worker.getUsedHeap() );
+      recycle( worker );
+    } else {
+      idleWorkers.add( worker );
+    }
+  }
+
+  private void recycle( final WorkerProcess worker ) {
+    liveWorkers.decrementAndGet();
+    if ( closed ) {
+      worker.close();
+      return;
+    }
+    recycler.execute( LoggingContext.propagate( () -> {
+      worker.close();
+      if ( closed ) {
+        return;
+      }
+      try {
+        if ( reserve() ) {
+          startWorker();
+        }
+      } catch ( final IOException e ) {
+        log.error( "Cannot replace worker {}", worker.pid(), e );
+      }
+    } ) );
+  }
+
+  /**
+   * Get the number of workers currently waiting for a job.
+   *
+   * @return the number of idle workers.
+   */
+  public int getIdleWorkers() {
+    return idleWorkers.size();
+  }
+
+  /**
+   * Get the number of workers started or starting, idle or busy.
+   *
+   * @return the number of live workers, never above the size of the pool.
+   */
+  public int getLiveWorkers() {
+    return liveWorkers.get();
+  }
+
+  /**
+   * Stop the idle workers, busy workers are stopped as soon as their job ends.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    recycler.shutdown();
+    // the busy workers keep their deadline.
+    watchdog.shutdown();
+    closeIdleWorkers();
+  }
+
+  private void closeIdleWorkers() {
+    WorkerProcess worker;
+    while ( ( worker = idleWorkers.poll() ) != null ) {
+      liveWorkers.decrementAndGet();
+      worker.close();
+    }
+  }
+}
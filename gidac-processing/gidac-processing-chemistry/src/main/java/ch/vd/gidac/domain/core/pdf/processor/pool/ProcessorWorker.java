@@ -0,0 +1,99 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.pdf.processor.pool;
+
+import ch.vd.gidac.domain.core.pdf.processor.Processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+/**
+ * Worker side of the pool: read jobs from the standard input, execute them with an in-JVM processor and write the
+ * results on the standard output.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public final class ProcessorWorker {
+
+  private ProcessorWorker() {
+  }
+
+  /**
+   * Serve jobs from the standard input until it is closed.
+   *
+   * <p>The standard output is reserved to the protocol, anything written on it by the processor (including during its
+   * creation) is redirected to the standard error.</p>
+   *
+   * @param processorFactory the factory creating the processor which executes the jobs.
+   *
+   * @throws IOException thrown if the standard streams cannot be read or written.
+   */
+  public static void run( final Supplier<? extends Processor> processorFactory ) throws IOException {
+    final var protocol = System.out;
+    System.setOut( System.err );
+    serve( processorFactory.get(), new BufferedReader( new InputStreamReader( System.in, StandardCharsets.UTF_8 ) ), protocol );
+  }
+
+  /**
+   * Serve jobs from a given reader until it is closed.
+   *
+   * @param processor the processor which executes the jobs.
+   * @param in        the reader to read jobs from.
+   * @param out       the stream to write results to.
+   *
+   * @throws IOException thrown if the jobs cannot be read.
+   */
+  public static void serve( final Processor processor, final BufferedReader in, final PrintStream out )
+      throws IOException {
+    String line;
+    while ( ( line = in.readLine() ) != null ) {
+      if ( line.isBlank() ) {
+        continue;
+      }
+      String answer;
+      try {
+        processor.execute( WorkerProtocol.decodeJob( line ) );
+        answer = WorkerProtocol.success( usedHeap() );
+      } catch ( final InterruptedException e ) {
+        Thread.currentThread().interrupt();
+        out.println( WorkerProtocol.failure( usedHeap(), "The worker has been interrupted" ) );
+        out.flush();
+        return;
+      } catch ( final Exception e ) {
+        answer = WorkerProtocol.failure( usedHeap(), String.valueOf( e.getMessage() ) );
+      }
+      out.println( answer );
+      out.flush();
+    }
+  }
+
+  private static long usedHeap() {
+    final var runtime = Runtime.getRuntime();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.pdf.processor.pool;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Configuration of a pool of workers.
+ *
+ * @param command          the command used to start a worker (see {@link ProcessorWorker}).
+ * @param size             the number of workers kept alive by the pool.
+ * @param maxJobsPerWorker the number of jobs after which a worker is recycled, {@code 0} means never.
+ * @param maxUsedHeap      the heap used (in bytes) above which a worker is recycled, {@code 0} means never.
+ * @param acquireTimeout   the maximum time to wait for an idle worker.
+ * @param jobTimeout       the maximum time a worker may spend on a job before it is stopped, {@code 0} means no limit.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public record WorkerPoolConfiguration( List<String> command,
+                                       int size,
+                                       int maxJobsPerWorker,
+                                       long maxUsedHeap,
+                                       Duration acquireTimeout,
+                                       Duration jobTimeout ) {
+
+  public WorkerPoolConfiguration {
+    if ( Objects.isNull( command ) || command.isEmpty() ) {
+      throw new IllegalArgumentException( "The command to start a worker is mandatory" );
+    }
+    if ( size < 1 ) {
+      throw new IllegalArgumentException( "The pool must contain at least one worker" );
+    }
+    Objects.requireNonNull( acquireTimeout, "The acquire timeout is mandatory" );
+    Objects.requireNonNull( jobTimeout, "The job timeout is mandatory" );
+    if ( jobTimeout.isNegative() ) {
+      throw new IllegalArgumentException( "The job timeout cannot be negative" );
+    }
+    command = List.copyOf( command );
+  }
+
+  /**
+   * Check if a worker must be recycled.
+   *
+   * @param jobs     the number of jobs executed by the worker.
+   * @param usedHeap the heap used by the worker.
+   *
+   * @return {@code true} if the worker must be replaced, {@code false} otherwise.
+   */
+  public boolean mustRecycle( final int jobs, final long usedHeap ) {
+    return ( maxJobsPerWorker > 0 && jobs >= maxJobsPerWorker ) || ( maxUsedHeap > 0 && usedHeap >= maxUsedHeap );
+  }
+}
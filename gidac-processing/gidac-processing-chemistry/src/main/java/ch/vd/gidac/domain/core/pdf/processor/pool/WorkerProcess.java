@@ -0,0 +1,201 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.pdf.processor.pool;
+
+import ch.vd.gidac.domain.core.concurrent.LoggingContext;
+import ch.vd.gidac.domain.core.pdf.processor.ProcessingRecipe;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A worker process of the pool.
+ *
+ * <p>A worker is used by a single job at a time, this class is therefore not thread safe.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+final class WorkerProcess implements AutoCloseable {
+
+  private static final Logger log = LogManager.getLogger( WorkerProcess.class );
+
+  private static final long STOP_TIMEOUT_SECONDS = 5;
+
+  private final Process process;
+
+  private final BufferedWriter input;
+
+  private final BufferedReader output;
+
+  private int jobs;
+
+  private long usedHeap;
+
+  /**
+   * Logging context of the job in progress, attached to the lines forwarded from the standard error.
+   */
+  private volatile LoggingContext jobContext = LoggingContext.EMPTY;
+
+  private WorkerProcess( final Process process ) {
+    this.process = process;
+    input = new BufferedWriter( new OutputStreamWriter( process.getOutputStream(), StandardCharsets.UTF_8 ) );
+    output = new BufferedReader( new InputStreamReader( process.getInputStream(), StandardCharsets.UTF_8 ) );
+  }
+
+  /**
+   * Start a new worker.
+   *
+   * @param command the command to run.
+   *
+   * @return the started worker.
+   *
+   * @throws IOException thrown if the process cannot be started.
+   */
+  static WorkerProcess start( final List<String> command ) throws IOException {
+    final var process = new ProcessBuilder( command ).start();
+    final var worker = new WorkerProcess( process );
+    final var pump = new Thread( worker::pumpErrors, "gidac-worker-" + process.pid() + "-stderr" );
+    pump.setDaemon( true );
+    pump.start();
+    log.debug( "Worker {} started", process.pid() );
+    return worker;
+  }
+
+  /**
+   * Forward the standard error of the worker (toolkit output) to the logs, in the logging context of the job in
+   * progress.
+   */
+  private void pumpErrors() {
+    try ( final var errors = new BufferedReader(
+        new InputStreamReader( process.getErrorStream(), StandardCharsets.UTF_8 ) ) ) {
+      errors.lines().forEach( line -> {
+        try ( final var ignored = jobContext.attach() ) {
+          log.debug( "[worker {}] {}", process.pid(), line );
+        }
+      } );
+    } catch ( final IOException | UncheckedIOException ignore ) {
+      // the worker is gone, nothing more to forward.
+    }
+  }
+
+  /**
+   * Send a job to the worker and wait for its result.
+   *
+   * <p>The read of the result cannot be interrupted: when the deadline of the job expires, the watchdog kills the
+   * worker, which ends the read. The worker must then be replaced.</p>
+   *
+   * @param recipe   the recipe to execute.
+   * @param timeout  the maximum time to wait for the result, {@link Duration#ZERO} to wait forever.
+   * @param watchdog the scheduler of the deadline of the job.
+   *
+   * @return the result sent back by the worker.
+   *
+   * @throws IOException thrown if the worker cannot be reached, exits during the job or misses the deadline.
+   */
+  WorkerResult execute( final ProcessingRecipe recipe, final Duration timeout,
+                        final ScheduledExecutorService watchdog ) throws IOException {
+    jobContext = LoggingContext.capture();
+    final var expired = new AtomicBoolean();
+    final ScheduledFuture<?> deadline = timeout.isZero() ? null : watchdog.schedule( () -> {
+      expired.set( true );
+      process.destroyForcibly();
+    }, timeout.toNanos(), TimeUnit.NANOSECONDS );
+    String line;
+    try {
+      input.write( WorkerProtocol.encodeJob( recipe ) );
+      input.newLine();
+      input.flush();
+      line = output.readLine();
+    } catch ( final IOException e ) {
+      if ( !expired.get() ) {
+        throw e;
+      }
+      line = null;
+    } finally {
+      if ( null != deadline ) {
+        deadline.cancel( false );
+      }
+      jobContext = LoggingContext.EMPTY;
+    }
+    if ( expired.get() ) {
+      throw new IOException( "The worker " + process.pid() + " did not complete " + recipe.ditaMap() + " within "
+          + timeout + ", it has been stopped" );
+    }
+    if ( line == null ) {
+      throw new IOException( "The worker " + process.pid() + " exited unexpectedly" );
+    }
+    jobs++;
+    final var result = WorkerProtocol.decodeResult( line );
+    usedHeap = result.usedHeap();
+    return result;
+  }
+
+  int getJobs() {
+    return jobs;
+  }
+
+  long getUsedHeap() {
+    return usedHeap;
+  }
+
+  long pid() {
+    return process.pid();
+  }
+
+  boolean isAlive() {
+    return process.isAlive();
+  }
+
+  /**
+   * Stop the worker: its standard input is closed and the process is killed if it does not exit in time.
+   */
+  @Override
+  public void close() {
+    log.debug( "Stopping worker {} after {} jobs", process.pid(), jobs );
+    try {
+      input.close();
+      if ( !process.waitFor( STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS ) ) {
+        process.destroyForcibly();
+      }
+    } catch ( final IOException e ) {
+      process.destroyForcibly();
+    } catch ( final InterruptedException e ) {
+      process.destroyForcibly();
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.pdf.processor.pool;
+
+import ch.vd.gidac.domain.core.pdf.processor.ProcessingRecipe;
+import org.apache.commons.lang3.StringUtils;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Line based protocol used between the pool and its workers.
+ *
+ * <p>A job is a single line holding the url-encoded fields of the recipe separated by tabulations. The worker answers
+ * with a single line:<br/><blockquote><pre>
+ *   OK &lt;used heap&gt;
+ *   KO &lt;used heap&gt; &lt;url-encoded message&gt;
+ * </pre></blockquote></p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public final class WorkerProtocol {
+
+  private static final String SEPARATOR = "\t";
+
+  private static final String SUCCESS = "OK";
+
+  private static final String FAILURE = "KO";
+
+  private WorkerProtocol() {
+  }
+
+  private static String encode( final String value ) {
+    return URLEncoder.encode( StringUtils.defaultString( value ), StandardCharsets.UTF_8 );
+  }
+
+  private static String decode( final String value ) {
+    return URLDecoder.decode( value, StandardCharsets.UTF_8 );
+  }
+
+  /**
+   * Encode a recipe as a job line.
+   *
+   * @param recipe the recipe to encode.
+   *
+   * @return the job line (without line separator).
+   */
+  public static String encodeJob( final ProcessingRecipe recipe ) {
+    return String.join( SEPARATOR,
+        encode( recipe.executable() ),
+        encode( recipe.tmpDir() ),
+        encode( recipe.ditaMap() ),
+        encode( recipe.outputDir() ),
+        encode( recipe.format() ),
+        encode( recipe.style() ),
+        Boolean.toString( recipe.verbose() ) );
+  }
+
+  /**
+   * Decode a job line into a recipe.
+   *
+   * @param line the job line.
+   *
+   * @return the recipe to execute.
+   *
+   * @throws IllegalArgumentException thrown if the line is not a valid job.
+   */
+  public static ProcessingRecipe decodeJob( final String line ) {
+    final var fields = line.split( SEPARATOR, -1 );
+    if ( fields.length != 7 ) {
+      throw new IllegalArgumentException( "Invalid job line, 7 fields expected but " + fields.length + " found" );
+    }
+    return ProcessingRecipe.builder()
+        .executable( decode( fields[0] ) )
+        .tmpDir( decode( fields[1] ) )
+        .ditaMap( decode( fields[2] ) )
+        .outputDir( decode( fields[3] ) )
+        .format( decode( fields[4] ) )
+        .style( decode( fields[5] ) )
+        .verbose( Boolean.parseBoolean( fields[6] ) )
+        .build();
+  }
+
+  /**
+   * Encode the answer of a successful job.
+   *
+   * @param usedHeap the heap used by the worker.
+   *
+   * @return the answer line.
+   */
+  public static String success( final long usedHeap ) {
+    return SUCCESS + " " + usedHeap;
+  }
+
+  /**
+   * Encode the answer of a failed job.
+   *
+   * @param usedHeap the heap used by the worker.
+   * @param message  the error message.
+   *
+   * @return the answer line.
+   */
+  public static String failure( final long usedHeap, final String message ) {
+    return FAILURE + " " + usedHeap + " " + encode( message );
+  }
+
+  /**
+   * Decode the answer of a worker.
+   *
+   * @param line the answer line.
+   *
+   * @return the result of the job.
+   *
+   * @throws IllegalArgumentException thrown if the line is not a valid answer.
+   */
+  public static WorkerResult decodeResult( final String line ) {
+    final var fields = line.split( " ", 3 );
+    if ( fields.length < 2 || !( SUCCESS.equals( fields[0] ) || FAILURE.equals( fields[0] ) ) ) {
+      throw new IllegalArgumentException( "Invalid answer from the worker: " + line );
+    }
+    final var usedHeap = Long.parseLong( fields[1] );
+    if ( SUCCESS.equals( fields[0] ) ) {
+      return new WorkerResult( true, usedHeap, null );
+    }
+    return new WorkerResult( false, usedHeap, fields.length == 3 ? decode( fields[2] ) : "" );
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.domain.core.pdf.processor.simulated;
+
+import ch.vd.gidac.domain.core.pdf.processor.ProcessingRecipe;
+import ch.vd.gidac.domain.core.pdf.processor.Processor;
+import org.apache.commons.io.FilenameUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Processor simulating the toolkit: it computes and waits according to its profile, then writes a pdf named after
+ * the ditamap in the output directory, as the toolkit does.
+ *
+ * <p>The pdf is a valid, empty document padded with a comment up to the size of the profile.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class SimulatedProcessor implements Processor {
+
+  private static final byte[] HEADER = ( "%PDF-1.4\n"
+      + "1 0 obj << /Type /Catalog /Pages 2 0 R >> endobj\n"
+      + "2 0 obj << /Type /Pages /Kids [] /Count 0 >> endobj\n" ).getBytes( StandardCharsets.US_ASCII );
+
+  private static final byte[] TRAILER = "trailer << /Root 1 0 R >>\n%%EOF\n".getBytes( StandardCharsets.US_ASCII );
+
+  private static final int CHUNK_SIZE = 64 * 1024;
+
+  private final SimulationProfile profile;
+
+  /**
+   * Create a new processor.
+   *
+   * @param profile the profile of the generation of each ditamap.
+   */
+  public SimulatedProcessor( final SimulationProfile profile ) {
+    this.profile = profile;
+  }
+
+  @Override
+  public void execute( final ProcessingRecipe recipe ) throws IOException, InterruptedException {
+    compute( profile.cpu().toNanos() );
+    if ( !profile.sleep().isZero() ) {
+      Thread.sleep( profile.sleep().toMillis() );
+    }
+    final var output = Files.createDirectories( Path.of( recipe.outputDir() ) );
+    write( output.resolve( FilenameUtils.getBaseName( recipe.ditaMap() ) + ".pdf" ) );
+  }
+
+  /**
+   * Keep the current thread busy for a given time.
+   *
+   * @return a value depending on the computation, so that it is not eliminated.
+   */
+  static long compute( final long nanos ) {
+    final var end = System.nanoTime() + nanos;
+    var value = 17L;
+    while ( System.nanoTime() < end ) {
+      for ( var i = 0; i < 1000; i++ ) {
+        value = value * 31 + ( value >>> 7 );
+      }
+    }
+    return value;
+  }
+
+  private void write( final Path pdf ) throws IOException {
+    try ( var out = Files.newOutputStream( pdf, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING ) ) {
+      out.write( HEADER );
+      var padding = profile.pdfSize() - HEADER.length - TRAILER.length;
+      // the padding is made of comment lines, ignored by the readers.
+      final var spaces = new byte[CHUNK_SIZE];
+      Arrays.fill( spaces, (byte) ' ' );
+      while ( padding >= 2 ) {
+        final var length = (int) Math.min( CHUNK_SIZE, padding );
+        out.write( '%' );
+        out.write( spaces, 0, length - 2 );
+        out.write( '\n' );
+        padding -= length;
+      }
+      if ( padding == 1 ) {
+        out.write( '\n' );
+      }
+      out.write( TRAILER );
+    }
+  }
+}
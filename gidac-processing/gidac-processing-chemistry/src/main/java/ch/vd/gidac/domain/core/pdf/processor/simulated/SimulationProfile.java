@@ -0,0 +1,51 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.domain.core.pdf.processor.simulated;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Profile of the generation of a ditamap by the {@link SimulatedProcessor}.
+ *
+ * @param cpu     the time spent computing, on the thread of the generation.
+ * @param sleep   the time spent waiting after the computation, as the request waits for the toolkit process.
+ * @param pdfSize the size of the generated pdf, in bytes.
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public record SimulationProfile( Duration cpu, Duration sleep, long pdfSize ) {
+
+  public SimulationProfile {
+    Objects.requireNonNull( cpu, "The cpu time is mandatory" );
+    Objects.requireNonNull( sleep, "The sleep time is mandatory" );
+    if ( cpu.isNegative() || sleep.isNegative() ) {
+      throw new IllegalArgumentException( "The times of the simulation cannot be negative" );
+    }
+    if ( pdfSize < 0 ) {
+      throw new IllegalArgumentException( "The size of the pdf cannot be negative" );
+    }
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.pdf.processor.pool;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Worker used by the tests: it writes its pid in the output directory, fails on ditamaps containing "fail" and never
+ * answers on ditamaps containing "hang".
+ */
+public final class EchoWorker {
+
+  private EchoWorker() {
+  }
+
+  public static void main( final String[] args ) throws IOException {
+    ProcessorWorker.run( () -> recipe -> {
+      if ( recipe.ditaMap().contains( "hang" ) ) {
+        Thread.sleep( Long.MAX_VALUE );
+      }
+      if ( recipe.ditaMap().contains( "fail" ) ) {
+        throw new IOException( "Cannot process " + recipe.ditaMap() );
+      }
+      final var output = Files.createDirectories( Path.of( recipe.outputDir() ) );
+      Files.writeString( output.resolve( "pid" ), Long.toString( ProcessHandle.current().pid() ) );
+    } );
+  }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.pdf.processor.pool;
+
+import ch.vd.gidac.domain.core.pdf.processor.ProcessingRecipe;
+import org.apache.commons.io.file.PathUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PooledProcessorTest {
+
+  private Path root;
+
+  private PooledProcessor processor;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    root = Files.createDirectories( Path.of( "/tmp/gidac", UUID.randomUUID().toString() ) );
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    if ( processor != null ) {
+      processor.close();
+    }
+    PathUtils.deleteDirectory( root );
+  }
+
+  private static WorkerPoolConfiguration configuration( final int size, final int maxJobs ) {
+    return configuration( size, maxJobs, Duration.ZERO );
+  }
+
+  private static WorkerPoolConfiguration configuration( final int size, final int maxJobs,
+                                                        final Duration jobTimeout ) {
+    return new WorkerPoolConfiguration( List.of(
+        Path.of( System.getProperty( "java.home" ), "bin", "java" ).toString(),
+        "-cp",
+        System.getProperty( "java.class.path" ),
+        EchoWorker.class.getName() ), size, maxJobs, 0, Duration.ofSeconds( 30 ), jobTimeout );
+  }
+
+  private ProcessingRecipe recipe( final String ditaMap ) {
+    return ProcessingRecipe.builder()
+        .executable( "dita" )
+        .tmpDir( root.resolve( "tmp" ).toString() )
+        .ditaMap( ditaMap )
+        .outputDir( root.resolve( "output" ).toString() )
+        .format( "pdf" )
+        .build();
+  }
+
+  private String pid() throws IOException {
+    return Files.readString( root.resolve( "output" ).resolve( "pid" ) );
+  }
+
+  @Test
+  void reuseWarmWorker() throws IOException, InterruptedException {
+    // GIVEN
+    processor = new PooledProcessor( configuration( 1, 0 ) );
+
+    // WHEN
+    processor.execute( recipe( "first.ditamap" ) );
+    final var first = pid();
+    processor.execute( recipe( "second.ditamap" ) );
+
+    // THEN
+    assertEquals( first, pid() );
+    assertNotEquals( Long.toString( ProcessHandle.current().pid() ), first );
+  }
+
+  @Test
+  void recycleWorkerAfterMaxJobs() throws IOException, InterruptedException {
+    // GIVEN
+    processor = new PooledProcessor( configuration( 1, 1 ) );
+
+    // WHEN
+    processor.execute( recipe( "first.ditamap" ) );
+    final var first = pid();
+    processor.execute( recipe( "second.ditamap" ) );
+
+    // THEN
+    assertNotEquals( first, pid() );
+  }
+
+  @Test
+  void reportFailureAndKeepWorker() throws IOException, InterruptedException {
+    // GIVEN
+    processor = new PooledProcessor( configuration( 1, 0 ) );
+    processor.execute( recipe( "first.ditamap" ) );
+    final var first = pid();
+
+    // WHEN
+    final var exception = assertThrows( IOException.class, () -> processor.execute( recipe( "fail.ditamap" ) ) );
+    processor.execute( recipe( "second.ditamap" ) );
+
+    // THEN
+    assertEquals( "The processing of fail.ditamap fails: Cannot process fail.ditamap", exception.getMessage() );
+    assertEquals( first, pid() );
+  }
+
+  @Test
+  void replaceWorkerMissingTheDeadline() throws IOException, InterruptedException {
+    // GIVEN
+    processor = new PooledProcessor( configuration( 1, 0, Duration.ofSeconds( 2 ) ) );
+    processor.execute( recipe( "first.ditamap" ) );
+    final var first = pid();
+
+    // WHEN
+    final var exception = assertThrows( IOException.class, () -> processor.execute( recipe( "hang.ditamap" ) ) );
+    processor.execute( recipe( "second.ditamap" ) );
+
+    // THEN
+    assertTrue( exception.getMessage().contains( "did not complete hang.ditamap within PT2S" ) );
+    assertNotEquals( first, pid() );
+    assertFalse( ProcessHandle.of( Long.parseLong( first ) ).map( ProcessHandle::isAlive ).orElse( false ) );
+  }
+
+  @Test
+  void neverStartMoreWorkersThanThePoolSize() throws Exception {
+    // GIVEN
+    processor = new PooledProcessor( configuration( 2, 0 ) );
+    // the idle workers die: the callers race to restore the capacity of the pool.
+    ProcessHandle.current().children().forEach( worker -> {
+      worker.destroyForcibly();
+      worker.onExit().join();
+    } );
+    final var executor = Executors.newFixedThreadPool( 6 );
+    final var start = new CountDownLatch( 1 );
+    final var maxLive = new AtomicInteger();
+
+    // WHEN
+    try {
+      final var jobs = new ArrayList<Future<?>>();
+      for ( var i = 0; i < 6; i++ ) {
+        final var ditaMap = "job-" + i + ".ditamap";
+        jobs.add( executor.submit( () -> {
+          start.await();
+          processor.execute( recipe( ditaMap ) );
+          maxLive.accumulateAndGet( processor.getLiveWorkers(), Math::max );
+          return null;
+        } ) );
+      }
+      start.countDown();
+      for ( final var job : jobs ) {
+        job.get( 60, TimeUnit.SECONDS );
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // THEN
+    assertTrue( maxLive.get() <= 2 );
+    assertTrue( processor.getLiveWorkers() <= 2 );
+    assertTrue( ProcessHandle.current().children().filter( ProcessHandle::isAlive ).count() <= 2 );
+  }
+}
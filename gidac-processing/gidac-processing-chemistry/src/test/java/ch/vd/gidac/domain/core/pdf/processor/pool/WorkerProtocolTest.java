@@ -0,0 +1,81 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.pdf.processor.pool;
+
+import ch.vd.gidac.domain.core.pdf.processor.ProcessingRecipe;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkerProtocolTest {
+
+  @Test
+  void encodeAndDecodeJob() {
+    // GIVEN
+    final var recipe = ProcessingRecipe.builder()
+        .executable( "/opt/dita ot/bin/dita" )
+        .tmpDir( "/tmp/gidac/tmp" )
+        .ditaMap( "/tmp/gidac/input/map\twith tab & accents é.ditamap" )
+        .outputDir( "/tmp/gidac/output" )
+        .format( "pdf" )
+        .verbose( true )
+        .build();
+
+    // WHEN
+    final var line = WorkerProtocol.encodeJob( recipe );
+    final var decoded = WorkerProtocol.decodeJob( line );
+
+    // THEN
+    assertFalse( line.contains( "\n" ) );
+    assertEquals( recipe.executable(), decoded.executable() );
+    assertEquals( recipe.tmpDir(), decoded.tmpDir() );
+    assertEquals( recipe.ditaMap(), decoded.ditaMap() );
+    assertEquals( recipe.outputDir(), decoded.outputDir() );
+    assertEquals( recipe.format(), decoded.format() );
+    assertEquals( "", decoded.style() );
+    assertTrue( decoded.verbose() );
+  }
+
+  @Test
+  void rejectInvalidJob() {
+    // WHEN / THEN
+    assertThrows( IllegalArgumentException.class, () -> WorkerProtocol.decodeJob( "only\ttwo" ) );
+  }
+
+  @Test
+  void encodeAndDecodeResults() {
+    // WHEN
+    final var success = WorkerProtocol.decodeResult( WorkerProtocol.success( 1024 ) );
+    final var failure = WorkerProtocol.decodeResult( WorkerProtocol.failure( 2048, "map not found: a b.ditamap" ) );
+
+    // THEN
+    assertTrue( success.success() );
+    assertEquals( 1024, success.usedHeap() );
+    assertFalse( failure.success() );
+    assertEquals( 2048, failure.usedHeap() );
+    assertEquals( "map not found: a b.ditamap", failure.message() );
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.domain.core.pdf.processor.simulated;
+
+import ch.vd.gidac.domain.core.pdf.processor.ProcessingRecipe;
+import org.apache.commons.io.file.PathUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimulatedProcessorTest {
+
+  @Test
+  void writeThePdfOfTheProfile() throws IOException, InterruptedException {
+    // GIVEN
+    final var root = Path.of( "/tmp/gidac", UUID.randomUUID().toString() );
+    final var processor = new SimulatedProcessor( new SimulationProfile( Duration.ofMillis( 5 ), Duration.ofMillis( 5 ),
+        100 * 1024 + 1 ) );
+    final var recipe = ProcessingRecipe.builder()
+        .executable( "simulated" )
+        .tmpDir( root.resolve( "tmp" ).toString() )
+        .ditaMap( root.resolve( "input/flowers/flowers.ditamap" ).toString() )
+        .outputDir( root.resolve( "output" ).toString() )
+        .format( "pdf" )
+        .build();
+
+    // WHEN
+    final var start = System.nanoTime();
+    processor.execute( recipe );
+    final var elapsed = System.nanoTime() - start;
+
+    // THEN
+    final var pdf = root.resolve( "output/flowers.pdf" );
+    assertEquals( 100 * 1024 + 1, Files.size( pdf ) );
+    final var content = Files.readString( pdf, StandardCharsets.US_ASCII );
+    assertTrue( content.startsWith( "%PDF-1.4\n" ) );
+    assertTrue( content.endsWith( "trailer << /Root 1 0 R >>\n%%EOF\n" ) );
+    assertTrue( elapsed >= Duration.ofMillis( 10 ).toNanos() );
+    PathUtils.deleteDirectory( root );
+  }
+
+  @Test
+  void rejectNegativeProfile() {
+    // WHEN / THEN
+    assertThrows( IllegalArgumentException.class,
+        () -> new SimulationProfile( Duration.ofMillis( -1 ), Duration.ZERO, 0 ) );
+    assertThrows( IllegalArgumentException.class,
+        () -> new SimulationProfile( Duration.ZERO, Duration.ZERO, -1 ) );
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.pdf.ditaot;
+
+import ch.vd.gidac.domain.core.DitaMap;
+import ch.vd.gidac.domain.core.PdfGenerationException;
+import ch.vd.gidac.domain.core.WorkingDirectory;
+import ch.vd.gidac.domain.core.pdf.PdfGenerator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.dita.dost.ProcessorFactory;
+import org.dita.dost.exception.DITAOTException;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Pdf generator which runs the DITA-OT toolkit in the JVM of the application.
+ *
+ * <p>The {@link ProcessorFactory} is created once and shared by all generations, so the toolkit configuration and
+ * its plugins are only loaded once instead of forking a new {@code dita} process (and a new JVM) for each
+ * ditamap.</p>
+ *
+ * <p>Each generation uses its own processor and its own temporary directory, located in the temporary directory of
+ * the working directory. It is therefore safe to generate several pdfs at the same time.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class DitaOtPdfGenerator implements PdfGenerator {
+
+  private static final Logger log = LogManager.getLogger( DitaOtPdfGenerator.class );
+
+  private static final String TRANSTYPE = "pdf";
+
+  /**
+   * Name of the property used by the toolkit to create the temporary directory of a transformation.
+   */
+  private static final String BASE_TEMP_DIR = "base.temp.dir";
+
+  private static final String STYLE = "args.css";
+
+  private static final String PLUGINS_DIRECTORY = "plugins";
+
+  private final ProcessorFactory processorFactory;
+
+  private final String toolkit;
+
+  /**
+   * Create a new generator for a given toolkit installation.
+   *
+   * @param toolkitPath the path to the root directory of the DITA-OT toolkit (not to its {@code dita} launcher).
+   *
+   * @throws IllegalArgumentException thrown if the path is not the root directory of a toolkit.
+   */
+  public DitaOtPdfGenerator( final String toolkitPath ) {
+    this( ProcessorFactory.newInstance( toolkitHome( toolkitPath ).toFile() ), toolkitPath );
+  }
+
+  /**
+   * Create a new generator using an already configured factory.
+   *
+   * @param processorFactory the factory to use to create processors.
+   */
+  public DitaOtPdfGenerator( final ProcessorFactory processorFactory ) {
+    this( processorFactory, "factory@" + System.identityHashCode( processorFactory ) );
+  }
+
+  private DitaOtPdfGenerator( final ProcessorFactory processorFactory, final String toolkit ) {
+    this.processorFactory = processorFactory;
+    this.toolkit = toolkit;
+  }
+
+  /**
+   * Check that a path is the root directory of a toolkit.
+   *
+   * @param toolkitPath the path to check.
+   *
+   * @return the absolute path to the toolkit.
+   *
+   * @throws IllegalArgumentException thrown if the path is not the root directory of a toolkit.
+   */
+  static Path toolkitHome( final String toolkitPath ) {
+    if ( null == toolkitPath || toolkitPath.isBlank() ) {
+      throw new IllegalArgumentException( "The root directory of the DITA-OT toolkit is required" );
+    }
+    final var home = Path.of( toolkitPath ).toAbsolutePath();
+    if ( !Files.isDirectory( home.resolve( PLUGINS_DIRECTORY ) ) ) {
+      throw new IllegalArgumentException( home + " is not the root directory of a DITA-OT toolkit (no "
+          + PLUGINS_DIRECTORY + " directory), the launcher of the toolkit is not supported here" );
+    }
+    return home;
+  }
+
+  @Override
+  public void generatePdf( final WorkingDirectory directory, final DitaMap ditaMap ) {
+    final var input = directory.inputDirectory().resolve( ditaMap.value() );
+    try {
+      transform( input, directory.outputDirectory(), directory.tmpDirectory(), TRANSTYPE, null );
+    } catch ( final DITAOTException | IOException | IllegalArgumentException exception ) {
+      // IllegalArgumentException: the transtype is not provided by the plugins of the toolkit
+      throw new PdfGenerationException( "The generation of " + ditaMap.value() + " fails", exception );
+    }
+  }
+
+  /**
+   * Run a transformation of the toolkit.
+   *
+   * @param input     the ditamap to transform.
+   * @param outputDir the directory to write the outputs into.
+   * @param tmpDir    the directory of the temporary files of the transformation.
+   * @param transtype the type of the transformation.
+   * @param style     the stylesheet to apply, {@code null} or empty for the default one.
+   *
+   * @throws DITAOTException          thrown if the transformation fails.
+   * @throws IOException              thrown if the temporary directory cannot be created.
+   * @throws IllegalArgumentException thrown if the toolkit does not provide the transtype.
+   */
+  void transform( final Path input, final Path outputDir, final Path tmpDir, final String transtype,
+                  final String style ) throws DITAOTException, IOException {
+    log.debug( "Generating the {} of {} in the JVM", transtype, input );
+    final var tmpDirectory = Files.createDirectories( tmpDir ).toAbsolutePath();
+    final var processor = processorFactory.newProcessor( transtype )
+        .setInput( input.toAbsolutePath().toFile() )
+        .setOutputDir( outputDir.toAbsolutePath().toFile() )
+        .setProperty( BASE_TEMP_DIR, tmpDirectory.toString() )
+        .setLogger( LoggerFactory.getLogger( DitaOtPdfGenerator.class ) );
+    if ( null != style && !style.isEmpty() ) {
+      processor.setProperty( STYLE, style );
+    }
+    processor.run();
+  }
+
+  @Override
+  public String fingerprint() {
+    return String.join( "|", getClass().getName(), toolkit, TRANSTYPE );
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.pdf.ditaot;
+
+import ch.vd.gidac.domain.core.pdf.processor.ProcessingRecipe;
+import ch.vd.gidac.domain.core.pdf.processor.Processor;
+import org.dita.dost.exception.DITAOTException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Processor running the recipes with a DITA-OT toolkit loaded in the current JVM.
+ *
+ * <p>The executable of the recipe is ignored, the toolkit is the one given at the creation of the processor. The
+ * transformations are run by a {@link DitaOtPdfGenerator}.</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public class DitaOtProcessor implements Processor {
+
+  private final DitaOtPdfGenerator generator;
+
+  /**
+   * Create a new processor for a given toolkit installation.
+   *
+   * @param toolkitPath the path to the root directory of the DITA-OT toolkit.
+   *
+   * @throws IllegalArgumentException thrown if the path is not the root directory of a toolkit.
+   */
+  public DitaOtProcessor( final String toolkitPath ) {
+    generator = new DitaOtPdfGenerator( toolkitPath );
+  }
+
+  @Override
+  public void execute( final ProcessingRecipe recipe ) throws IOException {
+    try {
+      generator.transform( Path.of( recipe.ditaMap() ), Path.of( recipe.outputDir() ), Path.of( recipe.tmpDir() ),
+          recipe.format(), recipe.style() );
+    } catch ( final DITAOTException | IllegalArgumentException e ) {
+      throw new IOException( "The processing of " + recipe.ditaMap() + " fails", e );
+    }
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package ch.vd.gidac.domain.core.pdf.ditaot;
+
+import ch.vd.gidac.domain.core.pdf.processor.pool.ProcessorWorker;
+
+import java.io.IOException;
+
+/**
+ * Entry point of a pooled worker keeping a DITA-OT toolkit warm.
+ *
+ * <p>Usage: {@code java -cp <classpath> ch.vd.gidac.domain.core.pdf.ditaot.DitaOtWorker <toolkit path>}</p>
+ *
+ * @version 0.0.1
+ * @since 0.0.1
+ */
+public final class DitaOtWorker {
+
+  private DitaOtWorker() {
+  }
+
+  public static void main( final String[] args ) throws IOException {
+    if ( args.length != 1 ) {
+      System.err.println( "Usage: DitaOtWorker <toolkit path>" );
+      System.exit( 2 );
+    }
+    ProcessorWorker.run( () -> new DitaOtProcessor( args[0] ) );
+  }
+}
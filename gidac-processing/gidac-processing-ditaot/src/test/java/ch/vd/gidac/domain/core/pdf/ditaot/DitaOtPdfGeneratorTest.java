@@ -0,0 +1,109 @@
+/*
+ * Copyright(c) 2022 mehdi.lefebvre@gmail.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package ch.vd.gidac.domain.core.pdf.ditaot;
+
+import ch.vd.gidac.domain.core.DitaMap;
+import ch.vd.gidac.domain.core.PdfGenerationException;
+import ch.vd.gidac.domain.core.WorkingDirectory;
+import org.apache.commons.io.file.PathUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DitaOtPdfGeneratorTest {
+
+  /**
+   * Root directory of a DITA-OT installation, to run the generation with a real toolkit.
+   */
+  private static final String TOOLKIT_PROPERTY = "gidac.dita.home";
+
+  private Path root;
+
+  private WorkingDirectory workingDirectory;
+
+  @BeforeEach
+  void prepareWorkingDirectory() throws IOException {
+    root = Path.of( "/tmp/gidac", UUID.randomUUID().toString() );
+    final var input = Files.createDirectories( root.resolve( "input" ) );
+    final var output = Files.createDirectories( root.resolve( "output" ) );
+    PathUtils.copyDirectory( Path.of( "src/test/resources/input/gidac-flowers" ), input );
+    workingDirectory = WorkingDirectory.create( root, input, output );
+  }
+
+  @AfterEach
+  void cleanupWorkingDirectory() throws IOException {
+    PathUtils.deleteDirectory( root );
+  }
+
+  @Test
+  void rejectTheLauncherOfTheToolkit() throws IOException {
+    // GIVEN
+    final var launcher = Files.createFile( root.resolve( "dita" ) );
+
+    // WHEN / THEN
+    final var exception = assertThrows( IllegalArgumentException.class,
+        () -> new DitaOtPdfGenerator( launcher.toString() ) );
+    assertTrue( exception.getMessage().contains( "not the root directory of a DITA-OT toolkit" ) );
+    assertThrows( IllegalArgumentException.class, () -> new DitaOtPdfGenerator( "" ) );
+  }
+
+  @Test
+  void reportAToolkitWithoutPdfPlugin() throws IOException {
+    // GIVEN
+    final var toolkit = Files.createDirectories( root.resolve( "toolkit" ).resolve( "plugins" ) ).getParent();
+    final var generator = new DitaOtPdfGenerator( toolkit.toString() );
+    final var ditaMap = DitaMap.fromPath( Path.of( "flowers/flowers.ditamap" ) );
+
+    // WHEN / THEN
+    final var exception = assertThrows( PdfGenerationException.class,
+        () -> generator.generatePdf( workingDirectory, ditaMap ) );
+    assertEquals( "The generation of flowers/flowers.ditamap fails", exception.getMessage() );
+    assertTrue( generator.fingerprint().contains( toolkit.toString() ) );
+  }
+
+  @Test
+  @EnabledIfSystemProperty( named = TOOLKIT_PROPERTY, matches = ".+" )
+  void generateThePdfOfADitaMap() throws IOException {
+    // GIVEN
+    final var generator = new DitaOtPdfGenerator( System.getProperty( TOOLKIT_PROPERTY ) );
+
+    // WHEN
+    generator.generatePdf( workingDirectory, DitaMap.fromPath( Path.of( "flowers/flowers.ditamap" ) ) );
+
+    // THEN
+    assertFalse( workingDirectory.listOutputFiles().isEmpty() );
+    assertTrue( Files.exists( workingDirectory.outputDirectory().resolve( "flowers.pdf" ) ) );
+  }
+}